@@ -3,20 +3,17 @@ package com.bookreview.book;
 import com.bookreview.review.Review;
 import com.bookreview.user.User;
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -25,11 +22,14 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -45,18 +45,28 @@ import java.util.Set;
  * Book entity representing a book in the platform.
  */
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_published_year", columnList = "published_year"),
+        @Index(name = "idx_books_average_rating", columnList = "average_rating"),
+        @Index(name = "idx_books_total_reviews", columnList = "total_reviews"),
+        @Index(name = "idx_books_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_weighted_score_id", columnList = "weighted_score DESC, id DESC"),
+        @Index(name = "idx_books_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(exclude = {"reviews", "favoritedByUsers"})
-@ToString(exclude = {"reviews", "favoritedByUsers"})
+@EqualsAndHashCode(exclude = {"reviews", "favoritedByUsers", "genreMask"})
+@ToString(exclude = {"reviews", "favoritedByUsers", "genreMask"})
 @EntityListeners(AuditingEntityListener.class)
 public class Book {
 
+    // Pooled sequence rather than an identity column, so Hibernate can batch inserts of new books
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -76,14 +86,18 @@ public class Book {
     @Column(name = "cover_image_url")
     private String coverImageUrl;
 
-    @ElementCollection(targetClass = Genre.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "book_genres", joinColumns = @JoinColumn(name = "book_id"))
-    @Column(name = "genre")
+    @Convert(converter = GenreSetConverter.class)
+    @Column(name = "genre_mask", nullable = false)
     @NotEmpty(message = "At least one genre is required")
     @Builder.Default
     private Set<Genre> genres = new HashSet<>();
 
+    // Read-only view of the same column, so queries can test genre bits with bitand()
+    @Column(name = "genre_mask", insertable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long genreMask;
+
     @Column(name = "published_year")
     @Min(value = 1000, message = "Published year must be valid")
     @Max(value = 2100, message = "Published year cannot be in the future")
@@ -100,6 +114,35 @@ public class Book {
     @Builder.Default
     private Integer totalReviews = 0;
 
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "one_star_count", nullable = false)
+    @Builder.Default
+    private Integer oneStarCount = 0;
+
+    @Column(name = "two_star_count", nullable = false)
+    @Builder.Default
+    private Integer twoStarCount = 0;
+
+    @Column(name = "three_star_count", nullable = false)
+    @Builder.Default
+    private Integer threeStarCount = 0;
+
+    @Column(name = "four_star_count", nullable = false)
+    @Builder.Default
+    private Integer fourStarCount = 0;
+
+    @Column(name = "five_star_count", nullable = false)
+    @Builder.Default
+    private Integer fiveStarCount = 0;
+
+    // Bayesian average used to rank top-rated books, see WeightedRating
+    @Column(name = "weighted_score", precision = 6, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal weightedScore = BigDecimal.ZERO;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -116,25 +159,6 @@ public class Book {
     @Builder.Default
     private Set<User> favoritedByUsers = new java.util.HashSet<>();
 
-    /**
-     * Calculate and update average rating from reviews.
-     */
-    public void updateAverageRating() {
-        if (reviews.isEmpty()) {
-            this.averageRating = BigDecimal.ZERO;
-            this.totalReviews = 0;
-            return;
-        }
-
-        double average = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-
-        this.averageRating = BigDecimal.valueOf(average).setScale(2, java.math.RoundingMode.HALF_UP);
-        this.totalReviews = reviews.size();
-    }
-
     /**
      * Check if book has minimum reviews for reliable rating.
      *
@@ -0,0 +1,97 @@
+package com.bookreview.book;
+
+import com.bookreview.book.BookCaches.GenrePageKey;
+import com.bookreview.book.BookCaches.RatingState;
+import com.bookreview.book.BookCaches.TopRatedPageKey;
+import com.bookreview.cache.CacheInvalidationBus;
+import com.bookreview.cache.HttpCachePurger;
+import com.bookreview.cache.SurrogateKeys;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Evicts the cached book details and listing pages that a committed book change makes stale, on every node
+ * through the {@link CacheInvalidationBus}.
+ * <p>
+ * Details are evicted by ID, except for new books. Genre pages are evicted for the book's genres before and after the change,
+ * since a book entering, leaving or re-sorting within a genre shifts every page of it. Top-rated pages are
+ * evicted for the listings whose filters the book passed before or after the change. When the previous
+ * state is unknown (deletes, recalculations) the whole listing cache is cleared. A read that started
+ * before the commit can still store the old page after eviction; the cache TTL bounds how long it lives.
+ * CDN copies of the book's responses are purged by surrogate key.
+ */
+@Component
+public class BookCacheEvictor {
+
+    private final CacheInvalidationBus invalidationBus;
+    private final HttpCachePurger httpCachePurger;
+
+    public BookCacheEvictor(final CacheInvalidationBus invalidationBus, final HttpCachePurger httpCachePurger) {
+        this.invalidationBus = invalidationBus;
+        this.httpCachePurger = httpCachePurger;
+        invalidationBus.registerMatcher(BookCaches.GENRE_PAGES, GenrePageKey.class,
+                (cachedKey, genre) -> cachedKey.genre().name().equals(genre));
+        invalidationBus.registerMatcher(BookCaches.TOP_RATED_PAGES, TopRatedPageKey.class,
+                TopRatedPageKey::admitsAny);
+    }
+
+    /**
+     * Evict cache entries affected by a committed book change.
+     *
+     * @param event book changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.CREATED) {
+            // Nothing is cached under a new ID yet, so bulk imports do not send an eviction per book
+            httpCachePurger.purge(SurrogateKeys.BOOKS);
+        } else {
+            // Review responses show the book's title
+            httpCachePurger.purge(SurrogateKeys.book(event.getBookId()), SurrogateKeys.BOOKS,
+                    SurrogateKeys.bookReviews(event.getBookId()));
+            invalidationBus.evict(BookCaches.DETAILS, event.getBookId());
+        }
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            // The deleted book's genres and rating are gone with it
+            invalidationBus.clear(BookCaches.GENRE_PAGES);
+            invalidationBus.clear(BookCaches.TOP_RATED_PAGES);
+            return;
+        }
+
+        Book book = event.getBook();
+        Set<Genre> genres = new HashSet<>(book.getGenres());
+        if (event.getPreviousGenres() != null) {
+            genres.addAll(event.getPreviousGenres());
+        }
+        genres.forEach(genre -> invalidationBus.evict(BookCaches.GENRE_PAGES, genre.name()));
+        evictTopRatedPages(event);
+    }
+
+    private void evictTopRatedPages(final BookChangedEvent event) {
+        Book book = event.getBook();
+        BigDecimal averageRating = book.getAverageRating() != null ? book.getAverageRating() : BigDecimal.ZERO;
+        int totalReviews = book.getTotalReviews() != null ? book.getTotalReviews() : 0;
+        RatingState current = new RatingState(averageRating, totalReviews);
+
+        if (event.getType() == BookChangedEvent.Type.CREATED || event.getPreviousGenres() != null) {
+            // The rating did not change, so only listings showing the book are stale
+            invalidationBus.evict(BookCaches.TOP_RATED_PAGES, BookCaches.ratingStates(current));
+        } else if (event.getRatingDelta() != null) {
+            RatingDelta delta = event.getRatingDelta();
+            long previousReviews = totalReviews - delta.reviewCount();
+            long previousSum = book.getRatingSum() - delta.ratingSum();
+            BigDecimal previousRating = previousReviews > 0
+                    ? BigDecimal.valueOf(previousSum).divide(BigDecimal.valueOf(previousReviews), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            invalidationBus.evict(BookCaches.TOP_RATED_PAGES,
+                    BookCaches.ratingStates(current, new RatingState(previousRating, previousReviews)));
+        } else {
+            invalidationBus.clear(BookCaches.TOP_RATED_PAGES);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bookreview.book;
+
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Names and keys of the read-through caches in front of {@link BookService}.
+ * Keys are records so {@link BookCacheEvictor} can evict exactly the pages a book change affects; the
+ * invalidation keys it broadcasts name a genre or a book's rating states rather than single cache keys.
+ */
+public final class BookCaches {
+
+    public static final String DETAILS = "bookDetails";
+    public static final String GENRE_PAGES = "bookGenrePages";
+    public static final String TOP_RATED_PAGES = "bookTopRatedPages";
+
+    private static final String STATE_SEPARATOR = ";";
+
+    private BookCaches() {
+    }
+
+    /**
+     * Key of a cached page of books in one genre.
+     *
+     * @param genre book genre
+     * @param pageable pagination information
+     */
+    public record GenrePageKey(Genre genre, Pageable pageable) {
+    }
+
+    /**
+     * Key of a cached page of top-rated books.
+     *
+     * @param minRating minimum rating, without trailing zeros
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     */
+    public record TopRatedPageKey(BigDecimal minRating, int minReviews, Pageable pageable) {
+
+        /**
+         * Check if a book with the given aggregates belongs in this listing.
+         *
+         * @param averageRating average rating
+         * @param totalReviews number of reviews
+         * @return true if the book passes the listing's filters
+         */
+        boolean admits(final BigDecimal averageRating, final long totalReviews) {
+            return totalReviews >= minReviews && averageRating.compareTo(minRating) >= 0;
+        }
+
+        /**
+         * Check if a book in any of the given rating states belongs in this listing.
+         *
+         * @param ratingStates invalidation key built by {@link #ratingStates}
+         * @return true if any state passes the listing's filters
+         */
+        boolean admitsAny(final String ratingStates) {
+            return Arrays.stream(ratingStates.split(STATE_SEPARATOR))
+                    .map(RatingState::parse)
+                    .anyMatch(state -> admits(state.averageRating(), state.totalReviews()));
+        }
+    }
+
+    /**
+     * Rating aggregates of a book at one point in time.
+     *
+     * @param averageRating average rating
+     * @param totalReviews number of reviews
+     */
+    public record RatingState(BigDecimal averageRating, long totalReviews) {
+
+        private static RatingState parse(final String state) {
+            int split = state.indexOf('/');
+            return new RatingState(new BigDecimal(state.substring(0, split)), Long.parseLong(state.substring(split + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return averageRating.toPlainString() + "/" + totalReviews;
+        }
+    }
+
+    /**
+     * Build the cache key of a genre page.
+     *
+     * @param genre book genre
+     * @param pageable pagination information
+     * @return cache key
+     */
+    public static GenrePageKey genrePage(final Genre genre, final Pageable pageable) {
+        return new GenrePageKey(genre, pageable);
+    }
+
+    /**
+     * Build the cache key of a top-rated page; equal ratings share a key whatever their scale.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     * @return cache key
+     */
+    public static TopRatedPageKey topRatedPage(final BigDecimal minRating, final int minReviews,
+                                               final Pageable pageable) {
+        return new TopRatedPageKey(minRating.stripTrailingZeros(), minReviews, pageable);
+    }
+
+    /**
+     * Build the invalidation key for top-rated pages from the rating states a book had, e.g. before and
+     * after a rating change.
+     *
+     * @param states rating states
+     * @return invalidation key
+     */
+    public static String ratingStates(final RatingState... states) {
+        return Arrays.stream(states).map(RatingState::toString).collect(Collectors.joining(STATE_SEPARATOR));
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookreview.book;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Projection with the book columns shown in book listings, selected without loading the entity.
+ *
+ * @param id book ID
+ * @param title title
+ * @param author author
+ * @param description description
+ * @param coverImageUrl cover image URL
+ * @param genres genres
+ * @param publishedYear published year
+ * @param averageRating average rating
+ * @param totalReviews number of reviews
+ * @param createdAt creation time
+ * @param updatedAt last update time
+ */
+public record BookCardView(Long id, String title, String author, String description, String coverImageUrl,
+                           Set<Genre> genres, Integer publishedYear, BigDecimal averageRating,
+                           Integer totalReviews, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    /**
+     * JPQL select clause building this view from a book aliased {@code b}.
+     */
+    public static final String SELECT = "SELECT new com.bookreview.book.BookCardView(b.id, b.title, b.author, "
+            + "b.description, b.coverImageUrl, b.genres, b.publishedYear, b.averageRating, b.totalReviews, "
+            + "b.createdAt, b.updatedAt) ";
+}
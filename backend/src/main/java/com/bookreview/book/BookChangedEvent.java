@@ -0,0 +1,87 @@
+package com.bookreview.book;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Application event published whenever a book is created, updated or deleted.
+ * Listeners that maintain in-memory views of the catalog react to it after the transaction commits.
+ */
+@Getter
+@ToString(exclude = "book")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookChangedEvent {
+
+    /**
+     * Kind of change that happened to the book.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long bookId;
+    private final Book book;
+    private final Type type;
+    // Genres before an edit of the book's details; null when the edit is not known to leave the rating alone
+    private final Set<Genre> previousGenres;
+    // Change applied to the rating aggregates; null when not a rating update or the change is unknown
+    private final RatingDelta ratingDelta;
+
+    /**
+     * Create an event for a newly created book.
+     *
+     * @param book the saved book
+     * @return book changed event
+     */
+    public static BookChangedEvent created(final Book book) {
+        return new BookChangedEvent(book.getId(), book, Type.CREATED, null, null);
+    }
+
+    /**
+     * Create an event for an updated book when it is not known what changed.
+     *
+     * @param book the saved book
+     * @return book changed event
+     */
+    public static BookChangedEvent updated(final Book book) {
+        return new BookChangedEvent(book.getId(), book, Type.UPDATED, null, null);
+    }
+
+    /**
+     * Create an event for an edit of a book's details, which leaves its rating unchanged.
+     *
+     * @param book the saved book
+     * @param previousGenres genres of the book before the edit
+     * @return book changed event
+     */
+    public static BookChangedEvent edited(final Book book, final Set<Genre> previousGenres) {
+        return new BookChangedEvent(book.getId(), book, Type.UPDATED, Set.copyOf(previousGenres), null);
+    }
+
+    /**
+     * Create an event for a change to a book's rating aggregates.
+     *
+     * @param book the book, reloaded after the change
+     * @param ratingDelta change that was applied
+     * @return book changed event
+     */
+    public static BookChangedEvent rated(final Book book, final RatingDelta ratingDelta) {
+        return new BookChangedEvent(book.getId(), book, Type.UPDATED, null, ratingDelta);
+    }
+
+    /**
+     * Create an event for a deleted book.
+     *
+     * @param bookId ID of the deleted book
+     * @return book changed event
+     */
+    public static BookChangedEvent deleted(final Long bookId) {
+        return new BookChangedEvent(bookId, null, Type.DELETED, null, null);
+    }
+}
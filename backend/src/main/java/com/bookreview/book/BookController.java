@@ -1,20 +1,34 @@
 package com.bookreview.book;
 
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.cache.HttpCaching;
+import com.bookreview.cache.SurrogateKeys;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.SliceDTO;
 import com.bookreview.dto.book.BookCreateDTO;
 import com.bookreview.dto.book.BookDTO;
+import com.bookreview.dto.book.BookFacetsDTO;
+import com.bookreview.dto.book.BookImportResultDTO;
+import com.bookreview.dto.book.BookRatingSummaryDTO;
 import com.bookreview.dto.book.BookSearchDTO;
+import com.bookreview.dto.book.BookSuggestionDTO;
 import com.bookreview.dto.book.BookUpdateDTO;
+import com.bookreview.search.BookSuggestIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -23,11 +37,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
- * REST controller for book endpoints.
+ * REST controller for book endpoints. Public reads answer conditional GETs, see {@link HttpCaching}.
  */
 @RestController
 @RequestMapping("/api/v1/books")
@@ -36,6 +54,10 @@ import java.util.Set;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookListingVersion bookListingVersion;
+    private final HttpCaching httpCaching;
 
     /**
      * Get all books with pagination and filtering.
@@ -70,14 +92,9 @@ public class BookController {
         log.debug("Getting books with filters - genres: {}, author: {}, title: {}, search: {}", 
                   genres, author, title, search);
 
-        // If simple search term is provided, use general search
-        if (search != null && !search.trim().isEmpty()) {
-            Page<BookDTO> books = bookService.searchBooks(search, pageable);
-            return ResponseEntity.ok(books);
-        }
-
-        // Build advanced search criteria
+        // All criteria are combined into one filtered search
         BookSearchDTO searchDTO = BookSearchDTO.builder()
+                .search(search)
                 .title(title)
                 .author(author)
                 .genres(genres)
@@ -89,8 +106,65 @@ public class BookController {
                 .minReviews(minReviews)
                 .build();
 
-        Page<BookDTO> books = bookService.searchBooksAdvanced(searchDTO, pageable);
-        return ResponseEntity.ok(books);
+        return listing(() -> ResponseEntity.ok(bookService.searchBooksAdvanced(searchDTO, pageable)));
+    }
+
+    /**
+     * Get books with pagination and filtering, without counting all matches. Selected by
+     * {@code slice=true}; accepts the same filters as the paged listing.
+     *
+     * @param pageable pagination parameters
+     * @param estimateTotal include a cached estimate of the total (default: false)
+     * @param criteria search criteria
+     * @return slice of books telling whether another page follows
+     */
+    @GetMapping(params = {"slice=true", "!cursor"})
+    public ResponseEntity<SliceDTO<BookDTO>> getAllBooksSlice(
+            @PageableDefault(size = 20) final Pageable pageable,
+            @RequestParam(defaultValue = "false") final boolean estimateTotal,
+            @ModelAttribute final BookSearchDTO criteria) {
+
+        log.debug("Getting books slice with criteria: {}", criteria);
+
+        return listing(() -> ResponseEntity.ok(
+                bookService.searchBooksAdvancedSlice(criteria, pageable, estimateTotal)));
+    }
+
+    /**
+     * Get books with cursor pagination and filtering. Selected by the presence of the {@code cursor}
+     * parameter; pass an empty cursor for the first page. Accepts the same filters as offset pagination.
+     *
+     * @param cursor cursor from a previous page, or empty for the first page
+     * @param size page size (default: 20, max: 100)
+     * @param sort sort on createdAt, averageRating, title or totalReviews (default: createdAt,desc)
+     * @param criteria search criteria
+     * @return page of books with next and previous cursors
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<BookDTO>> scrollBooks(
+            @RequestParam final String cursor,
+            @RequestParam(defaultValue = "20") final int size,
+            @SortDefault(sort = "createdAt", direction = Sort.Direction.DESC) final Sort sort,
+            @ModelAttribute final BookSearchDTO criteria) {
+
+        log.debug("Scrolling books with criteria: {}, sort: {}", criteria, sort);
+
+        return listing(() -> ResponseEntity.ok(bookService.scrollBooks(criteria, cursor, sort, size)));
+    }
+
+    /**
+     * Get facet counts for the catalog browsing filters. Accepts the same filters as listing books.
+     *
+     * @param criteria search criteria
+     * @return counts per genre, decade and minimum rating
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<BookFacetsDTO> getBookFacets(@ModelAttribute final BookSearchDTO criteria) {
+        log.debug("Getting book facets for criteria: {}", criteria);
+
+        return listing(() -> bookService.getBookFacets(criteria)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
     }
 
     /**
@@ -103,8 +177,44 @@ public class BookController {
     public ResponseEntity<BookDTO> getBookById(@PathVariable final Long id) {
         log.debug("Getting book by ID: {}", id);
 
-        return bookService.getBookById(id)
-                .map(book -> ResponseEntity.ok(book))
+        // Details may come from the cache, so their validators are taken from the cached book itself
+        return httpCaching.respond(bookService.getBookVersion(id),
+                () -> bookService.getBookById(id)
+                        .map(book -> ResponseEntity.ok(book))
+                        .orElse(ResponseEntity.notFound().build()),
+                book -> new ContentVersion(1, book.getUpdatedAt()),
+                SurrogateKeys.book(id));
+    }
+
+    /**
+     * Get the star rating distribution of a book.
+     *
+     * @param id book ID
+     * @return review counts per star rating
+     */
+    @GetMapping("/{id}/rating-summary")
+    public ResponseEntity<BookRatingSummaryDTO> getRatingSummary(@PathVariable final Long id) {
+        log.debug("Getting rating summary for book ID: {}", id);
+
+        return bookService.getRatingSummary(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the books most like a book.
+     *
+     * @param id book ID
+     * @param k maximum number of books (default: 10, at most 50)
+     * @return similar books, most similar first
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<BookDTO>> getSimilarBooks(@PathVariable final Long id,
+                                                         @RequestParam(defaultValue = "10") final int k) {
+        log.debug("Getting books similar to book ID: {}", id);
+
+        return bookService.getSimilarBooks(id, k)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -128,6 +238,40 @@ public class BookController {
         }
     }
 
+    /**
+     * Import books from newline-delimited JSON, one {@link BookCreateDTO} per line (Admin only).
+     *
+     * @param body request body
+     * @return import outcome with per-chunk throughput and rejected records
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResultDTO> importBooksNdjson(final InputStream body) throws IOException {
+        log.info("Importing books from NDJSON");
+        return ResponseEntity.ok(bookImportService.importNdjson(body));
+    }
+
+    /**
+     * Import books from CSV with a header row (Admin only).
+     *
+     * @param body request body
+     * @return import outcome with per-chunk throughput and rejected records
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResultDTO> importBooksCsv(final InputStream body) throws IOException {
+        log.info("Importing books from CSV");
+
+        try {
+            return ResponseEntity.ok(bookImportService.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            log.error("Error importing books: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Update an existing book (Admin only).
      *
@@ -185,8 +329,29 @@ public class BookController {
         
         log.debug("Getting top-rated books with min rating: {} and min reviews: {}", minRating, minReviews);
 
-        Page<BookDTO> topRatedBooks = bookService.getTopRatedBooks(minRating, minReviews, pageable);
-        return ResponseEntity.ok(topRatedBooks);
+        return listing(() -> ResponseEntity.ok(bookService.getTopRatedBooks(minRating, minReviews, pageable)));
+    }
+
+    /**
+     * Get top-rated books without counting all of them. Selected by {@code slice=true}.
+     *
+     * @param pageable pagination parameters
+     * @param minRating minimum rating (default: 4.0)
+     * @param minReviews minimum number of reviews (default: 5)
+     * @param estimateTotal include a cached estimate of the total (default: false)
+     * @return slice of top-rated books
+     */
+    @GetMapping(value = "/top-rated", params = "slice=true")
+    public ResponseEntity<SliceDTO<BookDTO>> getTopRatedBooksSlice(
+            @PageableDefault(size = 20) final Pageable pageable,
+            @RequestParam(defaultValue = "4.0") final BigDecimal minRating,
+            @RequestParam(defaultValue = "5") final int minReviews,
+            @RequestParam(defaultValue = "false") final boolean estimateTotal) {
+
+        log.debug("Getting top-rated books slice with min rating: {} and min reviews: {}", minRating, minReviews);
+
+        return listing(() -> ResponseEntity.ok(
+                bookService.getTopRatedBooksSlice(minRating, minReviews, pageable, estimateTotal)));
     }
 
     /**
@@ -194,23 +359,45 @@ public class BookController {
      *
      * @param title title search term
      * @param author author search term
+     * @param fuzzy also match misspelled terms (default: false)
      * @param pageable pagination parameters
-     * @return page of matching books
+     * @return page of matching books, with "did you mean" corrections when nothing matched exactly
      */
     @GetMapping("/search")
     public ResponseEntity<Page<BookDTO>> searchBooks(
             @RequestParam(required = false) final String title,
             @RequestParam(required = false) final String author,
+            @RequestParam(defaultValue = "false") final boolean fuzzy,
             @PageableDefault(size = 20) final Pageable pageable) {
         
-        log.debug("Searching books with title: {} and author: {}", title, author);
+        log.debug("Searching books with title: {} and author: {} (fuzzy: {})", title, author, fuzzy);
 
         if ((title == null || title.trim().isEmpty()) && (author == null || author.trim().isEmpty())) {
             return ResponseEntity.badRequest().build();
         }
 
-        Page<BookDTO> books = bookService.searchByTitleAndAuthor(title, author, pageable);
-        return ResponseEntity.ok(books);
+        return listing(() -> ResponseEntity.ok(bookService.searchByTitleAndAuthor(title, author, fuzzy, pageable)));
+    }
+
+    /**
+     * Autocomplete titles and authors for the search box.
+     *
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions (default: 10)
+     * @return matching books with ID, title and author only
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestionDTO>> suggestBooks(
+            @RequestParam final String prefix,
+            @RequestParam(defaultValue = "10") final int limit) {
+
+        if (prefix.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Suggestions lag book changes until the next rebuild, so they carry the version of that build
+        return httpCaching.respond(bookSuggestIndex.version(),
+                () -> ResponseEntity.ok(bookSuggestIndex.suggest(prefix, limit)), SurrogateKeys.BOOKS);
     }
 
     /**
@@ -227,8 +414,26 @@ public class BookController {
         
         log.debug("Getting books by genre: {}", genre);
 
-        Page<BookDTO> books = bookService.getBooksByGenre(genre, pageable);
-        return ResponseEntity.ok(books);
+        return listing(() -> ResponseEntity.ok(bookService.getBooksByGenre(genre, pageable)));
+    }
+
+    /**
+     * Get books by genre without counting all of them. Selected by {@code slice=true}.
+     *
+     * @param genre book genre
+     * @param pageable pagination parameters
+     * @param estimateTotal include a cached estimate of the total (default: false)
+     * @return slice of books in the genre
+     */
+    @GetMapping(value = "/genre/{genre}", params = "slice=true")
+    public ResponseEntity<SliceDTO<BookDTO>> getBooksByGenreSlice(
+            @PathVariable final Genre genre,
+            @PageableDefault(size = 20) final Pageable pageable,
+            @RequestParam(defaultValue = "false") final boolean estimateTotal) {
+
+        log.debug("Getting books slice by genre: {}", genre);
+
+        return listing(() -> ResponseEntity.ok(bookService.getBooksByGenreSlice(genre, pageable, estimateTotal)));
     }
 
     /**
@@ -245,7 +450,17 @@ public class BookController {
         
         log.debug("Getting books by published year: {}", year);
 
-        Page<BookDTO> books = bookService.getBooksByPublishedYear(year, pageable);
-        return ResponseEntity.ok(books);
+        return listing(() -> ResponseEntity.ok(bookService.getBooksByPublishedYear(year, pageable)));
+    }
+
+    /**
+     * Answer a book listing, with a 304 when no book has changed since the client's copy.
+     *
+     * @param response loads the listing
+     * @param <T> body type
+     * @return listing response
+     */
+    private <T> ResponseEntity<T> listing(final Supplier<ResponseEntity<T>> response) {
+        return httpCaching.respond(bookListingVersion.current(), response, SurrogateKeys.BOOKS);
     }
 }
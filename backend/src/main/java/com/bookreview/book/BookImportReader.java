@@ -0,0 +1,38 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookCreateDTO;
+
+import java.io.IOException;
+
+/**
+ * Reads the records of a bulk book import one at a time, so the body is never held in memory.
+ * A malformed record is returned with an error instead of failing the whole import.
+ */
+interface BookImportReader {
+
+    /**
+     * Read the next record.
+     *
+     * @return next record, or null at the end of the input
+     * @throws IOException if reading the input fails
+     */
+    Row next() throws IOException;
+
+    /**
+     * One record of the input.
+     *
+     * @param line line the record starts on, 1-based
+     * @param book parsed book, or null if the record is malformed
+     * @param error why the record could not be parsed, or null
+     */
+    record Row(long line, BookCreateDTO book, String error) {
+
+        static Row parsed(final long line, final BookCreateDTO book) {
+            return new Row(line, book, null);
+        }
+
+        static Row malformed(final long line, final String error) {
+            return new Row(line, null, error);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.dto.book.BookImportChunkDTO;
+import com.bookreview.dto.book.BookImportErrorDTO;
+import com.bookreview.dto.book.BookImportResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk book imports.
+ * <p>
+ * The body is read, validated and checked for duplicate titles one record at a time against the catalog's
+ * titles held in memory. Accepted books are written in chunks of {@code app.book-import.chunk-size}, each
+ * committed in its own transaction through {@link BookService#createBooks}, so a failed chunk does not undo
+ * the ones before it. Not transactional itself; the persistence context is cleared after every chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookImportService {
+
+    private final BookService bookService;
+    private final BookRepository bookRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.book-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.book-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Import books from newline-delimited JSON, one book per line.
+     *
+     * @param body request body, UTF-8
+     * @return import outcome
+     * @throws IOException if reading the body fails
+     */
+    public BookImportResultDTO importNdjson(final InputStream body) throws IOException {
+        return importBooks(new NdjsonBookImportReader(utf8(body), objectMapper));
+    }
+
+    /**
+     * Import books from CSV with a header row, see {@link CsvBookImportReader}.
+     *
+     * @param body request body, UTF-8
+     * @return import outcome
+     * @throws IOException if reading the body fails
+     * @throws IllegalArgumentException if the header row is missing or has no title column
+     */
+    public BookImportResultDTO importCsv(final InputStream body) throws IOException {
+        return importBooks(new CsvBookImportReader(utf8(body)));
+    }
+
+    private BookImportResultDTO importBooks(final BookImportReader reader) throws IOException {
+        long start = System.nanoTime();
+        BookImportResultDTO result = BookImportResultDTO.builder().build();
+        Set<String> titles = new HashSet<>(bookRepository.findAllTitles());
+        List<BookImportReader.Row> chunk = new ArrayList<>(chunkSize);
+
+        BookImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            result.setReceived(result.getReceived() + 1);
+            String error = validate(row);
+            if (error != null) {
+                result.setInvalid(result.getInvalid() + 1);
+                addError(result, row, error);
+                continue;
+            }
+            if (!titles.add(row.book().getTitle())) {
+                result.setDuplicates(result.getDuplicates() + 1);
+                addError(result, row, "Book with title '" + row.book().getTitle() + "' already exists");
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, result);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+
+        result.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Imported {} of {} books in {} ms: {} duplicates, {} invalid, {} in failed chunks",
+                result.getCreated(), result.getReceived(), result.getDurationMillis(), result.getDuplicates(),
+                result.getInvalid(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Check a record against the constraints on new books.
+     *
+     * @return why the record is invalid, or null if it is valid
+     */
+    private String validate(final BookImportReader.Row row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        Set<ConstraintViolation<BookCreateDTO>> violations = validator.validate(row.book());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void writeChunk(final List<BookImportReader.Row> chunk, final BookImportResultDTO result) {
+        int number = result.getChunks().size() + 1;
+        long start = System.nanoTime();
+        boolean committed;
+        try {
+            bookService.createBooks(chunk.stream().map(BookImportReader.Row::book).toList());
+            result.setCreated(result.getCreated() + chunk.size());
+            committed = true;
+        } catch (RuntimeException e) {
+            log.error("Bulk import chunk {} failed: {}", number, e.getMessage(), e);
+            result.setFailed(result.getFailed() + chunk.size());
+            addError(result, new BookImportErrorDTO(chunk.get(0).line(), null, "Chunk " + number + " of "
+                    + chunk.size() + " books was not written: " + e.getMessage()));
+            committed = false;
+        } finally {
+            // The books are committed or rolled back; keep them from piling up in an open-in-view session
+            entityManager.clear();
+        }
+
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        BookImportChunkDTO stats = BookImportChunkDTO.builder()
+                .chunk(number)
+                .firstLine(chunk.get(0).line())
+                .lastLine(chunk.get(chunk.size() - 1).line())
+                .books(chunk.size())
+                .committed(committed)
+                .durationMillis(nanos / 1_000_000)
+                .booksPerSecond(committed ? chunk.size() * 1e9 / nanos : 0)
+                .build();
+        result.getChunks().add(stats);
+        log.debug("Bulk import chunk {}: {}", number, stats);
+        chunk.clear();
+    }
+
+    private void addError(final BookImportResultDTO result, final BookImportReader.Row row, final String message) {
+        String title = row.book() != null ? row.book().getTitle() : null;
+        addError(result, new BookImportErrorDTO(row.line(), title, message));
+    }
+
+    private void addError(final BookImportResultDTO result, final BookImportErrorDTO error) {
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(error);
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static BufferedReader utf8(final InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bookreview.book;
+
+import com.bookreview.cache.CacheInvalidationBus;
+import com.bookreview.cache.ContentVersion;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the book listings for HTTP validators, kept in memory on each node: the number of book changes
+ * this node has applied and when it applied the last one.
+ * <p>
+ * Every book change evicts listing pages through the {@link CacheInvalidationBus}, and the version moves on
+ * only once this node has applied those evictions, local or from another node. The in-memory search, facet
+ * and top-rated indexes take the change when it commits, before its evictions are published. A listing
+ * loaded after reading the version therefore reflects every change the version counts. Nodes count
+ * separately, so a client moving between nodes gets a full response rather than a wrong 304. As with book
+ * details, a read that started before a commit can still store its old page after the eviction.
+ */
+@Component
+public class BookListingVersion {
+
+    private final AtomicReference<ContentVersion> current =
+            new AtomicReference<>(new ContentVersion(0, LocalDateTime.now()));
+
+    public BookListingVersion(final CacheInvalidationBus invalidationBus) {
+        invalidationBus.onApplied(this::advance, BookCaches.GENRE_PAGES, BookCaches.TOP_RATED_PAGES);
+    }
+
+    /**
+     * Get the current version of the book listings.
+     *
+     * @return listing version
+     */
+    public ContentVersion current() {
+        return current.get();
+    }
+
+    /**
+     * Count a book change whose listing evictions have been applied.
+     */
+    void advance() {
+        current.updateAndGet(version -> new ContentVersion(version.count() + 1, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bookreview.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically folds sharded rating counters into their books, one transaction per book.
+ * Only shards flagged pending by a review write are looked at, so an idle run costs one index lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookRatingFolder {
+
+    private final BookRatingShardRepository shardRepository;
+    private final BookRatingShardService shardService;
+
+    @Value("${app.ratings.fold-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Fold the pending rating changes of up to one batch of books.
+     *
+     * @return number of books folded
+     */
+    @Scheduled(fixedDelayString = "${app.ratings.fold-interval-ms:1000}")
+    public int foldPending() {
+        List<Long> bookIds = shardRepository.findBookIdsWithPendingChanges(PageRequest.of(0, batchSize));
+        int folded = 0;
+        for (Long bookId : bookIds) {
+            if (shardService.fold(bookId)) {
+                folded++;
+            }
+        }
+        if (folded > 0) {
+            log.debug("Folded rating shards into {} books", folded);
+        }
+        return folded;
+    }
+}
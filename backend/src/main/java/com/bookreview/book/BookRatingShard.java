@@ -0,0 +1,128 @@
+package com.bookreview.book;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * One of several counter rows holding rating changes not yet folded into a book.
+ * Review writes pick a random slot, so concurrent reviews of the same book rarely wait on one row.
+ */
+@Entity
+@Table(name = "book_rating_shards", indexes = {
+        @Index(name = "idx_book_rating_shards_pending", columnList = "pending, book_id")
+})
+@IdClass(BookRatingShard.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(exclude = "newShard")
+@ToString(exclude = "newShard")
+public class BookRatingShard implements Persistable<BookRatingShard.Key> {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Id
+    private Integer slot;
+
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "review_count", nullable = false)
+    @Builder.Default
+    private Integer reviewCount = 0;
+
+    @Column(name = "one_star_count", nullable = false)
+    @Builder.Default
+    private Integer oneStarCount = 0;
+
+    @Column(name = "two_star_count", nullable = false)
+    @Builder.Default
+    private Integer twoStarCount = 0;
+
+    @Column(name = "three_star_count", nullable = false)
+    @Builder.Default
+    private Integer threeStarCount = 0;
+
+    @Column(name = "four_star_count", nullable = false)
+    @Builder.Default
+    private Integer fourStarCount = 0;
+
+    @Column(name = "five_star_count", nullable = false)
+    @Builder.Default
+    private Integer fiveStarCount = 0;
+
+    // Set by every delta and cleared by the fold, so the folder finds pending books from the index on
+    // this flag instead of scanning every shard row of the catalog
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean pending = false;
+
+    // Shards are inserted once and then only changed by update queries. With assigned keys save() would
+    // otherwise select every new row before inserting it, which also rules out batching the inserts
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private boolean newShard = true;
+
+    @Override
+    public Key getId() {
+        return new Key(bookId, slot);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newShard;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newShard = false;
+    }
+
+    /**
+     * Get the pending change held by this slot.
+     *
+     * @return rating delta
+     */
+    public RatingDelta toDelta() {
+        return new RatingDelta(ratingSum, reviewCount, oneStarCount, twoStarCount, threeStarCount,
+                fourStarCount, fiveStarCount);
+    }
+
+    /**
+     * Composite key of a shard row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long bookId;
+        private Integer slot;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bookreview.book;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for BookRatingShard entity.
+ */
+@Repository
+public interface BookRatingShardRepository extends JpaRepository<BookRatingShard, BookRatingShard.Key> {
+
+    /**
+     * Find every shard of a book.
+     *
+     * @param bookId book ID
+     * @return shards
+     */
+    List<BookRatingShard> findByBookId(Long bookId);
+
+    /**
+     * Delete every shard of a book.
+     *
+     * @param bookId book ID
+     * @return number of deleted shards
+     */
+    @Modifying
+    @Query("DELETE FROM BookRatingShard s WHERE s.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * Add a rating delta to one shard of a book.
+     *
+     * @param bookId book ID
+     * @param slot shard slot
+     * @param delta change to add
+     * @return number of updated shards, 0 if the book has no such slot
+     */
+    default int addToSlot(final Long bookId, final int slot, final RatingDelta delta) {
+        return addToSlot(bookId, slot, delta.ratingSum(), Math.toIntExact(delta.reviewCount()),
+                Math.toIntExact(delta.oneStarCount()), Math.toIntExact(delta.twoStarCount()),
+                Math.toIntExact(delta.threeStarCount()), Math.toIntExact(delta.fourStarCount()),
+                Math.toIntExact(delta.fiveStarCount()));
+    }
+
+    /**
+     * Add deltas to one shard of a book and flag it as pending.
+     *
+     * @param bookId book ID
+     * @param slot shard slot
+     * @param ratingDelta change to the rating sum
+     * @param countDelta change to the number of reviews
+     * @param oneStarDelta change to the number of one-star reviews
+     * @param twoStarDelta change to the number of two-star reviews
+     * @param threeStarDelta change to the number of three-star reviews
+     * @param fourStarDelta change to the number of four-star reviews
+     * @param fiveStarDelta change to the number of five-star reviews
+     * @return number of updated shards
+     */
+    @Modifying
+    @Query("UPDATE BookRatingShard s SET s.ratingSum = s.ratingSum + :ratingDelta, " +
+           "s.reviewCount = s.reviewCount + :countDelta, " +
+           "s.oneStarCount = s.oneStarCount + :oneStarDelta, " +
+           "s.twoStarCount = s.twoStarCount + :twoStarDelta, " +
+           "s.threeStarCount = s.threeStarCount + :threeStarDelta, " +
+           "s.fourStarCount = s.fourStarCount + :fourStarDelta, " +
+           "s.fiveStarCount = s.fiveStarCount + :fiveStarDelta, s.pending = true " +
+           "WHERE s.bookId = :bookId AND s.slot = :slot")
+    int addToSlot(@Param("bookId") Long bookId, @Param("slot") int slot, @Param("ratingDelta") long ratingDelta,
+                  @Param("countDelta") int countDelta, @Param("oneStarDelta") int oneStarDelta,
+                  @Param("twoStarDelta") int twoStarDelta, @Param("threeStarDelta") int threeStarDelta,
+                  @Param("fourStarDelta") int fourStarDelta, @Param("fiveStarDelta") int fiveStarDelta);
+
+    /**
+     * Find and lock the shards of a book that hold unfolded changes.
+     *
+     * @param bookId book ID
+     * @return locked pending shards
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookRatingShard s WHERE s.bookId = :bookId AND s.pending = true")
+    List<BookRatingShard> findPendingByBookIdForUpdate(@Param("bookId") Long bookId);
+
+    /**
+     * Find books with unfolded rating changes, from the index on the pending flag.
+     *
+     * @param pageable batch size
+     * @return book IDs
+     */
+    @Query("SELECT DISTINCT s.bookId FROM BookRatingShard s WHERE s.pending = true")
+    List<Long> findBookIdsWithPendingChanges(Pageable pageable);
+
+    /**
+     * Zero the given shards of a book and clear their pending flag after their changes were folded into it.
+     *
+     * @param bookId book ID
+     * @param slots shard slots to zero
+     * @return number of updated shards
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookRatingShard s SET s.ratingSum = 0, s.reviewCount = 0, s.oneStarCount = 0, " +
+           "s.twoStarCount = 0, s.threeStarCount = 0, s.fourStarCount = 0, s.fiveStarCount = 0, " +
+           "s.pending = false " +
+           "WHERE s.bookId = :bookId AND s.slot IN :slots")
+    int resetSlots(@Param("bookId") Long bookId, @Param("slots") Collection<Integer> slots);
+}
@@ -0,0 +1,129 @@
+package com.bookreview.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Service for sharded book rating counters.
+ * <p>
+ * Review writes add their delta to one of several shard rows of the book, chosen at random, instead of
+ * updating the book row itself; concurrent reviews of a popular book then rarely lock the same row.
+ * {@link BookRatingFolder} periodically folds the shards into the book's aggregates, so listings see a
+ * new rating within the fold interval. Books without shard rows take the delta directly.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BookRatingShardService {
+
+    private final BookRatingShardRepository shardRepository;
+    private final BookRepository bookRepository;
+    private final WeightedRating weightedRating;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.ratings.shards:8}")
+    private int shardCount;
+
+    /**
+     * Create the shard rows of a new book.
+     *
+     * @param bookId book ID
+     */
+    public void createShards(final Long bookId) {
+        shardRepository.saveAll(IntStream.range(0, shardCount)
+                .mapToObj(slot -> BookRatingShard.builder().bookId(bookId).slot(slot).build())
+                .toList());
+    }
+
+    /**
+     * Delete the shard rows of a book that is being deleted.
+     *
+     * @param bookId book ID
+     */
+    public void deleteShards(final Long bookId) {
+        shardRepository.deleteByBookId(bookId);
+    }
+
+    /**
+     * Record a review write against a book's rating counters.
+     *
+     * @param bookId book ID
+     * @param addedRating rating the book gains, or null
+     * @param removedRating rating the book loses, or null
+     */
+    public void record(final Long bookId, final Integer addedRating, final Integer removedRating) {
+        RatingDelta delta = RatingDelta.of(addedRating, removedRating);
+        int slot = ThreadLocalRandom.current().nextInt(shardCount);
+        if (shardRepository.addToSlot(bookId, slot, delta) > 0) {
+            return;
+        }
+
+        // No shard rows for this book, e.g. created before sharding; update the book row instead
+        if (bookRepository.applyRatingDelta(bookId, delta, weightedRating) == 0) {
+            throw new IllegalArgumentException("Book not found: " + bookId);
+        }
+        publishRated(bookId, delta);
+    }
+
+    /**
+     * Fold the pending shard changes of a book into its aggregates.
+     * The pending shards stay locked until the transaction commits, so no concurrent delta is lost.
+     *
+     * @param bookId book ID
+     * @return true if anything was folded
+     */
+    public boolean fold(final Long bookId) {
+        List<BookRatingShard> pending = shardRepository.findPendingByBookIdForUpdate(bookId);
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        RatingDelta delta = sum(pending);
+        shardRepository.resetSlots(bookId, pending.stream().map(BookRatingShard::getSlot).toList());
+        if (!delta.isZero() && bookRepository.applyRatingDelta(bookId, delta, weightedRating) > 0) {
+            publishRated(bookId, delta);
+        }
+        return true;
+    }
+
+    /**
+     * Drop the pending shard changes of a book, before its aggregates are recomputed from its reviews.
+     *
+     * @param bookId book ID
+     */
+    public void discardPending(final Long bookId) {
+        List<BookRatingShard> pending = shardRepository.findPendingByBookIdForUpdate(bookId);
+        if (!pending.isEmpty()) {
+            shardRepository.resetSlots(bookId, pending.stream().map(BookRatingShard::getSlot).toList());
+        }
+    }
+
+    /**
+     * Get the changes recorded for a book but not folded into it yet.
+     *
+     * @param bookId book ID
+     * @return pending rating delta
+     */
+    @Transactional(readOnly = true)
+    public RatingDelta pending(final Long bookId) {
+        return sum(shardRepository.findByBookId(bookId));
+    }
+
+    private void publishRated(final Long bookId, final RatingDelta delta) {
+        bookRepository.findById(bookId)
+                .ifPresent(book -> eventPublisher.publishEvent(BookChangedEvent.rated(book, delta)));
+    }
+
+    private static RatingDelta sum(final List<BookRatingShard> shards) {
+        return shards.stream().map(BookRatingShard::toDelta).reduce(RatingDelta.ZERO, RatingDelta::plus);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bookreview.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically checks the incrementally maintained rating aggregates of every book against its reviews.
+ * <p>
+ * Review writes only apply deltas, so a write that bypasses the service (manual SQL, a failed migration)
+ * would leave a book's rating wrong forever. Drifted books are recomputed from their reviews.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookRatingVerifier {
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final WeightedRating weightedRating;
+
+    /**
+     * Find and repair books whose rating sum or review count disagrees with their reviews, or whose
+     * weighted score was computed with a different prior.
+     *
+     * @return number of repaired books
+     */
+    @Scheduled(initialDelayString = "${app.ratings.verify-interval-ms:3600000}",
+            fixedDelayString = "${app.ratings.verify-interval-ms:3600000}")
+    public int verify() {
+        List<Long> drifted = bookRepository.findIdsWithRatingDrift(
+                weightedRating.getPriorMean(), weightedRating.getPriorWeight());
+        if (drifted.isEmpty()) {
+            log.debug("Book rating aggregates verified, no drift found");
+            return 0;
+        }
+
+        log.warn("Repairing rating aggregates of {} books: {}", drifted.size(), drifted);
+        drifted.forEach(bookService::updateBookRating);
+        return drifted.size();
+    }
+}
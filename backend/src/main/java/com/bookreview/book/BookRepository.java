@@ -1,23 +1,49 @@
 package com.bookreview.book;
 
+import com.bookreview.cache.ContentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Book entity operations.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+
+    /**
+     * JPQL update recomputing the rating aggregates, star histogram and weighted score of books {@code b}
+     * from their reviews, with the prior as {@code :priorMean} and {@code :priorWeight}.
+     */
+    String RECALCULATE_RATING = "UPDATE Book b SET " +
+            "b.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.book.id = b.id), " +
+            "b.totalReviews = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id), " +
+            "b.averageRating = COALESCE((SELECT round(AVG(r.rating), 2) FROM Review r WHERE r.book.id = b.id), 0), " +
+            "b.weightedScore = (SELECT round((COALESCE(SUM(r.rating), 0) + :priorWeight * :priorMean) " +
+            "/ (COUNT(r) + :priorWeight), 4) FROM Review r WHERE r.book.id = b.id), " +
+            "b.oneStarCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 1), " +
+            "b.twoStarCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 2), " +
+            "b.threeStarCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 3), " +
+            "b.fourStarCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 4), " +
+            "b.fiveStarCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 5), " +
+            "b.updatedAt = local datetime ";
 
     /**
      * Find books by title containing search term (case insensitive).
@@ -44,8 +70,31 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param pageable pagination information
      * @return page of books
      */
-    @Query("SELECT b FROM Book b JOIN b.genres g WHERE g = :genre")
-    Page<Book> findByGenre(@Param("genre") Genre genre, Pageable pageable);
+    default Page<Book> findByGenre(final Genre genre, final Pageable pageable) {
+        return findByAnyGenre(GenreSetConverter.bit(genre), pageable);
+    }
+
+    /**
+     * Find books by genre without a count query.
+     *
+     * @param genre the genre
+     * @param pageable pagination information
+     * @return slice of book cards
+     */
+    default Slice<BookCardView> findSliceByGenre(final Genre genre, final Pageable pageable) {
+        return findSliceByAnyGenre(GenreSetConverter.bit(genre), pageable);
+    }
+
+    /**
+     * Find book cards by genre.
+     *
+     * @param genre the genre
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    default Page<BookCardView> findCardsByGenre(final Genre genre, final Pageable pageable) {
+        return findCardsByAnyGenre(GenreSetConverter.bit(genre), pageable);
+    }
 
     /**
      * Find books by multiple genres.
@@ -54,8 +103,49 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param pageable pagination information
      * @return page of books
      */
-    @Query("SELECT DISTINCT b FROM Book b JOIN b.genres g WHERE g IN :genres")
-    Page<Book> findByGenresIn(@Param("genres") Set<Genre> genres, Pageable pageable);
+    default Page<Book> findByGenresIn(final Set<Genre> genres, final Pageable pageable) {
+        return findByAnyGenre(GenreSetConverter.toMask(genres), pageable);
+    }
+
+    /**
+     * Find books having any genre of a bitmask.
+     *
+     * @param mask genre bitmask, see {@link GenreSetConverter}
+     * @param pageable pagination information
+     * @return page of books
+     */
+    @Query("SELECT b FROM Book b WHERE bitand(b.genreMask, :mask) <> 0")
+    Page<Book> findByAnyGenre(@Param("mask") long mask, Pageable pageable);
+
+    /**
+     * Find book cards having any genre of a bitmask.
+     *
+     * @param mask genre bitmask, see {@link GenreSetConverter}
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    @Query(value = BookCardView.SELECT + "FROM Book b WHERE bitand(b.genreMask, :mask) <> 0",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE bitand(b.genreMask, :mask) <> 0")
+    Page<BookCardView> findCardsByAnyGenre(@Param("mask") long mask, Pageable pageable);
+
+    /**
+     * Find book cards having any genre of a bitmask without a count query.
+     *
+     * @param mask genre bitmask, see {@link GenreSetConverter}
+     * @param pageable pagination information
+     * @return slice of book cards
+     */
+    @Query(BookCardView.SELECT + "FROM Book b WHERE bitand(b.genreMask, :mask) <> 0")
+    Slice<BookCardView> findSliceByAnyGenre(@Param("mask") long mask, Pageable pageable);
+
+    /**
+     * Count books having any genre of a bitmask.
+     *
+     * @param mask genre bitmask, see {@link GenreSetConverter}
+     * @return count of books
+     */
+    @Query("SELECT COUNT(b) FROM Book b WHERE bitand(b.genreMask, :mask) <> 0")
+    long countByAnyGenre(@Param("mask") long mask);
 
     /**
      * Find books by published year.
@@ -66,6 +156,17 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      */
     Page<Book> findByPublishedYear(Integer publishedYear, Pageable pageable);
 
+    /**
+     * Find book cards by published year.
+     *
+     * @param publishedYear the published year
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    @Query(value = BookCardView.SELECT + "FROM Book b WHERE b.publishedYear = :publishedYear",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.publishedYear = :publishedYear")
+    Page<BookCardView> findCardsByPublishedYear(@Param("publishedYear") Integer publishedYear, Pageable pageable);
+
     /**
      * Find books published between years.
      *
@@ -104,6 +205,24 @@ public interface BookRepository extends JpaRepository<Book, Long> {
                                    @Param("author") String author, 
                                    Pageable pageable);
 
+    /**
+     * Search book cards by title and/or author.
+     *
+     * @param title title search term
+     * @param author author search term
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    @Query(value = BookCardView.SELECT + "FROM Book b WHERE " +
+                   "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+                   "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE " +
+                   "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+                   "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))")
+    Page<BookCardView> findCardsByTitleAndAuthor(@Param("title") String title,
+                                                 @Param("author") String author,
+                                                 Pageable pageable);
+
     /**
      * Find books with rating between min and max.
      *
@@ -115,20 +234,58 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     Page<Book> findByAverageRatingBetween(BigDecimal minRating, BigDecimal maxRating, Pageable pageable);
 
     /**
-     * Find books with minimum rating and minimum reviews.
+     * Find books with minimum rating and minimum reviews, highest weighted score first.
      *
      * @param minRating minimum rating
      * @param minReviews minimum number of reviews
      * @param pageable pagination information
      * @return page of books
      */
-    @Query("SELECT b FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews")
+    @Query("SELECT b FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews " +
+           "ORDER BY b.weightedScore DESC, b.id DESC")
     Page<Book> findTopRatedBooks(@Param("minRating") BigDecimal minRating, 
                                  @Param("minReviews") int minReviews, 
                                  Pageable pageable);
 
+    /**
+     * Find book cards with minimum rating and minimum reviews, highest weighted score first.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    @Query(value = BookCardView.SELECT + "FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews " +
+                   "ORDER BY b.weightedScore DESC, b.id DESC",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews")
+    Page<BookCardView> findTopRatedBookCards(@Param("minRating") BigDecimal minRating,
+                                             @Param("minReviews") int minReviews,
+                                             Pageable pageable);
 
+    /**
+     * Find book cards with minimum rating and minimum reviews, highest weighted score first,
+     * without a count query.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     * @return slice of book cards
+     */
+    @Query(BookCardView.SELECT + "FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews " +
+           "ORDER BY b.weightedScore DESC, b.id DESC")
+    Slice<BookCardView> findSliceOfTopRatedBooks(@Param("minRating") BigDecimal minRating,
+                                                 @Param("minReviews") int minReviews,
+                                                 Pageable pageable);
 
+    /**
+     * Count books with minimum rating and minimum reviews.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @return count of books
+     */
+    @Query("SELECT COUNT(b) FROM Book b WHERE b.averageRating >= :minRating AND b.totalReviews >= :minReviews")
+    long countTopRatedBooks(@Param("minRating") BigDecimal minRating, @Param("minReviews") int minReviews);
 
     /**
      * Find recently added books.
@@ -147,8 +304,8 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param pageable pagination information
      * @return page of books
      */
-    @Query("SELECT DISTINCT b FROM Book b JOIN b.genres bg WHERE bg IN " +
-           "(SELECT pg FROM User u JOIN u.preferredGenres pg WHERE u.id = :userId) " +
+    @Query("SELECT b FROM Book b, User u WHERE u.id = :userId " +
+           "AND bitand(b.genreMask, u.preferredGenreMask) <> 0 " +
            "AND b.id NOT IN " +
            "(SELECT r.book.id FROM Review r WHERE r.user.id = :userId)")
     Page<Book> findBooksByUserGenrePreferences(@Param("userId") Long userId, Pageable pageable);
@@ -159,8 +316,9 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param genre the genre
      * @return count of books
      */
-    @Query("SELECT COUNT(DISTINCT b) FROM Book b JOIN b.genres g WHERE g = :genre")
-    long countByGenre(@Param("genre") Genre genre);
+    default long countByGenre(final Genre genre) {
+        return countByAnyGenre(GenreSetConverter.bit(genre));
+    }
 
     /**
      * Check if book exists by title.
@@ -171,18 +329,216 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     boolean existsByTitle(String title);
 
     /**
-     * Find books favorited by users with similar preferences.
+     * Get the titles of all books, to check bulk imports for duplicates in memory.
      *
-     * @param userId the user ID
-     * @param pageable pagination information
-     * @return page of recommended books
+     * @return book titles
      */
-    @Query("SELECT DISTINCT b FROM Book b JOIN b.favoritedByUsers u1 " +
-           "WHERE u1.id IN " +
-           "(SELECT DISTINCT u2.id FROM User u2 JOIN u2.favoriteBooks fb " +
-           "WHERE fb.id IN (SELECT ufb.id FROM User u JOIN u.favoriteBooks ufb WHERE u.id = :userId) " +
-           "AND u2.id != :userId) " +
-           "AND b.id NOT IN " +
-           "(SELECT ufb2.id FROM User u3 JOIN u3.favoriteBooks ufb2 WHERE u3.id = :userId)")
-    Page<Book> findBooksByFavoriteSimilarity(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT b.title FROM Book b")
+    List<String> findAllTitles();
+
+    /**
+     * Get the ID and title of every book, to resolve the books of bulk loaded reviews.
+     *
+     * @return book IDs and titles
+     */
+    @Query("SELECT new com.bookreview.book.BookTitleView(b.id, b.title) FROM Book b")
+    List<BookTitleView> findAllTitleViews();
+
+    /**
+     * Get the highest book ID.
+     *
+     * @return highest book ID, or null if there are no books
+     */
+    @Query("SELECT MAX(b.id) FROM Book b")
+    Long findMaxId();
+
+    /**
+     * Find the next batch of books after the given ID, without a count query.
+     *
+     * @param id ID to start after
+     * @param pageable batch size
+     * @return books ordered by ID
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Find book cards by ID, in no particular order.
+     *
+     * @param ids book IDs
+     * @return book cards
+     */
+    @Query(BookCardView.SELECT + "FROM Book b WHERE b.id IN :ids")
+    List<BookCardView> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the next batch of autocomplete projections after the given ID.
+     *
+     * @param id ID to start after
+     * @param pageable batch size
+     * @return projections ordered by ID
+     */
+    @Query("SELECT b.id AS id, b.title AS title, b.author AS author, " +
+           "b.averageRating AS averageRating, b.totalReviews AS totalReviews " +
+           "FROM Book b WHERE b.id > :id ORDER BY b.id")
+    List<BookSuggestionView> findSuggestionViews(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Apply a review write to a book's rating aggregates and star histogram in one atomic statement.
+     * The persistence context is cleared afterwards, so reload the book to see the new values.
+     *
+     * @param bookId book ID
+     * @param addedRating rating the book gains, or null
+     * @param removedRating rating the book loses, or null
+     * @param weighting prior for the weighted score
+     * @return number of updated books
+     */
+    default int applyReviewRating(final Long bookId, final Integer addedRating, final Integer removedRating,
+                                  final WeightedRating weighting) {
+        return applyRatingDelta(bookId, RatingDelta.of(addedRating, removedRating), weighting);
+    }
+
+    /**
+     * Apply a rating delta to a book's rating aggregates and star histogram in one atomic statement.
+     * The persistence context is cleared afterwards, so reload the book to see the new values.
+     *
+     * @param bookId book ID
+     * @param delta change to apply
+     * @param weighting prior for the weighted score
+     * @return number of updated books
+     */
+    default int applyRatingDelta(final Long bookId, final RatingDelta delta, final WeightedRating weighting) {
+        return applyRatingDelta(bookId, delta.ratingSum(), Math.toIntExact(delta.reviewCount()),
+                Math.toIntExact(delta.oneStarCount()), Math.toIntExact(delta.twoStarCount()),
+                Math.toIntExact(delta.threeStarCount()), Math.toIntExact(delta.fourStarCount()),
+                Math.toIntExact(delta.fiveStarCount()), weighting.getPriorMean(), weighting.getPriorWeight());
+    }
+
+    /**
+     * Shift a book's rating aggregates and star histogram by the given deltas, and recompute its weighted score.
+     *
+     * @param bookId book ID
+     * @param ratingDelta change to the rating sum
+     * @param countDelta change to the number of reviews
+     * @param oneStarDelta change to the number of one-star reviews
+     * @param twoStarDelta change to the number of two-star reviews
+     * @param threeStarDelta change to the number of three-star reviews
+     * @param fourStarDelta change to the number of four-star reviews
+     * @param fiveStarDelta change to the number of five-star reviews
+     * @param priorMean prior mean rating of the weighted score
+     * @param priorWeight prior weight of the weighted score
+     * @return number of updated books
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.ratingSum = b.ratingSum + :ratingDelta, " +
+           "b.totalReviews = b.totalReviews + :countDelta, " +
+           "b.averageRating = CASE WHEN b.totalReviews + :countDelta > 0 " +
+           "THEN round((b.ratingSum + :ratingDelta) * 1.0 / (b.totalReviews + :countDelta), 2) ELSE 0 END, " +
+           "b.weightedScore = round((b.ratingSum + :ratingDelta + :priorWeight * :priorMean) " +
+           "/ (b.totalReviews + :countDelta + :priorWeight), 4), " +
+           "b.oneStarCount = b.oneStarCount + :oneStarDelta, " +
+           "b.twoStarCount = b.twoStarCount + :twoStarDelta, " +
+           "b.threeStarCount = b.threeStarCount + :threeStarDelta, " +
+           "b.fourStarCount = b.fourStarCount + :fourStarDelta, " +
+           "b.fiveStarCount = b.fiveStarCount + :fiveStarDelta, " +
+           "b.updatedAt = local datetime " +
+           "WHERE b.id = :bookId")
+    int applyRatingDelta(@Param("bookId") Long bookId, @Param("ratingDelta") long ratingDelta,
+                         @Param("countDelta") int countDelta, @Param("oneStarDelta") int oneStarDelta,
+                         @Param("twoStarDelta") int twoStarDelta, @Param("threeStarDelta") int threeStarDelta,
+                         @Param("fourStarDelta") int fourStarDelta, @Param("fiveStarDelta") int fiveStarDelta,
+                         @Param("priorMean") double priorMean, @Param("priorWeight") int priorWeight);
+
+    /**
+     * Recompute a book's rating aggregates, star histogram and weighted score from its reviews.
+     *
+     * @param bookId book ID
+     * @param weighting prior for the weighted score
+     * @return number of updated books
+     */
+    default int recalculateRating(final Long bookId, final WeightedRating weighting) {
+        return recalculateRating(bookId, weighting.getPriorMean(), weighting.getPriorWeight());
+    }
+
+    /**
+     * Recompute a book's rating aggregates, star histogram and weighted score from its reviews.
+     *
+     * @param bookId book ID
+     * @param priorMean prior mean rating of the weighted score
+     * @param priorWeight prior weight of the weighted score
+     * @return number of updated books
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(RECALCULATE_RATING + "WHERE b.id = :bookId")
+    int recalculateRating(@Param("bookId") Long bookId, @Param("priorMean") double priorMean,
+                          @Param("priorWeight") int priorWeight);
+
+    /**
+     * Recompute the rating aggregates, star histogram and weighted score of a range of books from their
+     * reviews, for reviews loaded without updating the books.
+     *
+     * @param fromId first book ID of the range
+     * @param toId last book ID of the range
+     * @param weighting prior for the weighted score
+     * @return number of updated books
+     */
+    default int recalculateRatings(final Long fromId, final Long toId, final WeightedRating weighting) {
+        return recalculateRatings(fromId, toId, weighting.getPriorMean(), weighting.getPriorWeight());
+    }
+
+    /**
+     * Recompute the rating aggregates, star histogram and weighted score of a range of books from their
+     * reviews.
+     *
+     * @param fromId first book ID of the range
+     * @param toId last book ID of the range
+     * @param priorMean prior mean rating of the weighted score
+     * @param priorWeight prior weight of the weighted score
+     * @return number of updated books
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(RECALCULATE_RATING + "WHERE b.id BETWEEN :fromId AND :toId")
+    int recalculateRatings(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                           @Param("priorMean") double priorMean, @Param("priorWeight") int priorWeight);
+
+    /**
+     * Find books whose rating aggregates, together with their unfolded shards, disagree with their reviews,
+     * or whose star histogram or weighted score disagrees with the aggregates.
+     *
+     * @param priorMean prior mean rating of the weighted score
+     * @param priorWeight prior weight of the weighted score
+     * @return IDs of drifted books
+     */
+    @Query("SELECT b.id FROM Book b WHERE " +
+           "b.ratingSum + (SELECT COALESCE(SUM(s.ratingSum), 0) FROM BookRatingShard s WHERE s.bookId = b.id) " +
+           "<> (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.book.id = b.id) " +
+           "OR b.totalReviews + (SELECT COALESCE(SUM(s.reviewCount), 0) FROM BookRatingShard s WHERE s.bookId = b.id) " +
+           "<> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id) " +
+           "OR b.oneStarCount + b.twoStarCount + b.threeStarCount + b.fourStarCount + b.fiveStarCount " +
+           "<> b.totalReviews " +
+           "OR b.oneStarCount + 2 * b.twoStarCount + 3 * b.threeStarCount + 4 * b.fourStarCount " +
+           "+ 5 * b.fiveStarCount <> b.ratingSum " +
+           "OR abs(b.weightedScore - (b.ratingSum + :priorWeight * :priorMean) " +
+           "/ (b.totalReviews + :priorWeight)) > 0.0001")
+    List<Long> findIdsWithRatingDrift(@Param("priorMean") double priorMean, @Param("priorWeight") int priorWeight);
+
+    /**
+     * Get the version of a book for HTTP validators; the count is zero when the book does not exist.
+     *
+     * @param id book ID
+     * @return book version
+     */
+    @Query("SELECT new com.bookreview.cache.ContentVersion(COUNT(b), MAX(b.updatedAt)) FROM Book b WHERE b.id = :id")
+    ContentVersion findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream book cards in ID order for export, reading the rows through a forward-only cursor. Cards are
+     * projections, so nothing piles up in the persistence context however many rows are read. Must run in a
+     * transaction, and the stream must be closed to release the cursor.
+     *
+     * @param since only books updated at or after this time, or null for all books
+     * @return stream of book cards
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(BookCardView.SELECT + "FROM Book b WHERE :since IS NULL OR b.updatedAt >= :since ORDER BY b.id")
+    Stream<BookCardView> streamCardsUpdatedSince(@Param("since") LocalDateTime since);
 }
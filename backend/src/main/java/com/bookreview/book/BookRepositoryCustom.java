@@ -0,0 +1,84 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookSearchDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+/**
+ * Custom repository operations for filtering books by {@link BookSearchDTO} criteria.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Find books matching every given criterion in a single query, with a separate count query.
+     * Text criteria are matched with case-insensitive LIKE.
+     *
+     * @param criteria search criteria; null fields are ignored
+     * @param pageable pagination information
+     * @return page of books
+     */
+    Page<Book> findByCriteria(BookSearchDTO criteria, Pageable pageable);
+
+    /**
+     * Find cards of the books matching every given criterion, with a separate count query.
+     *
+     * @param criteria search criteria; null fields are ignored
+     * @param pageable pagination information
+     * @return page of book cards
+     */
+    Page<BookCardView> findCardsByCriteria(BookSearchDTO criteria, Pageable pageable);
+
+    /**
+     * Find cards of the books matching every given criterion without counting them.
+     *
+     * @param criteria search criteria; null fields are ignored
+     * @param pageable pagination information
+     * @return slice of book cards
+     */
+    Slice<BookCardView> findSliceByCriteria(BookSearchDTO criteria, Pageable pageable);
+
+    /**
+     * Count books matching every given criterion.
+     *
+     * @param criteria search criteria; null fields are ignored
+     * @return number of matching books
+     */
+    long countByCriteria(BookSearchDTO criteria);
+
+    /**
+     * Keep only the candidate books that match the non-text criteria (genres, years, rating, reviews).
+     *
+     * @param criteria search criteria; text fields are ignored
+     * @param candidateIds candidate book IDs, e.g. ranked full-text hits
+     * @return matching IDs in candidate order
+     */
+    List<Long> filterIds(BookSearchDTO criteria, List<Long> candidateIds);
+
+    /**
+     * Fetch the books matching every given criterion that follow a keyset position.
+     *
+     * @param criteria search criteria; null fields are ignored
+     * @param position keyset position
+     * @param sort total sort ending with the ID
+     * @param limit maximum number of books
+     * @return window of books
+     */
+    Window<Book> scrollByCriteria(BookSearchDTO criteria, KeysetScrollPosition position, Sort sort, int limit);
+
+    /**
+     * Fetch a user's favorite books that follow a keyset position.
+     *
+     * @param userId user ID
+     * @param position keyset position
+     * @param sort total sort ending with the ID
+     * @param limit maximum number of books
+     * @return window of books
+     */
+    Window<Book> scrollFavoritesByUserId(Long userId, KeysetScrollPosition position, Sort sort, int limit);
+}
@@ -0,0 +1,207 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookSearchDTO;
+import com.bookreview.pagination.KeysetQueries;
+import com.bookreview.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria API implementation of {@link BookRepositoryCustom}.
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Book> findByCriteria(final BookSearchDTO criteria, final Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(book)
+                .where(predicates(criteria, true, cb, query, book))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+
+        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        // The count only runs when the page alone cannot tell the total
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> countByCriteria(criteria));
+    }
+
+    @Override
+    public Page<BookCardView> findCardsByCriteria(final BookSearchDTO criteria, final Pageable pageable) {
+        TypedQuery<BookCardView> typedQuery = entityManager.createQuery(cardQuery(criteria, pageable.getSort()));
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> countByCriteria(criteria));
+    }
+
+    @Override
+    public Slice<BookCardView> findSliceByCriteria(final BookSearchDTO criteria, final Pageable pageable) {
+        TypedQuery<BookCardView> typedQuery = entityManager.createQuery(cardQuery(criteria, pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        // One extra row tells whether another page follows without a count query
+        List<BookCardView> rows = typedQuery.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> filterIds(final BookSearchDTO criteria, final List<Long> candidateIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Set<Long> matching = new HashSet<>();
+        for (int from = 0; from < candidateIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = candidateIds.subList(from, Math.min(from + ID_CHUNK_SIZE, candidateIds.size()));
+            CriteriaQuery<Long> query = cb.createQuery(Long.class);
+            Root<Book> book = query.from(Book.class);
+            Predicate[] filters = predicates(criteria, false, cb, query, book);
+            Predicate[] where = new Predicate[filters.length + 1];
+            System.arraycopy(filters, 0, where, 0, filters.length);
+            where[filters.length] = book.get("id").in(chunk);
+            query.select(book.<Long>get("id")).where(where);
+            matching.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return candidateIds.stream().filter(matching::contains).toList();
+    }
+
+    @Override
+    public Window<Book> scrollByCriteria(final BookSearchDTO criteria, final KeysetScrollPosition position,
+                                         final Sort sort, final int limit) {
+        return KeysetQueries.scroll(entityManager, Book.class,
+                (book, query, cb) -> cb.and(predicates(criteria, true, cb, query, book)), position, sort, limit);
+    }
+
+    @Override
+    public Window<Book> scrollFavoritesByUserId(final Long userId, final KeysetScrollPosition position,
+                                                final Sort sort, final int limit) {
+        return KeysetQueries.scroll(entityManager, Book.class, (book, query, cb) -> {
+            Join<Book, User> user = book.join("favoritedByUsers");
+            return cb.equal(user.get("id"), userId);
+        }, position, sort, limit);
+    }
+
+    /**
+     * No joins, ordering or DISTINCT are needed because genres are a bitmask column.
+     */
+    @Override
+    public long countByCriteria(final BookSearchDTO criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.count(book)).where(predicates(criteria, true, cb, query, book));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Select the listed columns straight into cards, so no entity is managed or dirty-checked.
+     */
+    private CriteriaQuery<BookCardView> cardQuery(final BookSearchDTO criteria, final Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookCardView> query = cb.createQuery(BookCardView.class);
+        Root<Book> book = query.from(Book.class);
+        return query.select(cb.construct(BookCardView.class,
+                        book.get("id"), book.get("title"), book.get("author"), book.get("description"),
+                        book.get("coverImageUrl"), book.get("genres"), book.get("publishedYear"),
+                        book.get("averageRating"), book.get("totalReviews"), book.get("createdAt"),
+                        book.get("updatedAt")))
+                .where(predicates(criteria, true, cb, query, book))
+                .orderBy(QueryUtils.toOrders(sort, book, cb));
+    }
+
+    private Predicate[] predicates(final BookSearchDTO criteria, final boolean includeText,
+                                   final CriteriaBuilder cb, final AbstractQuery<?> query, final Root<Book> book) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (includeText) {
+            if (hasText(criteria.getSearch())) {
+                String pattern = likePattern(criteria.getSearch());
+                predicates.add(cb.or(
+                        cb.like(cb.lower(book.<String>get("title")), pattern, ESCAPE),
+                        cb.like(cb.lower(book.<String>get("author")), pattern, ESCAPE),
+                        cb.like(cb.lower(book.<String>get("description")), pattern, ESCAPE)));
+            }
+            if (hasText(criteria.getTitle())) {
+                predicates.add(cb.like(cb.lower(book.<String>get("title")), likePattern(criteria.getTitle()), ESCAPE));
+            }
+            if (hasText(criteria.getAuthor())) {
+                predicates.add(cb.like(cb.lower(book.<String>get("author")), likePattern(criteria.getAuthor()), ESCAPE));
+            }
+        }
+
+        if (criteria.getGenres() != null && !criteria.getGenres().isEmpty()) {
+            // Any requested genre bit set; a column check, so no join, DISTINCT or subquery is needed
+            Expression<Long> genreBits = cb.function("bitand", Long.class,
+                    book.<Long>get("genreMask"), cb.literal(GenreSetConverter.toMask(criteria.getGenres())));
+            predicates.add(cb.notEqual(genreBits, 0L));
+        }
+
+        if (criteria.getPublishedYear() != null) {
+            predicates.add(cb.equal(book.get("publishedYear"), criteria.getPublishedYear()));
+        }
+        if (criteria.getMinPublishedYear() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<Integer>get("publishedYear"), criteria.getMinPublishedYear()));
+        }
+        if (criteria.getMaxPublishedYear() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.<Integer>get("publishedYear"), criteria.getMaxPublishedYear()));
+        }
+        if (criteria.getMinRating() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<BigDecimal>get("averageRating"), criteria.getMinRating()));
+        }
+        if (criteria.getMaxRating() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.<BigDecimal>get("averageRating"), criteria.getMaxRating()));
+        }
+        if (criteria.getMinReviews() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.<Integer>get("totalReviews"), criteria.getMinReviews()));
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static boolean hasText(final String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String likePattern(final String value) {
+        String escaped = value.trim().toLowerCase()
+                .replace(String.valueOf(ESCAPE), ESCAPE + String.valueOf(ESCAPE))
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+}
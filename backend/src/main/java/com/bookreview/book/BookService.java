@@ -1,18 +1,51 @@
 package com.bookreview.book;
 
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.SliceDTO;
 import com.bookreview.dto.book.BookCreateDTO;
 import com.bookreview.dto.book.BookDTO;
+import com.bookreview.dto.book.BookFacetsDTO;
+import com.bookreview.dto.book.BookRatingSummaryDTO;
 import com.bookreview.dto.book.BookSearchDTO;
+import com.bookreview.dto.book.BookSearchPageDTO;
 import com.bookreview.dto.book.BookUpdateDTO;
+import com.bookreview.pagination.CountEstimator;
+import com.bookreview.pagination.CursorCodec;
+import com.bookreview.pagination.KeysetQueries;
+import com.bookreview.search.BookFacetIndex;
+import com.bookreview.search.BookSearchIndex;
+import com.bookreview.search.BookSimilarityIndex;
+import com.bookreview.search.FieldQuery;
+import com.bookreview.search.SearchField;
+import com.bookreview.search.TopRatedIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for book operations.
@@ -23,7 +56,20 @@ import java.util.Optional;
 @Transactional
 public class BookService {
 
+    private static final Set<SearchField> ALL_FIELDS = EnumSet.allOf(SearchField.class);
+    private static final int MAX_SIMILAR_BOOKS = 50;
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt", "averageRating", "title", "totalReviews");
+
     private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookSimilarityIndex bookSimilarityIndex;
+    private final TopRatedIndex topRatedIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursorCodec cursorCodec;
+    private final CountEstimator countEstimator;
+    private final BookRatingShardService bookRatingShardService;
+    private final WeightedRating weightedRating;
 
     /**
      * Get all books with pagination.
@@ -44,11 +90,81 @@ public class BookService {
      * @return optional book DTO
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BookCaches.DETAILS, key = "#id", unless = "#result == null")
     public Optional<BookDTO> getBookById(final Long id) {
         log.debug("Getting book by ID: {}", id);
         return bookRepository.findById(id).map(this::mapToDTO);
     }
 
+    /**
+     * Get the version of a book for HTTP validators.
+     *
+     * @param id book ID
+     * @return book version, with a count of zero when the book does not exist
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getBookVersion(final Long id) {
+        return bookRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the star rating distribution of a book from its counters and unfolded rating shards,
+     * without reading reviews.
+     *
+     * @param id book ID
+     * @return optional rating summary
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookRatingSummaryDTO> getRatingSummary(final Long id) {
+        log.debug("Getting rating summary for book ID: {}", id);
+        return bookRepository.findById(id).map(book -> {
+            RatingDelta pending = bookRatingShardService.pending(id);
+            Map<Integer, Integer> counts = new LinkedHashMap<>();
+            counts.put(1, (int) (book.getOneStarCount() + pending.oneStarCount()));
+            counts.put(2, (int) (book.getTwoStarCount() + pending.twoStarCount()));
+            counts.put(3, (int) (book.getThreeStarCount() + pending.threeStarCount()));
+            counts.put(4, (int) (book.getFourStarCount() + pending.fourStarCount()));
+            counts.put(5, (int) (book.getFiveStarCount() + pending.fiveStarCount()));
+            int totalReviews = (int) (book.getTotalReviews() + pending.reviewCount());
+            long ratingSum = book.getRatingSum() + pending.ratingSum();
+            BigDecimal averageRating = totalReviews > 0
+                    ? BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(totalReviews), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            return BookRatingSummaryDTO.builder()
+                    .bookId(book.getId())
+                    .averageRating(averageRating)
+                    .totalReviews(totalReviews)
+                    .ratingCounts(counts)
+                    .build();
+        });
+    }
+
+    /**
+     * Find the books most like a book by content, genres and ratings.
+     * Falls back to the highest-scored books sharing a genre while the similarity index is not ready.
+     *
+     * @param id book ID
+     * @param limit maximum number of books, between 1 and {@value #MAX_SIMILAR_BOOKS}
+     * @return similar book DTOs, most similar first, or empty if the book does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<BookDTO>> getSimilarBooks(final Long id, final int limit) {
+        log.debug("Getting {} books similar to book ID: {}", limit, id);
+        int size = Math.max(1, Math.min(limit, MAX_SIMILAR_BOOKS));
+        Optional<List<Long>> similar = bookSimilarityIndex.similar(id, size);
+        if (similar.isPresent()) {
+            return Optional.of(loadCards(similar.get()));
+        }
+        return bookRepository.findById(id).map(book -> bookRepository
+                .findSliceByAnyGenre(GenreSetConverter.toMask(book.getGenres()),
+                        PageRequest.of(0, size + 1, Sort.by(Sort.Direction.DESC, "weightedScore")))
+                .stream()
+                .filter(card -> !card.id().equals(id))
+                .limit(size)
+                .map(this::mapCardToDTO)
+                .toList());
+    }
+
     /**
      * Create a new book.
      *
@@ -63,21 +179,29 @@ public class BookService {
             throw new IllegalArgumentException("Book with title '" + createDTO.getTitle() + "' already exists");
         }
         
-        Book book = Book.builder()
-                .title(createDTO.getTitle())
-                .author(createDTO.getAuthor())
-                .description(createDTO.getDescription())
-                .coverImageUrl(createDTO.getCoverImageUrl())
-                .genres(createDTO.getGenres())
-                .publishedYear(createDTO.getPublishedYear())
-                .build();
-        
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = bookRepository.save(newBook(createDTO));
+        bookRatingShardService.createShards(savedBook.getId());
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
         log.info("Book created successfully with ID: {}", savedBook.getId());
         
         return mapToDTO(savedBook);
     }
 
+    /**
+     * Create a chunk of books in one transaction, for bulk imports. The caller has already validated the
+     * books and checked their titles; the books and their shard rows are written with batched inserts.
+     *
+     * @param createDTOs books to create
+     * @return IDs of the created books, in order
+     */
+    public List<Long> createBooks(final List<BookCreateDTO> createDTOs) {
+        List<Book> books = bookRepository.saveAll(createDTOs.stream().map(this::newBook).toList());
+        books.forEach(book -> bookRatingShardService.createShards(book.getId()));
+        books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        log.debug("Created {} books", books.size());
+        return books.stream().map(Book::getId).toList();
+    }
+
     /**
      * Update an existing book.
      *
@@ -90,6 +214,7 @@ public class BookService {
         
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Book not found: " + id));
+        Set<Genre> previousGenres = Set.copyOf(existingBook.getGenres());
                 
         // Update fields if provided
         if (updateDTO.getTitle() != null) {
@@ -112,6 +237,7 @@ public class BookService {
         }
         
         Book savedBook = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.edited(savedBook, previousGenres));
         log.info("Book updated successfully");
         
         return mapToDTO(savedBook);
@@ -129,7 +255,9 @@ public class BookService {
             throw new IllegalArgumentException("Book not found: " + id);
         }
         
+        bookRatingShardService.deleteShards(id);
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 
     /**
@@ -142,11 +270,13 @@ public class BookService {
     @Transactional(readOnly = true)
     public Page<BookDTO> searchBooks(final String searchTerm, final Pageable pageable) {
         log.debug("Searching books with term: {}", searchTerm);
-        return bookRepository.searchBooks(searchTerm, pageable).map(this::mapToDTO);
+        return searchIndex(searchTerm, ALL_FIELDS, false, pageable)
+                .map(ids -> toRankedPage(ids, pageable))
+                .orElseGet(() -> bookRepository.searchBooks(searchTerm, pageable).map(this::mapToDTO));
     }
 
     /**
-     * Search books with advanced criteria.
+     * Search books matching every given criterion.
      *
      * @param searchDTO search criteria
      * @param pageable pagination information
@@ -155,39 +285,122 @@ public class BookService {
     @Transactional(readOnly = true)
     public Page<BookDTO> searchBooksAdvanced(final BookSearchDTO searchDTO, final Pageable pageable) {
         log.debug("Advanced search with criteria: {}", searchDTO);
-        
-        if (searchDTO.getSearch() != null && !searchDTO.getSearch().trim().isEmpty()) {
-            return bookRepository.searchBooks(searchDTO.getSearch(), pageable).map(this::mapToDTO);
+
+        // Text criteria are answered by the search index; the remaining filters then narrow the ranked hits
+        Optional<List<Long>> ranked = searchText(searchDTO, pageable);
+        if (ranked.isPresent()) {
+            List<Long> ids = hasFilters(searchDTO) ? filterIds(searchDTO, ranked.get()) : ranked.get();
+            return toRankedPage(ids, pageable);
         }
-        
-        // For advanced search, fall back to basic search for now
-        // Complex filtering can be implemented later with a proper query
-        String searchTerm = "";
-        if (searchDTO.getTitle() != null && !searchDTO.getTitle().trim().isEmpty()) {
-            searchTerm = searchDTO.getTitle();
-        } else if (searchDTO.getAuthor() != null && !searchDTO.getAuthor().trim().isEmpty()) {
-            searchTerm = searchDTO.getAuthor();
+        return bookRepository.findCardsByCriteria(searchDTO, pageable).map(this::mapCardToDTO);
+    }
+
+    /**
+     * Search books matching every given criterion without counting all matches.
+     * Ranked text results know their total for free; database results only report whether more follow.
+     *
+     * @param searchDTO search criteria
+     * @param pageable pagination information
+     * @param estimateTotal whether to include a cached estimate of the total
+     * @return slice of book DTOs
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<BookDTO> searchBooksAdvancedSlice(final BookSearchDTO searchDTO, final Pageable pageable,
+                                                      final boolean estimateTotal) {
+        log.debug("Advanced search slice with criteria: {}", searchDTO);
+
+        Optional<List<Long>> ranked = searchText(searchDTO, pageable);
+        if (ranked.isPresent()) {
+            List<Long> ids = hasFilters(searchDTO) ? filterIds(searchDTO, ranked.get()) : ranked.get();
+            Page<BookDTO> page = toRankedPage(ids, pageable);
+            return SliceDTO.<BookDTO>builder()
+                    .content(page.getContent())
+                    .page(page.getNumber())
+                    .size(page.getSize())
+                    .hasNext(page.hasNext())
+                    .estimatedTotal(page.getTotalElements())
+                    .build();
         }
-        
-        if (!searchTerm.isEmpty()) {
-            return bookRepository.searchBooks(searchTerm, pageable).map(this::mapToDTO);
-        } else {
-            return bookRepository.findAll(pageable).map(this::mapToDTO);
+        return countEstimator.toSlice(bookRepository.findSliceByCriteria(searchDTO, pageable).map(this::mapCardToDTO),
+                estimateTotal, "books:" + searchDTO, () -> bookRepository.countByCriteria(searchDTO));
+    }
+
+    /**
+     * Search books matching every given criterion, one cursor page at a time. Unlike offset pages,
+     * later pages cost the same as the first and do not shift while books are added.
+     * Text criteria are matched with LIKE, as relevance ranking has no stable keyset.
+     *
+     * @param searchDTO search criteria
+     * @param cursor cursor from a previous page, or blank for the first page
+     * @param sort sort on createdAt, averageRating, title and/or totalReviews
+     * @param size page size
+     * @return page of book DTOs with cursors to the adjacent pages
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDTO> scrollBooks(final BookSearchDTO searchDTO, final String cursor,
+                                              final Sort sort, final int size) {
+        log.debug("Scrolling books with criteria: {}", searchDTO);
+
+        Sort keysetSort = KeysetQueries.keysetSort(sort, CURSOR_SORT_PROPERTIES);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, keysetSort);
+        return cursorCodec.toPage(
+                bookRepository.scrollByCriteria(searchDTO, position, keysetSort, KeysetQueries.pageSize(size)),
+                position, keysetSort, this::mapToDTO);
+    }
+
+    /**
+     * Count books per genre, decade and rating for the given criteria. Text criteria narrow the
+     * counts to the books found by the search index.
+     *
+     * @param searchDTO search criteria
+     * @return facet counts, or empty while the indexes are still being built
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookFacetsDTO> getBookFacets(final BookSearchDTO searchDTO) {
+        log.debug("Getting facets for criteria: {}", searchDTO);
+
+        Optional<List<Long>> matches = searchText(searchDTO, Pageable.unpaged());
+        if (hasText(searchDTO) && matches.isEmpty()) {
+            return Optional.empty();
         }
+        return bookFacetIndex.facets(searchDTO, matches.orElse(null));
     }
 
     /**
-     * Search books by title and/or author.
+     * Search books by title and/or author. When nothing matches exactly, the result carries
+     * "did you mean" corrections; in fuzzy mode misspelled terms also match similar indexed terms.
      *
      * @param title title search term
      * @param author author search term
+     * @param fuzzy whether to match terms within a small edit distance
      * @param pageable pagination information
      * @return page of book DTOs
      */
     @Transactional(readOnly = true)
-    public Page<BookDTO> searchByTitleAndAuthor(final String title, final String author, final Pageable pageable) {
-        log.debug("Searching books by title: {} and author: {}", title, author);
-        return bookRepository.findByTitleAndAuthor(title, author, pageable).map(this::mapToDTO);
+    public Page<BookDTO> searchByTitleAndAuthor(final String title, final String author, final boolean fuzzy,
+                                                final Pageable pageable) {
+        log.debug("Searching books by title: {} and author: {} (fuzzy: {})", title, author, fuzzy);
+
+        Optional<List<Long>> exact = searchTitleAndAuthor(title, author, false, pageable);
+        if (exact.isEmpty()) {
+            return bookRepository.findCardsByTitleAndAuthor(title, author, pageable).map(this::mapCardToDTO);
+        }
+        if (!exact.get().isEmpty()) {
+            List<Long> ids = fuzzy ? searchTitleAndAuthor(title, author, true, pageable).orElse(exact.get()) : exact.get();
+            return toRankedPage(ids, pageable);
+        }
+
+        Map<String, String> didYouMean = new LinkedHashMap<>();
+        if (title != null) {
+            bookSearchIndex.didYouMean(title, EnumSet.of(SearchField.TITLE))
+                    .ifPresent(corrected -> didYouMean.put("title", corrected));
+        }
+        if (author != null) {
+            bookSearchIndex.didYouMean(author, EnumSet.of(SearchField.AUTHOR))
+                    .ifPresent(corrected -> didYouMean.put("author", corrected));
+        }
+        List<Long> ids = fuzzy ? searchTitleAndAuthor(title, author, true, pageable).orElse(List.of()) : List.of();
+        return new BookSearchPageDTO(toRankedPage(ids, pageable), didYouMean);
     }
 
     /**
@@ -198,9 +411,27 @@ public class BookService {
      * @return page of book DTOs
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BookCaches.GENRE_PAGES,
+            key = "T(com.bookreview.book.BookCaches).genrePage(#genre, #pageable)")
     public Page<BookDTO> getBooksByGenre(final Genre genre, final Pageable pageable) {
         log.debug("Getting books by genre: {}", genre);
-        return bookRepository.findByGenre(genre, pageable).map(this::mapToDTO);
+        return bookRepository.findCardsByGenre(genre, pageable).map(this::mapCardToDTO);
+    }
+
+    /**
+     * Find books by genre without counting all of them.
+     *
+     * @param genre book genre
+     * @param pageable pagination information
+     * @param estimateTotal whether to include a cached estimate of the total
+     * @return slice of book DTOs
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<BookDTO> getBooksByGenreSlice(final Genre genre, final Pageable pageable,
+                                                  final boolean estimateTotal) {
+        log.debug("Getting books slice by genre: {}", genre);
+        return countEstimator.toSlice(bookRepository.findSliceByGenre(genre, pageable).map(this::mapCardToDTO),
+                estimateTotal, "books:genre:" + genre, () -> bookRepository.countByGenre(genre));
     }
 
     /**
@@ -213,11 +444,11 @@ public class BookService {
     @Transactional(readOnly = true)
     public Page<BookDTO> getBooksByPublishedYear(final Integer publishedYear, final Pageable pageable) {
         log.debug("Getting books by published year: {}", publishedYear);
-        return bookRepository.findByPublishedYear(publishedYear, pageable).map(this::mapToDTO);
+        return bookRepository.findCardsByPublishedYear(publishedYear, pageable).map(this::mapCardToDTO);
     }
 
     /**
-     * Find top-rated books.
+     * Find top-rated books, highest weighted score first.
      *
      * @param minRating minimum rating
      * @param minReviews minimum number of reviews
@@ -225,26 +456,278 @@ public class BookService {
      * @return page of top-rated book DTOs
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BookCaches.TOP_RATED_PAGES,
+            key = "T(com.bookreview.book.BookCaches).topRatedPage(#minRating, #minReviews, #pageable)")
     public Page<BookDTO> getTopRatedBooks(final BigDecimal minRating, 
                                          final int minReviews, 
                                          final Pageable pageable) {
         log.debug("Getting top-rated books with min rating: {} and min reviews: {}", minRating, minReviews);
-        return bookRepository.findTopRatedBooks(minRating, minReviews, pageable).map(this::mapToDTO);
+        Optional<List<Long>> ranked = rankTopRated(minRating, minReviews, pageable, 0);
+        if (ranked.isPresent()) {
+            long total = topRatedIndex.count(minRating, minReviews)
+                    .orElseGet(() -> bookRepository.countTopRatedBooks(minRating, minReviews));
+            return new PageImpl<>(loadCards(pageIds(ranked.get(), pageable)), pageable, total);
+        }
+        return bookRepository.findTopRatedBookCards(minRating, minReviews, pageable).map(this::mapCardToDTO);
+    }
+
+    /**
+     * Find top-rated books without counting all of them.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     * @param estimateTotal whether to include a cached estimate of the total
+     * @return slice of top-rated book DTOs
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<BookDTO> getTopRatedBooksSlice(final BigDecimal minRating, final int minReviews,
+                                                   final Pageable pageable, final boolean estimateTotal) {
+        log.debug("Getting top-rated books slice with min rating: {} and min reviews: {}", minRating, minReviews);
+        Slice<BookDTO> slice = rankTopRated(minRating, minReviews, pageable, 1)
+                .<Slice<BookDTO>>map(ids -> new SliceImpl<>(loadCards(pageIds(ids, pageable)), pageable,
+                        ids.size() > pageable.getOffset() + pageable.getPageSize()))
+                .orElseGet(() -> bookRepository.findSliceOfTopRatedBooks(minRating, minReviews, pageable)
+                        .map(this::mapCardToDTO));
+        return countEstimator.toSlice(slice, estimateTotal, "books:top-rated:" + minRating.stripTrailingZeros().toPlainString() + ":" + minReviews,
+                () -> bookRepository.countTopRatedBooks(minRating, minReviews));
     }
 
     /**
-     * Update book's average rating.
+     * Recompute book's rating aggregates from its reviews, repairing any drift.
      *
      * @param bookId book ID
      */
     public void updateBookRating(final Long bookId) {
-        log.debug("Updating rating for book ID: {}", bookId);
-        
+        log.debug("Recalculating rating for book ID: {}", bookId);
+
+        // Pending shard changes are already reflected in the reviews being counted
+        bookRatingShardService.discardPending(bookId);
+        if (bookRepository.recalculateRating(bookId, weightedRating) == 0) {
+            throw new IllegalArgumentException("Book not found: " + bookId);
+        }
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new IllegalArgumentException("Book not found: " + bookId));
-                
-        book.updateAverageRating();
-        bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(book));
+    }
+
+    /**
+     * Recompute the rating aggregates of a range of books from their reviews, for reviews bulk loaded
+     * without updating their books. Publishes no change events; in-memory indexes pick the ratings up when
+     * they are built at startup.
+     *
+     * @param fromId first book ID of the range
+     * @param toId last book ID of the range
+     * @return number of updated books
+     */
+    public int recalculateRatings(final Long fromId, final Long toId) {
+        return bookRepository.recalculateRatings(fromId, toId, weightedRating);
+    }
+
+    /**
+     * Query the search index. Requests with an explicit sort order go to the database,
+     * since the index only ranks by relevance.
+     *
+     * @param query search text
+     * @param fields fields to search
+     * @param fuzzy whether to match terms within a small edit distance
+     * @param pageable pagination information
+     * @return ranked book IDs, or empty if the database should answer instead
+     */
+    private Optional<List<Long>> searchIndex(final String query, final Set<SearchField> fields,
+                                             final boolean fuzzy, final Pageable pageable) {
+        if (query == null || query.isBlank() || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        return fuzzy ? bookSearchIndex.fuzzySearch(query, fields) : bookSearchIndex.search(query, fields);
+    }
+
+    /**
+     * Resolve all text criteria of an advanced search through the index.
+     *
+     * @param searchDTO search criteria
+     * @param pageable pagination information
+     * @return ranked book IDs matching every text criterion, or empty if there are none or the
+     *         database should answer instead
+     */
+    private Optional<List<Long>> searchText(final BookSearchDTO searchDTO, final Pageable pageable) {
+        if (!hasText(searchDTO)) {
+            return Optional.empty();
+        }
+        List<FieldQuery> queries = fieldQueries(searchDTO.getTitle(), searchDTO.getAuthor());
+        if (searchDTO.getSearch() != null && !searchDTO.getSearch().isBlank()) {
+            queries.add(new FieldQuery(searchDTO.getSearch(), ALL_FIELDS));
+        }
+        return searchFields(queries, false, pageable);
+    }
+
+    /**
+     * Check whether any text criterion is set.
+     *
+     * @param searchDTO search criteria
+     * @return true if search, title or author is present
+     */
+    private boolean hasText(final BookSearchDTO searchDTO) {
+        return (searchDTO.getSearch() != null && !searchDTO.getSearch().isBlank())
+                || (searchDTO.getTitle() != null && !searchDTO.getTitle().isBlank())
+                || (searchDTO.getAuthor() != null && !searchDTO.getAuthor().isBlank());
+    }
+
+    /**
+     * Narrow ranked search hits to the books matching the non-text criteria, keeping rank order.
+     * Answered from the facet bitmaps when they are built, otherwise by the database.
+     *
+     * @param searchDTO search criteria
+     * @param rankedIds ranked book IDs
+     * @return matching book IDs in rank order
+     */
+    private List<Long> filterIds(final BookSearchDTO searchDTO, final List<Long> rankedIds) {
+        return bookFacetIndex.filter(searchDTO, rankedIds)
+                .orElseGet(() -> bookRepository.filterIds(searchDTO, rankedIds));
+    }
+
+    /**
+     * Check whether any non-text criterion is set.
+     *
+     * @param searchDTO search criteria
+     * @return true if genres, year, rating or review filters are present
+     */
+    private boolean hasFilters(final BookSearchDTO searchDTO) {
+        return (searchDTO.getGenres() != null && !searchDTO.getGenres().isEmpty())
+                || searchDTO.getPublishedYear() != null
+                || searchDTO.getMinPublishedYear() != null
+                || searchDTO.getMaxPublishedYear() != null
+                || searchDTO.getMinRating() != null
+                || searchDTO.getMaxRating() != null
+                || searchDTO.getMinReviews() != null;
+    }
+
+    /**
+     * Search title and/or author through the index; both criteria must match when both are given.
+     *
+     * @param title title search term
+     * @param author author search term
+     * @param fuzzy whether to match terms within a small edit distance
+     * @param pageable pagination information
+     * @return ranked book IDs, or empty if the database should answer instead
+     */
+    private Optional<List<Long>> searchTitleAndAuthor(final String title, final String author,
+                                                      final boolean fuzzy, final Pageable pageable) {
+        return searchFields(fieldQueries(title, author), fuzzy, pageable);
+    }
+
+    /**
+     * Answer several text criteria with one index query, so that the index's result limit applies to
+     * books matching all of them rather than to each criterion on its own.
+     *
+     * @param queries text criteria with the fields they must match in
+     * @param fuzzy whether to match terms within a small edit distance
+     * @param pageable pagination information
+     * @return ranked book IDs, or empty if the database should answer instead
+     */
+    private Optional<List<Long>> searchFields(final List<FieldQuery> queries, final boolean fuzzy,
+                                              final Pageable pageable) {
+        if (queries.isEmpty() || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        return bookSearchIndex.searchFields(queries, fuzzy);
+    }
+
+    private static List<FieldQuery> fieldQueries(final String title, final String author) {
+        List<FieldQuery> queries = new ArrayList<>();
+        if (title != null && !title.isBlank()) {
+            queries.add(new FieldQuery(title, EnumSet.of(SearchField.TITLE)));
+        }
+        if (author != null && !author.isBlank()) {
+            queries.add(new FieldQuery(author, EnumSet.of(SearchField.AUTHOR)));
+        }
+        return queries;
+    }
+
+    /**
+     * Rank top-rated books in memory, enough of them to fill the requested page plus {@code extra}.
+     * Requests with an explicit sort order go to the database.
+     *
+     * @param minRating minimum rating
+     * @param minReviews minimum number of reviews
+     * @param pageable pagination information
+     * @param extra IDs to fetch past the page, to tell whether another page follows
+     * @return ranked book IDs from the top, or empty if the database should answer instead
+     */
+    private Optional<List<Long>> rankTopRated(final BigDecimal minRating, final int minReviews,
+                                              final Pageable pageable, final int extra) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        long limit = pageable.getOffset() + pageable.getPageSize() + extra;
+        if (limit > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        return topRatedIndex.top(minRating, minReviews, (int) limit);
+    }
+
+    /**
+     * Load only the books on the requested page, keeping the ranking order.
+     *
+     * @param rankedIds all matching book IDs, best match first
+     * @param pageable pagination information
+     * @return page of book DTOs
+     */
+    private Page<BookDTO> toRankedPage(final List<Long> rankedIds, final Pageable pageable) {
+        return new PageImpl<>(loadCards(pageIds(rankedIds, pageable)), pageable, rankedIds.size());
+    }
+
+    /**
+     * Cut the requested page out of a ranking.
+     *
+     * @param rankedIds book IDs from the top of the ranking
+     * @param pageable pagination information
+     * @return book IDs on the page
+     */
+    private List<Long> pageIds(final List<Long> rankedIds, final Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return rankedIds;
+        }
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        return rankedIds.subList(from, to);
+    }
+
+    /**
+     * Load book cards by ID, keeping the given order.
+     *
+     * @param ids book IDs
+     * @return book DTOs
+     */
+    private List<BookDTO> loadCards(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookCardView> books = bookRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookCardView::id, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(this::mapCardToDTO)
+                .toList();
+    }
+
+    /**
+     * Build a new book without ratings from creation data.
+     *
+     * @param createDTO book creation data
+     * @return unsaved book
+     */
+    private Book newBook(final BookCreateDTO createDTO) {
+        return Book.builder()
+                .title(createDTO.getTitle())
+                .author(createDTO.getAuthor())
+                .description(createDTO.getDescription())
+                .coverImageUrl(createDTO.getCoverImageUrl())
+                .genres(createDTO.getGenres())
+                .publishedYear(createDTO.getPublishedYear())
+                .weightedScore(weightedRating.score(0L, 0))
+                .build();
     }
 
     /**
@@ -268,4 +751,26 @@ public class BookService {
                 .updatedAt(book.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * Map book card projection to BookDTO.
+     *
+     * @param card the book card
+     * @return book DTO
+     */
+    private BookDTO mapCardToDTO(final BookCardView card) {
+        return BookDTO.builder()
+                .id(card.id())
+                .title(card.title())
+                .author(card.author())
+                .description(card.description())
+                .coverImageUrl(card.coverImageUrl())
+                .genres(card.genres())
+                .publishedYear(card.publishedYear())
+                .averageRating(card.averageRating())
+                .totalReviews(card.totalReviews())
+                .createdAt(card.createdAt())
+                .updatedAt(card.updatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,19 @@
+package com.bookreview.book;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection with the book columns needed to build autocomplete suggestions.
+ */
+public interface BookSuggestionView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    BigDecimal getAverageRating();
+
+    Integer getTotalReviews();
+}
@@ -0,0 +1,10 @@
+package com.bookreview.book;
+
+/**
+ * Projection with a book's ID and title, for resolving titles in bulk loads.
+ *
+ * @param id book ID
+ * @param title title
+ */
+public record BookTitleView(Long id, String title) {
+}
@@ -0,0 +1,175 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookCreateDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads RFC 4180 CSV with a header row naming the {@link BookCreateDTO} fields, in any order and case.
+ * Fields may be quoted to hold commas, quotes or line breaks; genres are separated by {@code |}, e.g.
+ * {@code FANTASY|CHILDREN}. Unknown columns are ignored and blank records skipped.
+ */
+class CsvBookImportReader implements BookImportReader {
+
+    private static final int NONE = -1;
+
+    private final BufferedReader reader;
+    private final int columns;
+    private final int title;
+    private final int author;
+    private final int description;
+    private final int coverImageUrl;
+    private final int genres;
+    private final int publishedYear;
+    private long line = 1;
+
+    /**
+     * Create a reader and read the header row.
+     *
+     * @param reader CSV input
+     * @throws IOException if reading the input fails
+     * @throws IllegalArgumentException if the header is missing or has no title column
+     */
+    CsvBookImportReader(final BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header row is missing");
+        }
+        List<String> names = header.stream()
+                .map(name -> name.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                .toList();
+        this.columns = names.size();
+        this.title = names.indexOf("title");
+        this.author = names.indexOf("author");
+        this.description = names.indexOf("description");
+        this.coverImageUrl = names.indexOf("coverimageurl");
+        this.genres = names.indexOf("genres");
+        this.publishedYear = names.indexOf("publishedyear");
+        if (title == NONE) {
+            throw new IllegalArgumentException("CSV header has no title column");
+        }
+    }
+
+    @Override
+    public Row next() throws IOException {
+        List<String> fields;
+        long start;
+        do {
+            start = line;
+            try {
+                fields = readRecord();
+            } catch (IllegalArgumentException e) {
+                // Only an unclosed quote at the end of the input fails a record
+                return Row.malformed(start, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        if (fields.size() != columns) {
+            return Row.malformed(start, "Expected " + columns + " fields but found " + fields.size());
+        }
+        try {
+            return Row.parsed(start, BookCreateDTO.builder()
+                    .title(field(fields, title))
+                    .author(field(fields, author))
+                    .description(field(fields, description))
+                    .coverImageUrl(field(fields, coverImageUrl))
+                    .genres(parseGenres(field(fields, genres)))
+                    .publishedYear(parseYear(field(fields, publishedYear)))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return Row.malformed(start, e.getMessage());
+        }
+    }
+
+    /**
+     * Read the fields of one record, which spans several lines when quoted fields hold line breaks.
+     *
+     * @return fields, or null at the end of the input
+     * @throws IOException if reading the input fails
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Quoted field is not closed before the end of the input");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        // Closing quote; c is the character after it
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private static String field(final List<String> fields, final int column) {
+        if (column == NONE) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Set<Genre> parseGenres(final String value) {
+        Set<Genre> parsed = EnumSet.noneOf(Genre.class);
+        if (value == null) {
+            return parsed;
+        }
+        for (String name : value.split("\\|")) {
+            if (!name.isBlank()) {
+                try {
+                    parsed.add(Genre.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown genre '" + name.trim() + "'");
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private static Integer parseYear(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Published year '" + value + "' is not a number");
+        }
+    }
+}
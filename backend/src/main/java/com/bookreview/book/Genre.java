@@ -2,6 +2,8 @@ package com.bookreview.book;
 
 /**
  * Enumeration representing book genres.
+ * Genres are persisted as bits by declaration order (see {@link GenreSetConverter}):
+ * add new genres at the end only, and keep at most 63.
  */
 public enum Genre {
     FICTION,
@@ -0,0 +1,68 @@
+package com.bookreview.book;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Stores a set of genres as a bitmask column, one bit per {@link Genre} by declaration order.
+ * Reading genres no longer needs a second query per entity, and genre filters become bitwise checks.
+ */
+@Converter
+public class GenreSetConverter implements AttributeConverter<Set<Genre>, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(final Set<Genre> genres) {
+        return toMask(genres);
+    }
+
+    @Override
+    public Set<Genre> convertToEntityAttribute(final Long mask) {
+        return fromMask(mask == null ? 0L : mask);
+    }
+
+    /**
+     * Get the bitmask of a set of genres.
+     *
+     * @param genres genres, may be null
+     * @return bitmask with the bit of every genre set
+     */
+    public static long toMask(final Collection<Genre> genres) {
+        long mask = 0L;
+        if (genres != null) {
+            for (Genre genre : genres) {
+                mask |= bit(genre);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Get the genres of a bitmask.
+     *
+     * @param mask bitmask
+     * @return mutable set of genres
+     */
+    public static Set<Genre> fromMask(final long mask) {
+        Set<Genre> genres = EnumSet.noneOf(Genre.class);
+        for (Genre genre : Genre.values()) {
+            if ((mask & bit(genre)) != 0) {
+                genres.add(genre);
+            }
+        }
+        return genres;
+    }
+
+    /**
+     * Get the bit of a genre.
+     *
+     * @param genre genre
+     * @return single-bit mask
+     */
+    public static long bit(final Genre genre) {
+        return 1L << genre.ordinal();
+    }
+}
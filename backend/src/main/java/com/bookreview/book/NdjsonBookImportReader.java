@@ -0,0 +1,42 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookCreateDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline-delimited JSON with one {@link BookCreateDTO} object per line. Blank lines are skipped.
+ */
+class NdjsonBookImportReader implements BookImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader bookReader;
+    private long line;
+
+    NdjsonBookImportReader(final BufferedReader reader, final ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.bookReader = objectMapper.readerFor(BookCreateDTO.class);
+    }
+
+    @Override
+    public Row next() throws IOException {
+        String json;
+        do {
+            json = reader.readLine();
+            if (json == null) {
+                return null;
+            }
+            line++;
+        } while (json.isBlank());
+
+        try {
+            return Row.parsed(line, bookReader.readValue(json));
+        } catch (JsonProcessingException e) {
+            return Row.malformed(line, e.getOriginalMessage());
+        }
+    }
+}
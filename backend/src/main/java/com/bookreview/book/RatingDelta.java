@@ -0,0 +1,67 @@
+package com.bookreview.book;
+
+/**
+ * Change to a book's rating aggregates and star histogram caused by one or more review writes.
+ *
+ * @param ratingSum change to the rating sum
+ * @param reviewCount change to the number of reviews
+ * @param oneStarCount change to the number of one-star reviews
+ * @param twoStarCount change to the number of two-star reviews
+ * @param threeStarCount change to the number of three-star reviews
+ * @param fourStarCount change to the number of four-star reviews
+ * @param fiveStarCount change to the number of five-star reviews
+ */
+public record RatingDelta(long ratingSum, long reviewCount, long oneStarCount, long twoStarCount,
+                          long threeStarCount, long fourStarCount, long fiveStarCount) {
+
+    /**
+     * No change.
+     */
+    public static final RatingDelta ZERO = new RatingDelta(0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Get the change caused by a book gaining and/or losing a rating.
+     *
+     * @param addedRating rating the book gains, or null
+     * @param removedRating rating the book loses, or null
+     * @return rating delta
+     */
+    public static RatingDelta of(final Integer addedRating, final Integer removedRating) {
+        long[] stars = new long[6];
+        long sum = 0;
+        long count = 0;
+        if (addedRating != null) {
+            stars[addedRating]++;
+            sum += addedRating;
+            count++;
+        }
+        if (removedRating != null) {
+            stars[removedRating]--;
+            sum -= removedRating;
+            count--;
+        }
+        return new RatingDelta(sum, count, stars[1], stars[2], stars[3], stars[4], stars[5]);
+    }
+
+    /**
+     * Combine two deltas.
+     *
+     * @param other delta to add
+     * @return combined delta
+     */
+    public RatingDelta plus(final RatingDelta other) {
+        return new RatingDelta(ratingSum + other.ratingSum, reviewCount + other.reviewCount,
+                oneStarCount + other.oneStarCount, twoStarCount + other.twoStarCount,
+                threeStarCount + other.threeStarCount, fourStarCount + other.fourStarCount,
+                fiveStarCount + other.fiveStarCount);
+    }
+
+    /**
+     * Check whether applying this delta would change nothing.
+     *
+     * @return true if every component is zero
+     */
+    public boolean isZero() {
+        return equals(ZERO);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bookreview.book;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Bayesian weighted rating used to rank top-rated books.
+ * <p>
+ * Every book starts with {@code priorWeight} imaginary reviews of {@code priorMean} stars, so a book with
+ * two five-star reviews does not outrank one with hundreds of mostly five-star reviews:
+ * {@code score = (ratingSum + priorWeight * priorMean) / (totalReviews + priorWeight)}.
+ * The score is stored on the book and updated by the same statements that apply rating deltas.
+ */
+@Component
+public class WeightedRating {
+
+    private static final int SCALE = 4;
+
+    @Value("${app.ratings.prior-mean:3.5}")
+    private double priorMean;
+
+    @Value("${app.ratings.prior-weight:10}")
+    private int priorWeight;
+
+    /**
+     * Get the rating every book is pulled towards.
+     *
+     * @return prior mean rating
+     */
+    public double getPriorMean() {
+        return priorMean;
+    }
+
+    /**
+     * Get the number of imaginary reviews at the prior mean; at least one, so the score is always defined.
+     *
+     * @return prior weight
+     */
+    public int getPriorWeight() {
+        return Math.max(priorWeight, 1);
+    }
+
+    /**
+     * Compute the weighted score for the given rating aggregates.
+     *
+     * @param ratingSum sum of all ratings
+     * @param totalReviews number of reviews
+     * @return weighted score
+     */
+    public BigDecimal score(final long ratingSum, final int totalReviews) {
+        BigDecimal prior = BigDecimal.valueOf(priorMean).multiply(BigDecimal.valueOf(getPriorWeight()));
+        return BigDecimal.valueOf(ratingSum).add(prior)
+                .divide(BigDecimal.valueOf((long) totalReviews + getPriorWeight()), SCALE, RoundingMode.HALF_UP);
+    }
+}
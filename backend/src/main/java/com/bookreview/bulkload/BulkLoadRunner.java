@@ -0,0 +1,346 @@
+package com.bookreview.bulkload;
+
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.BookService;
+import com.bookreview.book.BookTitleView;
+import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.dto.review.ReviewCreateDTO;
+import com.bookreview.review.ImportedReview;
+import com.bookreview.review.ReviewKey;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.review.ReviewService;
+import com.bookreview.user.UserEmailView;
+import com.bookreview.user.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Offline bulk loader, run with the {@code bulk-load} profile instead of the web server.
+ * <p>
+ * Loads a book dump, then a review dump, then recomputes the rating aggregates of every book once. Dumps
+ * are NDJSON, optionally gzipped: books have one {@link BookCreateDTO} per line, reviews one object with
+ * {@code bookTitle}, {@code userEmail}, {@code rating} and {@code text}; reviewers must already exist. The
+ * reading thread hands blocks of lines to a pool of workers that parse, validate and deduplicate them and
+ * write each block in one transaction with batched inserts. When the pool is busy the reader works through
+ * a block itself, so reading never runs far ahead of writing. Throughput and ETA are logged as it runs,
+ * and the process exits with status 1 if any block could not be written.
+ */
+@Component
+@Profile("bulk-load")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkLoadRunner implements CommandLineRunner {
+
+    private final BookService bookService;
+    private final ReviewService reviewService;
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.bulk-load.books:}")
+    private String booksPath;
+
+    @Value("${app.bulk-load.reviews:}")
+    private String reviewsPath;
+
+    @Value("${app.bulk-load.threads:4}")
+    private int threads;
+
+    @Value("${app.bulk-load.block-size:1000}")
+    private int blockSize;
+
+    @Value("${app.bulk-load.recalculate-batch-size:10000}")
+    private int recalculateBatchSize;
+
+    @Value("${app.bulk-load.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    @Value("${app.bulk-load.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(final String... args) throws Exception {
+        long failed = 0;
+        if (!booksPath.isBlank()) {
+            failed += loadBooks(Path.of(booksPath));
+        }
+        if (!reviewsPath.isBlank()) {
+            failed += loadReviews(Path.of(reviewsPath));
+            failed += recalculateRatings();
+        }
+        if (booksPath.isBlank() && reviewsPath.isBlank()) {
+            log.warn("Nothing to load, set app.bulk-load.books and/or app.bulk-load.reviews");
+        }
+
+        int status = failed > 0 ? 1 : 0;
+        if (exit) {
+            // Scheduled tasks would otherwise keep the process alive
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+
+    /**
+     * Load the book dump.
+     *
+     * @param path dump file
+     * @return number of records in blocks that could not be written
+     * @throws IOException if reading the dump fails
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    long loadBooks(final Path path) throws IOException, InterruptedException {
+        log.info("Loading books from {}", path);
+        ObjectReader reader = objectMapper.readerFor(BookCreateDTO.class);
+        Set<String> titles = ConcurrentHashMap.newKeySet();
+        titles.addAll(bookRepository.findAllTitles());
+
+        return load("books", path, (lines, firstLine, progress) -> {
+            List<BookCreateDTO> books = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                long line = firstLine + i;
+                BookCreateDTO book = parse(lines.get(i), reader, line, progress);
+                if (book == null) {
+                    continue;
+                }
+                if (!titles.add(book.getTitle())) {
+                    progress.reject(line, "Book with title '" + book.getTitle() + "' already exists");
+                    continue;
+                }
+                books.add(book);
+            }
+            if (!books.isEmpty()) {
+                bookService.createBooks(books);
+            }
+            return books.size();
+        });
+    }
+
+    /**
+     * Load the review dump, resolving books by title and reviewers by email.
+     *
+     * @param path dump file
+     * @return number of records in blocks that could not be written
+     * @throws IOException if reading the dump fails
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    long loadReviews(final Path path) throws IOException, InterruptedException {
+        log.info("Loading reviews from {}", path);
+        ObjectReader reader = objectMapper.readerFor(ReviewRecord.class);
+        Map<String, Long> bookIds = bookRepository.findAllTitleViews().stream()
+                .collect(Collectors.toMap(BookTitleView::title, BookTitleView::id, (first, second) -> first));
+        Map<String, Long> userIds = userRepository.findAllEmailViews().stream()
+                .collect(Collectors.toMap(UserEmailView::email, UserEmailView::id));
+        Set<ReviewKey> reviewed = ConcurrentHashMap.newKeySet();
+        reviewed.addAll(reviewRepository.findAllKeys());
+
+        return load("reviews", path, (lines, firstLine, progress) -> {
+            List<ImportedReview> reviews = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                long line = firstLine + i;
+                ReviewRecord record = parse(lines.get(i), reader, line, progress);
+                if (record == null) {
+                    continue;
+                }
+                Long bookId = bookIds.get(record.bookTitle());
+                Long userId = userIds.get(record.userEmail());
+                if (bookId == null || userId == null) {
+                    progress.reject(line, bookId == null ? "Book '" + record.bookTitle() + "' not found"
+                            : "User '" + record.userEmail() + "' not found");
+                    continue;
+                }
+                String invalid = violations(new ReviewCreateDTO(bookId, record.rating(), record.text()));
+                if (invalid != null) {
+                    progress.reject(line, invalid);
+                    continue;
+                }
+                if (!reviewed.add(new ReviewKey(bookId, userId))) {
+                    progress.reject(line, "User has already reviewed this book");
+                    continue;
+                }
+                reviews.add(new ImportedReview(bookId, userId, record.rating(), record.text()));
+            }
+            if (!reviews.isEmpty()) {
+                reviewService.createReviews(reviews);
+            }
+            return reviews.size();
+        });
+    }
+
+    /**
+     * Recompute the rating aggregates of every book from its reviews, in parallel ID ranges.
+     *
+     * @return number of ranges that could not be updated
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    long recalculateRatings() throws InterruptedException {
+        Long maxId = bookRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        log.info("Recalculating book ratings");
+        LoadProgress progress = new LoadProgress("ratings", progressIntervalMs);
+        ThreadPoolExecutor workers = workers();
+        for (long from = 1; from <= maxId; from += recalculateBatchSize) {
+            long fromId = from;
+            long toId = Math.min(from + recalculateBatchSize - 1, maxId);
+            workers.execute(() -> {
+                try {
+                    progress.loaded(bookService.recalculateRatings(fromId, toId));
+                } catch (RuntimeException e) {
+                    log.error("ratings: books {} to {} failed: {}", fromId, toId, e.getMessage(), e);
+                    progress.failed(1);
+                }
+            });
+            progress.read(toId - fromId + 1);
+            progress.report((double) toId / maxId);
+        }
+        awaitTermination(workers);
+        progress.finish();
+        return progress.failed();
+    }
+
+    private long load(final String phase, final Path path, final BlockLoader loader)
+            throws IOException, InterruptedException {
+        LoadProgress progress = new LoadProgress(phase, progressIntervalMs);
+        ThreadPoolExecutor workers = workers();
+        try (DumpFile dump = DumpFile.open(path)) {
+            log.info("{}: reading {} bytes with {} workers", phase, dump.size(), workers.getMaximumPoolSize());
+            long lineNumber = 0;
+            List<String> block = new ArrayList<>(blockSize);
+            String line;
+            while ((line = dump.readLine()) != null) {
+                block.add(line);
+                if (block.size() == blockSize) {
+                    submit(workers, loader, block, lineNumber + 1, progress);
+                    lineNumber += block.size();
+                    block = new ArrayList<>(blockSize);
+                    progress.report(dump.progress());
+                }
+            }
+            if (!block.isEmpty()) {
+                submit(workers, loader, block, lineNumber + 1, progress);
+            }
+        } finally {
+            awaitTermination(workers);
+        }
+        progress.finish();
+        return progress.failed();
+    }
+
+    private void submit(final ThreadPoolExecutor workers, final BlockLoader loader, final List<String> block,
+                        final long firstLine, final LoadProgress progress) {
+        workers.execute(() -> {
+            try {
+                progress.loaded(loader.load(block, firstLine, progress));
+            } catch (RuntimeException e) {
+                log.error("Block of lines {} to {} failed: {}", firstLine, firstLine + block.size() - 1,
+                        e.getMessage(), e);
+                progress.failed(block.size());
+            }
+        });
+    }
+
+    private ThreadPoolExecutor workers() {
+        // A short queue and caller-runs keep at most a few blocks in memory ahead of the writers
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static void awaitTermination(final ThreadPoolExecutor workers) throws InterruptedException {
+        workers.shutdown();
+        while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.debug("Waiting for bulk load workers");
+        }
+    }
+
+    /**
+     * Parse and validate one line; blank lines and rejected records return null.
+     */
+    private <T> T parse(final String json, final ObjectReader reader, final long line,
+                        final LoadProgress progress) {
+        if (json.isBlank()) {
+            return null;
+        }
+        progress.read(1);
+        T record;
+        try {
+            record = reader.readValue(json);
+        } catch (JsonProcessingException e) {
+            progress.reject(line, e.getOriginalMessage());
+            return null;
+        }
+        String invalid = violations(record);
+        if (invalid != null) {
+            progress.reject(line, invalid);
+            return null;
+        }
+        return record;
+    }
+
+    private String violations(final Object record) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Parses, validates and writes one block of lines.
+     */
+    @FunctionalInterface
+    private interface BlockLoader {
+
+        /**
+         * Load a block.
+         *
+         * @param lines lines of the block, blank ones included
+         * @param firstLine line number of the first line, 1-based
+         * @param progress progress to count rejected records on
+         * @return number of records written
+         */
+        int load(List<String> lines, long firstLine, LoadProgress progress);
+    }
+
+    /**
+     * Line of a review dump.
+     *
+     * @param bookTitle title of the reviewed book
+     * @param userEmail email of the reviewer
+     * @param rating rating
+     * @param text review text
+     */
+    record ReviewRecord(@NotBlank(message = "Book title is mandatory") String bookTitle,
+                        @NotBlank(message = "User email is mandatory") String userEmail,
+                        Integer rating, String text) {
+    }
+}
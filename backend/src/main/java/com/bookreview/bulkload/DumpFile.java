@@ -0,0 +1,89 @@
+package com.bookreview.bulkload;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Dump file read line by line through large buffers, gunzipped when its name ends in {@code .gz}.
+ * Progress is the share of the file's bytes read so far, so it also works for compressed dumps.
+ */
+final class DumpFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final BufferedReader reader;
+
+    private DumpFile(final FileChannel channel, final BufferedReader reader) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.reader = reader;
+    }
+
+    /**
+     * Open a dump file.
+     *
+     * @param path file path
+     * @return open dump file
+     * @throws IOException if the file cannot be opened
+     */
+    static DumpFile open(final Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            if (path.getFileName().toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in, BUFFER_SIZE);
+            }
+            return new DumpFile(channel,
+                    new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the next line.
+     *
+     * @return line, or null at the end of the file
+     * @throws IOException if reading fails
+     */
+    String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    /**
+     * Get the share of the file read so far.
+     *
+     * @return progress between 0 and 1
+     * @throws IOException if the file position cannot be read
+     */
+    double progress() throws IOException {
+        return size == 0 ? 1 : Math.min(1, (double) channel.position() / size);
+    }
+
+    /**
+     * Get the size of the file.
+     *
+     * @return size in bytes
+     */
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bookreview.bulkload;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the records of one bulk load phase and logs throughput and ETA at most once per interval.
+ * Counters are updated by the worker threads; progress is reported by the thread reading the input.
+ */
+@Slf4j
+final class LoadProgress {
+
+    private static final int MAX_LOGGED_REJECTIONS = 100;
+
+    private final String phase;
+    private final long intervalNanos;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long lastReportNanos = startNanos;
+
+    LoadProgress(final String phase, final long intervalMillis) {
+        this.phase = phase;
+        this.intervalNanos = Duration.ofMillis(intervalMillis).toNanos();
+    }
+
+    void read(final long records) {
+        read.addAndGet(records);
+    }
+
+    void loaded(final long records) {
+        loaded.addAndGet(records);
+    }
+
+    void failed(final long records) {
+        failed.addAndGet(records);
+    }
+
+    /**
+     * Count a rejected record; the first few are logged.
+     *
+     * @param line line of the record
+     * @param reason why it was rejected
+     */
+    void reject(final long line, final String reason) {
+        long count = rejected.incrementAndGet();
+        if (count <= MAX_LOGGED_REJECTIONS) {
+            log.warn("{}: rejected line {}: {}", phase, line, reason);
+        } else if (count == MAX_LOGGED_REJECTIONS + 1) {
+            log.warn("{}: more rejected records are counted but not logged", phase);
+        }
+    }
+
+    long failed() {
+        return failed.get();
+    }
+
+    /**
+     * Log progress if the interval has passed since the last report.
+     *
+     * @param done share of the input read, between 0 and 1
+     */
+    void report(final double done) {
+        long now = System.nanoTime();
+        if (now - lastReportNanos < intervalNanos) {
+            return;
+        }
+        lastReportNanos = now;
+        long elapsed = now - startNanos;
+        String eta = done > 0 ? format(Duration.ofNanos((long) (elapsed * (1 - done) / done))) : "unknown";
+        log.info("{}: {} read, {} loaded, {} rejected, {} failed, {}/s, {}% done, ETA {}", phase, read.get(),
+                loaded.get(), rejected.get(), failed.get(), rate(elapsed), Math.round(done * 100), eta);
+    }
+
+    /**
+     * Log the totals of the phase.
+     */
+    void finish() {
+        long elapsed = System.nanoTime() - startNanos;
+        log.info("{}: finished in {}: {} read, {} loaded, {} rejected, {} failed, {}/s", phase,
+                format(Duration.ofNanos(elapsed)), read.get(), loaded.get(), rejected.get(), failed.get(),
+                rate(elapsed));
+    }
+
+    private long rate(final long elapsedNanos) {
+        return elapsedNanos > 0 ? Math.round(loaded.get() * 1e9 / elapsedNanos) : 0;
+    }
+
+    private static String format(final Duration duration) {
+        return String.format("%02d:%02d:%02d", duration.toHours(), duration.toMinutesPart(),
+                duration.toSecondsPart());
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookreview.cache;
+
+/**
+ * Eviction broadcast to every node: one key of a cache, or the whole cache when the key is null.
+ * Keys travel as strings; each node matches them against its own cache keys, see
+ * {@link CacheInvalidationBus#registerMatcher}.
+ *
+ * @param cacheName cache name
+ * @param key invalidation key, or null to clear the cache
+ */
+public record CacheInvalidation(String cacheName, String key) {
+
+    /**
+     * Invalidate the entries of a cache matching a key.
+     *
+     * @param cacheName cache name
+     * @param key invalidation key
+     * @return cache invalidation
+     */
+    public static CacheInvalidation key(final String cacheName, final String key) {
+        return new CacheInvalidation(cacheName, key);
+    }
+
+    /**
+     * Invalidate a whole cache.
+     *
+     * @param cacheName cache name
+     * @return cache invalidation
+     */
+    public static CacheInvalidation region(final String cacheName) {
+        return new CacheInvalidation(cacheName, null);
+    }
+
+    /**
+     * Check if this invalidation clears the whole cache.
+     *
+     * @return true for region-level invalidations
+     */
+    public boolean isRegion() {
+        return key == null;
+    }
+}
@@ -0,0 +1,219 @@
+package com.bookreview.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Cluster-wide eviction for the local caches of every backend node.
+ * <p>
+ * Invalidations requested inside a transaction are held until it commits and dropped on rollback; outside a
+ * transaction they go out immediately. They are applied to this node's caches and handed to the
+ * {@link InvalidationTransport}, which other nodes poll to apply them to theirs. A key is matched against
+ * cached keys by their string form, unless a matcher registered for the cache decides. Callbacks registered
+ * with {@link #onApplied} run once a batch of invalidations has been applied to this node's caches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+
+    private static final BiPredicate<Object, String> SAME_STRING =
+            (cachedKey, key) -> key.equals(String.valueOf(cachedKey));
+
+    private final CacheManager cacheManager;
+    private final InvalidationTransport transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, BiPredicate<Object, String>> matchers = new ConcurrentHashMap<>();
+    private final List<AppliedListener> appliedListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Get the ID this node publishes invalidations under.
+     *
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Decide how invalidation keys of a cache match its entries.
+     *
+     * @param cacheName cache name
+     * @param keyType type of the cache's keys; entries with other keys never match
+     * @param matcher tests a cached key against an invalidation key
+     * @param <K> key type
+     */
+    public <K> void registerMatcher(final String cacheName, final Class<K> keyType,
+                                    final BiPredicate<K, String> matcher) {
+        matchers.put(cacheName, (cachedKey, key) -> keyType.isInstance(cachedKey)
+                && matcher.test(keyType.cast(cachedKey), key));
+    }
+
+    /**
+     * Run a callback each time invalidations of any of the given caches have been applied to this node,
+     * whether published here or polled from another node. Runs once per batch, after the stale entries are
+     * gone.
+     *
+     * @param listener callback
+     * @param cacheNames names of the caches to listen to
+     */
+    public void onApplied(final Runnable listener, final String... cacheNames) {
+        appliedListeners.add(new AppliedListener(Set.of(cacheNames), listener));
+    }
+
+    /**
+     * Evict the entries of a cache matching a key on every node, once the current transaction commits.
+     *
+     * @param cacheName cache name
+     * @param key invalidation key
+     */
+    public void evict(final String cacheName, final Object key) {
+        send(CacheInvalidation.key(cacheName, String.valueOf(key)));
+    }
+
+    /**
+     * Clear a cache on every node, once the current transaction commits.
+     *
+     * @param cacheName cache name
+     */
+    public void clear(final String cacheName) {
+        send(CacheInvalidation.region(cacheName));
+    }
+
+    /**
+     * Apply the invalidations other nodes published since the last poll.
+     *
+     * @return number of applied invalidations
+     */
+    @Scheduled(initialDelayString = "${app.cache.invalidation.poll-interval-ms:1000}",
+            fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public int poll() {
+        List<CacheInvalidation> received;
+        try {
+            received = transport.poll(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll cache invalidations: {}", e.getMessage());
+            return 0;
+        }
+        applyAll(received);
+        if (!received.isEmpty()) {
+            log.debug("Applied {} cache invalidations from other nodes", received.size());
+        }
+        return received.size();
+    }
+
+    /**
+     * Apply an invalidation to this node's caches.
+     *
+     * @param invalidation cache invalidation
+     */
+    void apply(final CacheInvalidation invalidation) {
+        Cache cache = cacheManager.getCache(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isRegion()) {
+            cache.clear();
+            return;
+        }
+
+        Map<?, ?> entries = entries(cache);
+        if (entries == null) {
+            log.debug("Cannot scan keys of cache {}, clearing it", invalidation.cacheName());
+            cache.clear();
+            return;
+        }
+        BiPredicate<Object, String> matcher = matchers.getOrDefault(invalidation.cacheName(), SAME_STRING);
+        entries.keySet().removeIf(cachedKey -> matcher.test(cachedKey, invalidation.key()));
+    }
+
+    private void applyAll(final List<CacheInvalidation> invalidations) {
+        invalidations.forEach(this::apply);
+        Set<String> cacheNames = invalidations.stream()
+                .map(CacheInvalidation::cacheName)
+                .collect(Collectors.toSet());
+        appliedListeners.stream()
+                .filter(applied -> applied.cacheNames().stream().anyMatch(cacheNames::contains))
+                .forEach(applied -> applied.listener().run());
+    }
+
+    private void send(final CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(invalidation));
+            return;
+        }
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.invalidations.add(invalidation);
+    }
+
+    private void publish(final List<CacheInvalidation> invalidations) {
+        List<CacheInvalidation> distinct = invalidations.stream().distinct().toList();
+        applyAll(distinct);
+        try {
+            transport.publish(nodeId, distinct);
+        } catch (RuntimeException e) {
+            // Other nodes keep the stale entries until they expire
+            log.error("Failed to broadcast {} cache invalidations: {}", distinct.size(), e.getMessage(), e);
+        }
+    }
+
+    private static Map<?, ?> entries(final Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine.asMap();
+        }
+        if (nativeCache instanceof Map<?, ?> map) {
+            return map;
+        }
+        return null;
+    }
+
+    /**
+     * Callback run after invalidations of any of its caches were applied.
+     *
+     * @param cacheNames cache names
+     * @param listener callback
+     */
+    private record AppliedListener(Set<String> cacheNames, Runnable listener) {
+    }
+
+    /**
+     * Invalidations requested in one transaction. Published from afterCompletion rather than afterCommit,
+     * which also runs when they are requested from another listener's afterCommit callback.
+     */
+    private final class PendingInvalidations implements TransactionSynchronization {
+
+        private final List<CacheInvalidation> invalidations = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+            if (status == STATUS_COMMITTED) {
+                publish(invalidations);
+            } else {
+                log.debug("Dropping {} cache invalidations of a rolled back transaction", invalidations.size());
+            }
+        }
+    }
+}
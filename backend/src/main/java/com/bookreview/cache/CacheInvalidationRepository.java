@@ -0,0 +1,45 @@
+package com.bookreview.cache;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the cache invalidation log.
+ */
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEntry, Long> {
+
+    /**
+     * Find the next log rows after the given ID.
+     *
+     * @param id ID to start after
+     * @param pageable batch size
+     * @return log rows ordered by ID
+     */
+    List<CacheInvalidationEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Find the highest ID in the log.
+     *
+     * @return highest ID, or 0 if the log is empty
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CacheInvalidationEntry e")
+    long findMaxId();
+
+    /**
+     * Delete log rows older than the given time.
+     *
+     * @param before cut-off time
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationEntry e WHERE e.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,76 @@
+package com.bookreview.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sends surrogate key purges to the CDN's purge endpoint, e.g. Fastly's
+ * {@code POST /service/{id}/purge} with a {@code Surrogate-Key} header. Disabled while no URL is configured.
+ */
+@Component
+@Slf4j
+public class CdnPurgeClient {
+
+    private final RestClient restClient;
+
+    @Value("${app.http-cache.purge.url:}")
+    private String purgeUrl;
+
+    @Value("${app.http-cache.purge.token-header:Fastly-Key}")
+    private String tokenHeader;
+
+    @Value("${app.http-cache.purge.token:}")
+    private String token;
+
+    @Value("${app.http-cache.purge.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.http-cache.surrogate-key-header:Surrogate-Key}")
+    private String surrogateKeyHeader;
+
+    public CdnPurgeClient(final RestClient.Builder restClientBuilder) {
+        this.restClient = restClientBuilder.build();
+    }
+
+    /**
+     * Purge the responses tagged with any of the keys. Failures are logged; the CDN then serves the stale
+     * copies until their shared max age runs out.
+     *
+     * @param surrogateKeys surrogate keys
+     */
+    @Async
+    public void purge(final Set<String> surrogateKeys) {
+        if (purgeUrl.isBlank() || surrogateKeys.isEmpty()) {
+            log.debug("Skipping CDN purge of {}", surrogateKeys);
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(surrogateKeys);
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            try {
+                restClient.post()
+                        .uri(purgeUrl)
+                        .headers(headers -> {
+                            headers.set(surrogateKeyHeader, String.join(" ", batch));
+                            if (!token.isBlank()) {
+                                headers.set(tokenHeader, token);
+                            }
+                        })
+                        .retrieve()
+                        .toBodilessEntity();
+                log.debug("Purged surrogate keys {}", batch);
+            } catch (RestClientException e) {
+                log.warn("Failed to purge surrogate keys {}: {}", batch, e.getMessage());
+            }
+        }
+    }
+}
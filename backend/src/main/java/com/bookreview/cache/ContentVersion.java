@@ -0,0 +1,44 @@
+package com.bookreview.cache;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of a resource or collection for HTTP validators: how many rows it spans and when the newest of
+ * them changed. Every write to a row bumps its update time and deletes change the count, so two reads with
+ * the same version return the same representation.
+ *
+ * @param count number of rows
+ * @param lastModified latest update time of the rows, or null when there are none
+ */
+public record ContentVersion(long count, LocalDateTime lastModified) {
+
+    /**
+     * Check if this version can validate a response; empty content has nothing to validate.
+     *
+     * @return true if the version has an update time
+     */
+    public boolean isKnown() {
+        return lastModified != null;
+    }
+
+    /**
+     * Get the strong entity tag of this version, quoted.
+     *
+     * @return entity tag
+     */
+    public String etag() {
+        return "\"" + count + "-" + ChronoUnit.MICROS.between(Instant.EPOCH, lastModifiedInstant()) + "\"";
+    }
+
+    /**
+     * Get the update time as an instant; update times are stored in the server's time zone.
+     *
+     * @return last modification instant
+     */
+    public Instant lastModifiedInstant() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
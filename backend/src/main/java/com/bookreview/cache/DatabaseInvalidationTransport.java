@@ -0,0 +1,137 @@
+package com.bookreview.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Invalidation transport over the {@code cache_invalidations} table, so nodes need nothing but the database
+ * they already share.
+ * <p>
+ * Each node remembers the highest log ID below which it has seen every row. IDs are assigned at insert but
+ * rows become visible at commit, so a later ID can show up before an earlier one; rows above the mark are
+ * remembered until the gap below them fills. A gap still open after {@code gap-timeout-ms} belongs to a
+ * rolled back insert and is skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "database", matchIfMissing = true)
+@Slf4j
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+
+    private final CacheInvalidationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final NavigableSet<Long> seenAboveMark = new TreeSet<>();
+    private long highWaterMark = -1;
+    private long gapSince;
+
+    @Value("${app.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.cache.invalidation.retention-ms:3600000}")
+    private long retentionMs;
+
+    public DatabaseInvalidationTransport(final CacheInvalidationRepository repository,
+                                         final PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // Publishing runs after the caller's transaction completed, so it needs its own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void publish(final String origin, final List<CacheInvalidation> invalidations) {
+        List<CacheInvalidationEntry> entries = invalidations.stream()
+                .map(invalidation -> CacheInvalidationEntry.builder()
+                        .origin(origin)
+                        .cacheName(invalidation.cacheName())
+                        .cacheKey(invalidation.key())
+                        .build())
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(entries));
+    }
+
+    /**
+     * Start reading the log at its current end; caches start empty, so older invalidations do not concern
+     * this node.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (highWaterMark < 0) {
+            highWaterMark = repository.findMaxId();
+        }
+    }
+
+    @Override
+    public synchronized List<CacheInvalidation> poll(final String origin) {
+        if (highWaterMark < 0) {
+            start();
+            return List.of();
+        }
+
+        List<CacheInvalidation> received = new ArrayList<>();
+        for (CacheInvalidationEntry entry : repository.findByIdGreaterThanOrderByIdAsc(
+                highWaterMark, PageRequest.of(0, batchSize))) {
+            if (seenAboveMark.add(entry.getId()) && !origin.equals(entry.getOrigin())) {
+                received.add(entry.toInvalidation());
+            }
+        }
+        advanceMark();
+        return received;
+    }
+
+    /**
+     * Delete log rows every node has had time to poll.
+     *
+     * @return number of deleted rows
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:600000}")
+    public int purge() {
+        int deleted = transactionTemplate.execute(
+                status -> repository.deleteOlderThan(LocalDateTime.now().minus(Duration.ofMillis(retentionMs))));
+        if (deleted > 0) {
+            log.debug("Purged {} cache invalidation log rows", deleted);
+        }
+        return deleted;
+    }
+
+    private void advanceMark() {
+        long previousMark = highWaterMark;
+        while (seenAboveMark.remove(highWaterMark + 1)) {
+            highWaterMark++;
+        }
+        if (seenAboveMark.isEmpty() || highWaterMark != previousMark) {
+            gapSince = 0;
+        }
+        if (seenAboveMark.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (gapSince == 0) {
+            gapSince = now;
+        } else if (now - gapSince > gapTimeoutMs) {
+            log.debug("Skipping cache invalidation log IDs {} to {}", highWaterMark + 1, seenAboveMark.first() - 1);
+            highWaterMark = seenAboveMark.first() - 1;
+            gapSince = 0;
+            advanceMark();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookreview.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Purges CDN copies of public responses by surrogate key when write paths change what they show.
+ * Keys requested inside a transaction are purged once it commits and dropped on rollback.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HttpCachePurger {
+
+    private final CdnPurgeClient cdnPurgeClient;
+
+    /**
+     * Purge the responses tagged with any of the keys, once the current transaction commits.
+     *
+     * @param surrogateKeys surrogate keys, see {@link SurrogateKeys}
+     */
+    public void purge(final String... surrogateKeys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cdnPurgeClient.purge(Set.copyOf(Arrays.asList(surrogateKeys)));
+            return;
+        }
+        PendingPurge pending = (PendingPurge) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingPurge();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.keys.addAll(Arrays.asList(surrogateKeys));
+    }
+
+    /**
+     * Keys requested in one transaction, purged together from afterCompletion so requests made in another
+     * listener's afterCommit callback are included.
+     */
+    private final class PendingPurge implements TransactionSynchronization {
+
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(HttpCachePurger.this);
+            if (status == STATUS_COMMITTED) {
+                cdnPurgeClient.purge(Set.copyOf(keys));
+            } else {
+                log.debug("Dropping purge of {} surrogate keys of a rolled back transaction", keys.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.bookreview.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GETs and cache headers for public responses.
+ * <p>
+ * The caller looks up the current {@link ContentVersion} of the resource, which is much cheaper than the
+ * resource itself. When the request's {@code If-None-Match} (or, without it, {@code If-Modified-Since})
+ * matches that version the response is a 304 and the resource is never loaded. Otherwise the response is
+ * loaded and stamped with the validators of the version it was built from. Both carry {@code Cache-Control}
+ * and the surrogate keys a CDN purges them by, see {@link HttpCachePurger}.
+ * <p>
+ * Shared caches keep a response for {@code shared-max-age-seconds} only if it has validators and a purge URL
+ * is configured, so that writes can take it out again. Without a purge URL they keep it for
+ * {@code unpurged-shared-max-age-seconds} at most, and a response without validators is sent {@code no-cache}.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpCaching {
+
+    private final HttpServletRequest request;
+
+    @Value("${app.http-cache.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    @Value("${app.http-cache.shared-max-age-seconds:300}")
+    private long sharedMaxAgeSeconds;
+
+    @Value("${app.http-cache.unpurged-shared-max-age-seconds:60}")
+    private long unpurgedSharedMaxAgeSeconds;
+
+    @Value("${app.http-cache.surrogate-key-header:Surrogate-Key}")
+    private String surrogateKeyHeader;
+
+    @Value("${app.http-cache.purge.url:}")
+    private String purgeUrl;
+
+    /**
+     * Answer a GET whose response is built from the current version of its content.
+     *
+     * @param current version read before loading the response, or null to send no validators
+     * @param response loads the response
+     * @param surrogateKeys surrogate keys of the response
+     * @param <T> body type
+     * @return 304 if the client's copy is current, otherwise the loaded response
+     */
+    public <T> ResponseEntity<T> respond(final ContentVersion current, final Supplier<ResponseEntity<T>> response,
+                                         final String... surrogateKeys) {
+        return respond(current, response, body -> current, surrogateKeys);
+    }
+
+    /**
+     * Answer a GET whose response may be served from a cache and so may be older than the current version.
+     *
+     * @param current version read before loading the response, or null to skip the 304 check
+     * @param response loads the response
+     * @param served version the loaded body was built from
+     * @param surrogateKeys surrogate keys of the response
+     * @param <T> body type
+     * @return 304 if the client's copy is current, otherwise the loaded response
+     */
+    public <T> ResponseEntity<T> respond(final ContentVersion current, final Supplier<ResponseEntity<T>> response,
+                                         final Function<T, ContentVersion> served, final String... surrogateKeys) {
+        if (current != null && current.isKnown() && isNotModified(current)) {
+            return stamp(ResponseEntity.status(HttpStatus.NOT_MODIFIED), current, surrogateKeys).build();
+        }
+
+        ResponseEntity<T> loaded = response.get();
+        if (!loaded.getStatusCode().is2xxSuccessful()) {
+            return loaded;
+        }
+        // A write between reading the version and loading the body only makes the validators older than the
+        // body, which costs the client one more full response but never a stale 304
+        ContentVersion version = loaded.hasBody() ? served.apply(loaded.getBody()) : null;
+        return stamp(ResponseEntity.status(loaded.getStatusCode()).headers(loaded.getHeaders()), version,
+                surrogateKeys).body(loaded.getBody());
+    }
+
+    private boolean isNotModified(final ContentVersion version) {
+        HttpHeaders headers = new ServletServerHttpRequest(request).getHeaders();
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            // GETs compare entity tags weakly
+            String etag = version.etag();
+            return ifNoneMatch.stream()
+                    .anyMatch(tag -> "*".equals(tag) || etag.equals(tag) || ("W/" + etag).equals(tag));
+        }
+        long ifModifiedSince = headers.getIfModifiedSince();
+        return ifModifiedSince >= 0
+                && version.lastModifiedInstant().truncatedTo(ChronoUnit.SECONDS).toEpochMilli() <= ifModifiedSince;
+    }
+
+    private ResponseEntity.BodyBuilder stamp(final ResponseEntity.BodyBuilder builder, final ContentVersion version,
+                                             final String... surrogateKeys) {
+        boolean validated = version != null && version.isKnown();
+        builder.cacheControl(cacheControl(validated));
+        if (surrogateKeys.length > 0) {
+            builder.header(surrogateKeyHeader, String.join(" ", surrogateKeys));
+        }
+        if (validated) {
+            builder.eTag(version.etag()).lastModified(version.lastModifiedInstant());
+        }
+        return builder;
+    }
+
+    private CacheControl cacheControl(final boolean validated) {
+        if (!validated) {
+            return CacheControl.noCache();
+        }
+        long sharedMaxAge = purgeUrl.isBlank()
+                ? Math.min(sharedMaxAgeSeconds, unpurgedSharedMaxAgeSeconds)
+                : sharedMaxAgeSeconds;
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .sMaxAge(Duration.ofSeconds(sharedMaxAge));
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookreview.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invalidation transport through a log shared by every application context in the JVM.
+ * For tests that run several nodes in one process; the log is never trimmed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "in-process")
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private static final List<Message> LOG = new ArrayList<>();
+
+    private int position;
+
+    public InProcessInvalidationTransport() {
+        synchronized (LOG) {
+            position = LOG.size();
+        }
+    }
+
+    @Override
+    public void publish(final String origin, final List<CacheInvalidation> invalidations) {
+        synchronized (LOG) {
+            invalidations.forEach(invalidation -> LOG.add(new Message(origin, invalidation)));
+        }
+    }
+
+    @Override
+    public List<CacheInvalidation> poll(final String origin) {
+        synchronized (LOG) {
+            List<CacheInvalidation> received = LOG.subList(position, LOG.size()).stream()
+                    .filter(message -> !origin.equals(message.origin()))
+                    .map(Message::invalidation)
+                    .toList();
+            position = LOG.size();
+            return received;
+        }
+    }
+
+    private record Message(String origin, CacheInvalidation invalidation) {
+    }
+}
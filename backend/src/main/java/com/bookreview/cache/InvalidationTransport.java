@@ -0,0 +1,26 @@
+package com.bookreview.cache;
+
+import java.util.List;
+
+/**
+ * Carries cache invalidations between backend nodes for {@link CacheInvalidationBus}.
+ * Implementations must deliver every invalidation published by another node at least once.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Send invalidations to every other node.
+     *
+     * @param origin ID of the publishing node
+     * @param invalidations invalidations to send
+     */
+    void publish(String origin, List<CacheInvalidation> invalidations);
+
+    /**
+     * Receive the invalidations other nodes published since the last poll.
+     *
+     * @param origin ID of the polling node; its own invalidations are skipped
+     * @return received invalidations, oldest first
+     */
+    List<CacheInvalidation> poll(String origin);
+}
@@ -0,0 +1,55 @@
+package com.bookreview.cache;
+
+/**
+ * Surrogate keys tagging public responses, so a CDN can purge every response showing changed content.
+ */
+public final class SurrogateKeys {
+
+    /**
+     * Every book listing.
+     */
+    public static final String BOOKS = "books";
+
+    private SurrogateKeys() {
+    }
+
+    /**
+     * Key of the responses showing one book.
+     *
+     * @param bookId book ID
+     * @return surrogate key
+     */
+    public static String book(final Long bookId) {
+        return "book-" + bookId;
+    }
+
+    /**
+     * Key of the responses showing one review.
+     *
+     * @param reviewId review ID
+     * @return surrogate key
+     */
+    public static String review(final Long reviewId) {
+        return "review-" + reviewId;
+    }
+
+    /**
+     * Key of the responses showing reviews of a book, including the book's title.
+     *
+     * @param bookId book ID
+     * @return surrogate key
+     */
+    public static String bookReviews(final Long bookId) {
+        return "book-reviews-" + bookId;
+    }
+
+    /**
+     * Key of the responses showing reviews by a user, including the user's name.
+     *
+     * @param userId user ID
+     * @return surrogate key
+     */
+    public static String userReviews(final Long userId) {
+        return "user-reviews-" + userId;
+    }
+}
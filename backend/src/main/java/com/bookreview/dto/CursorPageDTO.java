@@ -0,0 +1,27 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a cursor-paginated listing.
+ * Pass {@code nextCursor} or {@code previousCursor} back as the {@code cursor} parameter,
+ * with the same sort, to fetch the adjacent page; a null cursor means there is no such page.
+ *
+ * @param <T> item type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String previousCursor;
+}
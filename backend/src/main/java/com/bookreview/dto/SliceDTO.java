@@ -0,0 +1,30 @@
+package com.bookreview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a listing without a total count.
+ * Much smaller than a serialized page: no sort or pageable metadata is repeated.
+ *
+ * @param <T> item type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedTotal; // Exact on the last page, otherwise a cached estimate if requested
+}
@@ -0,0 +1,26 @@
+package com.bookreview.dto.book;
+
+import com.bookreview.book.Genre;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for facet counts next to catalog search results.
+ * Each facet is counted with every other filter applied but its own, so the counts show
+ * how many books selecting another value of that facet would return.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetsDTO {
+
+    private long total;
+    private Map<Genre, Long> genres;
+    private Map<Integer, Long> decades; // Keyed by first year of the decade
+    private Map<Integer, Long> ratings; // Keyed by minimum whole-star rating, e.g. 4 = "4 stars and up"
+}
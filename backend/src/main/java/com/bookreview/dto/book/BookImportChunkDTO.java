@@ -0,0 +1,24 @@
+package com.bookreview.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one chunk of a bulk book import, committed in its own transaction.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportChunkDTO {
+
+    private int chunk; // 1-based
+    private long firstLine;
+    private long lastLine;
+    private int books;
+    private boolean committed;
+    private long durationMillis;
+    private double booksPerSecond;
+}
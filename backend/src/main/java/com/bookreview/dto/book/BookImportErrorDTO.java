@@ -0,0 +1,20 @@
+package com.bookreview.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a record rejected by a bulk book import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportErrorDTO {
+
+    private long line; // Line the record starts on, 1-based
+    private String title;
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.bookreview.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk book import.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+    private long received; // Records read from the body
+    private long created;
+    private long duplicates; // Titles already in the catalog or earlier in the body
+    private long invalid;
+    private long failed; // Records of chunks that could not be written
+    private long durationMillis;
+    @Builder.Default
+    private List<BookImportChunkDTO> chunks = new ArrayList<>();
+    @Builder.Default
+    private List<BookImportErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated; // More records were rejected than errors listed
+}
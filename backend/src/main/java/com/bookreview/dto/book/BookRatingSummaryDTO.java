@@ -0,0 +1,24 @@
+package com.bookreview.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * DTO for a book's star rating distribution, read from counters kept on the book.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRatingSummaryDTO {
+
+    private Long bookId;
+    private BigDecimal averageRating;
+    private Integer totalReviews;
+    private Map<Integer, Integer> ratingCounts; // Keyed by star rating, 1 to 5
+}
@@ -0,0 +1,32 @@
+package com.bookreview.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Map;
+
+/**
+ * Page of book search results with optional "did you mean" corrections.
+ * Serializes like a regular page plus a {@code didYouMean} object keyed by request parameter.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class BookSearchPageDTO extends PageImpl<BookDTO> {
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final Map<String, String> didYouMean;
+
+    /**
+     * Create a search page from a page of results.
+     *
+     * @param page search results
+     * @param didYouMean corrected query per request parameter
+     */
+    public BookSearchPageDTO(final Page<BookDTO> page, final Map<String, String> didYouMean) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.didYouMean = didYouMean;
+    }
+}
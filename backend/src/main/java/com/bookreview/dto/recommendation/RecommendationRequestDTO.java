@@ -21,6 +21,10 @@ public class RecommendationRequestDTO {
     @Builder.Default
     private Boolean includeGenreBased = true;
     @Builder.Default
+    private Boolean includeFavoritesSimilarity = true;
+    @Builder.Default
+    private Boolean includeMatrixFactorization = true;
+    @Builder.Default
     private Boolean includeAIPowered = false; // Enable when OpenAI integration is ready
     @Builder.Default
     private Double minRating = 3.5; // Minimum book rating to consider
@@ -0,0 +1,139 @@
+package com.bookreview.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST controller for bulk exports. Responses are NDJSON streamed straight from the database, gzipped when
+ * the client accepts it; pass the {@code updatedAt} of the previous pull as {@code since} to fetch changes only.
+ * Admin only. Each export holds a database connection until it is written out, so at most
+ * {@code max-concurrent} run at once and further requests are answered 503 with a Retry-After.
+ */
+@RestController
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String RETRY_AFTER_SECONDS = "60";
+
+    private final ExportService exportService;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Value("${app.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    /**
+     * Export books.
+     *
+     * @param since only books updated at or after this time
+     * @param acceptEncoding content codings accepted by the client
+     * @return NDJSON stream of books
+     */
+    @GetMapping("/books")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            final LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        return ndjson(acceptEncoding, out -> exportService.exportBooks(since, out));
+    }
+
+    /**
+     * Export reviews.
+     *
+     * @param since only reviews updated at or after this time
+     * @param acceptEncoding content codings accepted by the client
+     * @return NDJSON stream of reviews
+     */
+    @GetMapping("/reviews")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            final LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        return ndjson(acceptEncoding, out -> exportService.exportReviews(since, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(final String acceptEncoding, final Export export) {
+        if (running.incrementAndGet() > maxConcurrent) {
+            running.decrementAndGet();
+            log.warn("Rejected export, {} already running", maxConcurrent);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(out -> {
+                try {
+                    export.writeTo(out);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            try {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                export.writeTo(compressed);
+                compressed.finish();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Check if an Accept-Encoding header allows gzip.
+     *
+     * @param acceptEncoding header value, may be null
+     * @return true if gzip is listed without q=0
+     */
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes an export to a response body.
+     */
+    @FunctionalInterface
+    private interface Export {
+
+        long writeTo(OutputStream out) throws IOException;
+    }
+}
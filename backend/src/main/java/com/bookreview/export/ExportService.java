@@ -0,0 +1,86 @@
+package com.bookreview.export;
+
+import com.bookreview.book.BookCardView;
+import com.bookreview.book.BookRepository;
+import com.bookreview.review.ReviewListView;
+import com.bookreview.review.ReviewRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service writing the catalog and reviews as newline-delimited JSON.
+ * <p>
+ * Rows are read through a forward-only cursor and written one at a time, so memory use does not grow with
+ * the table. Each export holds one connection and one read-only transaction until it is written out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write books as NDJSON, one book per line in ID order.
+     *
+     * @param since only books updated at or after this time, or null for all books
+     * @param out stream to write to; left open
+     * @return number of books written
+     * @throws IOException if writing fails
+     */
+    public long exportBooks(final LocalDateTime since, final OutputStream out) throws IOException {
+        try (Stream<BookCardView> books = bookRepository.streamCardsUpdatedSince(since)) {
+            long count = writeNdjson(books, out);
+            log.info("Exported {} books updated since {}", count, since);
+            return count;
+        }
+    }
+
+    /**
+     * Write reviews as NDJSON, one review per line in ID order.
+     *
+     * @param since only reviews updated at or after this time, or null for all reviews
+     * @param out stream to write to; left open
+     * @return number of reviews written
+     * @throws IOException if writing fails
+     */
+    public long exportReviews(final LocalDateTime since, final OutputStream out) throws IOException {
+        try (Stream<ReviewListView> reviews = reviewRepository.streamListViewsUpdatedSince(since)) {
+            long count = writeNdjson(reviews, out);
+            log.info("Exported {} reviews updated since {}", count, since);
+            return count;
+        }
+    }
+
+    private <T> long writeNdjson(final Stream<T> rows, final OutputStream out) throws IOException {
+        // The generator buffers output itself, so rows are not flushed one by one
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,125 @@
+package com.bookreview.pagination;
+
+import com.bookreview.dto.SliceDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Cached total counts for listings served as slices.
+ * <p>
+ * Slices skip the COUNT query. Clients that still want a total get the last count computed for the same
+ * listing; counts are refreshed in the background while the listing keeps being requested and dropped
+ * once it is idle. The first request for a listing registers it and returns no estimate yet.
+ */
+@Component
+@Slf4j
+public class CountEstimator {
+
+    private final Map<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+    @Value("${app.pagination.estimate.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.pagination.estimate.idle-ms:600000}")
+    private long idleMs;
+
+    @Value("${app.pagination.estimate.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Build a slice response. The last page knows its exact total; other pages carry the
+     * cached estimate when requested.
+     *
+     * @param slice fetched slice
+     * @param estimate whether to include an estimated total
+     * @param key identifies the listing and its filters
+     * @param counter exact count query for the listing
+     * @param <T> item type
+     * @return slice response
+     */
+    public <T> SliceDTO<T> toSlice(final Slice<T> slice, final boolean estimate, final String key,
+                                   final LongSupplier counter) {
+        Long total = null;
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            total = (slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0L) + slice.getNumberOfElements();
+        } else if (estimate) {
+            total = estimate(key, counter);
+        }
+        return SliceDTO.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .estimatedTotal(total)
+                .build();
+    }
+
+    /**
+     * Get the cached count for a listing, registering it for background refresh.
+     *
+     * @param key identifies the listing and its filters
+     * @param counter exact count query for the listing
+     * @return last computed count, or null if none has been computed yet
+     */
+    public Long estimate(final String key, final LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        Estimate existing = estimates.get(key);
+        if (existing != null) {
+            existing.lastRequested = now;
+            return existing.value;
+        }
+        if (estimates.size() < maxEntries) {
+            estimates.putIfAbsent(key, new Estimate(counter, now));
+        }
+        return null;
+    }
+
+    /**
+     * Recompute expired counts of listings that are still requested and forget idle ones.
+     */
+    @Scheduled(fixedDelayString = "${app.pagination.estimate.refresh-interval-ms:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        estimates.entrySet().removeIf(entry -> now - entry.getValue().lastRequested > idleMs);
+        estimates.forEach((key, estimate) -> {
+            if (estimate.value != null && now - estimate.computedAt < ttlMs) {
+                return;
+            }
+            try {
+                estimate.value = estimate.counter.getAsLong();
+                estimate.computedAt = System.currentTimeMillis();
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh count estimate for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Get number of cached estimates.
+     *
+     * @return entry count
+     */
+    public int size() {
+        return estimates.size();
+    }
+
+    private static final class Estimate {
+
+        private final LongSupplier counter;
+        private volatile long lastRequested;
+        private volatile long computedAt;
+        private volatile Long value;
+
+        private Estimate(final LongSupplier counter, final long lastRequested) {
+            this.counter = counter;
+            this.lastRequested = lastRequested;
+        }
+    }
+}
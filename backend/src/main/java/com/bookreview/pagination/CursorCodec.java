@@ -0,0 +1,190 @@
+package com.bookreview.pagination;
+
+import com.bookreview.dto.CursorPageDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset positions as opaque, signed cursors.
+ * <p>
+ * A cursor carries the sort key values of a row, the scroll direction and the sort it was created for,
+ * signed with HMAC-SHA256. Clients cannot forge positions or reuse a cursor with a different sort.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.pagination.cursor-secret:${spring.security.jwt.secret}}")
+    private String secret;
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor cursor from a previous page, or blank for the first page
+     * @param sort sort of the current request
+     * @return keyset position
+     * @throws IllegalArgumentException if the cursor is malformed, tampered with or made for another sort
+     */
+    public KeysetScrollPosition decode(final String cursor, final Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        int dot = cursor.indexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            byte[] payload = DECODER.decode(cursor.substring(0, dot));
+            byte[] signature = DECODER.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            CursorPayload decoded = objectMapper.readValue(payload, CursorPayload.class);
+            if (!sort.toString().equals(decoded.sort())) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            decoded.keys().forEach((property, value) -> keys.put(property, decodeValue(value)));
+            return decoded.backward() ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (IOException | DateTimeParseException | IllegalStateException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encode a keyset position as a cursor.
+     *
+     * @param position non-initial keyset position
+     * @param sort sort the position belongs to
+     * @return opaque cursor
+     */
+    public String encode(final KeysetScrollPosition position, final Sort sort) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, encodeValue(value)));
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(
+                    new CursorPayload(sort.toString(), position.scrollsBackward(), keys));
+            return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Build a cursor page from a window fetched at the given position.
+     *
+     * @param window fetched rows
+     * @param position position the window was fetched from
+     * @param sort sort the window was fetched with
+     * @param mapper maps rows to DTOs
+     * @param <T> row type
+     * @param <R> DTO type
+     * @return page with cursors to the adjacent pages
+     */
+    public <T, R> CursorPageDTO<R> toPage(final Window<T> window, final KeysetScrollPosition position,
+                                         final Sort sort, final Function<T, R> mapper) {
+        List<R> content = window.getContent().stream().map(mapper).toList();
+        String next = null;
+        String previous = null;
+        if (!window.isEmpty()) {
+            boolean moreAfter = position.scrollsBackward() || window.hasNext();
+            boolean moreBefore = position.scrollsBackward() ? window.hasNext() : !position.isInitial();
+            if (moreAfter) {
+                KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+                next = encode(ScrollPosition.forward(last.getKeys()), sort);
+            }
+            if (moreBefore) {
+                KeysetScrollPosition first = (KeysetScrollPosition) window.positionAt(0);
+                previous = encode(ScrollPosition.backward(first.getKeys()), sort);
+            }
+        }
+        return CursorPageDTO.<R>builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(next)
+                .previousCursor(previous)
+                .build();
+    }
+
+    private byte[] sign(final byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign cursor", e);
+        }
+    }
+
+    /**
+     * Sort key values are tagged with their type so they bind to the same JPA parameter type on the way back.
+     */
+    private static String encodeValue(final Object value) {
+        if (value instanceof Long) {
+            return "L" + value;
+        } else if (value instanceof Integer) {
+            return "I" + value;
+        } else if (value instanceof BigDecimal decimal) {
+            return "D" + decimal.toPlainString();
+        } else if (value instanceof LocalDateTime) {
+            return "T" + value;
+        } else if (value instanceof String) {
+            return "S" + value;
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: "
+                + (value == null ? "null" : value.getClass().getSimpleName()));
+    }
+
+    private static Object decodeValue(final String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("Empty cursor key");
+        }
+        String raw = value.substring(1);
+        return switch (value.charAt(0)) {
+            case 'L' -> Long.valueOf(raw);
+            case 'I' -> Integer.valueOf(raw);
+            case 'D' -> new BigDecimal(raw);
+            case 'T' -> LocalDateTime.parse(raw);
+            case 'S' -> raw;
+            default -> throw new IllegalStateException("Unknown cursor key type: " + value.charAt(0));
+        };
+    }
+
+    /**
+     * Signed cursor content.
+     *
+     * @param sort sort the cursor was created for
+     * @param backward whether to fetch the rows before the keys
+     * @param keys tagged sort key values
+     */
+    record CursorPayload(String sort, boolean backward, Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.bookreview.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset (seek) pagination over Criteria queries.
+ * <p>
+ * Instead of skipping rows with an offset, each page starts right after the sort key values of the
+ * last row seen: {@code WHERE (k1, k2) > (:v1, :v2) ORDER BY k1, k2 LIMIT n}. With an index on the
+ * sort keys every page costs the same, and rows inserted before the cursor do not shift later pages.
+ */
+public final class KeysetQueries {
+
+    /**
+     * Maximum number of items per cursor page.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ID = "id";
+
+    private KeysetQueries() {
+    }
+
+    /**
+     * Check that a listing can seek on the requested sort and make it total by appending the ID,
+     * in the direction of the last sort key, as the tie-breaker.
+     *
+     * @param sort requested sort
+     * @param sortable properties backed by an index for this listing
+     * @return sort with a unique last key
+     * @throws IllegalArgumentException if a sort property is not supported
+     */
+    public static Sort keysetSort(final Sort sort, final Set<String> sortable) {
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!ID.equals(order.getProperty()) && !sortable.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot page by cursor on property: " + order.getProperty());
+            }
+            lastDirection = order.getDirection();
+        }
+        return sort.getOrderFor(ID) != null ? sort : sort.and(Sort.by(lastDirection, ID));
+    }
+
+    /**
+     * Clamp a requested page size to the supported range.
+     *
+     * @param size requested size
+     * @return size between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    public static int pageSize(final int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Fetch the window of rows after (or before) a keyset position.
+     *
+     * @param entityManager entity manager
+     * @param type entity type
+     * @param filter listing filter
+     * @param position position to seek from; the initial position starts at the first row
+     * @param sort total sort, see {@link #keysetSort(Sort, Set)}
+     * @param limit maximum number of rows
+     * @param <T> entity type
+     * @return rows in sort order; {@link Window#hasNext()} tells whether more rows follow in the scroll direction
+     */
+    public static <T> Window<T> scroll(final EntityManager entityManager, final Class<T> type,
+                                       final Specification<T> filter, final KeysetScrollPosition position,
+                                       final Sort sort, final int limit) {
+        boolean backward = position.scrollsBackward();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filtered = filter.toPredicate(root, query, cb);
+        if (filtered != null) {
+            where.add(filtered);
+        }
+        if (!position.isInitial()) {
+            where.add(seek(cb, root, sort, position.getKeys(), backward));
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = path(root, order.getProperty());
+            orders.add(order.isAscending() != backward ? cb.asc(path) : cb.desc(path));
+        }
+        query.select(root).where(where.toArray(new Predicate[0])).orderBy(orders);
+
+        // One extra row tells whether another page follows without a count query
+        List<T> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasMore = rows.size() > limit;
+        List<T> content = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        if (backward) {
+            Collections.reverse(content);
+        }
+        return Window.from(content, index -> ScrollPosition.forward(keys(content.get(index), sort)), hasMore);
+    }
+
+    /**
+     * Expand the row-value comparison into {@code k1 >= v1 AND (k1 > v1 OR (k1 = v1 AND k2 > v2) ...)}.
+     * The redundant leading bound lets the database start an index range scan at the cursor.
+     */
+    private static Predicate seek(final CriteriaBuilder cb, final Root<?> root, final Sort sort,
+                                  final Map<String, Object> keys, final boolean backward) {
+        List<Sort.Order> orders = sort.toList();
+        List<Predicate> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> conjunction = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                String property = orders.get(j).getProperty();
+                conjunction.add(cb.equal(path(root, property), key(keys, property)));
+            }
+            Sort.Order order = orders.get(i);
+            conjunction.add(compare(cb, path(root, order.getProperty()), key(keys, order.getProperty()),
+                    order.isAscending() != backward, false));
+            alternatives.add(cb.and(conjunction.toArray(new Predicate[0])));
+        }
+
+        Sort.Order first = orders.get(0);
+        Predicate leading = compare(cb, path(root, first.getProperty()), key(keys, first.getProperty()),
+                first.isAscending() != backward, true);
+        return cb.and(leading, cb.or(alternatives.toArray(new Predicate[0])));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(final CriteriaBuilder cb, final Path<?> path, final Object value,
+                                     final boolean after, final boolean inclusive) {
+        Expression<Comparable> expression = (Expression<Comparable>) path;
+        Comparable bound = (Comparable) value;
+        if (after) {
+            return inclusive ? cb.greaterThanOrEqualTo(expression, bound) : cb.greaterThan(expression, bound);
+        }
+        return inclusive ? cb.lessThanOrEqualTo(expression, bound) : cb.lessThan(expression, bound);
+    }
+
+    private static Object key(final Map<String, Object> keys, final String property) {
+        Object value = keys.get(property);
+        if (value == null) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        return value;
+    }
+
+    private static Path<?> path(final Root<?> root, final String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    private static Map<String, Object> keys(final Object entity, final Sort sort) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+}
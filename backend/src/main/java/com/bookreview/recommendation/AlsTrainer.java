@@ -0,0 +1,185 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Factorizes a {@link RatingMatrix} into a {@link MatrixFactorizationModel} with alternating least squares.
+ * <p>
+ * Ratings are centred on their mean. Each iteration fixes the book factors and solves every user's
+ * factors as a small ridge regression over the books they rated, then does the same for the books with
+ * the user factors fixed. The regularization of a row grows with its number of ratings. Rows are
+ * independent within a half-iteration, so they are solved in blocks by a fork/join pool, each leaf task
+ * with its own normal-equation scratch; the result does not depend on the parallelism.
+ */
+public final class AlsTrainer {
+
+    private static final int BLOCK_SIZE = 256;
+
+    private final int rank;
+    private final int iterations;
+    private final float lambda;
+    private final int parallelism;
+    private final long seed;
+
+    /**
+     * Create a trainer.
+     *
+     * @param rank number of factors per user and book
+     * @param iterations number of alternating sweeps
+     * @param lambda regularization per rating
+     * @param parallelism fork/join pool size
+     * @param seed seed of the initial book factors
+     */
+    public AlsTrainer(final int rank, final int iterations, final float lambda, final int parallelism,
+                      final long seed) {
+        if (rank <= 0 || iterations <= 0 || lambda <= 0) {
+            throw new IllegalArgumentException("Rank, iterations and lambda must be positive");
+        }
+        this.rank = rank;
+        this.iterations = iterations;
+        this.lambda = lambda;
+        this.parallelism = Math.max(parallelism, 1);
+        this.seed = seed;
+    }
+
+    /**
+     * Train a model.
+     *
+     * @param ratings rating matrix
+     * @return trained model
+     */
+    public MatrixFactorizationModel train(final RatingMatrix ratings) {
+        float[] userFactors = new float[ratings.userCount() * rank];
+        float[] bookFactors = new float[ratings.bookCount() * rank];
+        Random random = new Random(seed);
+        float scale = (float) (1 / Math.sqrt(rank));
+        for (int i = 0; i < bookFactors.length; i++) {
+            bookFactors[i] = (float) random.nextGaussian() * scale * 0.1f;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                pool.invoke(new SolveRows(ratings.userOffsets(), ratings.userBooks(), ratings.userRatings(),
+                        ratings.mean(), bookFactors, userFactors, 0, ratings.userCount()));
+                pool.invoke(new SolveRows(ratings.bookOffsets(), ratings.bookUsers(), ratings.bookRatings(),
+                        ratings.mean(), userFactors, bookFactors, 0, ratings.bookCount()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new MatrixFactorizationModel(rank, ratings.mean(), System.currentTimeMillis(),
+                ratings.userIds(), ratings.bookIds(), userFactors, bookFactors);
+    }
+
+    /**
+     * Solves the factors of rows {@code [from, to)} of one side given the fixed factors of the other,
+     * splitting into halves until a block is small enough to solve directly.
+     */
+    private final class SolveRows extends RecursiveAction {
+
+        private final int[] offsets;
+        private final int[] columns;
+        private final float[] values;
+        private final float mean;
+        private final float[] fixed;
+        private final float[] solved;
+        private final int from;
+        private final int to;
+
+        SolveRows(final int[] offsets, final int[] columns, final float[] values, final float mean,
+                  final float[] fixed, final float[] solved, final int from, final int to) {
+            this.offsets = offsets;
+            this.columns = columns;
+            this.values = values;
+            this.mean = mean;
+            this.fixed = fixed;
+            this.solved = solved;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BLOCK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SolveRows(offsets, columns, values, mean, fixed, solved, from, middle),
+                        new SolveRows(offsets, columns, values, mean, fixed, solved, middle, to));
+                return;
+            }
+            double[] gram = new double[rank * rank];
+            double[] rhs = new double[rank];
+            for (int row = from; row < to; row++) {
+                solveRow(row, gram, rhs);
+            }
+        }
+
+        private void solveRow(final int row, final double[] gram, final double[] rhs) {
+            Arrays.fill(gram, 0);
+            Arrays.fill(rhs, 0);
+            int start = offsets[row];
+            int end = offsets[row + 1];
+            for (int p = start; p < end; p++) {
+                int base = columns[p] * rank;
+                double residual = values[p] - mean;
+                for (int i = 0; i < rank; i++) {
+                    double fi = fixed[base + i];
+                    rhs[i] += fi * residual;
+                    // Only the lower triangle is needed by the Cholesky factorization
+                    for (int j = 0; j <= i; j++) {
+                        gram[i * rank + j] += fi * fixed[base + j];
+                    }
+                }
+            }
+            double regularization = lambda * Math.max(end - start, 1);
+            for (int i = 0; i < rank; i++) {
+                gram[i * rank + i] += regularization;
+            }
+
+            choleskySolve(gram, rhs, rank);
+            int target = row * rank;
+            for (int i = 0; i < rank; i++) {
+                solved[target + i] = (float) rhs[i];
+            }
+        }
+    }
+
+    /**
+     * Solve {@code a x = b} in place for a symmetric positive definite {@code a}, of which only the lower
+     * triangle is read; {@code b} receives {@code x} and {@code a} its Cholesky factor.
+     */
+    static void choleskySolve(final double[] a, final double[] b, final int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = value / diagonal;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double value = b[i];
+            for (int k = 0; k < i; k++) {
+                value -= a[i * n + k] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double value = b[i];
+            for (int k = i + 1; k < n; k++) {
+                value -= a[k * n + i] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.recommendation.UserTastes.Taste;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes {@link ItemSimilarityModel}s from user tastes.
+ * <p>
+ * The tastes are laid out as two sparse matrices, users by books and its transpose. The row of a book is
+ * found by walking the users who like it and the other books each of them likes, summing the products of
+ * their weights, and keeping the {@code neighbors} books with the highest cosine similarity among those
+ * liked by at least {@code minCoRaters} of the same users. Rows are computed by {@code parallelism}
+ * workers, each with its own accumulators.
+ */
+final class ItemSimilarityBuilder {
+
+    private final int neighbors;
+    private final int minCoRaters;
+    private final int parallelism;
+
+    ItemSimilarityBuilder(final int neighbors, final int minCoRaters, final int parallelism) {
+        this.neighbors = neighbors;
+        this.minCoRaters = minCoRaters;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Compute the neighbours of every book.
+     *
+     * @param tastes tastes by user ID
+     * @return new model
+     */
+    ItemSimilarityModel build(final Map<Long, Taste> tastes) {
+        Matrix matrix = Matrix.of(tastes.values());
+        int[] rows = new int[matrix.bookIds.length];
+        Arrays.setAll(rows, row -> row);
+        return assemble(matrix, computeRows(matrix, rows), null);
+    }
+
+    /**
+     * Recompute the neighbours of the books whose likes changed and of their previous neighbours, and
+     * keep the other rows of the previous model. The kept rows do not see how the changed books' new
+     * likes shift their similarities until the next full build.
+     *
+     * @param previous previous model
+     * @param tastes current tastes by user ID
+     * @param changedBookIds books liked or unliked since the previous model
+     * @return new model
+     */
+    ItemSimilarityModel update(final ItemSimilarityModel previous, final Map<Long, Taste> tastes,
+                               final Collection<Long> changedBookIds) {
+        Matrix matrix = Matrix.of(tastes.values());
+        boolean[] affected = new boolean[matrix.bookIds.length];
+        for (long bookId : changedBookIds) {
+            mark(matrix, affected, bookId);
+            for (long neighborId : previous.neighborIds(bookId)) {
+                mark(matrix, affected, neighborId);
+            }
+        }
+        int[] rows = new int[matrix.bookIds.length];
+        int count = 0;
+        for (int row = 0; row < affected.length; row++) {
+            if (affected[row]) {
+                rows[count++] = row;
+            }
+        }
+        return assemble(matrix, computeRows(matrix, Arrays.copyOf(rows, count)), previous);
+    }
+
+    private static void mark(final Matrix matrix, final boolean[] affected, final long bookId) {
+        int row = Arrays.binarySearch(matrix.bookIds, bookId);
+        if (row >= 0) {
+            affected[row] = true;
+        }
+    }
+
+    private Row[] computeRows(final Matrix matrix, final int[] rows) {
+        Row[] computed = new Row[matrix.bookIds.length];
+        if (rows.length == 0) {
+            return computed;
+        }
+        int workers = Math.min(parallelism, rows.length);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                futures.add(executor.submit(() -> {
+                    Accumulators accumulators = new Accumulators(matrix.bookIds.length, neighbors);
+                    int index;
+                    while ((index = next.getAndIncrement()) < rows.length) {
+                        computed[rows[index]] = computeRow(matrix, rows[index], accumulators);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing book similarities", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compute book similarities", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return computed;
+    }
+
+    private Row computeRow(final Matrix matrix, final int book, final Accumulators acc) {
+        int touched = 0;
+        for (int p = matrix.bookOffsets[book]; p < matrix.bookOffsets[book + 1]; p++) {
+            int user = matrix.bookUsers[p];
+            float weight = matrix.bookWeights[p];
+            for (int q = matrix.userOffsets[user]; q < matrix.userOffsets[user + 1]; q++) {
+                int other = matrix.userBooks[q];
+                if (other == book) {
+                    continue;
+                }
+                if (acc.coRaters[other]++ == 0) {
+                    acc.touched[touched++] = other;
+                }
+                acc.dots[other] += weight * matrix.userWeights[q];
+            }
+        }
+
+        acc.top.clear();
+        for (int t = 0; t < touched; t++) {
+            int other = acc.touched[t];
+            if (acc.coRaters[other] >= minCoRaters) {
+                acc.top.offer(other, acc.dots[other] / (matrix.norms[book] * matrix.norms[other]));
+            }
+            acc.dots[other] = 0;
+            acc.coRaters[other] = 0;
+        }
+        return acc.top.toRow();
+    }
+
+    private ItemSimilarityModel assemble(final Matrix matrix, final Row[] computed,
+                                         final ItemSimilarityModel previous) {
+        int books = matrix.bookIds.length;
+        int[] copiedNeighbors = new int[neighbors];
+        float[] copiedSimilarities = new float[neighbors];
+        for (int book = 0; book < books; book++) {
+            if (computed[book] == null) {
+                int count = previous == null ? 0 : previous.copyRow(matrix.bookIds[book], matrix.bookIds,
+                        copiedNeighbors, copiedSimilarities);
+                computed[book] = new Row(Arrays.copyOf(copiedNeighbors, count),
+                        Arrays.copyOf(copiedSimilarities, count));
+            }
+        }
+
+        int[] offsets = new int[books + 1];
+        for (int book = 0; book < books; book++) {
+            offsets[book + 1] = offsets[book] + computed[book].neighbors.length;
+        }
+        int[] neighborIndexes = new int[offsets[books]];
+        float[] similarities = new float[offsets[books]];
+        for (int book = 0; book < books; book++) {
+            Row row = computed[book];
+            System.arraycopy(row.neighbors, 0, neighborIndexes, offsets[book], row.neighbors.length);
+            System.arraycopy(row.similarities, 0, similarities, offsets[book], row.similarities.length);
+        }
+        return new ItemSimilarityModel(matrix.bookIds, offsets, neighborIndexes, similarities);
+    }
+
+    /**
+     * Neighbours of one book, most similar first.
+     */
+    private record Row(int[] neighbors, float[] similarities) {
+    }
+
+    /**
+     * Per-worker scratch space, reset after every row.
+     */
+    private static final class Accumulators {
+
+        private final float[] dots;
+        private final int[] coRaters;
+        private final int[] touched;
+        private final TopNeighbors top;
+
+        Accumulators(final int books, final int neighbors) {
+            this.dots = new float[books];
+            this.coRaters = new int[books];
+            this.touched = new int[books];
+            this.top = new TopNeighbors(neighbors);
+        }
+    }
+
+    /**
+     * The most similar books seen so far, kept sorted by similarity.
+     */
+    private static final class TopNeighbors {
+
+        private final int[] books;
+        private final float[] similarities;
+        private int size;
+
+        TopNeighbors(final int capacity) {
+            this.books = new int[capacity];
+            this.similarities = new float[capacity];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void offer(final int book, final float similarity) {
+            if (books.length == 0 || similarity <= 0
+                    || (size == books.length && similarity <= similarities[size - 1])) {
+                return;
+            }
+            int position = Math.min(size, books.length - 1);
+            while (position > 0 && similarities[position - 1] < similarity) {
+                books[position] = books[position - 1];
+                similarities[position] = similarities[position - 1];
+                position--;
+            }
+            books[position] = book;
+            similarities[position] = similarity;
+            size = Math.min(size + 1, books.length);
+        }
+
+        Row toRow() {
+            return new Row(Arrays.copyOf(books, size), Arrays.copyOf(similarities, size));
+        }
+    }
+
+    /**
+     * Tastes as compressed sparse rows, by user and by book, with books numbered densely in ID order.
+     */
+    private static final class Matrix {
+
+        private final long[] bookIds;
+        private final int[] userOffsets;
+        private final int[] userBooks;
+        private final float[] userWeights;
+        private final int[] bookOffsets;
+        private final int[] bookUsers;
+        private final float[] bookWeights;
+        private final float[] norms;
+
+        private Matrix(final long[] bookIds, final int[] userOffsets, final int[] userBooks,
+                       final float[] userWeights) {
+            this.bookIds = bookIds;
+            this.userOffsets = userOffsets;
+            this.userBooks = userBooks;
+            this.userWeights = userWeights;
+
+            int books = bookIds.length;
+            int users = userOffsets.length - 1;
+            bookOffsets = new int[books + 1];
+            for (int book : userBooks) {
+                bookOffsets[book + 1]++;
+            }
+            for (int book = 0; book < books; book++) {
+                bookOffsets[book + 1] += bookOffsets[book];
+            }
+            bookUsers = new int[userBooks.length];
+            bookWeights = new float[userBooks.length];
+            norms = new float[books];
+            int[] fill = Arrays.copyOf(bookOffsets, books);
+            for (int user = 0; user < users; user++) {
+                for (int q = userOffsets[user]; q < userOffsets[user + 1]; q++) {
+                    int book = userBooks[q];
+                    bookUsers[fill[book]] = user;
+                    bookWeights[fill[book]] = userWeights[q];
+                    fill[book]++;
+                    norms[book] += userWeights[q] * userWeights[q];
+                }
+            }
+            for (int book = 0; book < books; book++) {
+                norms[book] = (float) Math.sqrt(norms[book]);
+            }
+        }
+
+        static Matrix of(final Collection<Taste> tastes) {
+            List<Taste> users = new ArrayList<>(tastes);
+            int entries = 0;
+            for (Taste taste : users) {
+                entries += taste.size();
+            }
+
+            long[] allBookIds = new long[entries];
+            int filled = 0;
+            for (Taste taste : users) {
+                System.arraycopy(taste.bookIds(), 0, allBookIds, filled, taste.size());
+                filled += taste.size();
+            }
+            long[] bookIds = Arrays.stream(allBookIds).sorted().distinct().toArray();
+
+            int[] userOffsets = new int[users.size() + 1];
+            int[] userBooks = new int[entries];
+            float[] userWeights = new float[entries];
+            for (int user = 0; user < users.size(); user++) {
+                Taste taste = users.get(user);
+                int start = userOffsets[user];
+                for (int i = 0; i < taste.size(); i++) {
+                    userBooks[start + i] = Arrays.binarySearch(bookIds, taste.bookIds()[i]);
+                    userWeights[start + i] = taste.weights()[i];
+                }
+                userOffsets[user + 1] = start + taste.size();
+            }
+            return new Matrix(bookIds, userOffsets, userBooks, userWeights);
+        }
+    }
+}
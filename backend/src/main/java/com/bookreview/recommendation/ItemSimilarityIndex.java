@@ -0,0 +1,262 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.recommendation.ItemSimilarityModel.ScoredBook;
+import com.bookreview.recommendation.UserTastes.Taste;
+import com.bookreview.recommendation.UserTastes.TasteBuilder;
+import com.bookreview.review.ReviewRatingView;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.user.FavoriteBookKey;
+import com.bookreview.user.UserRepository;
+import com.bookreview.util.BackgroundJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory item-item collaborative filtering over reviews and favorites, for
+ * {@link RecommendationStrategy#FAVORITES_SIMILARITY} recommendations.
+ * <p>
+ * Built from every review and favorite at startup and again every {@code rebuild-interval-ms}. In between,
+ * users whose tastes changed are reloaded every {@code refresh-interval-ms} and only the neighbour lists of
+ * the books they liked or unliked, and of those books' neighbours, are recomputed. A user is served by
+ * merging the neighbour lists of the books they like, without touching the database. Both jobs run on the
+ * async executor, so neither holds a scheduler thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSimilarityIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final TaskExecutor applicationTaskExecutor;
+
+    private final BackgroundJob rebuildJob = new BackgroundJob();
+    private final BackgroundJob refreshJob = new BackgroundJob();
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile UserTastes tastes = new UserTastes();
+    private volatile ItemSimilarityModel model = ItemSimilarityModel.EMPTY;
+    private volatile boolean ready;
+
+    @Value("${app.recommendation.similarity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recommendation.similarity.neighbors:50}")
+    private int neighbors;
+
+    @Value("${app.recommendation.similarity.min-co-raters:2}")
+    private int minCoRaters;
+
+    @Value("${app.recommendation.similarity.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * Check if the index has been built and can answer queries.
+     *
+     * @return true if the index is ready
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the books most similar to the books a user likes.
+     *
+     * @param userId user ID
+     * @param exclude books that must not be recommended; books the user likes never are
+     * @param limit maximum number of books
+     * @return recommended books, best first, or empty if the index is not ready
+     */
+    Optional<List<ScoredBook>> recommend(final long userId, final LongPredicate exclude, final int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Taste taste = tastes.get(userId);
+        if (taste == null) {
+            return Optional.of(List.of());
+        }
+        ScoredBook[] recommended = model.recommend(taste.bookIds(), taste.weights(),
+                bookId -> taste.weight(bookId) > 0 || exclude.test(bookId), limit);
+        return Optional.of(List.of(recommended));
+    }
+
+    /**
+     * Get the IDs of the books most similar to a book.
+     *
+     * @param bookId book ID
+     * @return neighbour IDs, most similar first
+     */
+    public long[] similarBooks(final long bookId) {
+        return model.neighborIds(bookId);
+    }
+
+    /**
+     * Queue a user whose reviews or favorites changed for the next refresh.
+     *
+     * @param event taste changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasteChanged(final TasteChangedEvent event) {
+        changedUsers.add(event.userId());
+    }
+
+    /**
+     * Build the index once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Start a rebuild on the async executor unless one is still running.
+     */
+    @Scheduled(initialDelayString = "${app.recommendation.similarity.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${app.recommendation.similarity.rebuild-interval-ms:86400000}")
+    public void scheduleRebuild() {
+        if (enabled) {
+            rebuildJob.submit(applicationTaskExecutor, this::rebuild);
+        }
+    }
+
+    /**
+     * Start a refresh on the async executor if users changed, unless one is still running.
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.similarity.refresh-interval-ms:60000}")
+    public void scheduleRefresh() {
+        if (ready && !changedUsers.isEmpty()) {
+            refreshJob.submit(applicationTaskExecutor, this::refresh);
+        }
+    }
+
+    /**
+     * Rebuild the index from every review and favorite, which also corrects the approximations of
+     * incremental refreshes.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            // Users who change while this runs stay queued and are reloaded by the next refresh
+            UserTastes fresh = loadTastes();
+            ItemSimilarityModel built = builder().build(fresh.all());
+            tastes = fresh;
+            model = built;
+            ready = true;
+            log.info("Item similarity index built for {} users and {} books with {} neighbours in {} ms",
+                    fresh.size(), built.size(), built.neighborCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build item similarity index: {}", e.getMessage(), e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Reload the tastes of users whose reviews or favorites changed and recompute the neighbours of the
+     * books concerned.
+     *
+     * @return number of users reloaded
+     */
+    public int refresh() {
+        if (!ready || changedUsers.isEmpty() || !updateLock.tryLock()) {
+            return 0;
+        }
+        List<Long> userIds = new ArrayList<>(changedUsers);
+        try {
+            long start = System.currentTimeMillis();
+            changedUsers.removeAll(userIds);
+            Set<Long> changedBooks = new HashSet<>();
+            for (Long userId : userIds) {
+                Taste loaded = loadTaste(userId);
+                Taste previous = tastes.put(userId, loaded);
+                addChangedBooks(previous, loaded, changedBooks);
+                addChangedBooks(loaded, previous, changedBooks);
+            }
+            if (!changedBooks.isEmpty()) {
+                model = builder().update(model, tastes.all(), changedBooks);
+            }
+            log.debug("Item similarity index refreshed for {} users and {} books in {} ms",
+                    userIds.size(), changedBooks.size(), System.currentTimeMillis() - start);
+            return userIds.size();
+        } catch (RuntimeException e) {
+            changedUsers.addAll(userIds);
+            log.error("Failed to refresh item similarity index: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private static void addChangedBooks(final Taste from, final Taste to, final Set<Long> changedBooks) {
+        if (from == null) {
+            return;
+        }
+        for (int i = 0; i < from.size(); i++) {
+            long bookId = from.bookIds()[i];
+            if (to == null || to.weight(bookId) != from.weights()[i]) {
+                changedBooks.add(bookId);
+            }
+        }
+    }
+
+    private UserTastes loadTastes() {
+        Map<Long, TasteBuilder> builders = new HashMap<>();
+        long lastId = 0L;
+        List<ReviewRatingView> batch;
+        do {
+            batch = reviewRepository.findRatingViewsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (ReviewRatingView rating : batch) {
+                builders.computeIfAbsent(rating.userId(), userId -> new TasteBuilder())
+                        .rated(rating.bookId(), rating.rating());
+                lastId = rating.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        for (FavoriteBookKey favorite : userRepository.findAllFavoriteKeys()) {
+            builders.computeIfAbsent(favorite.userId(), userId -> new TasteBuilder()).favorite(favorite.bookId());
+        }
+
+        UserTastes loaded = new UserTastes();
+        builders.forEach((userId, builder) -> loaded.put(userId, builder.build()));
+        return loaded;
+    }
+
+    private Taste loadTaste(final Long userId) {
+        TasteBuilder builder = new TasteBuilder();
+        reviewRepository.findRatingViewsByUserId(userId)
+                .forEach(rating -> builder.rated(rating.bookId(), rating.rating()));
+        userRepository.findFavoriteBookIdsByUserId(userId).forEach(builder::favorite);
+        return builder.build();
+    }
+
+    private ItemSimilarityBuilder builder() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ItemSimilarityBuilder(neighbors, minCoRaters, workers);
+    }
+}
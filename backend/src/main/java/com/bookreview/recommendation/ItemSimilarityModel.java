@@ -0,0 +1,201 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable top-K neighbour lists of books, in compressed sparse rows.
+ * <p>
+ * Books are numbered densely in ID order. Row {@code i} holds the dense numbers of the books most similar
+ * to book {@code i} in {@code neighbors[offsets[i]..offsets[i + 1])}, most similar first, with their
+ * cosine similarities in the same slots of {@code similarities}.
+ */
+final class ItemSimilarityModel {
+
+    static final ItemSimilarityModel EMPTY = new ItemSimilarityModel(new long[0], new int[1], new int[0],
+            new float[0]);
+
+    private final long[] bookIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] similarities;
+
+    ItemSimilarityModel(final long[] bookIds, final int[] offsets, final int[] neighbors,
+                        final float[] similarities) {
+        this.bookIds = bookIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.similarities = similarities;
+    }
+
+    /**
+     * Get the number of books in the model.
+     *
+     * @return book count
+     */
+    int size() {
+        return bookIds.length;
+    }
+
+    /**
+     * Get the number of neighbour entries over all books.
+     *
+     * @return neighbour count
+     */
+    int neighborCount() {
+        return neighbors.length;
+    }
+
+    /**
+     * Get the dense number of a book.
+     *
+     * @param bookId book ID
+     * @return dense number, or a negative value if the book is not in the model
+     */
+    int indexOf(final long bookId) {
+        return Arrays.binarySearch(bookIds, bookId);
+    }
+
+    /**
+     * Get the ID of a book by dense number.
+     *
+     * @param index dense number
+     * @return book ID
+     */
+    long bookId(final int index) {
+        return bookIds[index];
+    }
+
+    /**
+     * Get the IDs of the books most similar to a book.
+     *
+     * @param bookId book ID
+     * @return neighbour IDs, most similar first
+     */
+    long[] neighborIds(final long bookId) {
+        int index = indexOf(bookId);
+        if (index < 0) {
+            return new long[0];
+        }
+        return Arrays.stream(neighbors, offsets[index], offsets[index + 1])
+                .mapToLong(neighbor -> bookIds[neighbor])
+                .toArray();
+    }
+
+    /**
+     * Get the similarities of the books most similar to a book.
+     *
+     * @param bookId book ID
+     * @return neighbour similarities, in the order of {@link #neighborIds}
+     */
+    float[] neighborSimilarities(final long bookId) {
+        int index = indexOf(bookId);
+        if (index < 0) {
+            return new float[0];
+        }
+        return Arrays.copyOfRange(similarities, offsets[index], offsets[index + 1]);
+    }
+
+    /**
+     * Copy a book's row into a builder's output, renumbering neighbours to the builder's books.
+     *
+     * @param bookId book ID
+     * @param targetIds sorted book IDs of the builder
+     * @param neighborsOut receives the renumbered neighbours
+     * @param similaritiesOut receives their similarities
+     * @return number of neighbours copied
+     */
+    int copyRow(final long bookId, final long[] targetIds, final int[] neighborsOut, final float[] similaritiesOut) {
+        int index = indexOf(bookId);
+        if (index < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int slot = offsets[index]; slot < offsets[index + 1] && count < neighborsOut.length; slot++) {
+            int target = Arrays.binarySearch(targetIds, bookIds[neighbors[slot]]);
+            if (target >= 0) {
+                neighborsOut[count] = target;
+                similaritiesOut[count] = similarities[slot];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Score books by the similarity-weighted sum over the neighbour lists of books a user likes.
+     *
+     * @param likedIds IDs of the liked books
+     * @param likedWeights how much the user likes each of them, 0 to 1
+     * @param exclude books that must not be recommended
+     * @param limit maximum number of books to return
+     * @return recommended books, best first; scores are the weighted average similarity, 0 to 1
+     */
+    ScoredBook[] recommend(final long[] likedIds, final float[] likedWeights, final LongPredicate exclude,
+                           final int limit) {
+        int candidates = 0;
+        for (long likedId : likedIds) {
+            int index = indexOf(likedId);
+            if (index >= 0) {
+                candidates += offsets[index + 1] - offsets[index];
+            }
+        }
+        if (candidates == 0 || limit <= 0) {
+            return new ScoredBook[0];
+        }
+
+        // Pack each contribution as (neighbour, score) so one primitive sort groups them by neighbour;
+        // scores are non-negative, so their float bits sort like the floats
+        long[] contributions = new long[candidates];
+        int count = 0;
+        float totalWeight = 0;
+        for (int liked = 0; liked < likedIds.length; liked++) {
+            int index = indexOf(likedIds[liked]);
+            totalWeight += likedWeights[liked];
+            if (index < 0) {
+                continue;
+            }
+            for (int slot = offsets[index]; slot < offsets[index + 1]; slot++) {
+                float score = likedWeights[liked] * similarities[slot];
+                contributions[count++] = ((long) neighbors[slot] << 32) | Float.floatToRawIntBits(score);
+            }
+        }
+        Arrays.sort(contributions, 0, count);
+
+        // Sum runs of the same neighbour and pack the totals as (score, neighbour) for ranking
+        long[] ranked = new long[count];
+        int rankedCount = 0;
+        for (int start = 0; start < count; ) {
+            int neighbor = (int) (contributions[start] >>> 32);
+            float score = 0;
+            int end = start;
+            while (end < count && (int) (contributions[end] >>> 32) == neighbor) {
+                score += Float.intBitsToFloat((int) contributions[end]);
+                end++;
+            }
+            start = end;
+            if (score > 0 && !exclude.test(bookIds[neighbor])) {
+                ranked[rankedCount++] = ((long) Float.floatToRawIntBits(score) << 32) | neighbor;
+            }
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        int size = Math.min(limit, rankedCount);
+        ScoredBook[] result = new ScoredBook[size];
+        for (int i = 0; i < size; i++) {
+            long packed = ranked[rankedCount - 1 - i];
+            float score = Float.intBitsToFloat((int) (packed >>> 32));
+            result[i] = new ScoredBook(bookIds[(int) packed], Math.min(score / totalWeight, 1f));
+        }
+        return result;
+    }
+
+    /**
+     * Book recommended by the model.
+     *
+     * @param bookId book ID
+     * @param score weighted average similarity to the user's liked books, 0 to 1
+     */
+    record ScoredBook(long bookId, float score) {
+    }
+}
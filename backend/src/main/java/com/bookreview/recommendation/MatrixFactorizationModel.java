@@ -0,0 +1,266 @@
+package com.bookreview.recommendation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable user and book factor vectors from {@link AlsTrainer}, predicting a rating as the mean rating
+ * plus the dot product of the user's and the book's factors.
+ * <p>
+ * Users and books are numbered densely in ID order; the factors of user {@code u} are
+ * {@code userFactors[u * rank .. (u + 1) * rank)}, and likewise for books. Snapshots are written with
+ * {@link #write} and read back with {@link #read}; their header carries a format version, and a snapshot
+ * of another version is rejected rather than misread.
+ */
+public final class MatrixFactorizationModel {
+
+    /**
+     * Snapshot file magic, "BRMF".
+     */
+    static final int MAGIC = 0x42524D46;
+    static final int FORMAT_VERSION = 1;
+
+    private final int rank;
+    private final float mean;
+    private final long trainedAt;
+    private final long[] userIds;
+    private final long[] bookIds;
+    private final float[] userFactors;
+    private final float[] bookFactors;
+
+    MatrixFactorizationModel(final int rank, final float mean, final long trainedAt, final long[] userIds,
+                             final long[] bookIds, final float[] userFactors, final float[] bookFactors) {
+        this.rank = rank;
+        this.mean = mean;
+        this.trainedAt = trainedAt;
+        this.userIds = userIds;
+        this.bookIds = bookIds;
+        this.userFactors = userFactors;
+        this.bookFactors = bookFactors;
+    }
+
+    /**
+     * Get the number of factors per user and book.
+     *
+     * @return rank
+     */
+    public int rank() {
+        return rank;
+    }
+
+    /**
+     * Get when the model was trained.
+     *
+     * @return epoch milliseconds
+     */
+    public long trainedAt() {
+        return trainedAt;
+    }
+
+    /**
+     * Get the number of users in the model.
+     *
+     * @return user count
+     */
+    public int userCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Get the number of books in the model.
+     *
+     * @return book count
+     */
+    public int bookCount() {
+        return bookIds.length;
+    }
+
+    /**
+     * Predict the rating a user would give a book.
+     *
+     * @param userId user ID
+     * @param bookId book ID
+     * @return predicted rating, or NaN if the user or the book is not in the model
+     */
+    public float predict(final long userId, final long bookId) {
+        int user = Arrays.binarySearch(userIds, userId);
+        int book = Arrays.binarySearch(bookIds, bookId);
+        if (user < 0 || book < 0) {
+            return Float.NaN;
+        }
+        return mean + dot(userFactors, user * rank, bookFactors, book * rank, rank);
+    }
+
+    /**
+     * Score every book for a user by predicted rating and keep the best.
+     *
+     * @param userId user ID
+     * @param exclude books that must not be recommended
+     * @param limit maximum number of books to return
+     * @return recommended books, best first; empty if the user is not in the model
+     */
+    public Prediction[] recommend(final long userId, final LongPredicate exclude, final int limit) {
+        int user = Arrays.binarySearch(userIds, userId);
+        if (user < 0 || limit <= 0) {
+            return new Prediction[0];
+        }
+        int userOffset = user * rank;
+
+        // Keep the best books in an array sorted by score, replacing the worst as better ones turn up
+        int[] best = new int[limit];
+        float[] bestScores = new float[limit];
+        int size = 0;
+        for (int book = 0, bookOffset = 0; book < bookIds.length; book++, bookOffset += rank) {
+            float score = dot(userFactors, userOffset, bookFactors, bookOffset, rank);
+            if (size == limit && score <= bestScores[size - 1]) {
+                continue;
+            }
+            if (exclude.test(bookIds[book])) {
+                continue;
+            }
+            int position = Math.min(size, limit - 1);
+            while (position > 0 && bestScores[position - 1] < score) {
+                best[position] = best[position - 1];
+                bestScores[position] = bestScores[position - 1];
+                position--;
+            }
+            best[position] = book;
+            bestScores[position] = score;
+            size = Math.min(size + 1, limit);
+        }
+
+        Prediction[] result = new Prediction[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = new Prediction(bookIds[best[i]], mean + bestScores[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Compute the root mean squared error of the model's predictions of a set of ratings.
+     *
+     * @param ratings ratings to predict
+     * @return RMSE over the ratings whose user and book are both in the model, or NaN if there are none
+     */
+    public double rmse(final RatingMatrix ratings) {
+        double squares = 0;
+        long count = 0;
+        long[] ratingUserIds = ratings.userIds();
+        long[] ratingBookIds = ratings.bookIds();
+        for (int user = 0; user < ratingUserIds.length; user++) {
+            for (int p = ratings.userOffsets()[user]; p < ratings.userOffsets()[user + 1]; p++) {
+                float predicted = predict(ratingUserIds[user], ratingBookIds[ratings.userBooks()[p]]);
+                if (!Float.isNaN(predicted)) {
+                    double error = predicted - ratings.userRatings()[p];
+                    squares += error * error;
+                    count++;
+                }
+            }
+        }
+        return count == 0 ? Double.NaN : Math.sqrt(squares / count);
+    }
+
+    /**
+     * Write a snapshot of the model, replacing any previous snapshot at the same path atomically.
+     *
+     * @param path snapshot file
+     * @throws IOException if the snapshot could not be written
+     */
+    public void write(final Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(rank);
+                out.writeFloat(mean);
+                out.writeLong(trainedAt);
+                out.writeInt(userIds.length);
+                out.writeInt(bookIds.length);
+                for (long userId : userIds) {
+                    out.writeLong(userId);
+                }
+                for (long bookId : bookIds) {
+                    out.writeLong(bookId);
+                }
+                for (float factor : userFactors) {
+                    out.writeFloat(factor);
+                }
+                for (float factor : bookFactors) {
+                    out.writeFloat(factor);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Read a snapshot written by {@link #write}.
+     *
+     * @param path snapshot file
+     * @return model
+     * @throws IOException if the snapshot could not be read or is of another format version
+     */
+    public static MatrixFactorizationModel read(final Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a recommendation model snapshot: " + path);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported recommendation model snapshot version " + version + ": " + path);
+            }
+            int rank = in.readInt();
+            float mean = in.readFloat();
+            long trainedAt = in.readLong();
+            long[] userIds = new long[in.readInt()];
+            long[] bookIds = new long[in.readInt()];
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = in.readLong();
+            }
+            for (int i = 0; i < bookIds.length; i++) {
+                bookIds[i] = in.readLong();
+            }
+            float[] userFactors = new float[userIds.length * rank];
+            for (int i = 0; i < userFactors.length; i++) {
+                userFactors[i] = in.readFloat();
+            }
+            float[] bookFactors = new float[bookIds.length * rank];
+            for (int i = 0; i < bookFactors.length; i++) {
+                bookFactors[i] = in.readFloat();
+            }
+            return new MatrixFactorizationModel(rank, mean, trainedAt, userIds, bookIds, userFactors, bookFactors);
+        }
+    }
+
+    static float dot(final float[] a, final int aOffset, final float[] b, final int bOffset, final int length) {
+        float sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Book recommended by the model.
+     *
+     * @param bookId book ID
+     * @param rating predicted rating
+     */
+    public record Prediction(long bookId, float rating) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.recommendation.MatrixFactorizationModel.Prediction;
+import com.bookreview.review.ReviewRatingView;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.util.BackgroundJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Trains, stores and serves the {@link MatrixFactorizationModel} behind
+ * {@link RecommendationStrategy#MATRIX_FACTORIZATION} recommendations.
+ * <p>
+ * An instance with {@code train} set retrains from every review every {@code interval-ms} and writes a
+ * snapshot; one without it only picks up newer snapshots, written by a training instance or by the
+ * {@code train-model} profile, on the same schedule. At startup the snapshot is loaded if there is one,
+ * so a restart does not wait for training.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatrixFactorizationRecommender {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final long SEED = 42L;
+
+    private final ReviewRepository reviewRepository;
+    private final TaskExecutor applicationTaskExecutor;
+
+    private final BackgroundJob refreshJob = new BackgroundJob();
+    private final ReentrantLock trainLock = new ReentrantLock();
+    private volatile MatrixFactorizationModel model;
+    private volatile long snapshotModified;
+
+    @Value("${app.recommendation.matrix-factorization.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recommendation.matrix-factorization.train:true}")
+    private boolean train;
+
+    @Value("${app.recommendation.matrix-factorization.snapshot:data/recommendation-model.bin}")
+    private String snapshot;
+
+    @Value("${app.recommendation.matrix-factorization.rank:16}")
+    private int rank;
+
+    @Value("${app.recommendation.matrix-factorization.iterations:10}")
+    private int iterations;
+
+    @Value("${app.recommendation.matrix-factorization.lambda:0.1}")
+    private float lambda;
+
+    @Value("${app.recommendation.matrix-factorization.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * Recommend the books with the highest predicted rating for a user.
+     *
+     * @param userId user ID
+     * @param exclude books that must not be recommended
+     * @param limit maximum number of books
+     * @return recommended books, best first, or empty if no model has been trained or loaded
+     */
+    Optional<List<Prediction>> recommend(final long userId, final LongPredicate exclude, final int limit) {
+        MatrixFactorizationModel current = model;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(List.of(current.recommend(userId, exclude, limit)));
+    }
+
+    /**
+     * Load the snapshot, or train if there is none, once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled && !reloadSnapshot() && train) {
+            train();
+        }
+    }
+
+    /**
+     * Retrain, or pick up a newer snapshot on instances that do not train, on the async executor.
+     */
+    @Scheduled(initialDelayString = "${app.recommendation.matrix-factorization.interval-ms:86400000}",
+            fixedDelayString = "${app.recommendation.matrix-factorization.interval-ms:86400000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        refreshJob.submit(applicationTaskExecutor, () -> {
+            if (train) {
+                train();
+            } else {
+                reloadSnapshot();
+            }
+        });
+    }
+
+    /**
+     * Train a model from every review, serve it, and write it to the snapshot file.
+     *
+     * @return trained model, or null if there are no reviews or training failed
+     */
+    public MatrixFactorizationModel train() {
+        trainLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            RatingMatrix ratings = loadRatings();
+            if (ratings.ratingCount() == 0) {
+                log.info("No reviews to train a recommendation model on");
+                return null;
+            }
+            long loaded = System.currentTimeMillis();
+            int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            MatrixFactorizationModel trained = new AlsTrainer(rank, iterations, lambda, workers, SEED)
+                    .train(ratings);
+            model = trained;
+            log.info("Recommendation model trained on {} ratings of {} users and {} books in {} ms "
+                            + "(loading {} ms), training RMSE {}", ratings.ratingCount(), ratings.userCount(),
+                    ratings.bookCount(), System.currentTimeMillis() - start, loaded - start,
+                    String.format("%.3f", trained.rmse(ratings)));
+
+            Path path = Path.of(snapshot);
+            trained.write(path);
+            snapshotModified = Files.getLastModifiedTime(path).toMillis();
+            return trained;
+        } catch (IOException e) {
+            log.error("Failed to write recommendation model snapshot {}: {}", snapshot, e.getMessage(), e);
+            return model;
+        } catch (RuntimeException e) {
+            log.error("Failed to train recommendation model: {}", e.getMessage(), e);
+            return null;
+        } finally {
+            trainLock.unlock();
+        }
+    }
+
+    /**
+     * Load the snapshot if it changed since it was last loaded or written.
+     *
+     * @return true if a model is being served from the snapshot
+     */
+    boolean reloadSnapshot() {
+        Path path = Path.of(snapshot);
+        try {
+            if (!Files.exists(path)) {
+                return false;
+            }
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified != snapshotModified) {
+                MatrixFactorizationModel loaded = MatrixFactorizationModel.read(path);
+                model = loaded;
+                snapshotModified = modified;
+                log.info("Recommendation model trained at {} loaded from {} with {} users and {} books",
+                        loaded.trainedAt(), path, loaded.userCount(), loaded.bookCount());
+            }
+            return model != null;
+        } catch (IOException e) {
+            log.error("Failed to load recommendation model snapshot {}: {}", path, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private RatingMatrix loadRatings() {
+        RatingMatrix.Builder ratings = RatingMatrix.builder();
+        long lastId = 0L;
+        List<ReviewRatingView> batch;
+        do {
+            batch = reviewRepository.findRatingViewsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ReviewRatingView rating : batch) {
+                ratings.add(rating.userId(), rating.bookId(), rating.rating());
+                lastId = rating.id();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return ratings.build();
+    }
+}
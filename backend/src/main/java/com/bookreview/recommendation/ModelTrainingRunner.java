@@ -0,0 +1,42 @@
+package com.bookreview.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline recommendation model training, run with the {@code train-model} profile instead of the web
+ * server. Trains once, writes the snapshot that serving instances pick up, and exits with status 1 if
+ * no model could be trained.
+ */
+@Component
+@Profile("train-model")
+@RequiredArgsConstructor
+@Slf4j
+public class ModelTrainingRunner implements CommandLineRunner {
+
+    private final MatrixFactorizationRecommender recommender;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.recommendation.matrix-factorization.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(final String... args) {
+        MatrixFactorizationModel model = recommender.train();
+        if (model == null) {
+            log.error("No recommendation model was trained");
+        }
+
+        int status = model == null ? 1 : 0;
+        if (exit) {
+            // Scheduled tasks would otherwise keep the process alive
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+}
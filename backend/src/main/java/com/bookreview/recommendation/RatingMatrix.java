@@ -0,0 +1,217 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Sparse user by book rating matrix, the input of {@link AlsTrainer}.
+ * <p>
+ * Users and books are numbered densely in ID order. The ratings are held twice as compressed sparse rows,
+ * once by user and once by book, so both halves of an alternating least squares sweep read their rows
+ * sequentially.
+ */
+public final class RatingMatrix {
+
+    private final long[] userIds;
+    private final long[] bookIds;
+    private final int[] userOffsets;
+    private final int[] userBooks;
+    private final float[] userRatings;
+    private final int[] bookOffsets;
+    private final int[] bookUsers;
+    private final float[] bookRatings;
+    private final float mean;
+
+    private RatingMatrix(final long[] userIds, final long[] bookIds, final int[] userOffsets,
+                         final int[] userBooks, final float[] userRatings) {
+        this.userIds = userIds;
+        this.bookIds = bookIds;
+        this.userOffsets = userOffsets;
+        this.userBooks = userBooks;
+        this.userRatings = userRatings;
+
+        int books = bookIds.length;
+        bookOffsets = new int[books + 1];
+        for (int book : userBooks) {
+            bookOffsets[book + 1]++;
+        }
+        for (int book = 0; book < books; book++) {
+            bookOffsets[book + 1] += bookOffsets[book];
+        }
+        bookUsers = new int[userBooks.length];
+        bookRatings = new float[userBooks.length];
+        int[] fill = Arrays.copyOf(bookOffsets, books);
+        double sum = 0;
+        for (int user = 0; user < userIds.length; user++) {
+            for (int p = userOffsets[user]; p < userOffsets[user + 1]; p++) {
+                int book = userBooks[p];
+                bookUsers[fill[book]] = user;
+                bookRatings[fill[book]] = userRatings[p];
+                fill[book]++;
+                sum += userRatings[p];
+            }
+        }
+        mean = userBooks.length == 0 ? 0f : (float) (sum / userBooks.length);
+    }
+
+    /**
+     * Start collecting ratings.
+     *
+     * @return empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of users with at least one rating.
+     *
+     * @return user count
+     */
+    public int userCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Get the number of books with at least one rating.
+     *
+     * @return book count
+     */
+    public int bookCount() {
+        return bookIds.length;
+    }
+
+    /**
+     * Get the number of ratings.
+     *
+     * @return rating count
+     */
+    public int ratingCount() {
+        return userBooks.length;
+    }
+
+    /**
+     * Get the average of all ratings.
+     *
+     * @return mean rating, or 0 if there are none
+     */
+    public float mean() {
+        return mean;
+    }
+
+    long[] userIds() {
+        return userIds;
+    }
+
+    long[] bookIds() {
+        return bookIds;
+    }
+
+    int[] userOffsets() {
+        return userOffsets;
+    }
+
+    int[] userBooks() {
+        return userBooks;
+    }
+
+    float[] userRatings() {
+        return userRatings;
+    }
+
+    int[] bookOffsets() {
+        return bookOffsets;
+    }
+
+    int[] bookUsers() {
+        return bookUsers;
+    }
+
+    float[] bookRatings() {
+        return bookRatings;
+    }
+
+    /**
+     * Collects ratings in primitive arrays. A later rating of the same book by the same user replaces the
+     * earlier one.
+     */
+    public static final class Builder {
+
+        private long[] users = new long[1024];
+        private long[] books = new long[1024];
+        private float[] ratings = new float[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a rating.
+         *
+         * @param userId user ID
+         * @param bookId book ID
+         * @param rating rating
+         * @return this builder
+         */
+        public Builder add(final long userId, final long bookId, final float rating) {
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                books = Arrays.copyOf(books, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+            }
+            users[size] = userId;
+            books[size] = bookId;
+            ratings[size] = rating;
+            size++;
+            return this;
+        }
+
+        /**
+         * Build the matrix.
+         *
+         * @return rating matrix
+         */
+        public RatingMatrix build() {
+            long[] userIds = Arrays.stream(users, 0, size).sorted().distinct().toArray();
+            long[] bookIds = Arrays.stream(books, 0, size).sorted().distinct().toArray();
+
+            // Bucket ratings by user, then sort each user's ratings by book, keeping the last of duplicates
+            int[] userStarts = new int[userIds.length + 1];
+            int[] userOf = new int[size];
+            for (int i = 0; i < size; i++) {
+                userOf[i] = Arrays.binarySearch(userIds, users[i]);
+                userStarts[userOf[i] + 1]++;
+            }
+            for (int user = 0; user < userIds.length; user++) {
+                userStarts[user + 1] += userStarts[user];
+            }
+            long[] keys = new long[size];
+            int[] fill = Arrays.copyOf(userStarts, userIds.length);
+            for (int i = 0; i < size; i++) {
+                keys[fill[userOf[i]]++] = (long) Arrays.binarySearch(bookIds, books[i]) << 32 | i;
+            }
+
+            int[] userOffsets = new int[userIds.length + 1];
+            int[] userBooks = new int[size];
+            float[] userRatings = new float[size];
+            int count = 0;
+            for (int user = 0; user < userIds.length; user++) {
+                int from = userStarts[user];
+                int to = userStarts[user + 1];
+                Arrays.sort(keys, from, to);
+                for (int k = from; k < to; k++) {
+                    int book = (int) (keys[k] >>> 32);
+                    if (k + 1 < to && (int) (keys[k + 1] >>> 32) == book) {
+                        continue;
+                    }
+                    userBooks[count] = book;
+                    userRatings[count] = ratings[(int) keys[k]];
+                    count++;
+                }
+                userOffsets[user + 1] = count;
+            }
+            return new RatingMatrix(userIds, bookIds, userOffsets, Arrays.copyOf(userBooks, count),
+                    Arrays.copyOf(userRatings, count));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.bookreview.recommendation;
 
+import com.bookreview.book.BookListingVersion;
+import com.bookreview.cache.HttpCaching;
+import com.bookreview.cache.SurrogateKeys;
 import com.bookreview.dto.recommendation.RecommendationDTO;
 import com.bookreview.dto.recommendation.RecommendationRequestDTO;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +30,8 @@ import java.util.List;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
+    private final BookListingVersion bookListingVersion;
+    private final HttpCaching httpCaching;
 
     /**
      * Get personalized recommendations for the current user.
@@ -36,6 +41,8 @@ public class RecommendationController {
      * @param minReviews minimum number of reviews (default: 5)
      * @param includeTopRated include top-rated books (default: true)
      * @param includeGenreBased include genre-based recommendations (default: true)
+     * @param includeFavoritesSimilarity include books liked by readers with similar tastes (default: true)
+     * @param includeMatrixFactorization include books with the highest predicted rating (default: true)
      * @param includeAIPowered include AI-powered recommendations (default: false)
      * @return list of recommendations
      */
@@ -46,6 +53,8 @@ public class RecommendationController {
             @RequestParam(defaultValue = "5") final Integer minReviews,
             @RequestParam(defaultValue = "true") final Boolean includeTopRated,
             @RequestParam(defaultValue = "true") final Boolean includeGenreBased,
+            @RequestParam(defaultValue = "true") final Boolean includeFavoritesSimilarity,
+            @RequestParam(defaultValue = "true") final Boolean includeMatrixFactorization,
             @RequestParam(defaultValue = "false") final Boolean includeAIPowered) {
 
         log.debug("Getting recommendations for current user - limit: {}, minRating: {}, minReviews: {}", 
@@ -58,6 +67,8 @@ public class RecommendationController {
                     .minReviews(minReviews)
                     .includeTopRated(includeTopRated)
                     .includeGenreBased(includeGenreBased)
+                    .includeFavoritesSimilarity(includeFavoritesSimilarity)
+                    .includeMatrixFactorization(includeMatrixFactorization)
                     .includeAIPowered(includeAIPowered)
                     .build();
 
@@ -107,6 +118,8 @@ public class RecommendationController {
      * @param minReviews minimum number of reviews (default: 5)
      * @param includeTopRated include top-rated books (default: true)
      * @param includeGenreBased include genre-based recommendations (default: true)
+     * @param includeFavoritesSimilarity include books liked by readers with similar tastes (default: true)
+     * @param includeMatrixFactorization include books with the highest predicted rating (default: true)
      * @param includeAIPowered include AI-powered recommendations (default: false)
      * @return list of recommendations
      */
@@ -118,6 +131,8 @@ public class RecommendationController {
             @RequestParam(defaultValue = "5") final Integer minReviews,
             @RequestParam(defaultValue = "true") final Boolean includeTopRated,
             @RequestParam(defaultValue = "true") final Boolean includeGenreBased,
+            @RequestParam(defaultValue = "true") final Boolean includeFavoritesSimilarity,
+            @RequestParam(defaultValue = "true") final Boolean includeMatrixFactorization,
             @RequestParam(defaultValue = "false") final Boolean includeAIPowered) {
 
         log.debug("Getting recommendations for user: {} - limit: {}, minRating: {}, minReviews: {}", 
@@ -130,6 +145,8 @@ public class RecommendationController {
                     .minReviews(minReviews)
                     .includeTopRated(includeTopRated)
                     .includeGenreBased(includeGenreBased)
+                    .includeFavoritesSimilarity(includeFavoritesSimilarity)
+                    .includeMatrixFactorization(includeMatrixFactorization)
                     .includeAIPowered(includeAIPowered)
                     .build();
 
@@ -162,6 +179,14 @@ public class RecommendationController {
         log.debug("Getting top-rated recommendations - limit: {}, minRating: {}, minReviews: {}", 
                   limit, minRating, minReviews);
 
+        // Top-rated picks change only with the catalog; their createdAt is just the time of the response
+        return httpCaching.respond(bookListingVersion.current(),
+                () -> topRatedRecommendations(limit, minRating, minReviews), SurrogateKeys.BOOKS);
+    }
+
+    private ResponseEntity<List<RecommendationDTO>> topRatedRecommendations(final Integer limit,
+                                                                            final Double minRating,
+                                                                            final Integer minReviews) {
         try {
             // Create a generic request for top-rated books only
             RecommendationRequestDTO requestDTO = RecommendationRequestDTO.builder()
@@ -170,6 +195,8 @@ public class RecommendationController {
                     .minReviews(minReviews)
                     .includeTopRated(true)
                     .includeGenreBased(false)
+                    .includeFavoritesSimilarity(false)
+                    .includeMatrixFactorization(false)
                     .includeAIPowered(false)
                     .build();
 
@@ -0,0 +1,93 @@
+package com.bookreview.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the materialized recommendations of active users current in the background.
+ * <p>
+ * A change to a user's reviews, favorites or preferred genres is recorded in the same transaction. Every
+ * interval one batch of users who changed something within the active window, and whose recommendations
+ * are older than that change or have expired, is recomputed. Until then the user is served the previous
+ * recommendations. Users who are not active are computed on demand when their recommendations have
+ * expired; {@link RecommendationSweeper} deletes the expired rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationMaterializer {
+
+    private final RecommendationRefreshRepository refreshRepository;
+    private final RecommendationService recommendationService;
+
+    @Value("${app.recommendation.materialize.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recommendation.materialize.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.recommendation.materialize.active-days:30}")
+    private long activeDays;
+
+    @Value("${app.recommendation.cache-ttl:3600}")
+    private long ttlSeconds;
+
+    /**
+     * Record a change to a user's recommendation inputs before the change commits.
+     *
+     * @param event taste changed event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onTasteChanged(final TasteChangedEvent event) {
+        refreshRepository.markChanged(event.userId(), LocalDateTime.now());
+    }
+
+    /**
+     * Recompute the recommendations of up to one batch of active users that are due a refresh.
+     *
+     * @return number of users refreshed
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.materialize.interval-ms:60000}")
+    public int refreshDue() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> userIds = refreshRepository.findUserIdsDueRefresh(now.minusDays(activeDays),
+                now.minusSeconds(ttlSeconds), PageRequest.of(0, batchSize));
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            recommendationService.refreshRecommendations(userIds);
+            log.debug("Refreshed recommendations of {} users", userIds.size());
+            return userIds.size();
+        } catch (RuntimeException e) {
+            log.warn("Refreshing recommendations of {} users failed, retrying one by one: {}",
+                    userIds.size(), e.getMessage());
+        }
+        // One failing user must not hold back the rest of the batch
+        int refreshed = 0;
+        for (Long userId : userIds) {
+            try {
+                recommendationService.refreshRecommendations(List.of(userId));
+                refreshed++;
+            } catch (RuntimeException e) {
+                log.error("Refreshing recommendations of user {} failed: {}", userId, e.getMessage(), e);
+            }
+        }
+        return refreshed;
+    }
+}
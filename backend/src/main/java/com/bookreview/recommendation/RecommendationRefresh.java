@@ -0,0 +1,44 @@
+package com.bookreview.recommendation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * When a user's recommendation inputs (reviews and favorites) last changed and when their materialized
+ * recommendations were last computed.
+ */
+@Entity
+@Table(name = "recommendation_refreshes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationRefresh {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    /**
+     * Check if the recommendations computed at the last refresh are still current.
+     *
+     * @param expiredBefore refreshes before this time have expired
+     * @return true if refreshed since the last change and not expired
+     */
+    public boolean isFresh(final LocalDateTime expiredBefore) {
+        return refreshedAt != null && refreshedAt.isAfter(expiredBefore)
+                && (changedAt == null || !refreshedAt.isBefore(changedAt));
+    }
+}
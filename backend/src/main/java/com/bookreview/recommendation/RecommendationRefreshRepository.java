@@ -0,0 +1,55 @@
+package com.bookreview.recommendation;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for RecommendationRefresh entity operations.
+ */
+@Repository
+public interface RecommendationRefreshRepository extends JpaRepository<RecommendationRefresh, Long> {
+
+    /**
+     * Record that a user's reviews or favorites changed, keeping the time of their last refresh.
+     *
+     * @param userId user ID
+     * @param changedAt time of the change
+     */
+    @Modifying
+    @Query(value = "MERGE INTO recommendation_refreshes (user_id, changed_at) KEY (user_id) "
+            + "VALUES (:userId, :changedAt)", nativeQuery = true)
+    void markChanged(@Param("userId") Long userId, @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Record that a user's recommendations were computed, keeping the time of their last change.
+     *
+     * @param userId user ID
+     * @param refreshedAt time the computation started
+     */
+    @Modifying
+    @Query(value = "MERGE INTO recommendation_refreshes (user_id, refreshed_at) KEY (user_id) "
+            + "VALUES (:userId, :refreshedAt)", nativeQuery = true)
+    void markRefreshed(@Param("userId") Long userId, @Param("refreshedAt") LocalDateTime refreshedAt);
+
+    /**
+     * Find active users whose recommendations are missing, older than their last change or expired,
+     * longest changed first.
+     *
+     * @param activeSince users whose reviews or favorites last changed before this time are inactive
+     * @param expiredBefore refreshes before this time have expired
+     * @param pageable batch to find
+     * @return IDs of users due a refresh
+     */
+    @Query("SELECT r.userId FROM RecommendationRefresh r WHERE r.changedAt >= :activeSince "
+            + "AND (r.refreshedAt IS NULL OR r.refreshedAt < r.changedAt OR r.refreshedAt < :expiredBefore) "
+            + "ORDER BY r.changedAt")
+    List<Long> findUserIdsDueRefresh(@Param("activeSince") LocalDateTime activeSince,
+                                     @Param("expiredBefore") LocalDateTime expiredBefore, Pageable pageable);
+}
@@ -3,11 +3,14 @@ package com.bookreview.recommendation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +20,16 @@ import java.util.Optional;
 @Repository
 public interface RecommendationRepository extends JpaRepository<Recommendation, Long> {
 
+    /**
+     * JPQL condition on recommendations {@code r} that have expired or are older than {@code :createdBefore}.
+     */
+    String SWEEPABLE = "((r.expiresAt IS NOT NULL AND r.expiresAt <= :now) OR r.createdAt < :createdBefore) ";
+
+    /**
+     * JPQL select clause of the {@link SweepRange} of recommendations {@code r}.
+     */
+    String SWEEPABLE_SELECT = "SELECT new com.bookreview.recommendation.SweepRange(MIN(r.id), MAX(r.id), COUNT(r)) ";
+
     /**
      * Find recommendations for a user.
      *
@@ -39,6 +52,18 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
                                                          @Param("now") LocalDateTime now, 
                                                          Pageable pageable);
 
+    /**
+     * Find the valid materialized recommendations of a user with their books, in the order they were
+     * computed.
+     *
+     * @param userId the user ID
+     * @param now current timestamp
+     * @return valid recommendations
+     */
+    @Query("SELECT r FROM Recommendation r JOIN FETCH r.book WHERE r.user.id = :userId "
+            + "AND (r.expiresAt IS NULL OR r.expiresAt > :now) ORDER BY r.id")
+    List<Recommendation> findValidWithBookByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
     /**
      * Find recommendations by strategy for a user.
      *
@@ -194,6 +219,7 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
      * @param now current timestamp
      * @return number of deleted recommendations
      */
+    @Modifying
     @Query("DELETE FROM Recommendation r WHERE r.expiresAt IS NOT NULL AND r.expiresAt <= :now")
     int deleteExpiredRecommendations(@Param("now") LocalDateTime now);
 
@@ -204,6 +230,15 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
      */
     void deleteByUserId(Long userId);
 
+    /**
+     * Delete the recommendations of several users in one statement.
+     *
+     * @param userIds the user IDs
+     */
+    @Modifying
+    @Query("DELETE FROM Recommendation r WHERE r.user.id IN :userIds")
+    void deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     /**
      * Delete recommendations by book ID.
      *
@@ -217,6 +252,32 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
      * @param date the cutoff date
      * @return number of deleted recommendations
      */
+    @Modifying
     @Query("DELETE FROM Recommendation r WHERE r.createdAt < :date")
     int deleteOldRecommendations(@Param("date") LocalDateTime date);
+
+    /**
+     * Get the ID range and number of recommendations that have expired or were created before a cutoff.
+     *
+     * @param now current timestamp
+     * @param createdBefore recommendations created before this time are stale
+     * @return range of sweepable recommendations, with null IDs when there are none
+     */
+    @Query(SWEEPABLE_SELECT + "FROM Recommendation r WHERE " + SWEEPABLE)
+    SweepRange findSweepRange(@Param("now") LocalDateTime now, @Param("createdBefore") LocalDateTime createdBefore);
+
+    /**
+     * Delete the expired and stale recommendations in an ID range, in a transaction of its own.
+     *
+     * @param fromId first ID of the range
+     * @param toId last ID of the range
+     * @param now current timestamp
+     * @param createdBefore recommendations created before this time are stale
+     * @return number of deleted recommendations
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Recommendation r WHERE r.id BETWEEN :fromId AND :toId AND " + SWEEPABLE)
+    int deleteSweepableBetween(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                               @Param("now") LocalDateTime now, @Param("createdBefore") LocalDateTime createdBefore);
 }
@@ -1,11 +1,14 @@
 package com.bookreview.recommendation;
 
 import com.bookreview.book.Book;
+import com.bookreview.book.BookCardView;
 import com.bookreview.book.BookRepository;
 import com.bookreview.book.Genre;
 import com.bookreview.dto.book.BookDTO;
 import com.bookreview.dto.recommendation.RecommendationDTO;
 import com.bookreview.dto.recommendation.RecommendationRequestDTO;
+import com.bookreview.recommendation.ItemSimilarityModel.ScoredBook;
+import com.bookreview.recommendation.MatrixFactorizationModel.Prediction;
 import com.bookreview.review.ReviewRepository;
 import com.bookreview.service.OpenAIRecommendationService;
 import com.bookreview.user.User;
@@ -13,18 +16,24 @@ import com.bookreview.user.UserRepository;
 import com.bookreview.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -37,28 +46,99 @@ import java.util.stream.Collectors;
 @Transactional
 public class RecommendationService {
 
+    /**
+     * Parameters of the materialized recommendations, the defaults of {@code GET /for-me}.
+     */
+    private static final RecommendationRequestDTO MATERIALIZED_REQUEST = RecommendationRequestDTO.builder().build();
+
     private final RecommendationRepository recommendationRepository;
+    private final RecommendationRefreshRepository refreshRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
     private final OpenAIRecommendationService openAIService;
+    private final ItemSimilarityIndex similarityIndex;
+    private final MatrixFactorizationRecommender matrixFactorization;
+
+    @Value("${app.recommendation.materialize.enabled:true}")
+    private boolean materializeEnabled;
+
+    @Value("${app.recommendation.cache-ttl:3600}")
+    private long ttlSeconds;
 
     /**
-     * Get personalized recommendations for the current user.
+     * Get personalized recommendations for the current user. Requests with the default parameters, or
+     * fewer of them, are served from the user's materialized recommendations, which a miss computes and
+     * stores; other requests are computed every time.
      *
      * @param requestDTO recommendation request parameters
      * @return list of recommendations
      */
-    @Transactional(readOnly = true)
     public List<RecommendationDTO> getRecommendationsForCurrentUser(final RecommendationRequestDTO requestDTO) {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         if (currentUserId == null) {
             throw new AccessDeniedException("User must be authenticated to get recommendations");
         }
 
+        if (isMaterialized(requestDTO)) {
+            return getMaterializedRecommendations(currentUserId).stream()
+                    .limit(requestDTO.getLimit())
+                    .toList();
+        }
         return getRecommendationsForUser(currentUserId, requestDTO);
     }
 
+    /**
+     * Get the materialized recommendations of a user, computing and storing them when they are missing
+     * or expired.
+     *
+     * @param userId user ID
+     * @return recommendations for the default parameters
+     */
+    public List<RecommendationDTO> getMaterializedRecommendations(final Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Recommendation> stored = recommendationRepository.findValidWithBookByUserId(userId, now);
+        if (!stored.isEmpty()) {
+            return stored.stream()
+                    .map(recommendation -> mapToDTO(userId, recommendation))
+                    .toList();
+        }
+        // A user with nothing to recommend has no rows; a current refresh tells that apart from a miss
+        boolean fresh = refreshRepository.findById(userId)
+                .filter(refresh -> refresh.isFresh(now.minusSeconds(ttlSeconds)))
+                .isPresent();
+        if (fresh) {
+            return List.of();
+        }
+        log.debug("Materialized recommendations missing for user: {}", userId);
+        return refreshRecommendations(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Compute the recommendations of users for the default parameters and replace their materialized
+     * recommendations with them in one transaction with batched inserts.
+     *
+     * @param userIds user IDs
+     * @return computed recommendations by user ID
+     */
+    public Map<Long, List<RecommendationDTO>> refreshRecommendations(final List<Long> userIds) {
+        // Changes committed while computing stay newer than the refresh, so the user is refreshed again
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        Map<Long, List<RecommendationDTO>> computed = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            computed.put(userId, getRecommendationsForUser(userId, MATERIALIZED_REQUEST));
+        }
+
+        LocalDateTime expiresAt = refreshedAt.plusSeconds(ttlSeconds);
+        recommendationRepository.deleteByUserIdIn(userIds);
+        recommendationRepository.saveAll(computed.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream()
+                        .map(recommendation -> toEntity(entry.getKey(), recommendation, expiresAt)))
+                .toList());
+        userIds.forEach(userId -> refreshRepository.markRefreshed(userId, refreshedAt));
+        return computed;
+    }
+
     /**
      * Get personalized recommendations for a specific user.
      *
@@ -89,7 +169,25 @@ public class RecommendationService {
             recommendedBookIds.addAll(topRatedRecs.stream().map(r -> r.getBook().getId()).collect(Collectors.toSet()));
         }
 
-        // Strategy 2: Genre-based recommendations
+        // Strategy 2: Books liked by readers who liked the same books
+        if (requestDTO.getIncludeFavoritesSimilarity() && recommendations.size() < requestDTO.getLimit()) {
+            List<RecommendationDTO> similarityRecs = getFavoritesSimilarityRecommendations(
+                    user, reviewedBookIds, recommendedBookIds, requestDTO.getLimit() - recommendations.size()
+            );
+            recommendations.addAll(similarityRecs);
+            recommendedBookIds.addAll(similarityRecs.stream().map(r -> r.getBook().getId()).collect(Collectors.toSet()));
+        }
+
+        // Strategy 3: Books with the highest rating predicted from everyone's ratings
+        if (requestDTO.getIncludeMatrixFactorization() && recommendations.size() < requestDTO.getLimit()) {
+            List<RecommendationDTO> predictedRecs = getMatrixFactorizationRecommendations(
+                    user, reviewedBookIds, recommendedBookIds, requestDTO.getLimit() - recommendations.size()
+            );
+            recommendations.addAll(predictedRecs);
+            recommendedBookIds.addAll(predictedRecs.stream().map(r -> r.getBook().getId()).collect(Collectors.toSet()));
+        }
+
+        // Strategy 4: Genre-based recommendations
         if (requestDTO.getIncludeGenreBased() && recommendations.size() < requestDTO.getLimit()) {
             List<RecommendationDTO> genreRecs = getGenreBasedRecommendations(
                     user, reviewedBookIds, recommendedBookIds, requestDTO.getMinRating(), 
@@ -99,7 +197,7 @@ public class RecommendationService {
             recommendedBookIds.addAll(genreRecs.stream().map(r -> r.getBook().getId()).collect(Collectors.toSet()));
         }
 
-        // Strategy 3: AI-powered recommendations (when enabled)
+        // Strategy 5: AI-powered recommendations (when enabled)
         if (requestDTO.getIncludeAIPowered() && openAIService.isAvailable() && recommendations.size() < requestDTO.getLimit()) {
             List<RecommendationDTO> aiRecs = getAIPoweredRecommendations(
                     user, reviewedBookIds, recommendedBookIds, requestDTO.getLimit() - recommendations.size()
@@ -113,6 +211,20 @@ public class RecommendationService {
                 .toList();
     }
 
+    private boolean isMaterialized(final RecommendationRequestDTO request) {
+        return materializeEnabled
+                && request.getLimit() != null && request.getLimit() <= MATERIALIZED_REQUEST.getLimit()
+                && Objects.equals(request.getIncludeTopRated(), MATERIALIZED_REQUEST.getIncludeTopRated())
+                && Objects.equals(request.getIncludeGenreBased(), MATERIALIZED_REQUEST.getIncludeGenreBased())
+                && Objects.equals(request.getIncludeFavoritesSimilarity(),
+                        MATERIALIZED_REQUEST.getIncludeFavoritesSimilarity())
+                && Objects.equals(request.getIncludeMatrixFactorization(),
+                        MATERIALIZED_REQUEST.getIncludeMatrixFactorization())
+                && Objects.equals(request.getIncludeAIPowered(), MATERIALIZED_REQUEST.getIncludeAIPowered())
+                && Objects.equals(request.getMinRating(), MATERIALIZED_REQUEST.getMinRating())
+                && Objects.equals(request.getMinReviews(), MATERIALIZED_REQUEST.getMinReviews());
+    }
+
     /**
      * Get top-rated book recommendations.
      *
@@ -128,11 +240,13 @@ public class RecommendationService {
         log.debug("Getting top-rated recommendations for user: {}", user.getId());
 
         Pageable pageable = PageRequest.of(0, limit * 2); // Get more to account for exclusions
-        Page<Book> topRatedBooks = bookRepository.findTopRatedBooks(BigDecimal.valueOf(minRating), minReviews, pageable);
+        // Ordered by weighted score through its index; a slice skips the count query
+        Slice<BookCardView> topRatedBooks = bookRepository.findSliceOfTopRatedBooks(BigDecimal.valueOf(minRating), minReviews, pageable);
 
         return topRatedBooks.getContent().stream()
-                .filter(book -> !excludeBookIds.contains(book.getId()))
+                .filter(book -> !excludeBookIds.contains(book.id()))
                 .limit(limit)
+                .map(this::mapCardToDTO)
                 .map(book -> createRecommendation(user, book, RecommendationStrategy.TOP_RATED, 
                         "This book has an excellent rating of " + book.getAverageRating() + 
                         " based on " + book.getTotalReviews() + " reviews", 
@@ -140,6 +254,72 @@ public class RecommendationService {
                 .toList();
     }
 
+    /**
+     * Get recommendations from the item similarity index: books most similar to those the user rated highly
+     * or marked as favorites. Returns nothing until the index has been built.
+     *
+     * @param user the user
+     * @param excludeBookIds book IDs to exclude
+     * @param alreadyRecommended already recommended book IDs
+     * @param limit recommendation limit
+     * @return list of favorites-similarity recommendations
+     */
+    private List<RecommendationDTO> getFavoritesSimilarityRecommendations(final User user, final Set<Long> excludeBookIds,
+                                                                        final Set<Long> alreadyRecommended, final int limit) {
+        log.debug("Getting favorites-similarity recommendations for user: {}", user.getId());
+
+        List<ScoredBook> similarBooks = similarityIndex.recommend(user.getId(),
+                        bookId -> excludeBookIds.contains(bookId) || alreadyRecommended.contains(bookId), limit)
+                .orElse(List.of());
+        if (similarBooks.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookCardView> cards = bookRepository.findCardsByIdIn(
+                        similarBooks.stream().map(ScoredBook::bookId).toList()).stream()
+                .collect(Collectors.toMap(BookCardView::id, card -> card));
+        return similarBooks.stream()
+                .filter(scored -> cards.containsKey(scored.bookId()))
+                .map(scored -> createRecommendation(user, mapCardToDTO(cards.get(scored.bookId())),
+                        RecommendationStrategy.FAVORITES_SIMILARITY,
+                        "Readers who liked the same books as you also liked this one",
+                        (double) scored.score()))
+                .toList();
+    }
+
+    /**
+     * Get recommendations from the matrix factorization model: the books with the highest rating predicted
+     * for the user. Returns nothing until a model has been trained or loaded.
+     *
+     * @param user the user
+     * @param excludeBookIds book IDs to exclude
+     * @param alreadyRecommended already recommended book IDs
+     * @param limit recommendation limit
+     * @return list of matrix factorization recommendations
+     */
+    private List<RecommendationDTO> getMatrixFactorizationRecommendations(final User user, final Set<Long> excludeBookIds,
+                                                                        final Set<Long> alreadyRecommended, final int limit) {
+        log.debug("Getting matrix factorization recommendations for user: {}", user.getId());
+
+        List<Prediction> predictions = matrixFactorization.recommend(user.getId(),
+                        bookId -> excludeBookIds.contains(bookId) || alreadyRecommended.contains(bookId), limit)
+                .orElse(List.of());
+        if (predictions.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookCardView> cards = bookRepository.findCardsByIdIn(
+                        predictions.stream().map(Prediction::bookId).toList()).stream()
+                .collect(Collectors.toMap(BookCardView::id, card -> card));
+        return predictions.stream()
+                .filter(prediction -> cards.containsKey(prediction.bookId()))
+                .map(prediction -> createRecommendation(user, mapCardToDTO(cards.get(prediction.bookId())),
+                        RecommendationStrategy.MATRIX_FACTORIZATION,
+                        "Readers who rate books the way you do rated this one highly",
+                        calculatePredictedRatingScore(prediction.rating())))
+                .toList();
+    }
+
     /**
      * Get genre-based book recommendations.
      *
@@ -175,13 +355,14 @@ public class RecommendationService {
 
             Pageable pageable = PageRequest.of(0, limit);
             // Use the existing method to get books by genre
-            Page<Book> genreBooks = bookRepository.findByGenre(genre, pageable);
+            Page<BookCardView> genreBooks = bookRepository.findCardsByGenre(genre, pageable);
 
             List<RecommendationDTO> genreRecs = genreBooks.getContent().stream()
-                    .filter(book -> !excludeBookIds.contains(book.getId()))
-                    .filter(book -> !alreadyRecommended.contains(book.getId()))
-                    .filter(book -> book.getTotalReviews() >= minReviews)
+                    .filter(book -> !excludeBookIds.contains(book.id()))
+                    .filter(book -> !alreadyRecommended.contains(book.id()))
+                    .filter(book -> book.totalReviews() >= minReviews)
                     .limit(limit - recommendations.size())
+                    .map(this::mapCardToDTO)
                     .map(book -> createRecommendation(user, book, RecommendationStrategy.GENRE_SIMILARITY,
                             "Based on your interest in " + genre.name().toLowerCase().replace('_', ' ') + " books",
                             calculateGenreBasedScore(book, genre, user)))
@@ -216,6 +397,7 @@ public class RecommendationService {
                 .filter(book -> !excludeBookIds.contains(book.getId()))
                 .filter(book -> !alreadyRecommended.contains(book.getId()))
                 .limit(limit)
+                .map(this::mapBookToDTO)
                 .map(book -> createRecommendation(user, book, RecommendationStrategy.AI_POWERED,
                         "AI-powered recommendation based on your reading history and preferences",
                         0.9)) // High confidence for AI recommendations
@@ -229,9 +411,7 @@ public class RecommendationService {
      * @return set of reviewed book IDs
      */
     private Set<Long> getReviewedBookIdsByUser(final Long userId) {
-        return reviewRepository.findByUserId(userId, Pageable.unpaged())
-                .map(review -> review.getBook().getId())
-                .toSet();
+        return new HashSet<>(reviewRepository.findBookIdsByUserId(userId));
     }
 
     /**
@@ -268,12 +448,12 @@ public class RecommendationService {
      * @param score recommendation score
      * @return recommendation DTO
      */
-    private RecommendationDTO createRecommendation(final User user, final Book book, 
+    private RecommendationDTO createRecommendation(final User user, final BookDTO book, 
                                                   final RecommendationStrategy strategy, 
                                                   final String reason, final Double score) {
         return RecommendationDTO.builder()
                 .userId(user.getId())
-                .book(mapBookToDTO(book))
+                .book(book)
                 .strategy(strategy)
                 .reason(reason)
                 .score(score)
@@ -287,7 +467,7 @@ public class RecommendationService {
      * @param book the book
      * @return recommendation score
      */
-    private Double calculateTopRatedScore(final Book book) {
+    private Double calculateTopRatedScore(final BookDTO book) {
         // Score based on rating and number of reviews
         double ratingScore = book.getAverageRating().doubleValue() / 5.0; // Normalize to 0-1
         double reviewScore = Math.min(book.getTotalReviews() / 100.0, 1.0); // More reviews = higher score
@@ -302,7 +482,7 @@ public class RecommendationService {
      * @param user the user
      * @return recommendation score
      */
-    private Double calculateGenreBasedScore(final Book book, final Genre genre, final User user) {
+    private Double calculateGenreBasedScore(final BookDTO book, final Genre genre, final User user) {
         double baseScore = book.getAverageRating().doubleValue() / 5.0;
         
         // Bonus for preferred genres
@@ -311,6 +491,55 @@ public class RecommendationService {
         return Math.min(baseScore + genreBonus, 1.0);
     }
 
+    /**
+     * Calculate score for matrix factorization recommendations.
+     *
+     * @param predictedRating predicted rating, which may fall outside 1 to 5
+     * @return predicted rating mapped from 1-5 to 0-1
+     */
+    private Double calculatePredictedRatingScore(final float predictedRating) {
+        return Math.max(0.0, Math.min((predictedRating - 1.0) / 4.0, 1.0));
+    }
+
+    /**
+     * Map a computed recommendation to a materialized recommendation.
+     *
+     * @param userId user ID
+     * @param recommendation computed recommendation
+     * @param expiresAt expiry of the recommendation
+     * @return recommendation entity
+     */
+    private Recommendation toEntity(final Long userId, final RecommendationDTO recommendation,
+                                    final LocalDateTime expiresAt) {
+        return Recommendation.builder()
+                .user(userRepository.getReferenceById(userId))
+                .book(bookRepository.getReferenceById(recommendation.getBook().getId()))
+                .strategy(recommendation.getStrategy())
+                .confidence(BigDecimal.valueOf(recommendation.getScore()).setScale(4, RoundingMode.HALF_UP))
+                .reasoning(recommendation.getReason())
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * Map a materialized recommendation to a recommendation DTO.
+     *
+     * @param userId user ID
+     * @param recommendation recommendation entity with its book
+     * @return recommendation DTO
+     */
+    private RecommendationDTO mapToDTO(final Long userId, final Recommendation recommendation) {
+        return RecommendationDTO.builder()
+                .id(recommendation.getId())
+                .userId(userId)
+                .book(mapBookToDTO(recommendation.getBook()))
+                .strategy(recommendation.getStrategy())
+                .reason(recommendation.getReasoning())
+                .score(recommendation.getConfidence().doubleValue())
+                .createdAt(recommendation.getCreatedAt())
+                .build();
+    }
+
     /**
      * Map Book entity to BookDTO.
      *
@@ -332,4 +561,26 @@ public class RecommendationService {
                 .updatedAt(book.getUpdatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Map book card projection to BookDTO.
+     *
+     * @param card the book card
+     * @return book DTO
+     */
+    private BookDTO mapCardToDTO(final BookCardView card) {
+        return BookDTO.builder()
+                .id(card.id())
+                .title(card.title())
+                .author(card.author())
+                .description(card.description())
+                .coverImageUrl(card.coverImageUrl())
+                .genres(card.genres())
+                .publishedYear(card.publishedYear())
+                .averageRating(card.averageRating())
+                .totalReviews(card.totalReviews())
+                .createdAt(card.createdAt())
+                .updatedAt(card.updatedAt())
+                .build();
+    }
+}
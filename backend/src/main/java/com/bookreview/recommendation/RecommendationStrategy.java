@@ -19,6 +19,11 @@ public enum RecommendationStrategy {
      */
     FAVORITES_SIMILARITY,
     
+    /**
+     * Recommend books by rating predicted from a matrix factorization of all ratings.
+     */
+    MATRIX_FACTORIZATION,
+    
     /**
      * AI-powered recommendations using external API.
      */
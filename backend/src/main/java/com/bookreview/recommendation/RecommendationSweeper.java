@@ -0,0 +1,112 @@
+package com.bookreview.recommendation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically deletes expired recommendations and recommendations older than the maximum age.
+ * <p>
+ * The rows to delete are found once per sweep as an ID range, which is then deleted in batches of
+ * consecutive IDs, each in a transaction of its own and followed by a pause, so a large backlog never holds
+ * locks for long or builds one huge transaction. Rows deleted, the remaining backlog and the duration of
+ * the last sweep are published as metrics.
+ */
+@Component
+@Slf4j
+public class RecommendationSweeper {
+
+    private final RecommendationRepository recommendationRepository;
+    private final Counter deletedCounter;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+
+    @Value("${app.recommendation.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recommendation.sweeper.batch-size:5000}")
+    private long batchSize;
+
+    @Value("${app.recommendation.sweeper.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${app.recommendation.sweeper.max-age-days:30}")
+    private long maxAgeDays;
+
+    public RecommendationSweeper(final RecommendationRepository recommendationRepository,
+                                 final MeterRegistry meterRegistry) {
+        this.recommendationRepository = recommendationRepository;
+        this.deletedCounter = Counter.builder("recommendations.sweeper.deleted")
+                .description("Expired and stale recommendations deleted")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.sweeper.backlog", backlog, AtomicLong::get)
+                .description("Expired and stale recommendations left to delete")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.sweeper.last.duration", lastSweepMillis, AtomicLong::get)
+                .description("Duration of the last sweep")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delete every recommendation that has expired or is older than the maximum age.
+     *
+     * @return number of deleted recommendations
+     */
+    @Scheduled(initialDelayString = "${app.recommendation.sweeper.interval-ms:3600000}",
+            fixedDelayString = "${app.recommendation.sweeper.interval-ms:3600000}")
+    public long sweep() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdBefore = now.minusDays(maxAgeDays);
+        SweepRange range = recommendationRepository.findSweepRange(now, createdBefore);
+        if (range == null || range.isEmpty()) {
+            backlog.set(0);
+            return 0;
+        }
+
+        backlog.set(range.rows());
+        long start = System.nanoTime();
+        long deleted = 0;
+        for (long fromId = range.fromId(); fromId <= range.toId(); fromId += batchSize) {
+            long toId = Math.min(fromId + batchSize - 1, range.toId());
+            int batch = recommendationRepository.deleteSweepableBetween(fromId, toId, now, createdBefore);
+            deleted += batch;
+            deletedCounter.increment(batch);
+            backlog.set(Math.max(range.rows() - deleted, 0));
+            if (toId < range.toId() && !pause()) {
+                log.info("Recommendation sweep interrupted after deleting {} rows", deleted);
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        lastSweepMillis.set(elapsed.toMillis());
+        log.info("Swept {} expired and stale recommendations in {} ms ({} rows/s), {} left",
+                deleted, elapsed.toMillis(), deleted * 1000 / Math.max(elapsed.toMillis(), 1), backlog.get());
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bookreview.recommendation;
+
+/**
+ * ID range and number of the recommendations a sweep deletes.
+ *
+ * @param fromId lowest ID, or null when there is nothing to sweep
+ * @param toId highest ID, or null when there is nothing to sweep
+ * @param rows number of recommendations
+ */
+public record SweepRange(Long fromId, Long toId, Long rows) {
+
+    /**
+     * Check if there is nothing to sweep.
+     *
+     * @return true if the range is empty
+     */
+    public boolean isEmpty() {
+        return fromId == null || rows == null || rows == 0;
+    }
+}
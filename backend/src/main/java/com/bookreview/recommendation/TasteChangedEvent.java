@@ -0,0 +1,10 @@
+package com.bookreview.recommendation;
+
+/**
+ * Application event published when a user's reviews, favorites or preferred genres change, which are the
+ * inputs of their recommendations.
+ *
+ * @param userId ID of the user
+ */
+public record TasteChangedEvent(Long userId) {
+}
@@ -0,0 +1,155 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The books each user likes and how much, the input of the item similarity model.
+ * <p>
+ * A book is liked through a favorite or a review of 3 stars or more; a favorite or a 5-star review counts
+ * fully, lower ratings less. Each user's tastes are replaced as a whole, so readers see either the old or
+ * the new tastes of a user.
+ */
+final class UserTastes {
+
+    private final Map<Long, Taste> tastes = new ConcurrentHashMap<>();
+
+    /**
+     * How much a rating says a user likes a book.
+     *
+     * @param rating rating from 1 to 5
+     * @return weight from 0 to 1; 0 for ratings that do not say the user liked the book
+     */
+    static float ratingWeight(final int rating) {
+        return Math.max(rating - 2, 0) / 3f;
+    }
+
+    /**
+     * Get the tastes of a user.
+     *
+     * @param userId user ID
+     * @return tastes, or null if the user likes no book
+     */
+    Taste get(final long userId) {
+        return tastes.get(userId);
+    }
+
+    /**
+     * Replace the tastes of a user.
+     *
+     * @param userId user ID
+     * @param taste tastes, or null if the user likes no book
+     * @return previous tastes, or null if there were none
+     */
+    Taste put(final long userId, final Taste taste) {
+        if (taste == null || taste.size() == 0) {
+            return tastes.remove(userId);
+        }
+        return tastes.put(userId, taste);
+    }
+
+    /**
+     * Get the tastes of every user.
+     *
+     * @return tastes by user ID; a live view
+     */
+    Map<Long, Taste> all() {
+        return tastes;
+    }
+
+    /**
+     * Get the number of users who like at least one book.
+     *
+     * @return user count
+     */
+    int size() {
+        return tastes.size();
+    }
+
+    /**
+     * Books a user likes, in ID order, with how much.
+     *
+     * @param bookIds book IDs, ascending
+     * @param weights weights from 0 to 1
+     */
+    record Taste(long[] bookIds, float[] weights) {
+
+        /**
+         * Get the number of liked books.
+         *
+         * @return book count
+         */
+        int size() {
+            return bookIds.length;
+        }
+
+        /**
+         * Get how much the user likes a book.
+         *
+         * @param bookId book ID
+         * @return weight, or 0 if the user does not like the book
+         */
+        float weight(final long bookId) {
+            int index = Arrays.binarySearch(bookIds, bookId);
+            return index >= 0 ? weights[index] : 0f;
+        }
+    }
+
+    /**
+     * Collects the ratings and favorites of one user into a {@link Taste}.
+     */
+    static final class TasteBuilder {
+
+        private final TreeMap<Long, Float> weights = new TreeMap<>();
+
+        /**
+         * Add a review.
+         *
+         * @param bookId book ID
+         * @param rating rating from 1 to 5
+         * @return this builder
+         */
+        TasteBuilder rated(final long bookId, final int rating) {
+            return liked(bookId, ratingWeight(rating));
+        }
+
+        /**
+         * Add a favorite.
+         *
+         * @param bookId book ID
+         * @return this builder
+         */
+        TasteBuilder favorite(final long bookId) {
+            return liked(bookId, 1f);
+        }
+
+        private TasteBuilder liked(final long bookId, final float weight) {
+            if (weight > 0) {
+                weights.merge(bookId, weight, Math::max);
+            }
+            return this;
+        }
+
+        /**
+         * Build the tastes.
+         *
+         * @return tastes, or null if no book is liked
+         */
+        Taste build() {
+            if (weights.isEmpty()) {
+                return null;
+            }
+            long[] bookIds = new long[weights.size()];
+            float[] values = new float[weights.size()];
+            int i = 0;
+            for (Map.Entry<Long, Float> entry : weights.entrySet()) {
+                bookIds[i] = entry.getKey();
+                values[i] = entry.getValue();
+                i++;
+            }
+            return new Taste(bookIds, values);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookreview.review;
+
+/**
+ * Review read from a bulk load, with its book and reviewer already resolved to IDs.
+ *
+ * @param bookId book ID
+ * @param userId reviewer ID
+ * @param rating rating
+ * @param text review text
+ */
+public record ImportedReview(Long bookId, Long userId, Integer rating, String text) {
+}
@@ -1,5 +1,9 @@
 package com.bookreview.review;
 
+import com.bookreview.cache.HttpCaching;
+import com.bookreview.cache.SurrogateKeys;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.SliceDTO;
 import com.bookreview.dto.review.ReviewCreateDTO;
 import com.bookreview.dto.review.ReviewDTO;
 import com.bookreview.dto.review.ReviewUpdateDTO;
@@ -8,7 +12,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -22,8 +28,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.function.Supplier;
+
 /**
- * REST controller for review endpoints.
+ * REST controller for review endpoints. Public reads answer conditional GETs, see {@link HttpCaching}.
  */
 @RestController
 @RequestMapping("/api/v1/reviews")
@@ -32,6 +40,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final HttpCaching httpCaching;
 
     /**
      * Get all reviews with pagination and filtering.
@@ -53,16 +62,12 @@ public class ReviewController {
         
         log.debug("Getting reviews with filters - bookId: {}, userId: {}, rating: {}", bookId, userId, rating);
 
-        Page<ReviewDTO> reviews;
         if (bookId != null) {
-            reviews = reviewService.getReviewsByBookId(bookId, pageable);
+            return bookReviews(bookId, () -> ResponseEntity.ok(reviewService.getReviewsByBookId(bookId, pageable)));
         } else if (userId != null) {
-            reviews = reviewService.getReviewsByUserId(userId, pageable);
-        } else {
-            reviews = reviewService.getAllReviews(pageable);
+            return userReviews(userId, () -> ResponseEntity.ok(reviewService.getReviewsByUserId(userId, pageable)));
         }
-
-        return ResponseEntity.ok(reviews);
+        return ResponseEntity.ok(reviewService.getAllReviews(pageable));
     }
 
     /**
@@ -75,9 +80,11 @@ public class ReviewController {
     public ResponseEntity<ReviewDTO> getReviewById(@PathVariable final Long id) {
         log.debug("Getting review by ID: {}", id);
 
-        return reviewService.getReviewById(id)
-                .map(review -> ResponseEntity.ok(review))
-                .orElse(ResponseEntity.notFound().build());
+        return httpCaching.respond(reviewService.getReviewVersion(id),
+                () -> reviewService.getReviewById(id)
+                        .map(review -> ResponseEntity.ok(review))
+                        .orElse(ResponseEntity.notFound().build()),
+                SurrogateKeys.review(id));
     }
 
     /**
@@ -162,13 +169,64 @@ public class ReviewController {
         
         log.debug("Getting reviews for book ID: {}", bookId);
 
-        try {
-            Page<ReviewDTO> reviews = reviewService.getReviewsByBookId(bookId, pageable);
-            return ResponseEntity.ok(reviews);
-        } catch (IllegalArgumentException e) {
-            log.error("Error getting reviews for book: {}", e.getMessage());
-            return ResponseEntity.notFound().build();
-        }
+        return bookReviews(bookId, () -> {
+            try {
+                Page<ReviewDTO> reviews = reviewService.getReviewsByBookId(bookId, pageable);
+                return ResponseEntity.ok(reviews);
+            } catch (IllegalArgumentException e) {
+                log.error("Error getting reviews for book: {}", e.getMessage());
+                return ResponseEntity.notFound().build();
+            }
+        });
+    }
+
+    /**
+     * Get reviews by book ID without counting all of them. Selected by {@code slice=true}.
+     *
+     * @param bookId book ID
+     * @param pageable pagination parameters
+     * @param estimateTotal include a cached estimate of the total (default: false)
+     * @return slice of reviews
+     */
+    @GetMapping(value = "/book/{bookId}", params = {"slice=true", "!cursor"})
+    public ResponseEntity<SliceDTO<ReviewDTO>> getReviewsByBookIdSlice(
+            @PathVariable final Long bookId,
+            @PageableDefault(size = 20) final Pageable pageable,
+            @RequestParam(defaultValue = "false") final boolean estimateTotal) {
+
+        log.debug("Getting reviews slice for book ID: {}", bookId);
+
+        return bookReviews(bookId, () -> {
+            try {
+                return ResponseEntity.ok(reviewService.getReviewsByBookIdSlice(bookId, pageable, estimateTotal));
+            } catch (IllegalArgumentException e) {
+                log.error("Error getting reviews for book: {}", e.getMessage());
+                return ResponseEntity.notFound().build();
+            }
+        });
+    }
+
+    /**
+     * Get reviews by book ID with cursor pagination. Selected by the presence of the {@code cursor}
+     * parameter; pass an empty cursor for the first page.
+     *
+     * @param bookId book ID
+     * @param cursor cursor from a previous page, or empty for the first page
+     * @param size page size (default: 20, max: 100)
+     * @param sort sort on createdAt or rating (default: createdAt,desc)
+     * @return page of reviews with next and previous cursors
+     */
+    @GetMapping(value = "/book/{bookId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<ReviewDTO>> scrollReviewsByBookId(
+            @PathVariable final Long bookId,
+            @RequestParam final String cursor,
+            @RequestParam(defaultValue = "20") final int size,
+            @SortDefault(sort = "createdAt", direction = Sort.Direction.DESC) final Sort sort) {
+
+        log.debug("Scrolling reviews for book ID: {}", bookId);
+
+        return bookReviews(bookId,
+                () -> ResponseEntity.ok(reviewService.scrollReviewsByBookId(bookId, cursor, sort, size)));
     }
 
     /**
@@ -185,13 +243,38 @@ public class ReviewController {
         
         log.debug("Getting reviews for user ID: {}", userId);
 
-        try {
-            Page<ReviewDTO> reviews = reviewService.getReviewsByUserId(userId, pageable);
-            return ResponseEntity.ok(reviews);
-        } catch (IllegalArgumentException e) {
-            log.error("Error getting reviews for user: {}", e.getMessage());
-            return ResponseEntity.notFound().build();
-        }
+        return userReviews(userId, () -> {
+            try {
+                Page<ReviewDTO> reviews = reviewService.getReviewsByUserId(userId, pageable);
+                return ResponseEntity.ok(reviews);
+            } catch (IllegalArgumentException e) {
+                log.error("Error getting reviews for user: {}", e.getMessage());
+                return ResponseEntity.notFound().build();
+            }
+        });
+    }
+
+    /**
+     * Get reviews by user ID with cursor pagination. Selected by the presence of the {@code cursor}
+     * parameter; pass an empty cursor for the first page.
+     *
+     * @param userId user ID
+     * @param cursor cursor from a previous page, or empty for the first page
+     * @param size page size (default: 20, max: 100)
+     * @param sort sort on createdAt or rating (default: createdAt,desc)
+     * @return page of reviews with next and previous cursors
+     */
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<ReviewDTO>> scrollReviewsByUserId(
+            @PathVariable final Long userId,
+            @RequestParam final String cursor,
+            @RequestParam(defaultValue = "20") final int size,
+            @SortDefault(sort = "createdAt", direction = Sort.Direction.DESC) final Sort sort) {
+
+        log.debug("Scrolling reviews for user ID: {}", userId);
+
+        return userReviews(userId,
+                () -> ResponseEntity.ok(reviewService.scrollReviewsByUserId(userId, cursor, sort, size)));
     }
 
     /**
@@ -243,4 +326,30 @@ public class ReviewController {
         boolean hasReviewed = reviewService.hasCurrentUserReviewedBook(bookId);
         return ResponseEntity.ok(hasReviewed);
     }
-}
\ No newline at end of file
+
+    /**
+     * Answer a listing of a book's reviews, with a 304 when they have not changed since the client's copy.
+     *
+     * @param bookId book ID
+     * @param response loads the listing
+     * @param <T> body type
+     * @return listing response
+     */
+    private <T> ResponseEntity<T> bookReviews(final Long bookId, final Supplier<ResponseEntity<T>> response) {
+        return httpCaching.respond(reviewService.getBookReviewsVersion(bookId), response,
+                SurrogateKeys.bookReviews(bookId));
+    }
+
+    /**
+     * Answer a listing of a user's reviews, with a 304 when they have not changed since the client's copy.
+     *
+     * @param userId user ID
+     * @param response loads the listing
+     * @param <T> body type
+     * @return listing response
+     */
+    private <T> ResponseEntity<T> userReviews(final Long userId, final Supplier<ResponseEntity<T>> response) {
+        return httpCaching.respond(reviewService.getUserReviewsVersion(userId), response,
+                SurrogateKeys.userReviews(userId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.bookreview.review;
+
+/**
+ * Book and reviewer of a review; a user reviews each book at most once.
+ *
+ * @param bookId book ID
+ * @param userId reviewer ID
+ */
+public record ReviewKey(Long bookId, Long userId) {
+}
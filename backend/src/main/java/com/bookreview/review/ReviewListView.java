@@ -0,0 +1,30 @@
+package com.bookreview.review;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection with the review, book and reviewer columns shown in review listings,
+ * selected without loading the entities.
+ *
+ * @param id review ID
+ * @param bookId book ID
+ * @param bookTitle book title
+ * @param userId reviewer ID
+ * @param userFirstName reviewer first name
+ * @param userLastName reviewer last name
+ * @param rating rating
+ * @param text review text
+ * @param createdAt creation time
+ * @param updatedAt last update time
+ */
+public record ReviewListView(Long id, Long bookId, String bookTitle, Long userId, String userFirstName,
+                             String userLastName, Integer rating, String text, LocalDateTime createdAt,
+                             LocalDateTime updatedAt) {
+
+    /**
+     * JPQL select and joins building this view from a review aliased {@code r}.
+     */
+    public static final String SELECT = "SELECT new com.bookreview.review.ReviewListView(r.id, b.id, b.title, "
+            + "u.id, u.firstName, u.lastName, r.rating, r.text, r.createdAt, r.updatedAt) "
+            + "FROM Review r JOIN r.book b JOIN r.user u ";
+}
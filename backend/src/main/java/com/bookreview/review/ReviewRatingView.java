@@ -0,0 +1,18 @@
+package com.bookreview.review;
+
+/**
+ * Projection with who rated which book how, for building recommendation models.
+ *
+ * @param id review ID
+ * @param userId reviewer ID
+ * @param bookId book ID
+ * @param rating rating
+ */
+public record ReviewRatingView(Long id, Long userId, Long bookId, Integer rating) {
+
+    /**
+     * JPQL select clause of rating views over reviews {@code r}.
+     */
+    public static final String SELECT = "SELECT new com.bookreview.review.ReviewRatingView("
+            + "r.id, r.user.id, r.book.id, r.rating) ";
+}
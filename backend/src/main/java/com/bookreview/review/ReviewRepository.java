@@ -1,20 +1,47 @@
 package com.bookreview.review;
 
+import com.bookreview.cache.ContentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Review entity operations.
+ * Review listings fetch the book and user in the same query, as every review DTO shows both.
  */
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
+
+    /**
+     * JPQL select clause of review versions over reviews {@code r} joined with their book {@code b} and
+     * user {@code u}.
+     */
+    String VERSION_SELECT = "SELECT new com.bookreview.cache.ContentVersion(COUNT(r), "
+            + "greatest(MAX(r.updatedAt), MAX(b.updatedAt), MAX(u.updatedAt))) "
+            + "FROM Review r JOIN r.book b JOIN r.user u ";
+
+    /**
+     * Find all reviews.
+     *
+     * @param pageable pagination information
+     * @return page of reviews
+     */
+    @Override
+    @EntityGraph(attributePaths = {"book", "user"})
+    Page<Review> findAll(Pageable pageable);
 
     /**
      * Find reviews by book ID.
@@ -23,8 +50,30 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Page<Review> findByBookId(Long bookId, Pageable pageable);
 
+    /**
+     * Find review list views by book ID without a count query.
+     *
+     * @param bookId book ID
+     * @param pageable pagination information
+     * @return slice of review list views
+     */
+    @Query(ReviewListView.SELECT + "WHERE b.id = :bookId")
+    Slice<ReviewListView> findSliceByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    /**
+     * Find review list views by book ID.
+     *
+     * @param bookId book ID
+     * @param pageable pagination information
+     * @return page of review list views
+     */
+    @Query(value = ReviewListView.SELECT + "WHERE b.id = :bookId",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.book.id = :bookId")
+    Page<ReviewListView> findListViewsByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
     /**
      * Find reviews by user ID.
      *
@@ -32,8 +81,38 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Page<Review> findByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Find review list views by user ID.
+     *
+     * @param userId user ID
+     * @param pageable pagination information
+     * @return page of review list views
+     */
+    @Query(value = ReviewListView.SELECT + "WHERE u.id = :userId",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId")
+    Page<ReviewListView> findListViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Find review list views of all reviews.
+     *
+     * @param pageable pagination information
+     * @return page of review list views
+     */
+    @Query(value = ReviewListView.SELECT, countQuery = "SELECT COUNT(r) FROM Review r")
+    Page<ReviewListView> findAllListViews(Pageable pageable);
+
+    /**
+     * Find the IDs of the books a user has reviewed.
+     *
+     * @param userId user ID
+     * @return reviewed book IDs
+     */
+    @Query("SELECT r.book.id FROM Review r WHERE r.user.id = :userId")
+    List<Long> findBookIdsByUserId(@Param("userId") Long userId);
+
     /**
      * Find review by book ID and user ID.
      *
@@ -41,6 +120,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param userId user ID
      * @return optional review
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Optional<Review> findByBookIdAndUserId(Long bookId, Long userId);
 
     /**
@@ -59,6 +139,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Page<Review> findByRating(Integer rating, Pageable pageable);
 
     /**
@@ -68,6 +149,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Page<Review> findByRatingGreaterThanEqual(Integer minRating, Pageable pageable);
 
     /**
@@ -78,6 +160,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     Page<Review> findByRatingBetween(Integer minRating, Integer maxRating, Pageable pageable);
 
     /**
@@ -126,6 +209,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of highly rated reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     @Query("SELECT r FROM Review r WHERE r.rating >= :minRating ORDER BY r.rating DESC, r.createdAt DESC")
     Page<Review> findTopRatedReviews(@Param("minRating") Integer minRating, Pageable pageable);
 
@@ -136,6 +220,7 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @param pageable pagination information
      * @return page of recent reviews
      */
+    @EntityGraph(attributePaths = {"book", "user"})
     @Query("SELECT r FROM Review r WHERE r.createdAt >= :sinceDate ORDER BY r.createdAt DESC")
     Page<Review> findRecentReviews(@Param("sinceDate") java.time.LocalDateTime sinceDate, Pageable pageable);
 
@@ -147,4 +232,72 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      */
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.user.id = :userId")
     Double getAverageRatingByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Get the version of a review for HTTP validators. Review DTOs show the book title and user name, so
+     * changes to the book or user count as well.
+     *
+     * @param id review ID
+     * @return review version
+     */
+    @Query(VERSION_SELECT + "WHERE r.id = :id")
+    ContentVersion findVersionById(@Param("id") Long id);
+
+    /**
+     * Get the version of a book's reviews for HTTP validators.
+     *
+     * @param bookId book ID
+     * @return version of the book's reviews
+     */
+    @Query(VERSION_SELECT + "WHERE b.id = :bookId")
+    ContentVersion findVersionByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * Get the version of a user's reviews for HTTP validators.
+     *
+     * @param userId user ID
+     * @return version of the user's reviews
+     */
+    @Query(VERSION_SELECT + "WHERE u.id = :userId")
+    ContentVersion findVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Get the book and reviewer of every review, to keep bulk loads from reviewing a book twice.
+     *
+     * @return review keys
+     */
+    @Query("SELECT new com.bookreview.review.ReviewKey(r.book.id, r.user.id) FROM Review r")
+    List<ReviewKey> findAllKeys();
+
+    /**
+     * Find the next batch of ratings after the given review ID, without a count query.
+     *
+     * @param id review ID to start after
+     * @param pageable batch size
+     * @return ratings ordered by review ID
+     */
+    @Query(ReviewRatingView.SELECT + "FROM Review r WHERE r.id > :id ORDER BY r.id")
+    List<ReviewRatingView> findRatingViewsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find the ratings given by a user.
+     *
+     * @param userId user ID
+     * @return ratings of the user
+     */
+    @Query(ReviewRatingView.SELECT + "FROM Review r WHERE r.user.id = :userId")
+    List<ReviewRatingView> findRatingViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Stream review list views in ID order for export, reading the rows through a forward-only cursor.
+     * Only the review's own update time is filtered on; book titles and user names that changed since
+     * come with the book export or are looked up by ID. Must run in a transaction, and the stream must be
+     * closed to release the cursor.
+     *
+     * @param since only reviews updated at or after this time, or null for all reviews
+     * @return stream of review list views
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ReviewListView.SELECT + "WHERE :since IS NULL OR r.updatedAt >= :since ORDER BY r.id")
+    Stream<ReviewListView> streamListViewsUpdatedSince(@Param("since") LocalDateTime since);
+}
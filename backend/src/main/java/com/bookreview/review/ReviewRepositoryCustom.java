@@ -0,0 +1,33 @@
+package com.bookreview.review;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Custom repository operations for cursor-paginated review listings.
+ */
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Fetch a book's reviews that follow a keyset position.
+     *
+     * @param bookId book ID
+     * @param position keyset position
+     * @param sort total sort ending with the ID
+     * @param limit maximum number of reviews
+     * @return window of reviews
+     */
+    Window<Review> scrollByBookId(Long bookId, KeysetScrollPosition position, Sort sort, int limit);
+
+    /**
+     * Fetch a user's reviews that follow a keyset position.
+     *
+     * @param userId user ID
+     * @param position keyset position
+     * @param sort total sort ending with the ID
+     * @param limit maximum number of reviews
+     * @return window of reviews
+     */
+    Window<Review> scrollByUserId(Long userId, KeysetScrollPosition position, Sort sort, int limit);
+}
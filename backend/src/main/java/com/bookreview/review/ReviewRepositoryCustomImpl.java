@@ -0,0 +1,38 @@
+package com.bookreview.review;
+
+import com.bookreview.pagination.KeysetQueries;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Criteria API implementation of {@link ReviewRepositoryCustom}.
+ * Listings fetch the book and user with the reviews, as every review DTO shows both.
+ */
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<Review> scrollByBookId(final Long bookId, final KeysetScrollPosition position,
+                                         final Sort sort, final int limit) {
+        return KeysetQueries.scroll(entityManager, Review.class, (review, query, cb) -> {
+            review.fetch("book");
+            review.fetch("user");
+            return cb.equal(review.get("book").get("id"), bookId);
+        }, position, sort, limit);
+    }
+
+    @Override
+    public Window<Review> scrollByUserId(final Long userId, final KeysetScrollPosition position,
+                                         final Sort sort, final int limit) {
+        return KeysetQueries.scroll(entityManager, Review.class, (review, query, cb) -> {
+            review.fetch("book");
+            review.fetch("user");
+            return cb.equal(review.get("user").get("id"), userId);
+        }, position, sort, limit);
+    }
+}
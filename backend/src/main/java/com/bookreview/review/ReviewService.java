@@ -1,22 +1,37 @@
 package com.bookreview.review;
 
 import com.bookreview.book.Book;
+import com.bookreview.book.BookRatingShardService;
 import com.bookreview.book.BookRepository;
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.cache.HttpCachePurger;
+import com.bookreview.cache.SurrogateKeys;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.SliceDTO;
 import com.bookreview.dto.review.ReviewCreateDTO;
 import com.bookreview.dto.review.ReviewDTO;
 import com.bookreview.dto.review.ReviewUpdateDTO;
+import com.bookreview.pagination.CountEstimator;
+import com.bookreview.pagination.CursorCodec;
+import com.bookreview.pagination.KeysetQueries;
+import com.bookreview.recommendation.TasteChangedEvent;
 import com.bookreview.user.User;
 import com.bookreview.user.UserRepository;
 import com.bookreview.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for review operations.
@@ -27,9 +42,16 @@ import java.util.Optional;
 @Transactional
 public class ReviewService {
 
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("createdAt", "rating");
+
     private final ReviewRepository reviewRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final BookRatingShardService bookRatingShardService;
+    private final CursorCodec cursorCodec;
+    private final CountEstimator countEstimator;
+    private final HttpCachePurger httpCachePurger;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all reviews with pagination.
@@ -40,7 +62,7 @@ public class ReviewService {
     @Transactional(readOnly = true)
     public Page<ReviewDTO> getAllReviews(final Pageable pageable) {
         log.debug("Getting all reviews with pagination: {}", pageable);
-        return reviewRepository.findAll(pageable).map(this::mapToDTO);
+        return reviewRepository.findAllListViews(pageable).map(this::mapViewToDTO);
     }
 
     /**
@@ -92,11 +114,35 @@ public class ReviewService {
 
         Review savedReview = reviewRepository.save(review);
         log.info("Review created successfully with ID: {}", savedReview.getId());
+        ReviewDTO result = mapToDTO(savedReview);
+        purgeResponses(savedReview.getId(), createDTO.getBookId(), currentUserId);
+        // Recommendations leave out reviewed books
+        eventPublisher.publishEvent(new TasteChangedEvent(currentUserId));
+
+        // Add the rating to the book's aggregates
+        applyRatingChange(createDTO.getBookId(), savedReview.getRating(), null);
 
-        // Update book's average rating
-        updateBookRating(createDTO.getBookId());
+        return result;
+    }
 
-        return mapToDTO(savedReview);
+    /**
+     * Create a chunk of bulk loaded reviews in one transaction with batched inserts. The caller has
+     * already validated them and checked each user reviews a book only once. Books' rating aggregates are
+     * left alone for the caller to recompute once every review is in, see
+     * {@link com.bookreview.book.BookService#recalculateRatings}.
+     *
+     * @param reviews reviews to create
+     */
+    public void createReviews(final List<ImportedReview> reviews) {
+        reviewRepository.saveAll(reviews.stream()
+                .map(imported -> Review.builder()
+                        .book(bookRepository.getReferenceById(imported.bookId()))
+                        .user(userRepository.getReferenceById(imported.userId()))
+                        .rating(imported.rating())
+                        .text(imported.text())
+                        .build())
+                .toList());
+        log.debug("Created {} reviews", reviews.size());
     }
 
     /**
@@ -123,10 +169,10 @@ public class ReviewService {
         }
 
         // Update fields if provided
-        boolean ratingChanged = false;
+        Integer previousRating = null;
         if (updateDTO.getRating() != null && !updateDTO.getRating().equals(existingReview.getRating())) {
+            previousRating = existingReview.getRating();
             existingReview.setRating(updateDTO.getRating());
-            ratingChanged = true;
         }
         if (updateDTO.getText() != null) {
             existingReview.setText(updateDTO.getText());
@@ -134,13 +180,15 @@ public class ReviewService {
 
         Review savedReview = reviewRepository.save(existingReview);
         log.info("Review updated successfully");
+        ReviewDTO result = mapToDTO(savedReview);
+        purgeResponses(id, existingReview.getBook().getId(), currentUserId);
 
-        // Update book's average rating if rating changed
-        if (ratingChanged) {
-            updateBookRating(existingReview.getBook().getId());
+        // Move the review from its old star to its new one in the book's aggregates
+        if (previousRating != null) {
+            applyRatingChange(existingReview.getBook().getId(), savedReview.getRating(), previousRating);
         }
 
-        return mapToDTO(savedReview);
+        return result;
     }
 
     /**
@@ -165,11 +213,48 @@ public class ReviewService {
         }
 
         Long bookId = review.getBook().getId();
+        Long userId = review.getUser().getId();
+        Integer rating = review.getRating();
         reviewRepository.deleteById(id);
         log.info("Review deleted successfully");
+        purgeResponses(id, bookId, userId);
+        eventPublisher.publishEvent(new TasteChangedEvent(userId));
 
-        // Update book's average rating
-        updateBookRating(bookId);
+        // Remove the rating from the book's aggregates
+        applyRatingChange(bookId, null, rating);
+    }
+
+    /**
+     * Get the version of a review for HTTP validators.
+     *
+     * @param id review ID
+     * @return review version
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getReviewVersion(final Long id) {
+        return reviewRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the version of a book's reviews for HTTP validators.
+     *
+     * @param bookId book ID
+     * @return version of the book's reviews
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getBookReviewsVersion(final Long bookId) {
+        return reviewRepository.findVersionByBookId(bookId);
+    }
+
+    /**
+     * Get the version of a user's reviews for HTTP validators.
+     *
+     * @param userId user ID
+     * @return version of the user's reviews
+     */
+    @Transactional(readOnly = true)
+    public ContentVersion getUserReviewsVersion(final Long userId) {
+        return reviewRepository.findVersionByUserId(userId);
     }
 
     /**
@@ -188,7 +273,29 @@ public class ReviewService {
             throw new IllegalArgumentException("Book not found: " + bookId);
         }
         
-        return reviewRepository.findByBookId(bookId, pageable).map(this::mapToDTO);
+        return reviewRepository.findListViewsByBookId(bookId, pageable).map(this::mapViewToDTO);
+    }
+
+    /**
+     * Get reviews by book ID without counting all of them.
+     *
+     * @param bookId book ID
+     * @param pageable pagination information
+     * @param estimateTotal whether to include a cached estimate of the total
+     * @return slice of review DTOs
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<ReviewDTO> getReviewsByBookIdSlice(final Long bookId, final Pageable pageable,
+                                                       final boolean estimateTotal) {
+        log.debug("Getting reviews slice for book ID: {}", bookId);
+
+        // Verify book exists
+        if (!bookRepository.existsById(bookId)) {
+            throw new IllegalArgumentException("Book not found: " + bookId);
+        }
+
+        return countEstimator.toSlice(reviewRepository.findSliceByBookId(bookId, pageable).map(this::mapViewToDTO),
+                estimateTotal, "reviews:book:" + bookId, () -> reviewRepository.countByBookId(bookId));
     }
 
     /**
@@ -207,7 +314,57 @@ public class ReviewService {
             throw new IllegalArgumentException("User not found: " + userId);
         }
         
-        return reviewRepository.findByUserId(userId, pageable).map(this::mapToDTO);
+        return reviewRepository.findListViewsByUserId(userId, pageable).map(this::mapViewToDTO);
+    }
+
+    /**
+     * Get reviews by book ID, one cursor page at a time.
+     *
+     * @param bookId book ID
+     * @param cursor cursor from a previous page, or blank for the first page
+     * @param sort sort on createdAt and/or rating
+     * @param size page size
+     * @return page of review DTOs with cursors to the adjacent pages
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReviewDTO> scrollReviewsByBookId(final Long bookId, final String cursor,
+                                                          final Sort sort, final int size) {
+        log.debug("Scrolling reviews for book ID: {}", bookId);
+
+        if (!bookRepository.existsById(bookId)) {
+            throw new IllegalArgumentException("Book not found: " + bookId);
+        }
+
+        Sort keysetSort = KeysetQueries.keysetSort(sort, CURSOR_SORT_PROPERTIES);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, keysetSort);
+        return cursorCodec.toPage(
+                reviewRepository.scrollByBookId(bookId, position, keysetSort, KeysetQueries.pageSize(size)),
+                position, keysetSort, this::mapToDTO);
+    }
+
+    /**
+     * Get reviews by user ID, one cursor page at a time.
+     *
+     * @param userId user ID
+     * @param cursor cursor from a previous page, or blank for the first page
+     * @param sort sort on createdAt and/or rating
+     * @param size page size
+     * @return page of review DTOs with cursors to the adjacent pages
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReviewDTO> scrollReviewsByUserId(final Long userId, final String cursor,
+                                                          final Sort sort, final int size) {
+        log.debug("Scrolling reviews for user ID: {}", userId);
+
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found: " + userId);
+        }
+
+        Sort keysetSort = KeysetQueries.keysetSort(sort, CURSOR_SORT_PROPERTIES);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, keysetSort);
+        return cursorCodec.toPage(
+                reviewRepository.scrollByUserId(userId, position, keysetSort, KeysetQueries.pageSize(size)),
+                position, keysetSort, this::mapToDTO);
     }
 
     /**
@@ -224,7 +381,7 @@ public class ReviewService {
         }
         
         log.debug("Getting reviews for current user ID: {}", currentUserId);
-        return reviewRepository.findByUserId(currentUserId, pageable).map(this::mapToDTO);
+        return reviewRepository.findListViewsByUserId(currentUserId, pageable).map(this::mapViewToDTO);
     }
 
     /**
@@ -286,21 +443,29 @@ public class ReviewService {
     }
 
     /**
-     * Update book's average rating and total reviews count.
+     * Record a review write against the book's rating sum, total reviews count, average rating and star counts.
      *
      * @param bookId book ID
+     * @param addedRating rating the book gains, or null
+     * @param removedRating rating the book loses, or null
      */
-    private void updateBookRating(final Long bookId) {
-        log.debug("Updating book rating for book ID: {}", bookId);
-        
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + bookId));
-        
-        book.updateAverageRating();
-        bookRepository.save(book);
-        
-        log.debug("Book rating updated - Average: {}, Total Reviews: {}", 
-                 book.getAverageRating(), book.getTotalReviews());
+    private void applyRatingChange(final Long bookId, final Integer addedRating, final Integer removedRating) {
+        log.debug("Recording rating change +{} -{} for book ID: {}", addedRating, removedRating, bookId);
+
+        // A random shard row takes the delta, so concurrent reviews of one book do not queue on the book row
+        bookRatingShardService.record(bookId, addedRating, removedRating);
+    }
+
+    /**
+     * Purge CDN copies of the responses showing a review once the write commits.
+     *
+     * @param reviewId review ID
+     * @param bookId ID of the reviewed book
+     * @param userId ID of the reviewer
+     */
+    private void purgeResponses(final Long reviewId, final Long bookId, final Long userId) {
+        httpCachePurger.purge(SurrogateKeys.review(reviewId), SurrogateKeys.bookReviews(bookId),
+                SurrogateKeys.userReviews(userId));
     }
 
     /**
@@ -323,4 +488,25 @@ public class ReviewService {
                 .updatedAt(review.getUpdatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Map review list projection to ReviewDTO.
+     *
+     * @param view the review list view
+     * @return review DTO
+     */
+    private ReviewDTO mapViewToDTO(final ReviewListView view) {
+        return ReviewDTO.builder()
+                .id(view.id())
+                .bookId(view.bookId())
+                .bookTitle(view.bookTitle())
+                .userId(view.userId())
+                .userFirstName(view.userFirstName())
+                .userLastName(view.userLastName())
+                .rating(view.rating())
+                .text(view.text())
+                .createdAt(view.createdAt())
+                .updatedAt(view.updatedAt())
+                .build();
+    }
+}
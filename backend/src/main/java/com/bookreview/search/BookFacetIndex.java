@@ -0,0 +1,180 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.book.BookFacetsDTO;
+import com.bookreview.dto.book.BookSearchDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory facet index over the book catalog for genre, decade and rating filters and counts.
+ * Built from the books table at startup and kept current from {@link BookChangedEvent}s.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookFacetIndex {
+
+    private final BookRepository bookRepository;
+
+    private final SwappableIndex<FacetBitmaps> bitmaps = new SwappableIndex<>("Book facet index",
+            FacetBitmaps::new, BookFacetIndex::add, FacetBitmaps::size);
+
+    /**
+     * Check if the index has been built and can answer queries.
+     *
+     * @return true if the index is ready
+     */
+    public boolean isReady() {
+        return bitmaps.isReady();
+    }
+
+    /**
+     * Find books matching the genre, year, rating and review criteria.
+     *
+     * @param criteria search criteria; text criteria are ignored
+     * @param candidates books to filter in ranked order, or null for all books
+     * @return matching book IDs in candidate order (ascending ID without candidates),
+     *         or empty if the index is not ready
+     */
+    public Optional<List<Long>> filter(final BookSearchDTO criteria, final List<Long> candidates) {
+        if (!bitmaps.isReady()) {
+            return Optional.empty();
+        }
+        BitSet matches = match(criteria, candidates).matches();
+
+        List<Long> ids = new ArrayList<>();
+        if (candidates == null) {
+            matches.stream().forEach(id -> ids.add((long) id));
+        } else {
+            candidates.stream()
+                    .filter(id -> id <= Integer.MAX_VALUE && matches.get(id.intValue()))
+                    .forEach(ids::add);
+        }
+        return Optional.of(ids);
+    }
+
+    /**
+     * Count matching books per genre, decade and rating.
+     *
+     * @param criteria search criteria; text criteria are ignored
+     * @param candidates books matching the text criteria, or null for all books
+     * @return facet counts, or empty if the index is not ready
+     */
+    public Optional<BookFacetsDTO> facets(final BookSearchDTO criteria, final List<Long> candidates) {
+        if (!bitmaps.isReady()) {
+            return Optional.empty();
+        }
+        FacetBitmaps.Result result = match(criteria, candidates);
+
+        Map<Genre, Long> genres = new EnumMap<>(Genre.class);
+        for (Genre genre : Genre.values()) {
+            long count = result.genreCounts()[genre.ordinal()];
+            if (count > 0) {
+                genres.put(genre, count);
+            }
+        }
+        Map<Integer, Long> ratings = new LinkedHashMap<>();
+        long atLeast = 0;
+        for (int stars = FacetBitmaps.RATING_BUCKETS - 1; stars >= 1; stars--) {
+            atLeast += result.ratingCounts()[stars];
+            ratings.put(stars, atLeast);
+        }
+
+        return Optional.of(BookFacetsDTO.builder()
+                .total(result.matches().cardinality())
+                .genres(genres)
+                .decades(result.decadeCounts())
+                .ratings(ratings)
+                .build());
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book
+     */
+    public void index(final Book book) {
+        bitmaps.apply(target -> add(target, book));
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId book ID
+     */
+    public void remove(final Long bookId) {
+        bitmaps.apply(target -> target.remove(bookId));
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return indexed book count
+     */
+    public int size() {
+        return bitmaps.size();
+    }
+
+    /**
+     * Keep the index in sync with committed book changes, including rating updates.
+     *
+     * @param event book changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    /**
+     * Build the index once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the books table.
+     */
+    public void rebuild() {
+        bitmaps.rebuild(bookRepository);
+    }
+
+    private FacetBitmaps.Result match(final BookSearchDTO criteria, final List<Long> candidates) {
+        BitSet candidateBits = candidates == null ? null : new BitSet();
+        if (candidates != null) {
+            for (Long id : candidates) {
+                if (id <= Integer.MAX_VALUE) {
+                    candidateBits.set(id.intValue());
+                }
+            }
+        }
+
+        return bitmaps.read(target -> target.match(criteria, candidateBits), null);
+    }
+
+    private static void add(final FacetBitmaps target, final Book book) {
+        target.add(book.getId(), book.getGenres(), book.getPublishedYear(), book.getAverageRating(),
+                book.getTotalReviews());
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.Genre;
+
+/**
+ * Feature vectors of books for similarity search, derived from the book alone.
+ * <p>
+ * A vector has three blocks, each scaled to unit length and then weighted so that the whole vector has
+ * unit length and the dot product of two vectors is their cosine similarity:
+ * <ul>
+ *     <li>text: title, author and description terms hashed into {@link #TEXT_DIMENSIONS} signed buckets,
+ *     title and author terms counting more than description terms;</li>
+ *     <li>genres: one dimension per {@link Genre};</li>
+ *     <li>ratings: the share of each star rating, the average rating and how widely the book is reviewed.</li>
+ * </ul>
+ * Blocks a book has nothing for stay zero and the others take up their weight.
+ */
+final class BookFeatures {
+
+    static final int TEXT_DIMENSIONS = 128;
+    static final int GENRE_DIMENSIONS = Genre.values().length;
+    static final int RATING_DIMENSIONS = 7;
+    static final int DIMENSIONS = TEXT_DIMENSIONS + GENRE_DIMENSIONS + RATING_DIMENSIONS;
+
+    private static final float TEXT_WEIGHT = 0.6f;
+    private static final float GENRE_WEIGHT = 0.3f;
+    private static final float RATING_WEIGHT = 0.1f;
+    private static final float TITLE_TERM_WEIGHT = 2f;
+    private static final float AUTHOR_TERM_WEIGHT = 2f;
+    private static final float DESCRIPTION_TERM_WEIGHT = 1f;
+    private static final double POPULAR_REVIEW_COUNT = 1000;
+
+    private BookFeatures() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Compute the feature vector of a book.
+     *
+     * @param book the book
+     * @return unit-length vector of {@link #DIMENSIONS} floats, or all zeros for a book with no features
+     */
+    static float[] of(final Book book) {
+        float[] vector = new float[DIMENSIONS];
+        hashTerms(vector, "t:", book.getTitle(), TITLE_TERM_WEIGHT);
+        hashTerms(vector, "a:", book.getAuthor(), AUTHOR_TERM_WEIGHT);
+        hashTerms(vector, "d:", book.getDescription(), DESCRIPTION_TERM_WEIGHT);
+
+        if (book.getGenres() != null) {
+            for (Genre genre : book.getGenres()) {
+                vector[TEXT_DIMENSIONS + genre.ordinal()] = 1f;
+            }
+        }
+
+        int reviews = book.getTotalReviews() == null ? 0 : book.getTotalReviews();
+        if (reviews > 0) {
+            int offset = TEXT_DIMENSIONS + GENRE_DIMENSIONS;
+            vector[offset] = count(book.getOneStarCount()) / (float) reviews;
+            vector[offset + 1] = count(book.getTwoStarCount()) / (float) reviews;
+            vector[offset + 2] = count(book.getThreeStarCount()) / (float) reviews;
+            vector[offset + 3] = count(book.getFourStarCount()) / (float) reviews;
+            vector[offset + 4] = count(book.getFiveStarCount()) / (float) reviews;
+            vector[offset + 5] = book.getAverageRating() == null ? 0f
+                    : (book.getAverageRating().floatValue() - 1f) / 4f;
+            vector[offset + 6] = (float) Math.min(Math.log1p(reviews) / Math.log1p(POPULAR_REVIEW_COUNT), 1.0);
+        }
+
+        float textScale = scaleBlock(vector, 0, TEXT_DIMENSIONS, TEXT_WEIGHT);
+        float genreScale = scaleBlock(vector, TEXT_DIMENSIONS, GENRE_DIMENSIONS, GENRE_WEIGHT);
+        float ratingScale = scaleBlock(vector, TEXT_DIMENSIONS + GENRE_DIMENSIONS, RATING_DIMENSIONS, RATING_WEIGHT);
+        float total = textScale + genreScale + ratingScale;
+        if (total > 0 && total < 1) {
+            float rescale = (float) Math.sqrt(1 / total);
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] *= rescale;
+            }
+        }
+        return vector;
+    }
+
+    private static void hashTerms(final float[] vector, final String field, final String text, final float weight) {
+        if (text == null) {
+            return;
+        }
+        for (String term : TextAnalyzer.tokenize(text)) {
+            int hash = mix((field + term).hashCode());
+            // One hash bit picks the sign so that colliding terms cancel out on average instead of adding up
+            vector[hash & (TEXT_DIMENSIONS - 1)] += (hash < 0 ? -weight : weight);
+        }
+    }
+
+    /**
+     * Scale a block to unit length times the square root of its weight.
+     *
+     * @return the block's weight, or 0 if the block is empty
+     */
+    private static float scaleBlock(final float[] vector, final int offset, final int length, final float weight) {
+        double squares = 0;
+        for (int i = offset; i < offset + length; i++) {
+            squares += vector[i] * vector[i];
+        }
+        if (squares == 0) {
+            return 0f;
+        }
+        float scale = (float) (Math.sqrt(weight) / Math.sqrt(squares));
+        for (int i = offset; i < offset + length; i++) {
+            vector[i] *= scale;
+        }
+        return weight;
+    }
+
+    private static int count(final Integer count) {
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Spread the bits of a string hash code, whose low bits cluster for similar short strings.
+     */
+    private static int mix(final int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,254 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory full-text index over the book catalog.
+ * Built from the books table at startup and kept current from {@link BookChangedEvent}s.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchIndex {
+
+    private static final int MAX_FUZZY_EXPANSIONS = 16;
+    private static final float FUZZY_WEIGHT_PER_EDIT = 0.5f;
+
+    private final BookRepository bookRepository;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.max-results:10000}")
+    private int maxResults;
+
+    private final SwappableIndex<InvertedIndex> index = new SwappableIndex<>("Book search index",
+            InvertedIndex::new, (target, book) -> target.add(book.getId(), texts(book)), InvertedIndex::size);
+
+    /**
+     * Check if the index has been built and can answer queries.
+     *
+     * @return true if the index is ready
+     */
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    /**
+     * Search the index. Every query term must match; the last term also matches as a prefix
+     * unless the query ends with whitespace.
+     *
+     * @param query raw query text
+     * @param fields fields to search
+     * @return ranked book IDs, or empty if the index cannot answer this query
+     */
+    public Optional<List<Long>> search(final String query, final Set<SearchField> fields) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+        if (!isReady() || terms.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        return Optional.of(index.read(target -> target.search(terms, prefixLast, fields, maxResults), List.of()));
+    }
+
+    /**
+     * Search the index, also matching title and author terms within a small edit distance of each
+     * query term. Exact matches score higher than corrected ones.
+     *
+     * @param query raw query text
+     * @param fields fields to search
+     * @return ranked book IDs, or empty if the index cannot answer this query
+     */
+    public Optional<List<Long>> fuzzySearch(final String query, final Set<SearchField> fields) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+        if (!isReady() || terms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(index.read(target ->
+                target.search(clauses(target, query, terms, fields, true), fields, maxResults), List.of()));
+    }
+
+    /**
+     * Search for several queries in one pass, each in its own fields; every term of every query must match.
+     * Unlike intersecting separate searches, no match is lost to the result limit of one of them.
+     *
+     * @param queries queries with the fields to match them in
+     * @param fuzzy whether to also match terms within a small edit distance, as {@link #fuzzySearch} does
+     * @return ranked book IDs, or empty if the index cannot answer this query
+     */
+    public Optional<List<Long>> searchFields(final List<FieldQuery> queries, final boolean fuzzy) {
+        List<List<String>> terms = queries.stream().map(query -> TextAnalyzer.tokenize(query.query())).toList();
+        if (!isReady() || terms.isEmpty() || terms.stream().anyMatch(List::isEmpty)) {
+            return Optional.empty();
+        }
+        Set<SearchField> fields = EnumSet.noneOf(SearchField.class);
+        queries.forEach(query -> fields.addAll(query.fields()));
+
+        return Optional.of(index.read(target -> {
+            List<QueryClause> clauses = new ArrayList<>();
+            for (int i = 0; i < queries.size(); i++) {
+                FieldQuery query = queries.get(i);
+                clauses.addAll(clauses(target, query.query(), terms.get(i), query.fields(), fuzzy));
+            }
+            return target.search(clauses, fields, maxResults);
+        }, List.of()));
+    }
+
+    /**
+     * Suggest a corrected query by replacing words that do not occur in the index with the closest
+     * indexed title or author term.
+     *
+     * @param query raw query text
+     * @param fields fields the corrected terms must occur in
+     * @return corrected query, or empty if there is nothing to correct
+     */
+    public Optional<String> didYouMean(final String query, final Set<SearchField> fields) {
+        if (!isReady() || query == null || query.isBlank()) {
+            return Optional.empty();
+        }
+
+        return index.read(target -> {
+            boolean corrected = false;
+            List<String> words = new ArrayList<>();
+            for (String word : query.trim().split("\\s+")) {
+                List<String> terms = TextAnalyzer.tokenize(word);
+                if (terms.size() == 1 && target.docFrequency(terms.get(0), fields) == 0) {
+                    List<FuzzyTermDictionary.Match> matches =
+                            target.similarTerms(terms.get(0), maxEditDistance(terms.get(0)), fields);
+                    if (!matches.isEmpty()) {
+                        words.add(matches.get(0).term());
+                        corrected = true;
+                        continue;
+                    }
+                }
+                words.add(word);
+            }
+            return corrected ? Optional.of(String.join(" ", words)) : Optional.<String>empty();
+        }, Optional.empty());
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book
+     */
+    public void index(final Book book) {
+        long bookId = book.getId();
+        Map<SearchField, String> texts = texts(book);
+        index.apply(target -> target.add(bookId, texts));
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId book ID
+     */
+    public void remove(final Long bookId) {
+        index.apply(target -> target.remove(bookId));
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return indexed book count
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Keep the index in sync with committed book changes. Rating changes leave the indexed text as it
+     * was, so they are skipped rather than re-indexing the book.
+     *
+     * @param event book changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else if (event.getRatingDelta() == null) {
+            index(event.getBook());
+        }
+    }
+
+    /**
+     * Build the index once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the books table.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Book search index is disabled, searches will use the database");
+            return;
+        }
+        index.rebuild(bookRepository);
+    }
+
+    /**
+     * Build one clause per query term, matching in the given fields. The last term also matches as a
+     * prefix unless the query ends with whitespace.
+     */
+    private static List<QueryClause> clauses(final InvertedIndex target, final String query,
+                                             final List<String> terms, final Set<SearchField> fields,
+                                             final boolean fuzzy) {
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+        List<QueryClause> clauses = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Map<String, Float> alternatives = new HashMap<>();
+            alternatives.put(term, 1.0f);
+            if (fuzzy) {
+                target.similarTerms(term, maxEditDistance(term), fields).stream()
+                        .limit(MAX_FUZZY_EXPANSIONS)
+                        .forEach(match -> alternatives.putIfAbsent(match.term(),
+                                (float) Math.pow(FUZZY_WEIGHT_PER_EDIT, match.distance())));
+            }
+            boolean prefix = prefixLast && i == terms.size() - 1;
+            clauses.add(new QueryClause(alternatives, prefix ? term : null, fields));
+        }
+        return clauses;
+    }
+
+    private static int maxEditDistance(final String term) {
+        if (term.length() < 3) {
+            return 0;
+        }
+        return term.length() < 6 ? 1 : 2;
+    }
+
+    private static Map<SearchField, String> texts(final Book book) {
+        Map<SearchField, String> texts = new EnumMap<>(SearchField.class);
+        texts.put(SearchField.TITLE, book.getTitle());
+        texts.put(SearchField.AUTHOR, book.getAuthor());
+        texts.put(SearchField.DESCRIPTION, book.getDescription());
+        return texts;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.util.BackgroundJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory approximate nearest-neighbour index of book {@link BookFeatures feature vectors} for
+ * "more like this" lookups.
+ * Built from the books table at startup and kept current from {@link BookChangedEvent}s. Rating changes
+ * only nudge the rating part of a vector, so they are left to the periodic rebuild, which also reclaims
+ * the nodes of removed and replaced books.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSimilarityIndex {
+
+    private static final int MAX_RESULTS = 50;
+    private static final long SEED = 42L;
+
+    private final BookRepository bookRepository;
+    private final TaskExecutor applicationTaskExecutor;
+
+    private final BackgroundJob rebuildJob = new BackgroundJob();
+
+    @Value("${app.search.similar.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.similar.m:16}")
+    private int m;
+
+    @Value("${app.search.similar.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${app.search.similar.ef-search:64}")
+    private int efSearch;
+
+    private final SwappableIndex<HnswGraph> graph = new SwappableIndex<>("Book similarity index",
+            () -> new HnswGraph(BookFeatures.DIMENSIONS, m, efConstruction, SEED),
+            (target, book) -> target.add(book.getId(), BookFeatures.of(book)), HnswGraph::size);
+
+    /**
+     * Check if the index has been built and can answer queries.
+     *
+     * @return true if the index is ready
+     */
+    public boolean isReady() {
+        return enabled && graph.isReady();
+    }
+
+    /**
+     * Find the books most similar to a book.
+     *
+     * @param bookId book ID
+     * @param limit maximum number of IDs to return, capped at {@value #MAX_RESULTS}
+     * @return similar book IDs, most similar first, or empty if the index is not ready or does not hold the book
+     */
+    public Optional<List<Long>> similar(final Long bookId, final int limit) {
+        return find(bookId, limit, false);
+    }
+
+    /**
+     * Find the books most similar to a book by comparing it with every indexed book.
+     * Same answer as {@link #similar} would give with perfect recall, at a cost linear in the catalog size.
+     *
+     * @param bookId book ID
+     * @param limit maximum number of IDs to return, capped at {@value #MAX_RESULTS}
+     * @return similar book IDs, most similar first, or empty if the index is not ready or does not hold the book
+     */
+    public Optional<List<Long>> similarExact(final Long bookId, final int limit) {
+        return find(bookId, limit, true);
+    }
+
+    /**
+     * Add or replace a book in the index.
+     *
+     * @param book the book
+     */
+    public void index(final Book book) {
+        long bookId = book.getId();
+        float[] vector = BookFeatures.of(book);
+        graph.apply(target -> target.add(bookId, vector));
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId book ID
+     */
+    public void remove(final Long bookId) {
+        graph.apply(target -> target.remove(bookId));
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return indexed book count
+     */
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Keep the index in sync with committed book changes other than rating updates.
+     *
+     * @param event book changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else if (event.getRatingDelta() == null) {
+            index(event.getBook());
+        }
+    }
+
+    /**
+     * Build the index once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index on a schedule to fold in rating changes and drop removed books. The rebuild runs
+     * on the async executor, since it re-links every book.
+     */
+    @Scheduled(initialDelayString = "${app.search.similar.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.search.similar.rebuild-interval-ms:3600000}")
+    public void refresh() {
+        if (graph.isReady()) {
+            rebuildJob.submit(applicationTaskExecutor, this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuild the index from the books table.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Book similarity index is disabled, similar books will come from shared genres");
+            return;
+        }
+        graph.rebuild(bookRepository);
+    }
+
+    private Optional<List<Long>> find(final Long bookId, final int limit, final boolean exact) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        int k = Math.min(limit, MAX_RESULTS);
+        long self = bookId;
+
+        return graph.read(target -> {
+            float[] vector = target.vector(self);
+            if (vector == null) {
+                return Optional.<List<Long>>empty();
+            }
+            long[] ids = exact
+                    ? target.exactSearch(vector, k, id -> id != self)
+                    : target.search(vector, k, efSearch, id -> id != self);
+            List<Long> result = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                result.add(id);
+            }
+            return Optional.of(result);
+        }, Optional.empty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.bookreview.search;
+
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.BookSuggestionView;
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.dto.book.BookSuggestionDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autocomplete suggestions for the search box.
+ * Served from an immutable {@link SuggestionTrie} that is rebuilt in the background after books change
+ * and swapped in atomically, so readers never block.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSuggestIndex {
+
+    /**
+     * Maximum number of suggestions returned for a prefix.
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicLong builds = new AtomicLong();
+    private volatile SuggestionTrie trie;
+    private volatile ContentVersion version;
+
+    /**
+     * Get suggestions for a prefix.
+     *
+     * @param prefix prefix as typed by the user
+     * @param limit maximum number of suggestions
+     * @return suggestions, most popular first; empty until the first build has finished
+     */
+    public List<BookSuggestionDTO> suggest(final String prefix, final int limit) {
+        SuggestionTrie current = trie;
+        if (current == null) {
+            return List.of();
+        }
+        return current.complete(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Get the version of the suggestions for HTTP validators. Suggestions lag book changes until the next
+     * rebuild, so the version counts rebuilds rather than book changes.
+     *
+     * @return version of the current suggestions, or null until the first build has finished
+     */
+    public ContentVersion version() {
+        return version;
+    }
+
+    /**
+     * Mark suggestions stale when a book is added, edited or removed. Rating changes only shift the
+     * popularity order, so they are left to {@link #expirePopularity()}.
+     *
+     * @param event book changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getRatingDelta() == null) {
+            stale.set(true);
+        }
+    }
+
+    /**
+     * Mark suggestions stale on a slow schedule so that popularity changes from new ratings are picked up.
+     */
+    @Scheduled(initialDelayString = "${app.search.suggest.popularity-interval-ms:3600000}",
+            fixedDelayString = "${app.search.suggest.popularity-interval-ms:3600000}")
+    public void expirePopularity() {
+        stale.set(true);
+    }
+
+    /**
+     * Rebuild the suggestions if books changed since the last build. Bursts of changes
+     * are coalesced into a single rebuild per interval.
+     */
+    @Scheduled(fixedDelayString = "${app.search.suggest.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!stale.getAndSet(false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            stale.set(true);
+            log.error("Failed to build book suggestions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build a new trie from the books table and swap it in.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        SuggestionTrie.Builder builder = SuggestionTrie.builder();
+        long lastId = 0L;
+        List<BookSuggestionView> batch;
+        do {
+            batch = bookRepository.findSuggestionViews(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (BookSuggestionView book : batch) {
+                builder.add(book.getId(), book.getTitle(), book.getAuthor(), weight(book));
+                lastId = book.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        SuggestionTrie built = builder.build(MAX_SUGGESTIONS);
+        trie = built;
+        // After the trie, so a reader that sees the new version also sees the suggestions it describes
+        version = new ContentVersion(builds.incrementAndGet(), LocalDateTime.now());
+        log.info("Book suggestions built for {} books in {} ms", built.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Popularity weight: well-reviewed books with many reviews first, unreviewed books last.
+     */
+    private static float weight(final BookSuggestionView book) {
+        int reviews = book.getTotalReviews() == null ? 0 : book.getTotalReviews();
+        double rating = book.getAverageRating() == null ? 0.0 : book.getAverageRating().doubleValue();
+        return (float) ((1.0 + rating) * Math.log(2.0 + reviews));
+    }
+}
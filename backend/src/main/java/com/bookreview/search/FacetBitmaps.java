@@ -0,0 +1,271 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Genre;
+import com.bookreview.dto.book.BookSearchDTO;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap index over the facet attributes of books, keyed by book ID.
+ * One bitmap per genre, published year and whole-star rating bucket answers filters with AND/OR;
+ * a column of raw values per attribute serves exact range checks and facet counting.
+ * Not thread-safe; {@link BookFacetIndex} guards all access with a read/write lock.
+ */
+final class FacetBitmaps {
+
+    static final int RATING_BUCKETS = 6;
+
+    private static final Genre[] GENRES = Genre.values();
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+
+    private final BitSet live = new BitSet();
+    private final Map<Genre, BitSet> genreBits = new EnumMap<>(Genre.class);
+    private final NavigableMap<Integer, BitSet> yearBits = new TreeMap<>();
+    private final BitSet[] ratingBits = new BitSet[RATING_BUCKETS];
+    private int[] genreMasks = new int[256];
+    private int[] years = new int[256];
+    private float[] ratings = new float[256];
+    private int[] reviews = new int[256];
+
+    FacetBitmaps() {
+        for (Genre genre : GENRES) {
+            genreBits.put(genre, new BitSet());
+        }
+        for (int bucket = 0; bucket < RATING_BUCKETS; bucket++) {
+            ratingBits[bucket] = new BitSet();
+        }
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return book count
+     */
+    int size() {
+        return live.cardinality();
+    }
+
+    /**
+     * Index a book's facet attributes, replacing any previous values.
+     *
+     * @param bookId book ID
+     * @param genres genres
+     * @param publishedYear published year, may be null
+     * @param averageRating average rating, may be null
+     * @param totalReviews number of reviews, may be null
+     */
+    void add(final long bookId, final Set<Genre> genres, final Integer publishedYear,
+             final BigDecimal averageRating, final Integer totalReviews) {
+        remove(bookId);
+        int id = Math.toIntExact(bookId);
+        ensureCapacity(id);
+
+        int mask = 0;
+        if (genres != null) {
+            for (Genre genre : genres) {
+                genreBits.get(genre).set(id);
+                mask |= 1 << genre.ordinal();
+            }
+        }
+        genreMasks[id] = mask;
+        years[id] = publishedYear == null ? NO_YEAR : publishedYear;
+        if (publishedYear != null) {
+            yearBits.computeIfAbsent(publishedYear, year -> new BitSet()).set(id);
+        }
+        ratings[id] = averageRating == null ? 0f : averageRating.floatValue();
+        ratingBits[bucket(ratings[id])].set(id);
+        reviews[id] = totalReviews == null ? 0 : totalReviews;
+        live.set(id);
+    }
+
+    /**
+     * Remove a book.
+     *
+     * @param bookId book ID
+     */
+    void remove(final long bookId) {
+        if (bookId > Integer.MAX_VALUE || !live.get((int) bookId)) {
+            return;
+        }
+        int id = (int) bookId;
+        for (Genre genre : GENRES) {
+            if ((genreMasks[id] & 1 << genre.ordinal()) != 0) {
+                genreBits.get(genre).clear(id);
+            }
+        }
+        if (years[id] != NO_YEAR) {
+            BitSet bits = yearBits.get(years[id]);
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                yearBits.remove(years[id]);
+            }
+        }
+        ratingBits[bucket(ratings[id])].clear(id);
+        live.clear(id);
+    }
+
+    /**
+     * Match books against the non-text criteria and count facet values in one pass over the candidates.
+     * Each facet is counted with all filters except its own applied.
+     *
+     * @param criteria search criteria; text criteria are ignored
+     * @param candidates books to consider, or null for all books
+     * @return matching books and facet counts
+     */
+    Result match(final BookSearchDTO criteria, final BitSet candidates) {
+        BitSet genreFilter = genreFilter(criteria);
+        BitSet yearFilter = yearFilter(criteria);
+        BitSet ratingFilter = ratingFilter(criteria);
+        BitSet base = (BitSet) live.clone();
+        if (candidates != null) {
+            base.and(candidates);
+        }
+        BitSet counted = atLeastTwo(genreFilter, yearFilter, ratingFilter);
+        if (counted != null) {
+            base.and(counted);
+        }
+        float minRating = criteria.getMinRating() == null ? Float.NEGATIVE_INFINITY : criteria.getMinRating().floatValue();
+        float maxRating = criteria.getMaxRating() == null ? Float.POSITIVE_INFINITY : criteria.getMaxRating().floatValue();
+        int minReviews = criteria.getMinReviews() == null ? Integer.MIN_VALUE : criteria.getMinReviews();
+
+        BitSet matches = new BitSet();
+        long[] genreCounts = new long[GENRES.length];
+        int firstDecade = yearBits.isEmpty() ? 0 : Math.floorDiv(yearBits.firstKey(), 10);
+        long[] decades = new long[yearBits.isEmpty() ? 0 : Math.floorDiv(yearBits.lastKey(), 10) - firstDecade + 1];
+        long[] ratingCounts = new long[RATING_BUCKETS];
+        for (int id = base.nextSetBit(0); id >= 0; id = base.nextSetBit(id + 1)) {
+            if (reviews[id] < minReviews) {
+                continue;
+            }
+            boolean inGenre = genreFilter == null || genreFilter.get(id);
+            boolean inYear = yearFilter == null || yearFilter.get(id);
+            boolean inRating = ratingFilter == null
+                    || ratingFilter.get(id) && ratings[id] >= minRating && ratings[id] <= maxRating;
+            if (inYear && inRating) {
+                for (int mask = genreMasks[id]; mask != 0; mask &= mask - 1) {
+                    genreCounts[Integer.numberOfTrailingZeros(mask)]++;
+                }
+            }
+            if (inGenre && inRating && years[id] != NO_YEAR) {
+                decades[Math.floorDiv(years[id], 10) - firstDecade]++;
+            }
+            if (inGenre && inYear) {
+                ratingCounts[bucket(ratings[id])]++;
+            }
+            if (inGenre && inYear && inRating) {
+                matches.set(id);
+            }
+        }
+
+        Map<Integer, Long> decadeCounts = new TreeMap<>();
+        for (int decade = 0; decade < decades.length; decade++) {
+            if (decades[decade] > 0) {
+                decadeCounts.put((firstDecade + decade) * 10, decades[decade]);
+            }
+        }
+        return new Result(matches, genreCounts, decadeCounts, ratingCounts);
+    }
+
+    /**
+     * Books passing at least two of the three facet filters, where null means no filter.
+     * Only these books can contribute to any count, so the counting pass skips all others.
+     *
+     * @return the restriction, or null if every book may contribute
+     */
+    private static BitSet atLeastTwo(final BitSet a, final BitSet b, final BitSet c) {
+        List<BitSet> filters = Stream.of(a, b, c).filter(Objects::nonNull).toList();
+        if (filters.size() < 2) {
+            return null;
+        }
+        BitSet result = (BitSet) filters.get(0).clone();
+        result.or(filters.get(1));
+        if (filters.size() == 3) {
+            BitSet pairs = (BitSet) a.clone();
+            pairs.and(b);
+            BitSet third = (BitSet) c.clone();
+            third.and(result);
+            pairs.or(third);
+            result = pairs;
+        }
+        return result;
+    }
+
+    private BitSet genreFilter(final BookSearchDTO criteria) {
+        if (criteria.getGenres() == null || criteria.getGenres().isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        criteria.getGenres().forEach(genre -> filter.or(genreBits.get(genre)));
+        return filter;
+    }
+
+    private BitSet yearFilter(final BookSearchDTO criteria) {
+        if (criteria.getPublishedYear() == null && criteria.getMinPublishedYear() == null
+                && criteria.getMaxPublishedYear() == null) {
+            return null;
+        }
+        int from = criteria.getMinPublishedYear() == null ? Integer.MIN_VALUE : criteria.getMinPublishedYear();
+        int to = criteria.getMaxPublishedYear() == null ? Integer.MAX_VALUE : criteria.getMaxPublishedYear();
+        if (criteria.getPublishedYear() != null) {
+            from = Math.max(from, criteria.getPublishedYear());
+            to = Math.min(to, criteria.getPublishedYear());
+        }
+        BitSet filter = new BitSet();
+        if (from <= to) {
+            yearBits.subMap(from, true, to, true).values().forEach(filter::or);
+        }
+        return filter;
+    }
+
+    /**
+     * Union of the whole-star buckets overlapping the requested range; fractional bounds
+     * are checked exactly against the rating column.
+     */
+    private BitSet ratingFilter(final BookSearchDTO criteria) {
+        if (criteria.getMinRating() == null && criteria.getMaxRating() == null) {
+            return null;
+        }
+        int from = criteria.getMinRating() == null ? 0 : bucket(criteria.getMinRating().floatValue());
+        int to = criteria.getMaxRating() == null ? RATING_BUCKETS - 1 : bucket(criteria.getMaxRating().floatValue());
+        BitSet filter = new BitSet();
+        for (int bucket = from; bucket <= to; bucket++) {
+            filter.or(ratingBits[bucket]);
+        }
+        return filter;
+    }
+
+    private static int bucket(final float rating) {
+        return Math.max(0, Math.min(RATING_BUCKETS - 1, (int) Math.floor(rating)));
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id >= years.length) {
+            int capacity = Math.max(id + 1, years.length * 2);
+            genreMasks = Arrays.copyOf(genreMasks, capacity);
+            years = Arrays.copyOf(years, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            reviews = Arrays.copyOf(reviews, capacity);
+        }
+    }
+
+    /**
+     * Books matching all filters and the facet counts around them.
+     *
+     * @param matches IDs of matching books
+     * @param genreCounts count per genre ordinal
+     * @param decadeCounts count per first year of decade
+     * @param ratingCounts count per whole-star rating bucket
+     */
+    record Result(BitSet matches, long[] genreCounts, Map<Integer, Long> decadeCounts, long[] ratingCounts) {
+    }
+}
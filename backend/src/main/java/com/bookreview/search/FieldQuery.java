@@ -0,0 +1,13 @@
+package com.bookreview.search;
+
+import java.util.Set;
+
+/**
+ * Raw query text whose terms must all match in the given fields, one part of a
+ * {@link BookSearchIndex#searchFields} query.
+ *
+ * @param query raw query text
+ * @param fields fields to match in
+ */
+public record FieldQuery(String query, Set<SearchField> fields) {
+}
@@ -0,0 +1,195 @@
+package com.bookreview.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Sorted term dictionary supporting "all terms within edit distance k" lookups.
+ * <p>
+ * The sorted array is walked as an implicit trie: every range of terms sharing a prefix is one node,
+ * and one row of the Levenshtein matrix is computed per node. Ranges whose best cell already exceeds
+ * k are skipped, which is what a Levenshtein automaton intersected with the dictionary does.
+ * Terms added after the last snapshot are kept in a small sorted set and merged in batches.
+ * Terms are never removed; callers filter out terms that no longer occur in the index.
+ */
+final class FuzzyTermDictionary {
+
+    /**
+     * A dictionary term and its edit distance from the query term.
+     *
+     * @param term dictionary term
+     * @param distance Levenshtein distance from the query term
+     */
+    record Match(String term, int distance) {
+    }
+
+    private static final int MAX_PENDING_TERMS = 4096;
+
+    private String[] terms = new String[0];
+    private final TreeSet<String> pending = new TreeSet<>();
+
+    /**
+     * Get number of terms in the dictionary.
+     *
+     * @return term count
+     */
+    int size() {
+        return terms.length + pending.size();
+    }
+
+    /**
+     * Add a term; adding a term that is already present has no effect.
+     *
+     * @param term analyzed term
+     */
+    void add(final String term) {
+        if (Arrays.binarySearch(terms, term) >= 0) {
+            return;
+        }
+        pending.add(term);
+        if (pending.size() >= MAX_PENDING_TERMS) {
+            merge();
+        }
+    }
+
+    /**
+     * Replace the dictionary contents, dropping terms that are no longer used.
+     *
+     * @param liveTerms current terms
+     */
+    void reset(final Collection<String> liveTerms) {
+        pending.clear();
+        terms = new TreeSet<>(liveTerms).toArray(new String[0]);
+    }
+
+    /**
+     * Find all terms within the given edit distance.
+     *
+     * @param term analyzed query term
+     * @param maxDistance maximum Levenshtein distance
+     * @return matching terms, in dictionary order
+     */
+    List<Match> search(final String term, final int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int[] firstRow = new int[term.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        walk(term, maxDistance, 0, 0, terms.length, firstRow, matches);
+        for (String candidate : pending) {
+            if (Math.abs(candidate.length() - term.length()) <= maxDistance) {
+                int distance = distance(term, candidate);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(candidate, distance));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Visit the terms in [lo, hi), which all share their first {@code depth} characters.
+     */
+    private void walk(final String query, final int maxDistance, final int depth, final int lo, final int hi,
+                      final int[] previousRow, final List<Match> matches) {
+        int m = query.length();
+        int i = lo;
+        if (i < hi && terms[i].length() == depth) {
+            if (previousRow[m] <= maxDistance) {
+                matches.add(new Match(terms[i], previousRow[m]));
+            }
+            i++;
+        }
+
+        while (i < hi) {
+            char c = terms[i].charAt(depth);
+            int end = endOfRange(depth, c, i + 1, hi);
+
+            int[] row = new int[m + 1];
+            row[0] = previousRow[0] + 1;
+            int best = row[0];
+            for (int j = 1; j <= m; j++) {
+                int substitution = previousRow[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previousRow[j], row[j - 1]) + 1);
+                best = Math.min(best, row[j]);
+            }
+
+            if (best <= maxDistance) {
+                if (end - i == 1) {
+                    // A single remaining term: cheaper to compare directly than to keep descending
+                    int distance = distance(query, terms[i]);
+                    if (distance <= maxDistance) {
+                        matches.add(new Match(terms[i], distance));
+                    }
+                } else {
+                    walk(query, maxDistance, depth + 1, i, end, row, matches);
+                }
+            }
+            i = end;
+        }
+    }
+
+    private int endOfRange(final int depth, final char c, final int from, final int hi) {
+        int low = from;
+        int high = hi;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].charAt(depth) <= c) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void merge() {
+        String[] merged = new String[terms.length + pending.size()];
+        int i = 0;
+        int n = 0;
+        for (String term : pending) {
+            while (i < terms.length && terms[i].compareTo(term) < 0) {
+                merged[n++] = terms[i++];
+            }
+            merged[n++] = term;
+        }
+        while (i < terms.length) {
+            merged[n++] = terms[i++];
+        }
+        terms = merged;
+        pending.clear();
+    }
+
+    /**
+     * Levenshtein distance between two strings.
+     *
+     * @param a first string
+     * @param b second string
+     * @return minimum number of single-character insertions, deletions and substitutions
+     */
+    static int distance(final String a, final String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,559 @@
+package com.bookreview.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+/**
+ * Hierarchical navigable small world graph for approximate nearest-neighbour search over unit vectors,
+ * with cosine distance {@code 1 - dot}.
+ * <p>
+ * Every node is on level 0 and on each level above with probability {@code 1 / m}. A search descends
+ * greedily from the single entry point on the top level, then does a best-first search of width
+ * {@code ef} on level 0. An insert does the same search on each of the node's levels and links the node
+ * to up to {@code m} neighbours chosen to point in different directions; a neighbour whose links are full
+ * keeps the best spread of its old links and the new node.
+ * <p>
+ * Vectors and level-0 links are stored in flat primitive arrays indexed by node number; upper-level links,
+ * which few nodes have, in one array per node. Removing or replacing a vector only marks its node deleted:
+ * the node still routes searches but is never returned, and the space is reclaimed by building a new graph.
+ * <p>
+ * Not thread-safe for writes; searches may run concurrently with each other but not with writes.
+ */
+final class HnswGraph {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinks0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final Map<Long, Integer> nodesById = new HashMap<>();
+
+    private float[] vectors = new float[0];
+    private long[] ids = new long[0];
+    private boolean[] deleted = new boolean[0];
+    private int[] links0 = new int[0];
+    private int[][] upperLinks = new int[0][];
+    private int nodeCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * Create an empty graph.
+     *
+     * @param dimensions vector length
+     * @param m links per node on the upper levels, twice as many on level 0
+     * @param efConstruction search width when inserting
+     * @param seed seed of the level assignment
+     */
+    HnswGraph(final int dimensions, final int m, final int efConstruction, final long seed) {
+        if (dimensions <= 0 || m < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Dimensions and ef must be positive and m at least 2");
+        }
+        this.dimensions = dimensions;
+        this.maxLinks = m;
+        this.maxLinks0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new Random(seed);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Insert a vector, replacing the one stored under the same ID.
+     *
+     * @param id ID
+     * @param vector unit vector of {@code dimensions} floats; copied
+     */
+    void add(final long id, final float[] vector) {
+        Integer previous = nodesById.get(id);
+        if (previous != null) {
+            deleted[previous] = true;
+        }
+        if (nodeCount == ids.length) {
+            allocate(ids.length * 2);
+        }
+        int node = nodeCount++;
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        ids[node] = id;
+        links0[node * (maxLinks0 + 1)] = 0;
+        upperLinks[node] = level > 0 ? new int[level * (maxLinks + 1)] : null;
+        nodesById.put(id, node);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = closest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap found = searchLayer(vector, current, efConstruction, l, true, null);
+            if (found.size() == 0) {
+                continue;
+            }
+            int[] candidates = new int[found.size()];
+            float[] distances = new float[found.size()];
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                distances[i] = found.peekDistance();
+                candidates[i] = found.poll();
+            }
+            int[] neighbours = selectNeighbours(candidates, distances, candidates.length, maxLinks);
+            int[] list = linkList(node, l);
+            int base = linkBase(node, l);
+            list[base] = neighbours.length;
+            System.arraycopy(neighbours, 0, list, base + 1, neighbours.length);
+            for (int neighbour : neighbours) {
+                link(neighbour, node, l);
+            }
+            current = candidates[0];
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Remove the vector stored under an ID.
+     *
+     * @param id ID
+     * @return true if there was one
+     */
+    boolean remove(final long id) {
+        Integer node = nodesById.remove(id);
+        if (node == null) {
+            return false;
+        }
+        deleted[node] = true;
+        return true;
+    }
+
+    /**
+     * Get a copy of the vector stored under an ID.
+     *
+     * @param id ID
+     * @return vector, or null if there is none
+     */
+    float[] vector(final long id) {
+        Integer node = nodesById.get(id);
+        if (node == null) {
+            return null;
+        }
+        return Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+    }
+
+    /**
+     * @return number of vectors stored
+     */
+    int size() {
+        return nodesById.size();
+    }
+
+    /**
+     * @return number of nodes including deleted ones
+     */
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Find the approximately nearest vectors to a query.
+     *
+     * @param query unit vector
+     * @param k maximum number of results
+     * @param ef search width; recall and cost grow with it
+     * @param accept IDs that may be returned
+     * @return IDs, nearest first
+     */
+    long[] search(final float[] query, final int k, final int ef, final LongPredicate accept) {
+        if (entryPoint < 0 || k <= 0) {
+            return new long[0];
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = closest(query, current, l);
+        }
+        NodeHeap found = searchLayer(query, current, Math.max(ef, k), 0, true, accept);
+        while (found.size() > k) {
+            found.poll();
+        }
+        return drainNearestFirst(found);
+    }
+
+    /**
+     * Find the exactly nearest vectors to a query by comparing it with every vector.
+     *
+     * @param query unit vector
+     * @param k maximum number of results
+     * @param accept IDs that may be returned
+     * @return IDs, nearest first
+     */
+    long[] exactSearch(final float[] query, final int k, final LongPredicate accept) {
+        NodeHeap found = new NodeHeap(k + 1, true);
+        for (int node = 0; node < nodeCount && k > 0; node++) {
+            if (deleted[node] || !accept.test(ids[node])) {
+                continue;
+            }
+            float distance = distance(query, node);
+            if (found.size() < k || distance < found.peekDistance()) {
+                found.push(node, distance);
+                if (found.size() > k) {
+                    found.poll();
+                }
+            }
+        }
+        return drainNearestFirst(found);
+    }
+
+    private long[] drainNearestFirst(final NodeHeap found) {
+        long[] result = new long[found.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = ids[found.poll()];
+        }
+        return result;
+    }
+
+    /**
+     * Greedily walk one level towards the query.
+     */
+    private int closest(final float[] query, final int entry, final int level) {
+        int current = entry;
+        float currentDistance = distance(query, current);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            int[] list = linkList(current, level);
+            int base = linkBase(current, level);
+            for (int i = 1; i <= list[base]; i++) {
+                int neighbour = list[base + i];
+                float distance = distance(query, neighbour);
+                if (distance < currentDistance) {
+                    current = neighbour;
+                    currentDistance = distance;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one level, keeping the {@code ef} nearest nodes seen that may be returned.
+     * Nodes that may not be returned are still expanded so that they do not cut off the rest of the graph.
+     *
+     * @return max-heap of the nearest nodes
+     */
+    private NodeHeap searchLayer(final float[] query, final int entry, final int ef, final int level,
+                                 final boolean skipDeleted, final LongPredicate accept) {
+        Scratch local = SCRATCH.get();
+        VisitedSet visited = local.visited;
+        visited.reset(ef * maxLinks0);
+        NodeHeap candidates = local.candidates;
+        candidates.clear();
+        NodeHeap found = new NodeHeap(ef + 1, true);
+
+        float entryDistance = distance(query, entry);
+        visited.add(entry);
+        candidates.push(entry, entryDistance);
+        if (returnable(entry, skipDeleted, accept)) {
+            found.push(entry, entryDistance);
+        }
+        while (candidates.size() > 0) {
+            if (found.size() >= ef && candidates.peekDistance() > found.peekDistance()) {
+                break;
+            }
+            int current = candidates.poll();
+            int[] list = linkList(current, level);
+            int base = linkBase(current, level);
+            for (int i = 1; i <= list[base]; i++) {
+                int neighbour = list[base + i];
+                if (!visited.add(neighbour)) {
+                    continue;
+                }
+                float distance = distance(query, neighbour);
+                if (found.size() < ef || distance < found.peekDistance()) {
+                    candidates.push(neighbour, distance);
+                    if (returnable(neighbour, skipDeleted, accept)) {
+                        found.push(neighbour, distance);
+                        if (found.size() > ef) {
+                            found.poll();
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean returnable(final int node, final boolean skipDeleted, final LongPredicate accept) {
+        return !(skipDeleted && deleted[node]) && (accept == null || accept.test(ids[node]));
+    }
+
+    /**
+     * Choose up to {@code limit} of the candidates, nearest first, skipping any that is nearer to an
+     * already chosen one than to the base node, so that links fan out instead of all pointing into the
+     * same cluster.
+     *
+     * @param candidates candidate nodes sorted by distance to the base node
+     * @param distances their distances to the base node
+     */
+    private int[] selectNeighbours(final int[] candidates, final float[] distances, final int count,
+                                   final int limit) {
+        int[] selected = new int[Math.min(count, limit)];
+        int size = 0;
+        for (int i = 0; i < count && size < selected.length; i++) {
+            int candidate = candidates[i];
+            boolean diverse = true;
+            for (int j = 0; j < size; j++) {
+                if (distance(candidate, selected[j]) < distances[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[size++] = candidate;
+            }
+        }
+        return size == selected.length ? selected : Arrays.copyOf(selected, size);
+    }
+
+    /**
+     * Add a link from {@code from} to {@code to}, re-selecting {@code from}'s links if they are full.
+     */
+    private void link(final int from, final int to, final int level) {
+        int[] list = linkList(from, level);
+        int base = linkBase(from, level);
+        int limit = level == 0 ? maxLinks0 : maxLinks;
+        int size = list[base];
+        if (size < limit) {
+            list[base + 1 + size] = to;
+            list[base] = size + 1;
+            return;
+        }
+
+        // Deleted neighbours are dropped first so that links are repaired as the graph is updated
+        int[] candidates = new int[size + 1];
+        float[] distances = new float[size + 1];
+        int count = 0;
+        for (int i = 0; i <= size; i++) {
+            int candidate = i < size ? list[base + 1 + i] : to;
+            if (deleted[candidate] && candidate != to) {
+                continue;
+            }
+            float distance = distance(from, candidate);
+            int position = count++;
+            while (position > 0 && distances[position - 1] > distance) {
+                candidates[position] = candidates[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            candidates[position] = candidate;
+            distances[position] = distance;
+        }
+        int[] selected = selectNeighbours(candidates, distances, count, limit);
+        list[base] = selected.length;
+        System.arraycopy(selected, 0, list, base + 1, selected.length);
+    }
+
+    private int[] linkList(final int node, final int level) {
+        return level == 0 ? links0 : upperLinks[node];
+    }
+
+    private int linkBase(final int node, final int level) {
+        return level == 0 ? node * (maxLinks0 + 1) : (level - 1) * (maxLinks + 1);
+    }
+
+    private float distance(final float[] query, final int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[offset + i];
+        }
+        return 1 - dot;
+    }
+
+    private float distance(final int a, final int b) {
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[offsetA + i] * vectors[offsetB + i];
+        }
+        return 1 - dot;
+    }
+
+    private void allocate(final int capacity) {
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        ids = Arrays.copyOf(ids, capacity);
+        deleted = Arrays.copyOf(deleted, capacity);
+        links0 = Arrays.copyOf(links0, capacity * (maxLinks0 + 1));
+        upperLinks = Arrays.copyOf(upperLinks, capacity);
+    }
+
+    /**
+     * Per-thread search state shared by all graphs: the visited nodes and the candidate queue. Both are
+     * sized by the search width rather than the graph, so neither grows with the catalog.
+     */
+    private static final class Scratch {
+
+        private final VisitedSet visited = new VisitedSet();
+        private final NodeHeap candidates = new NodeHeap(64, false);
+    }
+
+    /**
+     * Open-addressing set of node numbers, kept at most half full.
+     */
+    static final class VisitedSet {
+
+        private static final int EMPTY = -1;
+        private static final int MIN_CAPACITY = 16;
+
+        private int[] slots = new int[0];
+        private int size;
+
+        /**
+         * Empty the set, resizing it for about {@code expected} nodes.
+         *
+         * @param expected expected number of nodes
+         */
+        void reset(final int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2 * expected - 1, MIN_CAPACITY - 1)) << 1;
+            if (slots.length < capacity || slots.length > 4 * capacity) {
+                slots = new int[capacity];
+            }
+            Arrays.fill(slots, EMPTY);
+            size = 0;
+        }
+
+        /**
+         * Add a node.
+         *
+         * @param node node number, not negative
+         * @return true if it was not in the set
+         */
+        boolean add(final int node) {
+            int mask = slots.length - 1;
+            int slot = hash(node) & mask;
+            while (slots[slot] != EMPTY) {
+                if (slots[slot] == node) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = node;
+            if (++size * 2 > slots.length) {
+                grow();
+            }
+            return true;
+        }
+
+        private void grow() {
+            int[] previous = slots;
+            slots = new int[previous.length * 2];
+            Arrays.fill(slots, EMPTY);
+            int mask = slots.length - 1;
+            for (int node : previous) {
+                if (node != EMPTY) {
+                    int slot = hash(node) & mask;
+                    while (slots[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = node;
+                }
+            }
+        }
+
+        private static int hash(final int node) {
+            int h = node * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Binary heap of nodes keyed by distance, nearest on top or farthest on top.
+     */
+    static final class NodeHeap {
+
+        private final boolean farthestFirst;
+        private int[] nodes;
+        private float[] distances;
+        private int size;
+
+        NodeHeap(final int capacity, final boolean farthestFirst) {
+            this.farthestFirst = farthestFirst;
+            this.nodes = new int[Math.max(capacity, 1)];
+            this.distances = new float[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        float peekDistance() {
+            return distances[0];
+        }
+
+        void push(final int node, final float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!above(distance, distances[parent])) {
+                    break;
+                }
+                nodes[position] = nodes[parent];
+                distances[position] = distances[parent];
+                position = parent;
+            }
+            nodes[position] = node;
+            distances[position] = distance;
+        }
+
+        int poll() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastDistance = distances[size];
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(distances[child + 1], distances[child])) {
+                    child++;
+                }
+                if (!above(distances[child], lastDistance)) {
+                    break;
+                }
+                nodes[position] = nodes[child];
+                distances[position] = distances[child];
+                position = child;
+            }
+            nodes[position] = lastNode;
+            distances[position] = lastDistance;
+            return top;
+        }
+
+        private boolean above(final float a, final float b) {
+            return farthestFirst ? a > b : a < b;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.bookreview.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Field-aware inverted index with BM25 scoring.
+ * Title and author terms are also kept in a {@link FuzzyTermDictionary} for typo-tolerant lookups.
+ * Not thread-safe; {@link BookSearchIndex} guards all access with a read/write lock.
+ */
+final class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETES_BEFORE_COMPACTION = 1024;
+    private static final SearchField[] FIELDS = SearchField.values();
+
+    private final List<NavigableMap<String, PostingList>> postings = new ArrayList<>();
+    private final Map<Long, Integer> docByBookId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final FuzzyTermDictionary fuzzyTerms = new FuzzyTermDictionary();
+    private final long[] totalFieldLength = new long[FIELDS.length];
+    private long[] bookIds = new long[256];
+    private int[][] fieldLengths = new int[FIELDS.length][256];
+    private int nextDoc;
+    private int liveDocs;
+    private int deletedDocs;
+
+    InvertedIndex() {
+        for (int i = 0; i < FIELDS.length; i++) {
+            postings.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Get number of indexed (live) documents.
+     *
+     * @return document count
+     */
+    int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Check whether a book is indexed.
+     *
+     * @param bookId book ID
+     * @return true if the book is present
+     */
+    boolean contains(final long bookId) {
+        return docByBookId.containsKey(bookId);
+    }
+
+    /**
+     * Index a book, replacing any previous version of it.
+     *
+     * @param bookId book ID
+     * @param texts raw text per field
+     */
+    void add(final long bookId, final Map<SearchField, String> texts) {
+        remove(bookId);
+        int doc = nextDoc++;
+        ensureCapacity(doc);
+        bookIds[doc] = bookId;
+        docByBookId.put(bookId, doc);
+
+        for (SearchField field : FIELDS) {
+            List<String> terms = TextAnalyzer.tokenize(texts.get(field));
+            fieldLengths[field.ordinal()][doc] = terms.size();
+            totalFieldLength[field.ordinal()] += terms.size();
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            NavigableMap<String, PostingList> fieldPostings = postings.get(field.ordinal());
+            boolean fuzzyField = field != SearchField.DESCRIPTION;
+            frequencies.forEach((term, freq) -> fieldPostings.computeIfAbsent(term, key -> {
+                if (fuzzyField) {
+                    fuzzyTerms.add(key);
+                }
+                return new PostingList();
+            }).add(doc, freq));
+        }
+        liveDocs++;
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId book ID
+     * @return true if the book was indexed
+     */
+    boolean remove(final long bookId) {
+        Integer doc = docByBookId.remove(bookId);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        for (SearchField field : FIELDS) {
+            totalFieldLength[field.ordinal()] -= fieldLengths[field.ordinal()][doc];
+        }
+        liveDocs--;
+        deletedDocs++;
+        if (deletedDocs >= MIN_DELETES_BEFORE_COMPACTION && deletedDocs > liveDocs / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Number of documents containing a term in any of the given fields (deleted documents may be counted
+     * until the next compaction).
+     *
+     * @param term analyzed term
+     * @param fields fields to consider
+     * @return approximate document frequency
+     */
+    int docFrequency(final String term, final Set<SearchField> fields) {
+        int df = 0;
+        for (SearchField field : fields) {
+            PostingList list = postings.get(field.ordinal()).get(term);
+            if (list != null) {
+                df += list.size();
+            }
+        }
+        return df;
+    }
+
+    /**
+     * Find books matching every query term, ranked by BM25 with field boosts.
+     *
+     * @param terms analyzed query terms
+     * @param prefixLast whether the last term should also match longer terms starting with it
+     * @param fields fields to search
+     * @param limit maximum number of hits
+     * @return book IDs, best match first
+     */
+    List<Long> search(final List<String> terms, final boolean prefixLast, final Set<SearchField> fields,
+                      final int limit) {
+        List<QueryClause> clauses = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            boolean last = i == terms.size() - 1;
+            clauses.add(last && prefixLast ? QueryClause.prefix(terms.get(i)) : QueryClause.exact(terms.get(i)));
+        }
+        return search(clauses, fields, limit);
+    }
+
+    /**
+     * Find books matching every clause, ranked by BM25 with field boosts. Clauses restricted to their own
+     * fields let one query require, say, some terms in the title and others in the author.
+     *
+     * @param clauses required query clauses
+     * @param fields fields to search with clauses that name none
+     * @param limit maximum number of hits
+     * @return book IDs, best match first
+     */
+    List<Long> search(final List<QueryClause> clauses, final Set<SearchField> fields, final int limit) {
+        if (clauses.isEmpty() || fields.isEmpty() || liveDocs == 0) {
+            return List.of();
+        }
+
+        // Most selective clauses first so later ones only score surviving candidates
+        List<QueryClause> ordered = new ArrayList<>(clauses);
+        ordered.sort(Comparator.comparingInt(clause -> clause.prefix() != null ? Integer.MAX_VALUE
+                : clause.terms().keySet().stream().mapToInt(t -> docFrequency(t, fieldsOf(clause, fields))).sum()));
+
+        Map<Integer, float[]> scores = null;
+        for (QueryClause clause : ordered) {
+            scores = scoreClause(clause, fieldsOf(clause, fields), scores);
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return topHits(scores, limit);
+    }
+
+    /**
+     * Find indexed title and author terms close to the given term.
+     *
+     * @param term analyzed term
+     * @param maxDistance maximum edit distance
+     * @param fields fields the returned terms must still occur in
+     * @return similar terms, closest and most frequent first
+     */
+    List<FuzzyTermDictionary.Match> similarTerms(final String term, final int maxDistance, final Set<SearchField> fields) {
+        List<FuzzyTermDictionary.Match> matches = new ArrayList<>();
+        for (FuzzyTermDictionary.Match match : fuzzyTerms.search(term, maxDistance)) {
+            if (docFrequency(match.term(), fields) > 0) {
+                matches.add(match);
+            }
+        }
+        matches.sort(Comparator.comparingInt(FuzzyTermDictionary.Match::distance)
+                .thenComparing(match -> -docFrequency(match.term(), fields))
+                .thenComparing(FuzzyTermDictionary.Match::term));
+        return matches;
+    }
+
+    private static Set<SearchField> fieldsOf(final QueryClause clause, final Set<SearchField> fields) {
+        return clause.fields() != null ? clause.fields() : fields;
+    }
+
+    private Map<Integer, float[]> scoreClause(final QueryClause clause, final Set<SearchField> fields,
+                                              final Map<Integer, float[]> candidates) {
+        Map<String, Float> alternatives = new HashMap<>(clause.terms());
+        if (clause.prefix() != null) {
+            for (String term : expandPrefix(clause.prefix(), fields)) {
+                alternatives.merge(term, 1.0f, Math::max);
+            }
+        }
+
+        Map<Integer, float[]> clauseScores = new HashMap<>();
+        alternatives.forEach((term, weight) -> {
+            Map<Integer, float[]> termScores = new HashMap<>();
+            for (SearchField field : fields) {
+                int f = field.ordinal();
+                PostingList list = postings.get(f).get(term);
+                if (list == null) {
+                    continue;
+                }
+                float avgLength = Math.max(1f, (float) totalFieldLength[f] / liveDocs);
+                float idf = idf(list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    int doc = list.doc(i);
+                    if (deleted.get(doc) || (candidates != null && !candidates.containsKey(doc))) {
+                        continue;
+                    }
+                    float tf = list.freq(i);
+                    float norm = K1 * (1 - B + B * fieldLengths[f][doc] / avgLength);
+                    float score = weight * field.getBoost() * idf * (tf * (K1 + 1)) / (tf + norm);
+                    termScores.computeIfAbsent(doc, key -> new float[1])[0] += score;
+                }
+            }
+            // A document counts once per clause, with its best-matching alternative
+            termScores.forEach((doc, score) ->
+                    clauseScores.merge(doc, score, (current, candidate) -> current[0] >= candidate[0] ? current : candidate));
+        });
+
+        if (candidates != null) {
+            clauseScores.forEach((doc, score) -> score[0] += candidates.get(doc)[0]);
+        }
+        return clauseScores;
+    }
+
+    private Set<String> expandPrefix(final String prefix, final Set<SearchField> fields) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (SearchField field : fields) {
+            int expansions = 0;
+            for (String term : postings.get(field.ordinal()).tailMap(prefix, true).keySet()) {
+                if (!term.startsWith(prefix) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private float idf(final int docFrequency) {
+        return (float) Math.log(1 + (liveDocs - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    private List<Long> topHits(final Map<Integer, float[]> scores, final int limit) {
+        Integer[] order = scores.keySet().toArray(new Integer[0]);
+        int n = order.length;
+        Arrays.sort(order, (a, b) -> {
+            int byScore = Float.compare(scores.get(b)[0], scores.get(a)[0]);
+            return byScore != 0 ? byScore : Long.compare(bookIds[a], bookIds[b]);
+        });
+        int hits = Math.min(limit, n);
+        List<Long> result = new ArrayList<>(hits);
+        for (int i = 0; i < hits; i++) {
+            result.add(bookIds[order[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Iterate over the distinct terms of the given fields.
+     *
+     * @param fields fields whose vocabulary to list
+     * @return map of term to approximate document frequency
+     */
+    Map<String, Integer> vocabulary(final Set<SearchField> fields) {
+        Map<String, Integer> vocabulary = new TreeMap<>();
+        for (SearchField field : fields) {
+            postings.get(field.ordinal()).forEach((term, list) -> vocabulary.merge(term, list.size(), Integer::sum));
+        }
+        return vocabulary;
+    }
+
+    private void ensureCapacity(final int doc) {
+        if (doc < bookIds.length) {
+            return;
+        }
+        int capacity = Math.max(doc + 1, bookIds.length * 2);
+        bookIds = Arrays.copyOf(bookIds, capacity);
+        for (int f = 0; f < FIELDS.length; f++) {
+            fieldLengths[f] = Arrays.copyOf(fieldLengths[f], capacity);
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[nextDoc];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                bookIds[live] = bookIds[doc];
+                for (int f = 0; f < FIELDS.length; f++) {
+                    fieldLengths[f][live] = fieldLengths[f][doc];
+                }
+                docByBookId.put(bookIds[live], live);
+                live++;
+            }
+        }
+        for (NavigableMap<String, PostingList> fieldPostings : postings) {
+            fieldPostings.values().removeIf(list -> list.compact(remap) == 0);
+        }
+        nextDoc = live;
+        deleted.clear();
+        deletedDocs = 0;
+
+        List<String> fuzzyVocabulary = new ArrayList<>(postings.get(SearchField.TITLE.ordinal()).keySet());
+        fuzzyVocabulary.addAll(postings.get(SearchField.AUTHOR.ordinal()).keySet());
+        fuzzyTerms.reset(fuzzyVocabulary);
+    }
+}
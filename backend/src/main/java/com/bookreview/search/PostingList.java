@@ -0,0 +1,60 @@
+package com.bookreview.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of (document number, term frequency) pairs for a single term in a single field.
+ * Deleted documents are filtered lazily and physically dropped on {@link #compact(int[])}.
+ */
+final class PostingList {
+
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+
+    void add(final int doc, final int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(final int i) {
+        return docs[i];
+    }
+
+    int freq(final int i) {
+        return freqs[i];
+    }
+
+    /**
+     * Drop postings of deleted documents and renumber the surviving ones.
+     *
+     * @param remap new document number for each old one, or -1 when the document was deleted
+     * @return remaining number of postings
+     */
+    int compact(final int[] remap) {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            int target = remap[docs[i]];
+            if (target >= 0) {
+                docs[live] = target;
+                freqs[live] = freqs[i];
+                live++;
+            }
+        }
+        size = live;
+        if (docs.length > 16 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+            freqs = Arrays.copyOf(freqs, Math.max(4, size * 2));
+        }
+        return size;
+    }
+}
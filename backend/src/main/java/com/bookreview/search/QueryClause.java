@@ -0,0 +1,45 @@
+package com.bookreview.search;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One required clause of an index query: a document matches if it contains any of the alternative
+ * terms, or any term starting with the prefix, in the clause's fields. The best-scoring alternative counts.
+ *
+ * @param terms exact alternative terms with their score weights
+ * @param prefix prefix to expand, or null
+ * @param fields fields the clause must match in, or null for all fields of the query
+ */
+record QueryClause(Map<String, Float> terms, String prefix, Set<SearchField> fields) {
+
+    /**
+     * Clause matching in all fields of the query.
+     *
+     * @param terms exact alternative terms with their score weights
+     * @param prefix prefix to expand, or null
+     */
+    QueryClause(final Map<String, Float> terms, final String prefix) {
+        this(terms, prefix, null);
+    }
+
+    /**
+     * Clause matching a single term exactly.
+     *
+     * @param term analyzed term
+     * @return query clause
+     */
+    static QueryClause exact(final String term) {
+        return new QueryClause(Map.of(term, 1.0f), null);
+    }
+
+    /**
+     * Clause matching a term exactly or as a prefix of longer terms.
+     *
+     * @param term analyzed term
+     * @return query clause
+     */
+    static QueryClause prefix(final String term) {
+        return new QueryClause(Map.of(), term);
+    }
+}
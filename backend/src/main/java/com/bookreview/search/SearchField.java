@@ -0,0 +1,25 @@
+package com.bookreview.search;
+
+/**
+ * Indexed book fields with their BM25 boost.
+ */
+public enum SearchField {
+    TITLE(3.0f),
+    AUTHOR(2.0f),
+    DESCRIPTION(1.0f);
+
+    private final float boost;
+
+    SearchField(final float boost) {
+        this.boost = boost;
+    }
+
+    /**
+     * Get the score multiplier applied to matches in this field.
+     *
+     * @return field boost
+     */
+    public float getBoost() {
+        return boost;
+    }
+}
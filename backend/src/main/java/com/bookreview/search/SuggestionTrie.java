@@ -0,0 +1,407 @@
+package com.bookreview.search;
+
+import com.bookreview.dto.book.BookSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix index for autocomplete.
+ * <p>
+ * Every book contributes entries for its normalized title, its normalized author, and each title suffix
+ * starting at a non stop word ("lord of the rings" is also found as "rings"). Entries are references
+ * into the normalized strings rather than copies, sorted so that all entries sharing a prefix are
+ * contiguous: each contiguous range is a trie node. Nodes with more than {@link #HEAVY_NODE_SIZE}
+ * entries store their top completions; smaller nodes are ranked by scanning the range.
+ */
+final class SuggestionTrie {
+
+    private static final int HEAVY_NODE_SIZE = 64;
+    private static final int AUTHOR = -1;
+
+    private final long[] bookIds;
+    private final String[] titles;
+    private final String[] authors;
+    private final String[] titleKeys;
+    private final String[] authorKeys;
+    private final float[] weights;
+    private final int[] entryBook;
+    private final int[] entryOffset;
+    private final Map<String, int[]> heavyNodes = new HashMap<>();
+    private final int maxCompletions;
+
+    private SuggestionTrie(final Builder builder, final int maxCompletions) {
+        int books = builder.bookIds.size();
+        this.bookIds = new long[books];
+        this.weights = new float[books];
+        for (int b = 0; b < books; b++) {
+            bookIds[b] = builder.bookIds.get(b);
+            weights[b] = builder.weights.get(b);
+        }
+        this.titles = builder.titles.toArray(new String[0]);
+        this.authors = builder.authors.toArray(new String[0]);
+        this.titleKeys = new String[books];
+        this.authorKeys = new String[books];
+        this.maxCompletions = maxCompletions;
+
+        int entries = 0;
+        for (int b = 0; b < books; b++) {
+            titleKeys[b] = TextAnalyzer.normalize(titles[b]);
+            authorKeys[b] = TextAnalyzer.normalize(authors[b]);
+            entries += titleEntryCount(b) + (authorKeys[b].isEmpty() ? 0 : 1);
+        }
+        this.entryBook = new int[entries];
+        this.entryOffset = new int[entries];
+        int next = 0;
+        for (int b = 0; b < books; b++) {
+            next = addTitleEntries(b, next);
+            if (!authorKeys[b].isEmpty()) {
+                entryBook[next] = b;
+                entryOffset[next] = AUTHOR;
+                next++;
+            }
+        }
+        sortEntries();
+        collectHeavyNodes(0, 0, entryBook.length);
+    }
+
+    /**
+     * Create a builder.
+     *
+     * @return empty builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return book count
+     */
+    int size() {
+        return bookIds.length;
+    }
+
+    /**
+     * Find the highest-weighted books whose title, author or a title word starts with the prefix.
+     *
+     * @param rawPrefix prefix as typed by the user
+     * @param limit maximum number of suggestions
+     * @return suggestions, highest weight first
+     */
+    List<BookSuggestionDTO> complete(final String rawPrefix, final int limit) {
+        String prefix = TextAnalyzer.normalize(rawPrefix);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int[] top = heavyNodes.get(prefix);
+        if (top == null) {
+            int lo = lowerBound(prefix, false);
+            int hi = lowerBound(prefix, true);
+            top = topBooks(lo, hi);
+        }
+
+        int count = Math.min(limit, top.length);
+        List<BookSuggestionDTO> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int b = top[i];
+            suggestions.add(BookSuggestionDTO.builder()
+                    .id(bookIds[b])
+                    .title(titles[b])
+                    .author(authors[b])
+                    .build());
+        }
+        return suggestions;
+    }
+
+    private int titleEntryCount(final int book) {
+        int count = 0;
+        String key = titleKeys[book];
+        for (int start = 0; start < key.length(); start = nextWord(key, start)) {
+            if (isEntryStart(key, start)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int addTitleEntries(final int book, final int from) {
+        int next = from;
+        String key = titleKeys[book];
+        for (int start = 0; start < key.length(); start = nextWord(key, start)) {
+            if (isEntryStart(key, start)) {
+                entryBook[next] = book;
+                entryOffset[next] = start;
+                next++;
+            }
+        }
+        return next;
+    }
+
+    private static int nextWord(final String key, final int start) {
+        int space = key.indexOf(' ', start);
+        return space < 0 ? key.length() : space + 1;
+    }
+
+    private static boolean isEntryStart(final String key, final int start) {
+        int end = nextWord(key, start);
+        String word = key.substring(start, end < key.length() ? end - 1 : end);
+        return start == 0 || !TextAnalyzer.isStopWord(word);
+    }
+
+    private int length(final int entry) {
+        int offset = entryOffset[entry];
+        return offset == AUTHOR ? authorKeys[entryBook[entry]].length() : titleKeys[entryBook[entry]].length() - offset;
+    }
+
+    private char charAt(final int entry, final int index) {
+        int offset = entryOffset[entry];
+        return offset == AUTHOR ? authorKeys[entryBook[entry]].charAt(index)
+                : titleKeys[entryBook[entry]].charAt(offset + index);
+    }
+
+    private int charOrEnd(final int entry, final int index) {
+        return index < length(entry) ? charAt(entry, index) : -1;
+    }
+
+    /**
+     * Sort entries by key. A primitive sort on the first two characters does the bulk of the work with
+     * sequential memory access; each group sharing those characters is then finished by radix quicksort.
+     */
+    private void sortEntries() {
+        int n = entryBook.length;
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = (long) (charOrEnd(i, 0) + 1) << 48 | (long) (charOrEnd(i, 1) + 1) << 32 | i;
+        }
+        Arrays.sort(packed);
+
+        int[] books = new int[n];
+        int[] offsets = new int[n];
+        for (int i = 0; i < n; i++) {
+            int entry = (int) packed[i];
+            books[i] = entryBook[entry];
+            offsets[i] = entryOffset[entry];
+        }
+        System.arraycopy(books, 0, entryBook, 0, n);
+        System.arraycopy(offsets, 0, entryOffset, 0, n);
+
+        int start = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || packed[i] >>> 32 != packed[start] >>> 32) {
+                if (i - start > 1 && (packed[start] >>> 32 & 0xFFFF) != 0) {
+                    sort(start, i, 2);
+                }
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Three-way radix quicksort of entries [lo, hi) whose keys agree on the first {@code depth} chars.
+     */
+    private void sort(final int from, final int to, final int fromDepth) {
+        int lo = from;
+        int hi = to;
+        int depth = fromDepth;
+        while (hi - lo > 1) {
+            if (hi - lo < 12) {
+                insertionSort(lo, hi, depth);
+                return;
+            }
+            int pivot = charOrEnd(lo + (hi - lo) / 2, depth);
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                int c = charOrEnd(i, depth);
+                if (c < pivot) {
+                    swap(lt++, i++);
+                } else if (c > pivot) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            sort(lo, lt, depth);
+            sort(gt + 1, hi, depth);
+            if (pivot < 0) {
+                return;
+            }
+            lo = lt;
+            hi = gt + 1;
+            depth++;
+        }
+    }
+
+    private void insertionSort(final int lo, final int hi, final int depth) {
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && compareFrom(j - 1, j, depth) > 0; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private int compareFrom(final int a, final int b, final int depth) {
+        int lengthA = length(a);
+        int lengthB = length(b);
+        int n = Math.min(lengthA, lengthB);
+        for (int i = depth; i < n; i++) {
+            int diff = charAt(a, i) - charAt(b, i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private void swap(final int a, final int b) {
+        int book = entryBook[a];
+        int offset = entryOffset[a];
+        entryBook[a] = entryBook[b];
+        entryOffset[a] = entryOffset[b];
+        entryBook[b] = book;
+        entryOffset[b] = offset;
+    }
+
+    /**
+     * Compare an entry's key with a prefix, treating keys that start with the prefix as equal.
+     */
+    private int comparePrefix(final int entry, final String prefix) {
+        int length = length(entry);
+        int n = Math.min(length, prefix.length());
+        for (int i = 0; i < n; i++) {
+            int diff = charAt(entry, i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length >= prefix.length() ? 0 : -1;
+    }
+
+    /**
+     * First entry whose key is not below the prefix, or with {@code after} set, the first entry
+     * after all keys starting with the prefix.
+     */
+    private int lowerBound(final String prefix, final boolean after) {
+        int low = 0;
+        int high = entryBook.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(mid, prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void collectHeavyNodes(final int depth, final int lo, final int hi) {
+        if (hi - lo <= HEAVY_NODE_SIZE) {
+            return;
+        }
+        if (depth > 0) {
+            int first = lo;
+            String prefix = entryOffset[first] == AUTHOR
+                    ? authorKeys[entryBook[first]].substring(0, depth)
+                    : titleKeys[entryBook[first]].substring(entryOffset[first], entryOffset[first] + depth);
+            heavyNodes.put(prefix, topBooks(lo, hi));
+        }
+
+        int i = lo;
+        while (i < hi && length(i) == depth) {
+            i++;
+        }
+        while (i < hi) {
+            char c = charAt(i, depth);
+            int low = i + 1;
+            int high = hi;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (charAt(mid, depth) <= c) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            collectHeavyNodes(depth + 1, i, low);
+            i = low;
+        }
+    }
+
+    /**
+     * Rank the distinct books referenced by entries [lo, hi) by weight.
+     */
+    private int[] topBooks(final int lo, final int hi) {
+        int[] top = new int[maxCompletions];
+        int size = 0;
+        for (int i = lo; i < hi; i++) {
+            int book = entryBook[i];
+            float weight = weights[book];
+            if (size == maxCompletions && weight <= weights[top[size - 1]]) {
+                continue;
+            }
+            boolean present = false;
+            for (int j = 0; j < size && !present; j++) {
+                present = top[j] == book;
+            }
+            if (present) {
+                continue;
+            }
+            int position = size < maxCompletions ? size++ : size - 1;
+            while (position > 0 && weights[top[position - 1]] < weight) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = book;
+        }
+        return Arrays.copyOf(top, size);
+    }
+
+    /**
+     * Collects books before building the immutable trie.
+     */
+    static final class Builder {
+
+        private final List<Long> bookIds = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> authors = new ArrayList<>();
+        private final List<Float> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a book.
+         *
+         * @param bookId book ID
+         * @param title display title
+         * @param author display author
+         * @param weight ranking weight, higher first
+         * @return this builder
+         */
+        Builder add(final long bookId, final String title, final String author, final float weight) {
+            bookIds.add(bookId);
+            titles.add(title == null ? "" : title);
+            authors.add(author == null ? "" : author);
+            weights.add(weight);
+            return this;
+        }
+
+        /**
+         * Build the trie.
+         *
+         * @param maxCompletions number of completions kept per heavy node
+         * @return immutable trie
+         */
+        SuggestionTrie build(final int maxCompletions) {
+            return new SuggestionTrie(this, maxCompletions);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Holder of an in-memory structure built from the books table, shared by the catalog indexes.
+ * Reads run under a read lock and changes under a write lock. A rebuild fills a new structure
+ * without holding the lock; changes that arrive while it runs are applied to the current structure
+ * and replayed onto the new one before it is swapped in.
+ *
+ * @param <T> structure type, not thread-safe itself
+ */
+@Slf4j
+final class SwappableIndex<T> {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final String name;
+    private final Supplier<T> empty;
+    private final BiConsumer<T, Book> add;
+    private final ToIntFunction<T> size;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private T current;
+    private List<Consumer<T>> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    /**
+     * Create a holder with no structure; changes are dropped until the first rebuild.
+     *
+     * @param name index name for log messages, such as "Book facet index"
+     * @param empty creates an empty structure to rebuild into
+     * @param add adds a book to a structure
+     * @param size counts the books in a structure
+     */
+    SwappableIndex(final String name, final Supplier<T> empty, final BiConsumer<T, Book> add,
+                   final ToIntFunction<T> size) {
+        this.name = name;
+        this.empty = empty;
+        this.add = add;
+        this.size = size;
+    }
+
+    /**
+     * @return true once a rebuild has completed
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Query the current structure under the read lock.
+     *
+     * @param query query against the structure
+     * @param missing result when there is no structure yet
+     * @param <R> result type
+     * @return query result
+     */
+    <R> R read(final Function<T, R> query, final R missing) {
+        lock.readLock().lock();
+        try {
+            return current == null ? missing : query.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of books in the current structure
+     */
+    int size() {
+        return read(size::applyAsInt, 0);
+    }
+
+    /**
+     * Apply a change to the current structure and, if a rebuild is running, to the one it builds.
+     *
+     * @param change the change
+     */
+    void apply(final Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the structure from the books table and swap it in. Does nothing if a rebuild is
+     * already running; a failed rebuild is logged and leaves the current structure in place.
+     *
+     * @param bookRepository repository to read the books from
+     */
+    void rebuild(final BookRepository bookRepository) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                log.debug("{} rebuild already in progress", name);
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        T fresh = empty.get();
+        try {
+            long lastId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Book book : batch) {
+                    add.accept(fresh, book);
+                    lastId = book.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to build {}: {}", name, e.getMessage(), e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(change -> change.accept(fresh));
+            pendingDuringRebuild = null;
+            current = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("{} built with {} books in {} ms", name, size.applyAsInt(fresh), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bookreview.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer used for both indexing and querying the book catalog.
+ * Text is accent-folded, lower-cased and split on anything that is not a letter or digit.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "the", "to", "was", "with"
+    );
+
+    private TextAnalyzer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Fold accents and case so that accented and plain spellings produce the same term.
+     *
+     * @param text raw text
+     * @return folded text, or an empty string for null input
+     */
+    public static String fold(final String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split text into index terms, dropping stop words and single characters.
+     *
+     * @param text raw text
+     * @return list of terms in document order (duplicates preserved)
+     */
+    public static List<String> tokenize(final String text) {
+        List<String> terms = new ArrayList<>();
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Fold text and collapse every run of non-letter, non-digit characters into a single space.
+     *
+     * @param text raw text
+     * @return normalized text without leading or trailing spaces
+     */
+    public static String normalize(final String text) {
+        String folded = fold(text);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Check whether a folded word is ignored by the analyzer.
+     *
+     * @param word folded word
+     * @return true for stop words
+     */
+    public static boolean isStopWord(final String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    private static void addTerm(final List<String> terms, final String term) {
+        if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
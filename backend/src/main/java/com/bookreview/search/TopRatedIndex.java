@@ -0,0 +1,139 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory ranking of the book catalog by weighted score for top-rated listings.
+ * Built from the books table at startup and kept current from {@link BookChangedEvent}s, so a rating
+ * change moves one entry instead of invalidating the listing. Serves the first {@code top-n} ranks;
+ * deeper pages go to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopRatedIndex {
+
+    private final BookRepository bookRepository;
+
+    private final SwappableIndex<TopRatedRanking> ranking = new SwappableIndex<>("Top-rated index",
+            TopRatedRanking::new, TopRatedIndex::add, TopRatedRanking::size);
+
+    @Value("${app.ratings.top-n:1000}")
+    private int topN;
+
+    /**
+     * Check if the index has been built and can answer queries.
+     *
+     * @return true if the index is ready
+     */
+    public boolean isReady() {
+        return ranking.isReady();
+    }
+
+    /**
+     * Find the best-ranked books with enough rating and reviews.
+     *
+     * @param minRating minimum average rating
+     * @param minReviews minimum number of reviews
+     * @param limit maximum number of IDs to return
+     * @return matching book IDs, highest weighted score first, or empty if the index is not ready
+     *         or the limit reaches past the top N
+     */
+    public Optional<List<Long>> top(final BigDecimal minRating, final int minReviews, final int limit) {
+        if (!ranking.isReady() || limit > topN) {
+            return Optional.empty();
+        }
+        return Optional.of(ranking.read(target -> target.top(minRating, minReviews, limit), List.of()));
+    }
+
+    /**
+     * Count books with enough rating and reviews.
+     *
+     * @param minRating minimum average rating
+     * @param minReviews minimum number of reviews
+     * @return matching book count, or empty if the index is not ready
+     */
+    public Optional<Long> count(final BigDecimal minRating, final int minReviews) {
+        if (!ranking.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(ranking.read(target -> target.count(minRating, minReviews), 0L));
+    }
+
+    /**
+     * Add or re-rank a book.
+     *
+     * @param book the book
+     */
+    public void index(final Book book) {
+        ranking.apply(target -> add(target, book));
+    }
+
+    /**
+     * Remove a book from the index.
+     *
+     * @param bookId book ID
+     */
+    public void remove(final Long bookId) {
+        ranking.apply(target -> target.remove(bookId));
+    }
+
+    /**
+     * Get number of indexed books.
+     *
+     * @return indexed book count
+     */
+    public int size() {
+        return ranking.size();
+    }
+
+    /**
+     * Keep the ranking in sync with committed book changes, including rating updates.
+     * Runs before cached top-rated pages are evicted, so pages rebuilt afterwards see the new ranking.
+     *
+     * @param event book changed event
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(final BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else {
+            index(event.getBook());
+        }
+    }
+
+    /**
+     * Build the index once the application has started.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the books table.
+     */
+    public void rebuild() {
+        ranking.rebuild(bookRepository);
+    }
+
+    private static void add(final TopRatedRanking target, final Book book) {
+        target.add(book.getId(), book.getWeightedScore(), book.getAverageRating(), book.getTotalReviews());
+    }
+}
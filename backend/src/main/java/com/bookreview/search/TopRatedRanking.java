@@ -0,0 +1,105 @@
+package com.bookreview.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Books ordered by weighted score, highest first, with the attributes top-rated listings filter on.
+ * A rating change re-positions one entry in O(log n). Ties are broken by descending ID, as in
+ * the database query.
+ * Not thread-safe; {@link TopRatedIndex} guards all access with a read/write lock.
+ */
+final class TopRatedRanking {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::weightedScore).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::bookId).reversed());
+
+    private final TreeSet<Entry> ranked = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> byId = new HashMap<>();
+
+    /**
+     * Get number of ranked books.
+     *
+     * @return book count
+     */
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Rank a book, replacing its previous position.
+     *
+     * @param bookId book ID
+     * @param weightedScore weighted score, may be null
+     * @param averageRating average rating, may be null
+     * @param totalReviews number of reviews, may be null
+     */
+    void add(final long bookId, final BigDecimal weightedScore, final BigDecimal averageRating,
+             final Integer totalReviews) {
+        Entry entry = new Entry(bookId,
+                weightedScore != null ? weightedScore : BigDecimal.ZERO,
+                averageRating != null ? averageRating : BigDecimal.ZERO,
+                totalReviews != null ? totalReviews : 0);
+        Entry previous = byId.put(bookId, entry);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+        ranked.add(entry);
+    }
+
+    /**
+     * Remove a book from the ranking.
+     *
+     * @param bookId book ID
+     */
+    void remove(final long bookId) {
+        Entry previous = byId.remove(bookId);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+    }
+
+    /**
+     * Walk the ranking from the top and collect books with enough rating and reviews.
+     *
+     * @param minRating minimum average rating
+     * @param minReviews minimum number of reviews
+     * @param limit maximum number of IDs to collect
+     * @return matching book IDs, highest weighted score first
+     */
+    List<Long> top(final BigDecimal minRating, final int minReviews, final int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Entry entry : ranked) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (entry.matches(minRating, minReviews)) {
+                ids.add(entry.bookId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Count books with enough rating and reviews.
+     *
+     * @param minRating minimum average rating
+     * @param minReviews minimum number of reviews
+     * @return matching book count
+     */
+    long count(final BigDecimal minRating, final int minReviews) {
+        return byId.values().stream().filter(entry -> entry.matches(minRating, minReviews)).count();
+    }
+
+    private record Entry(long bookId, BigDecimal weightedScore, BigDecimal averageRating, int totalReviews) {
+
+        boolean matches(final BigDecimal minRating, final int minReviews) {
+            return totalReviews >= minReviews && averageRating.compareTo(minRating) >= 0;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bookreview.user;
+
+/**
+ * A user's favorite book, by ID.
+ *
+ * @param userId user ID
+ * @param bookId book ID
+ */
+public record FavoriteBookKey(Long userId, Long bookId) {
+}
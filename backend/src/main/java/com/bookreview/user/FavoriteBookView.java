@@ -0,0 +1,28 @@
+package com.bookreview.user;
+
+import com.bookreview.book.Genre;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Projection with the book columns shown in a favorites listing and whether the user reviewed the book,
+ * selected without loading the entities.
+ *
+ * @param id book ID
+ * @param title title
+ * @param author author
+ * @param description description
+ * @param coverImageUrl cover image URL
+ * @param genres genres
+ * @param publishedYear published year
+ * @param averageRating average rating
+ * @param totalReviews number of reviews
+ * @param createdAt book creation time
+ * @param hasUserReviewed whether the user reviewed the book
+ */
+public record FavoriteBookView(Long id, String title, String author, String description, String coverImageUrl,
+                               Set<Genre> genres, Integer publishedYear, BigDecimal averageRating,
+                               Integer totalReviews, LocalDateTime createdAt, Boolean hasUserReviewed) {
+}
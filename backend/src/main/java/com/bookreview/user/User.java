@@ -2,11 +2,11 @@ package com.bookreview.user;
 
 import com.bookreview.book.Book;
 import com.bookreview.book.Genre;
+import com.bookreview.book.GenreSetConverter;
 import com.bookreview.review.Review;
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
@@ -23,11 +23,14 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -47,8 +50,8 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(exclude = {"reviews", "favoriteBooks"})
-@ToString(exclude = {"reviews", "favoriteBooks"})
+@EqualsAndHashCode(exclude = {"reviews", "favoriteBooks", "preferredGenreMask"})
+@ToString(exclude = {"reviews", "favoriteBooks", "preferredGenreMask"})
 @EntityListeners(AuditingEntityListener.class)
 public class User {
 
@@ -83,13 +86,17 @@ public class User {
     @Builder.Default
     private UserRole role = UserRole.USER;
 
-    @ElementCollection(targetClass = Genre.class, fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "user_preferred_genres", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "preferred_genres")
+    @Convert(converter = GenreSetConverter.class)
+    @Column(name = "preferred_genre_mask", nullable = false)
     @Builder.Default
     private Set<Genre> preferredGenres = new HashSet<>();
 
+    // Read-only view of the same column, so queries can test genre bits with bitand()
+    @Column(name = "preferred_genre_mask", insertable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long preferredGenreMask;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,5 +1,6 @@
 package com.bookreview.user;
 
+import com.bookreview.dto.CursorPageDTO;
 import com.bookreview.dto.user.FavoriteBookDTO;
 import com.bookreview.dto.user.UserProfileDTO;
 import com.bookreview.dto.user.UserUpdateProfileDTO;
@@ -8,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Optional;
@@ -199,6 +203,30 @@ public class UserController {
         }
     }
 
+    /**
+     * Get current user's favorite books with cursor pagination. Selected by the presence of the
+     * {@code cursor} parameter; pass an empty cursor for the first page.
+     *
+     * @param cursor cursor from a previous page, or empty for the first page
+     * @param size page size (default: 20, max: 100)
+     * @param sort sort on title or averageRating (default: title)
+     * @return page of favorite books with next and previous cursors
+     */
+    @GetMapping(value = "/my-favorites", params = "cursor")
+    public ResponseEntity<CursorPageDTO<FavoriteBookDTO>> scrollCurrentUserFavoriteBooks(
+            @RequestParam final String cursor,
+            @RequestParam(defaultValue = "20") final int size,
+            @SortDefault(sort = "title") final Sort sort) {
+        log.debug("Scrolling current user's favorite books");
+
+        try {
+            return ResponseEntity.ok(userService.scrollCurrentUserFavoriteBooks(cursor, sort, size));
+        } catch (AccessDeniedException e) {
+            log.error("Access denied getting favorites: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     /**
      * Get user's favorite books.
      *
@@ -0,0 +1,10 @@
+package com.bookreview.user;
+
+/**
+ * Projection with a user's ID and email, for resolving reviewers in bulk loads.
+ *
+ * @param id user ID
+ * @param email email
+ */
+public record UserEmailView(Long id, String email) {
+}
@@ -1,6 +1,7 @@
 package com.bookreview.user;
 
 import com.bookreview.book.Genre;
+import com.bookreview.book.GenreSetConverter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -28,6 +29,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Get the ID and email of every user, to resolve the reviewers of bulk loaded reviews.
+     *
+     * @return user IDs and emails
+     */
+    @Query("SELECT new com.bookreview.user.UserEmailView(u.id, u.email) FROM User u")
+    List<UserEmailView> findAllEmailViews();
+
     /**
      * Find favorite books for a user.
      *
@@ -38,6 +47,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT b FROM User u JOIN u.favoriteBooks b WHERE u.id = :userId ORDER BY b.title")
     Page<com.bookreview.book.Book> findFavoriteBooksByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    /**
+     * Find favorite book views for a user, including whether the user reviewed each book.
+     *
+     * @param userId the user ID
+     * @param pageable pagination information
+     * @return page of favorite book views
+     */
+    @Query(value = "SELECT new com.bookreview.user.FavoriteBookView(b.id, b.title, b.author, b.description, " +
+                   "b.coverImageUrl, b.genres, b.publishedYear, b.averageRating, b.totalReviews, b.createdAt, " +
+                   "CASE WHEN EXISTS (SELECT 1 FROM Review r WHERE r.book.id = b.id AND r.user.id = :userId) " +
+                   "THEN true ELSE false END) " +
+                   "FROM User u JOIN u.favoriteBooks b WHERE u.id = :userId ORDER BY b.title",
+           countQuery = "SELECT COUNT(b) FROM User u JOIN u.favoriteBooks b WHERE u.id = :userId")
+    Page<FavoriteBookView> findFavoriteBookViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Find the IDs of a user's favorite books.
+     *
+     * @param userId user ID
+     * @return favorite book IDs
+     */
+    @Query("SELECT b.id FROM User u JOIN u.favoriteBooks b WHERE u.id = :userId")
+    List<Long> findFavoriteBookIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find every user's favorite books, by ID.
+     *
+     * @return favorite book keys
+     */
+    @Query("SELECT new com.bookreview.user.FavoriteBookKey(u.id, b.id) FROM User u JOIN u.favoriteBooks b")
+    List<FavoriteBookKey> findAllFavoriteKeys();
+
     /**
      * Check if user has book in favorites.
      *
@@ -92,8 +133,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param pageable pagination information
      * @return page of users
      */
-    @Query("SELECT DISTINCT u FROM User u JOIN u.preferredGenres pg WHERE pg IN :genres")
-    Page<User> findByPreferredGenresIn(@Param("genres") Set<Genre> genres, Pageable pageable);
+    default Page<User> findByPreferredGenresIn(final Set<Genre> genres, final Pageable pageable) {
+        return findByAnyPreferredGenre(GenreSetConverter.toMask(genres), pageable);
+    }
+
+    /**
+     * Find users preferring any genre of a bitmask.
+     *
+     * @param mask genre bitmask, see {@link GenreSetConverter}
+     * @param pageable pagination information
+     * @return page of users
+     */
+    @Query("SELECT u FROM User u WHERE bitand(u.preferredGenreMask, :mask) <> 0")
+    Page<User> findByAnyPreferredGenre(@Param("mask") long mask, Pageable pageable);
 
     /**
      * Find users created after specified date.
@@ -2,18 +2,27 @@ package com.bookreview.user;
 
 import com.bookreview.book.Book;
 import com.bookreview.book.BookRepository;
+import com.bookreview.cache.HttpCachePurger;
+import com.bookreview.cache.SurrogateKeys;
+import com.bookreview.dto.CursorPageDTO;
 import com.bookreview.dto.review.ReviewDTO;
 import com.bookreview.dto.user.FavoriteBookDTO;
 import com.bookreview.dto.user.UserProfileDTO;
 import com.bookreview.dto.user.UserUpdateProfileDTO;
+import com.bookreview.pagination.CursorCodec;
+import com.bookreview.pagination.KeysetQueries;
+import com.bookreview.recommendation.TasteChangedEvent;
 import com.bookreview.review.Review;
 import com.bookreview.review.ReviewRepository;
 import com.bookreview.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -35,9 +44,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService implements UserDetailsService {
 
+    private static final Set<String> FAVORITES_CURSOR_SORT_PROPERTIES = Set.of("title", "averageRating");
+
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
     private final ReviewRepository reviewRepository;
+    private final CursorCodec cursorCodec;
+    private final HttpCachePurger httpCachePurger;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(final String email) throws UsernameNotFoundException {
@@ -160,10 +174,13 @@ public class UserService implements UserDetailsService {
         }
         if (updateDTO.getPreferredGenres() != null) {
             user.setPreferredGenres(updateDTO.getPreferredGenres());
+            eventPublisher.publishEvent(new TasteChangedEvent(currentUserId));
         }
         
         User savedUser = userRepository.save(user);
         log.info("Profile updated successfully for user ID: {}", currentUserId);
+        // Review responses show the reviewer's name
+        httpCachePurger.purge(SurrogateKeys.userReviews(currentUserId));
         
         return getUserProfile(savedUser.getId());
     }
@@ -195,6 +212,7 @@ public class UserService implements UserDetailsService {
             existingUser.setPreferredGenres(updatedUser.getPreferredGenres());
         }
 
+        httpCachePurger.purge(SurrogateKeys.userReviews(userId));
         return userRepository.save(existingUser);
     }
 
@@ -227,6 +245,7 @@ public class UserService implements UserDetailsService {
             boolean isAlreadyInFavorites = userRepository.existsFavoriteBookByUserIdAndBookId(currentUserId, bookId);
             if (!isAlreadyInFavorites) {
                 userRepository.addBookToUserFavorites(currentUserId, bookId);
+                eventPublisher.publishEvent(new TasteChangedEvent(currentUserId));
                 log.info("Book added to favorites successfully");
             } else {
                 log.info("Book was already in favorites, no action needed");
@@ -271,6 +290,7 @@ public class UserService implements UserDetailsService {
             boolean isInFavorites = userRepository.existsFavoriteBookByUserIdAndBookId(currentUserId, bookId);
             if (isInFavorites) {
                 userRepository.removeBookFromUserFavorites(currentUserId, bookId);
+                eventPublisher.publishEvent(new TasteChangedEvent(currentUserId));
                 log.info("Book removed from favorites successfully");
             } else {
                 log.info("Book was not in favorites, no action needed");
@@ -299,6 +319,7 @@ public class UserService implements UserDetailsService {
 
         user.getFavoriteBooks().add(book);
         userRepository.save(user);
+        eventPublisher.publishEvent(new TasteChangedEvent(userId));
     }
 
     /**
@@ -318,6 +339,7 @@ public class UserService implements UserDetailsService {
 
         user.getFavoriteBooks().remove(book);
         userRepository.save(user);
+        eventPublisher.publishEvent(new TasteChangedEvent(userId));
     }
 
     /**
@@ -335,8 +357,33 @@ public class UserService implements UserDetailsService {
         
         log.debug("Getting favorite books for user ID: {}", currentUserId);
         
-        return userRepository.findFavoriteBooksByUserId(currentUserId, pageable)
-                .map(book -> mapBookToFavoriteDTO(book, currentUserId));
+        return userRepository.findFavoriteBookViewsByUserId(currentUserId, pageable)
+                .map(this::mapFavoriteViewToDTO);
+    }
+
+    /**
+     * Get current user's favorite books, one cursor page at a time.
+     *
+     * @param cursor cursor from a previous page, or blank for the first page
+     * @param sort sort on title and/or averageRating
+     * @param size page size
+     * @return page of favorite book DTOs with cursors to the adjacent pages
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FavoriteBookDTO> scrollCurrentUserFavoriteBooks(final String cursor, final Sort sort,
+                                                                         final int size) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            throw new AccessDeniedException("User must be authenticated to view favorites");
+        }
+
+        log.debug("Scrolling favorite books for user ID: {}", currentUserId);
+
+        Sort keysetSort = KeysetQueries.keysetSort(sort, FAVORITES_CURSOR_SORT_PROPERTIES);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, keysetSort);
+        return cursorCodec.toPage(
+                bookRepository.scrollFavoritesByUserId(currentUserId, position, keysetSort, KeysetQueries.pageSize(size)),
+                position, keysetSort, book -> mapBookToFavoriteDTO(book, currentUserId));
     }
 
     /**
@@ -354,8 +401,8 @@ public class UserService implements UserDetailsService {
             throw new IllegalArgumentException("User not found: " + userId);
         }
         
-        return userRepository.findFavoriteBooksByUserId(userId, pageable)
-                .map(book -> mapBookToFavoriteDTO(book, userId));
+        return userRepository.findFavoriteBookViewsByUserId(userId, pageable)
+                .map(this::mapFavoriteViewToDTO);
     }
 
     /**
@@ -460,4 +507,26 @@ public class UserService implements UserDetailsService {
                 .hasUserReviewed(hasUserReviewed)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Map favorite book projection to FavoriteBookDTO.
+     *
+     * @param view the favorite book view
+     * @return favorite book DTO
+     */
+    private FavoriteBookDTO mapFavoriteViewToDTO(final FavoriteBookView view) {
+        return FavoriteBookDTO.builder()
+                .id(view.id())
+                .title(view.title())
+                .author(view.author())
+                .description(view.description())
+                .coverImageUrl(view.coverImageUrl())
+                .genres(view.genres())
+                .publishedYear(view.publishedYear())
+                .averageRating(view.averageRating())
+                .totalReviews(view.totalReviews())
+                .addedToFavoritesAt(view.createdAt()) // Approximation
+                .hasUserReviewed(view.hasUserReviewed())
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.bookreview.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands a piece of work from a {@code @Scheduled} method to an executor, so long-running jobs do not
+ * hold a scheduler thread. Submissions made while an earlier run is still queued or running are skipped.
+ */
+public final class BackgroundJob {
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    /**
+     * Run the work on the executor unless an earlier run has not finished.
+     *
+     * @param executor executor to run the work on
+     * @param work the work
+     * @return true if the work was submitted
+     */
+    public boolean submit(final Executor executor, final Runnable work) {
+        if (!pending.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    work.run();
+                } finally {
+                    pending.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            pending.set(false);
+            throw e;
+        }
+    }
+}
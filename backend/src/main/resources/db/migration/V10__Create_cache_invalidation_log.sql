@@ -0,0 +1,13 @@
+-- Flyway migration V10: Cache invalidation log
+-- Each node appends the evictions it made after commit and polls rows above its high-water mark to evict
+-- the same entries from its local caches; rows older than app.cache.invalidation.retention-ms are purged
+
+CREATE TABLE cache_invalidations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    origin VARCHAR(36) NOT NULL,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_created_at ON cache_invalidations (created_at);
@@ -0,0 +1,5 @@
+-- Flyway migration V11: Catalog version lookups
+-- Book listings answer conditional GETs from COUNT and MAX(updated_at) over books instead of running the
+-- listing query
+
+CREATE INDEX IF NOT EXISTS idx_books_updated_at ON books (updated_at);
@@ -0,0 +1,7 @@
+-- Flyway migration V12: Pooled sequence for book IDs
+-- Hibernate cannot batch inserts into an identity column; with a sequence it reserves 50 IDs per call and
+-- hands out the 50 IDs up to each value it reads, so the sequence restarts 50 past the highest book ID
+
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 50 INCREMENT BY 50;
+
+ALTER SEQUENCE books_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM books);
@@ -0,0 +1,7 @@
+-- Flyway migration V13: Pooled sequence for review IDs
+-- Lets the offline bulk loader batch review inserts, see V12 for why the sequence restarts 50 past the
+-- highest review ID
+
+CREATE SEQUENCE IF NOT EXISTS reviews_seq START WITH 50 INCREMENT BY 50;
+
+ALTER SEQUENCE reviews_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM reviews);
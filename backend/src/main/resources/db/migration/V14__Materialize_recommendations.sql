@@ -0,0 +1,27 @@
+-- Flyway migration V14: Materialized recommendations
+-- Recommendations for a user are read with one range scan over (user_id, expires_at), and written in
+-- batches, which needs a pooled sequence instead of the identity column (see V12)
+
+CREATE INDEX IF NOT EXISTS idx_recommendations_user_expires ON recommendations (user_id, expires_at);
+CREATE INDEX IF NOT EXISTS idx_recommendations_expires_at ON recommendations (expires_at);
+
+CREATE SEQUENCE IF NOT EXISTS recommendations_seq START WITH 50 INCREMENT BY 50;
+
+ALTER SEQUENCE recommendations_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM recommendations);
+
+-- Deleting a book drops the recommendations of it
+ALTER TABLE recommendations DROP CONSTRAINT IF EXISTS FK_recommendations_book_id;
+
+ALTER TABLE recommendations
+    ADD CONSTRAINT FK_recommendations_book_id
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
+
+-- When each user's reviews or favorites last changed and when their recommendations were last computed
+CREATE TABLE IF NOT EXISTS recommendation_refreshes (
+    user_id BIGINT PRIMARY KEY,
+    changed_at TIMESTAMP(6),
+    refreshed_at TIMESTAMP(6),
+    CONSTRAINT FK_recommendation_refreshes_user_id FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_recommendation_refreshes_changed_at ON recommendation_refreshes (changed_at);
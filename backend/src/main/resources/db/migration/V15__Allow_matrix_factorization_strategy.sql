@@ -0,0 +1,16 @@
+-- Flyway migration V15: Allow MATRIX_FACTORIZATION recommendations
+-- The strategy check from V1 is unnamed, so the column is rebuilt with a named check instead
+
+ALTER TABLE recommendations ADD COLUMN strategy_name VARCHAR(255);
+
+UPDATE recommendations SET strategy_name = strategy;
+
+ALTER TABLE recommendations DROP COLUMN strategy;
+
+ALTER TABLE recommendations ALTER COLUMN strategy_name RENAME TO strategy;
+
+ALTER TABLE recommendations ALTER COLUMN strategy SET NOT NULL;
+
+ALTER TABLE recommendations
+    ADD CONSTRAINT ck_recommendations_strategy
+    CHECK (strategy IN ('TOP_RATED', 'GENRE_SIMILARITY', 'FAVORITES_SIMILARITY', 'MATRIX_FACTORIZATION', 'AI_POWERED'));
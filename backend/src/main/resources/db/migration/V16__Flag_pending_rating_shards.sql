@@ -0,0 +1,11 @@
+-- Flyway migration V16: Pending flag on rating shards
+-- Review writes flag the shard they add to and the fold clears it, so the folder looks pending books up in
+-- an index instead of scanning every shard row for a non-zero counter
+
+ALTER TABLE book_rating_shards ADD COLUMN pending BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE book_rating_shards SET pending = TRUE
+WHERE rating_sum <> 0 OR review_count <> 0 OR one_star_count <> 0 OR two_star_count <> 0
+    OR three_star_count <> 0 OR four_star_count <> 0 OR five_star_count <> 0;
+
+CREATE INDEX IF NOT EXISTS idx_book_rating_shards_pending ON book_rating_shards (pending, book_id);
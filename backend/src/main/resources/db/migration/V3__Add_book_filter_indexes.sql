@@ -0,0 +1,6 @@
+-- Flyway migration V3: Add indexes for book filtering
+-- Range filters on year, rating and review count; genre filters are served by V5's bitmask column
+
+CREATE INDEX IF NOT EXISTS idx_books_published_year ON books (published_year);
+CREATE INDEX IF NOT EXISTS idx_books_average_rating ON books (average_rating);
+CREATE INDEX IF NOT EXISTS idx_books_total_reviews ON books (total_reviews);
@@ -0,0 +1,8 @@
+-- Flyway migration V4: Add indexes for cursor (keyset) pagination
+-- Each index covers a listing's filter column, its sort key and the ID tie-breaker
+
+CREATE INDEX IF NOT EXISTS idx_books_created_at_id ON books (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_books_title_id ON books (title, id);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_book_created_at_id ON reviews (book_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_reviews_user_created_at_id ON reviews (user_id, created_at, id);
@@ -0,0 +1,49 @@
+-- Flyway migration V5: Store book and user genres as bitmask columns
+-- Bit n is the genre declared n-th in the Genre enum (see GenreSetConverter); new genres are appended only
+
+ALTER TABLE books ADD COLUMN genre_mask BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN preferred_genre_mask BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE books SET genre_mask = COALESCE((
+    SELECT SUM(CASE bg.genre
+        WHEN 'FICTION' THEN 1
+        WHEN 'NON_FICTION' THEN 2
+        WHEN 'MYSTERY' THEN 4
+        WHEN 'ROMANCE' THEN 8
+        WHEN 'SCIENCE_FICTION' THEN 16
+        WHEN 'FANTASY' THEN 32
+        WHEN 'BIOGRAPHY' THEN 64
+        WHEN 'HISTORY' THEN 128
+        WHEN 'SELF_HELP' THEN 256
+        WHEN 'BUSINESS' THEN 512
+        WHEN 'TECHNOLOGY' THEN 1024
+        WHEN 'HEALTH' THEN 2048
+        WHEN 'COOKING' THEN 4096
+        WHEN 'TRAVEL' THEN 8192
+        WHEN 'CHILDREN' THEN 16384
+        ELSE 0 END)
+    FROM book_genres bg WHERE bg.book_id = books.id), 0);
+
+UPDATE users SET preferred_genre_mask = COALESCE((
+    SELECT SUM(CASE upg.preferred_genres
+        WHEN 'FICTION' THEN 1
+        WHEN 'NON_FICTION' THEN 2
+        WHEN 'MYSTERY' THEN 4
+        WHEN 'ROMANCE' THEN 8
+        WHEN 'SCIENCE_FICTION' THEN 16
+        WHEN 'FANTASY' THEN 32
+        WHEN 'BIOGRAPHY' THEN 64
+        WHEN 'HISTORY' THEN 128
+        WHEN 'SELF_HELP' THEN 256
+        WHEN 'BUSINESS' THEN 512
+        WHEN 'TECHNOLOGY' THEN 1024
+        WHEN 'HEALTH' THEN 2048
+        WHEN 'COOKING' THEN 4096
+        WHEN 'TRAVEL' THEN 8192
+        WHEN 'CHILDREN' THEN 16384
+        ELSE 0 END)
+    FROM user_preferred_genres upg WHERE upg.user_id = users.id), 0);
+
+-- Primary keys make each (owner, genre) pair unique, so the sums above never carry into another bit
+DROP TABLE IF EXISTS book_genres;
+DROP TABLE IF EXISTS user_preferred_genres;
@@ -0,0 +1,12 @@
+-- Flyway migration V6: Keep a running rating sum next to total_reviews
+-- Review writes adjust rating_sum, total_reviews and average_rating with one UPDATE instead of re-reading every review
+
+ALTER TABLE books ADD COLUMN rating_sum BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE books SET
+    rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM reviews r WHERE r.book_id = books.id),
+    total_reviews = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id);
+
+UPDATE books SET average_rating = CASE
+    WHEN total_reviews > 0 THEN ROUND(CAST(rating_sum AS NUMERIC(12, 4)) / total_reviews, 2)
+    ELSE 0 END;
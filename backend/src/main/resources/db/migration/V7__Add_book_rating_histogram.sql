@@ -0,0 +1,15 @@
+-- Flyway migration V7: Per-book star rating histogram
+-- Maintained by the same UPDATE that applies rating_sum and total_reviews deltas
+
+ALTER TABLE books ADD COLUMN one_star_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE books ADD COLUMN two_star_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE books ADD COLUMN three_star_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE books ADD COLUMN four_star_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE books ADD COLUMN five_star_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE books SET
+    one_star_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 1),
+    two_star_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 2),
+    three_star_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 3),
+    four_star_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 4),
+    five_star_count = (SELECT COUNT(*) FROM reviews r WHERE r.book_id = books.id AND r.rating = 5);
@@ -0,0 +1,22 @@
+-- Flyway migration V8: Sharded rating counters per book
+-- Review writes add to a random slot instead of the books row; slots are folded into books periodically
+
+CREATE TABLE book_rating_shards (
+    book_id BIGINT NOT NULL REFERENCES books(id) ON DELETE CASCADE,
+    slot INTEGER NOT NULL,
+    rating_sum BIGINT DEFAULT 0 NOT NULL,
+    review_count INTEGER DEFAULT 0 NOT NULL,
+    one_star_count INTEGER DEFAULT 0 NOT NULL,
+    two_star_count INTEGER DEFAULT 0 NOT NULL,
+    three_star_count INTEGER DEFAULT 0 NOT NULL,
+    four_star_count INTEGER DEFAULT 0 NOT NULL,
+    five_star_count INTEGER DEFAULT 0 NOT NULL,
+    PRIMARY KEY (book_id, slot)
+);
+
+-- One row per slot for existing books; the slot count comes from app.ratings.shards through the
+-- rating_shards placeholder set in application.yaml
+INSERT INTO book_rating_shards (book_id, slot)
+SELECT b.id, s.x
+FROM books b
+CROSS JOIN SYSTEM_RANGE(0, ${rating_shards} - 1) AS s;
@@ -0,0 +1,9 @@
+-- Flyway migration V9: Bayesian weighted score for top-rated rankings
+-- score = (rating_sum + prior_weight * prior_mean) / (total_reviews + prior_weight), maintained with the
+-- rating aggregates; backfilled with the default prior of 10 reviews at 3.5 stars (app.ratings.prior-*)
+
+ALTER TABLE books ADD COLUMN weighted_score NUMERIC(6,4) DEFAULT 0 NOT NULL;
+
+UPDATE books SET weighted_score = ROUND((rating_sum + 10 * 3.5) / (total_reviews + 10), 4);
+
+CREATE INDEX IF NOT EXISTS idx_books_weighted_score_id ON books (weighted_score DESC, id DESC);
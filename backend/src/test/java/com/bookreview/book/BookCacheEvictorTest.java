@@ -0,0 +1,125 @@
+package com.bookreview.book;
+
+import com.bookreview.cache.CacheInvalidationBus;
+import com.bookreview.cache.HttpCachePurger;
+import com.bookreview.cache.InProcessInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for BookCacheEvictor.
+ */
+class BookCacheEvictorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private HttpCachePurger httpCachePurger;
+    private BookCacheEvictor bookCacheEvictor;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(BookCaches.DETAILS, BookCaches.GENRE_PAGES,
+                BookCaches.TOP_RATED_PAGES);
+        httpCachePurger = mock(HttpCachePurger.class);
+        bookCacheEvictor = new BookCacheEvictor(
+                new CacheInvalidationBus(cacheManager, new InProcessInvalidationTransport()), httpCachePurger);
+
+        // 4 reviews summing to 16 after a 1-star review was folded into three 5-star reviews
+        book = Book.builder()
+                .id(1L)
+                .title("Cached Book")
+                .author("Author")
+                .genres(Set.of(Genre.MYSTERY))
+                .averageRating(new BigDecimal("4.00"))
+                .totalReviews(4)
+                .ratingSum(16L)
+                .build();
+
+        cache(BookCaches.DETAILS).put(1L, "book 1");
+        cache(BookCaches.DETAILS).put(2L, "book 2");
+        cache(BookCaches.GENRE_PAGES).put(genrePage(Genre.MYSTERY, 0), "mystery 0");
+        cache(BookCaches.GENRE_PAGES).put(genrePage(Genre.MYSTERY, 3), "mystery 3");
+        cache(BookCaches.GENRE_PAGES).put(genrePage(Genre.FANTASY, 0), "fantasy 0");
+        cache(BookCaches.TOP_RATED_PAGES).put(topRatedPage("4.0", 4), "passes after");
+        cache(BookCaches.TOP_RATED_PAGES).put(topRatedPage("4.5", 3), "passes before only");
+        cache(BookCaches.TOP_RATED_PAGES).put(topRatedPage("4.5", 4), "never passes");
+        cache(BookCaches.TOP_RATED_PAGES).put(topRatedPage("3.0", 10), "too few reviews");
+    }
+
+    @Test
+    void onBookChanged_ShouldEvictOnlyAffectedEntries_WhenRatingChanges() {
+        // When: 3 reviews averaging 5.00 become 4 averaging 4.00
+        bookCacheEvictor.onBookChanged(BookChangedEvent.rated(book, RatingDelta.of(1, null)));
+
+        // Then
+        assertNull(cache(BookCaches.DETAILS).get(1L));
+        assertNotNull(cache(BookCaches.DETAILS).get(2L));
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.MYSTERY, 0)));
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.MYSTERY, 3)));
+        assertNotNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.FANTASY, 0)));
+        assertNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.0", 4)));
+        assertNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.5", 3)));
+        assertNotNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.5", 4)));
+        assertNotNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("3.0", 10)));
+    }
+
+    @Test
+    void onBookChanged_ShouldEvictPreviousGenres_WhenBookIsEdited() {
+        // When
+        bookCacheEvictor.onBookChanged(BookChangedEvent.edited(book, Set.of(Genre.FANTASY)));
+
+        // Then
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.MYSTERY, 0)));
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.FANTASY, 0)));
+        assertNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.0", 4)));
+        assertNotNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.5", 3)));
+    }
+
+    @Test
+    void onBookChanged_ShouldEvictOnlyListings_WhenBookIsCreated() {
+        // When
+        bookCacheEvictor.onBookChanged(BookChangedEvent.created(book));
+
+        // Then
+        assertNotNull(cache(BookCaches.DETAILS).get(1L));
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.MYSTERY, 3)));
+        assertNotNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.FANTASY, 0)));
+        verify(httpCachePurger).purge("books");
+    }
+
+    @Test
+    void onBookChanged_ShouldClearListings_WhenBookIsDeleted() {
+        // When
+        bookCacheEvictor.onBookChanged(BookChangedEvent.deleted(1L));
+
+        // Then
+        assertNull(cache(BookCaches.DETAILS).get(1L));
+        assertNotNull(cache(BookCaches.DETAILS).get(2L));
+        assertNull(cache(BookCaches.GENRE_PAGES).get(genrePage(Genre.FANTASY, 0)));
+        assertNull(cache(BookCaches.TOP_RATED_PAGES).get(topRatedPage("4.5", 4)));
+        verify(httpCachePurger).purge("book-1", "books", "book-reviews-1");
+    }
+
+    private Cache cache(final String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static BookCaches.GenrePageKey genrePage(final Genre genre, final int page) {
+        return BookCaches.genrePage(genre, PageRequest.of(page, 20));
+    }
+
+    private static BookCaches.TopRatedPageKey topRatedPage(final String minRating, final int minReviews) {
+        return BookCaches.topRatedPage(new BigDecimal(minRating), minReviews, PageRequest.of(0, 20));
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookreview.book;
+
+import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.dto.book.BookImportErrorDTO;
+import com.bookreview.dto.book.BookImportResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BookImportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private BookService bookService;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportService(bookService, bookRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(bookImportService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(bookImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(bookImportService, "maxReportedErrors", 10);
+    }
+
+    @Test
+    void importNdjson_ShouldWriteValidBooksInChunks_WhenSomeRecordsAreRejected() throws IOException {
+        // Given
+        when(bookRepository.findAllTitles()).thenReturn(List.of("Existing"));
+        String body = """
+                {"title":"One","author":"A","genres":["FICTION"],"publishedYear":2001}
+                {"title":"Existing","author":"A","genres":["FICTION"]}
+
+                {"title":"Two","author":"B","genres":["MYSTERY"]}
+                {"title":"One","author":"C","genres":["FICTION"]}
+                {"title":"No author","genres":["FICTION"]}
+                {"title":"Three","author":"C","genres":["HISTORY"]}
+                not json
+                """;
+
+        // When
+        BookImportResultDTO result = bookImportService.importNdjson(utf8(body));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookCreateDTO>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(bookService, times(2)).createBooks(chunks.capture());
+        assertEquals(List.of("One", "Two"), titles(chunks.getAllValues().get(0)));
+        assertEquals(List.of("Three"), titles(chunks.getAllValues().get(1)));
+        verify(entityManager, times(2)).clear();
+
+        assertEquals(7, result.getReceived());
+        assertEquals(3, result.getCreated());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getInvalid());
+        assertEquals(2, result.getChunks().size());
+        assertEquals(1, result.getChunks().get(0).getFirstLine());
+        assertEquals(4, result.getChunks().get(0).getLastLine());
+        assertTrue(result.getChunks().get(1).isCommitted());
+        assertEquals(List.of(2L, 5L, 6L, 8L), result.getErrors().stream().map(BookImportErrorDTO::getLine).toList());
+        assertEquals("Author is mandatory", result.getErrors().get(2).getMessage());
+    }
+
+    @Test
+    void importCsv_ShouldParseQuotedFieldsAndGenreLists() throws IOException {
+        // Given
+        when(bookRepository.findAllTitles()).thenReturn(List.of("Existing"));
+        String body = "title,author,genres,published_year\n"
+                + "\"Dune, Part One\",Frank Herbert,SCIENCE_FICTION|fiction,1965\n"
+                + "Bad,Someone,NOT_A_GENRE,2000\n";
+
+        // When
+        BookImportResultDTO result = bookImportService.importCsv(utf8(body));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookCreateDTO>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(bookService).createBooks(chunk.capture());
+        BookCreateDTO book = chunk.getValue().get(0);
+        assertEquals("Dune, Part One", book.getTitle());
+        assertEquals(Set.of(Genre.SCIENCE_FICTION, Genre.FICTION), book.getGenres());
+        assertEquals(1965, book.getPublishedYear());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getInvalid());
+        assertEquals("Unknown genre 'NOT_A_GENRE'", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void importCsv_ShouldThrowException_WhenHeaderHasNoTitle() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookImportService.importCsv(utf8("author,genres\nA,FICTION\n")));
+    }
+
+    @Test
+    void importNdjson_ShouldReportFailedChunkAndContinue_WhenWriteFails() throws IOException {
+        // Given
+        when(bookRepository.findAllTitles()).thenReturn(List.of());
+        when(bookService.createBooks(anyList()))
+                .thenThrow(new DataIntegrityViolationException("constraint"))
+                .thenReturn(List.of(3L));
+        String body = """
+                {"title":"One","author":"A","genres":["FICTION"]}
+                {"title":"Two","author":"A","genres":["FICTION"]}
+                {"title":"Three","author":"A","genres":["FICTION"]}
+                """;
+
+        // When
+        BookImportResultDTO result = bookImportService.importNdjson(utf8(body));
+
+        // Then
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertFalse(result.getChunks().get(0).isCommitted());
+        assertTrue(result.getChunks().get(1).isCommitted());
+        assertEquals(1, result.getErrors().size());
+        verify(entityManager, times(2)).clear();
+    }
+
+    private static List<String> titles(final List<BookCreateDTO> books) {
+        return books.stream().map(BookCreateDTO::getTitle).toList();
+    }
+
+    private static InputStream utf8(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package com.bookreview.book;
+
+import com.bookreview.cache.CacheInvalidationBus;
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.cache.InProcessInvalidationTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for BookListingVersion.
+ */
+class BookListingVersionTest {
+
+    private CacheInvalidationBus invalidationBus;
+    private BookListingVersion listingVersion;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = new CacheInvalidationBus(
+                new ConcurrentMapCacheManager(BookCaches.DETAILS, BookCaches.GENRE_PAGES, BookCaches.TOP_RATED_PAGES),
+                new InProcessInvalidationTransport());
+        listingVersion = new BookListingVersion(invalidationBus);
+    }
+
+    @Test
+    void current_ShouldBeKnown_BeforeAnyChange() {
+        // When & Then
+        assertTrue(listingVersion.current().isKnown());
+    }
+
+    @Test
+    void current_ShouldAdvance_OnlyWhenListingPagesAreEvicted() {
+        // Given
+        ContentVersion initial = listingVersion.current();
+
+        // When
+        invalidationBus.evict(BookCaches.DETAILS, 1L);
+        ContentVersion afterDetails = listingVersion.current();
+        invalidationBus.evict(BookCaches.GENRE_PAGES, Genre.MYSTERY.name());
+
+        // Then
+        assertEquals(initial, afterDetails);
+        assertNotEquals(initial.etag(), listingVersion.current().etag());
+        assertEquals(initial.count() + 1, listingVersion.current().count());
+    }
+}
@@ -1,32 +1,56 @@
 package com.bookreview.book;
 
+import com.bookreview.dto.SliceDTO;
 import com.bookreview.dto.book.BookDTO;
 import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.dto.book.BookFacetsDTO;
+import com.bookreview.dto.book.BookRatingSummaryDTO;
+import com.bookreview.dto.book.BookSearchDTO;
+import com.bookreview.dto.book.BookSearchPageDTO;
 import com.bookreview.dto.book.BookUpdateDTO;
+import com.bookreview.pagination.CountEstimator;
+import com.bookreview.search.BookFacetIndex;
+import com.bookreview.search.BookSearchIndex;
+import com.bookreview.search.BookSimilarityIndex;
+import com.bookreview.search.FieldQuery;
+import com.bookreview.search.SearchField;
+import com.bookreview.search.TopRatedIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +63,30 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private BookSimilarityIndex bookSimilarityIndex;
+
+    @Mock
+    private TopRatedIndex topRatedIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookRatingShardService bookRatingShardService;
+
+    @Mock
+    private WeightedRating weightedRating;
+
+    @Spy
+    private CountEstimator countEstimator = new CountEstimator();
+
     @InjectMocks
     private BookService bookService;
 
@@ -109,6 +157,7 @@ class BookServiceTest {
         assertNotNull(result);
         assertEquals("Test Book", result.getTitle());
         verify(bookRepository).save(any(Book.class));
+        verify(bookRatingShardService).createShards(1L);
     }
 
     @Test
@@ -184,6 +233,8 @@ class BookServiceTest {
 
         // Then
         verify(bookRepository).deleteById(1L);
+        verify(bookRatingShardService).deleteShards(1L);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
@@ -209,11 +260,146 @@ class BookServiceTest {
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    void searchBooks_ShouldUseIndexAndKeepRankOrder_WhenIndexIsReady() {
+        // Given
+        Book other = Book.builder().id(2L).title("Other Book").author("Someone").build();
+        when(bookSearchIndex.search(anyString(), anySet())).thenReturn(Optional.of(List.of(2L, 1L, 3L)));
+        when(bookRepository.findCardsByIdIn(List.of(2L, 1L))).thenReturn(List.of(card(book), card(other)));
+
+        // When
+        Page<BookDTO> result = bookService.searchBooks("book", PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        verify(bookRepository, never()).searchBooks(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchByTitleAndAuthor_ShouldSuggestCorrection_WhenNothingMatchesExactly() {
+        // Given
+        when(bookSearchIndex.searchFields(anyList(), eq(false))).thenReturn(Optional.of(List.of()));
+        when(bookSearchIndex.didYouMean(anyString(), anySet())).thenReturn(Optional.of("great gatsby"));
+
+        // When
+        Page<BookDTO> result = bookService.searchByTitleAndAuthor("great gatsbi", null, false, pageable);
+
+        // Then
+        assertEquals(0, result.getTotalElements());
+        assertTrue(result instanceof BookSearchPageDTO);
+        assertEquals(Map.of("title", "great gatsby"), ((BookSearchPageDTO) result).getDidYouMean());
+    }
+
+    @Test
+    void searchByTitleAndAuthor_ShouldReturnFuzzyMatches_WhenFuzzyEnabled() {
+        // Given
+        when(bookSearchIndex.searchFields(anyList(), eq(false))).thenReturn(Optional.of(List.of()));
+        when(bookSearchIndex.didYouMean(anyString(), anySet())).thenReturn(Optional.of("test book"));
+        when(bookSearchIndex.searchFields(anyList(), eq(true))).thenReturn(Optional.of(List.of(1L)));
+        when(bookRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(book)));
+
+        // When
+        Page<BookDTO> result = bookService.searchByTitleAndAuthor("tset book", null, true, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Test Book", result.getContent().get(0).getTitle());
+    }
+
+    @Test
+    void searchByTitleAndAuthor_ShouldQueryBothFieldsTogether_WhenBothGiven() {
+        // Given
+        List<FieldQuery> queries = List.of(new FieldQuery("gatsby", EnumSet.of(SearchField.TITLE)),
+                new FieldQuery("fitzgerald", EnumSet.of(SearchField.AUTHOR)));
+        when(bookSearchIndex.searchFields(queries, false)).thenReturn(Optional.of(List.of(1L)));
+        when(bookRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(book)));
+
+        // When
+        Page<BookDTO> result = bookService.searchByTitleAndAuthor("gatsby", "fitzgerald", false, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verify(bookSearchIndex, never()).search(anyString(), anySet());
+    }
+
+    @Test
+    void searchBooksAdvanced_ShouldUseCriteriaQuery_WhenNoTextCriteria() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .genres(Set.of(Genre.FICTION))
+                .minPublishedYear(2000)
+                .minRating(BigDecimal.valueOf(4))
+                .build();
+        when(bookRepository.findCardsByCriteria(criteria, pageable)).thenReturn(new PageImpl<>(List.of(card(book))));
+
+        // When
+        Page<BookDTO> result = bookService.searchBooksAdvanced(criteria, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void searchBooksAdvanced_ShouldFilterRankedHits_WhenTextAndFiltersGiven() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .search("test")
+                .genres(Set.of(Genre.FICTION))
+                .build();
+        when(bookSearchIndex.searchFields(anyList(), eq(false))).thenReturn(Optional.of(List.of(3L, 1L, 2L)));
+        when(bookRepository.filterIds(criteria, List.of(3L, 1L, 2L))).thenReturn(List.of(1L));
+        when(bookRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(book)));
+
+        // When
+        Page<BookDTO> result = bookService.searchBooksAdvanced(criteria, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals(1L, result.getContent().get(0).getId());
+        verify(bookRepository, never()).findCardsByCriteria(any(BookSearchDTO.class), any(Pageable.class));
+    }
+
+    @Test
+    void getBookFacets_ShouldCountWithinSearchHits_WhenSearchGiven() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .search("test")
+                .genres(Set.of(Genre.FICTION))
+                .build();
+        BookFacetsDTO facets = BookFacetsDTO.builder().total(1).build();
+        when(bookSearchIndex.searchFields(anyList(), eq(false))).thenReturn(Optional.of(List.of(3L, 1L)));
+        when(bookFacetIndex.facets(criteria, List.of(3L, 1L))).thenReturn(Optional.of(facets));
+
+        // When
+        Optional<BookFacetsDTO> result = bookService.getBookFacets(criteria);
+
+        // Then
+        assertEquals(Optional.of(facets), result);
+    }
+
+    @Test
+    void getBookFacets_ShouldBeEmpty_WhenSearchIndexUnavailable() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .search("test")
+                .build();
+
+        // When
+        Optional<BookFacetsDTO> result = bookService.getBookFacets(criteria);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(bookFacetIndex, never()).facets(any(BookSearchDTO.class), any());
+    }
+
     @Test
     void getBooksByGenre_ShouldReturnPageOfBooks() {
         // Given
-        Page<Book> expectedPage = new PageImpl<>(List.of(book));
-        when(bookRepository.findByGenre(Genre.FICTION, pageable)).thenReturn(expectedPage);
+        Page<BookCardView> expectedPage = new PageImpl<>(List.of(card(book)));
+        when(bookRepository.findCardsByGenre(Genre.FICTION, pageable)).thenReturn(expectedPage);
 
         // When
         Page<BookDTO> result = bookService.getBooksByGenre(Genre.FICTION, pageable);
@@ -225,15 +411,180 @@ class BookServiceTest {
     }
 
     @Test
-    void updateBookRating_ShouldUpdateRating_WhenBookExists() {
+    void getBooksByGenreSlice_ShouldNotCount_WhenNoEstimateRequested() {
+        // Given
+        when(bookRepository.findSliceByGenre(Genre.FICTION, pageable))
+                .thenReturn(new SliceImpl<>(List.of(card(book)), pageable, true));
+
+        // When
+        SliceDTO<BookDTO> result = bookService.getBooksByGenreSlice(Genre.FICTION, pageable, false);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNull(result.getEstimatedTotal());
+        verify(bookRepository, never()).countByGenre(any(Genre.class));
+    }
+
+    @Test
+    void getBooksByGenreSlice_ShouldReportExactTotal_OnLastPage() {
         // Given
+        Pageable secondPage = PageRequest.of(1, 20);
+        when(bookRepository.findSliceByGenre(eq(Genre.FICTION), eq(secondPage)))
+                .thenReturn(new SliceImpl<>(List.of(card(book)), secondPage, false));
+
+        // When
+        SliceDTO<BookDTO> result = bookService.getBooksByGenreSlice(Genre.FICTION, secondPage, true);
+
+        // Then
+        assertFalse(result.isHasNext());
+        assertEquals(21L, result.getEstimatedTotal());
+        verify(bookRepository, never()).countByGenre(any(Genre.class));
+    }
+
+    @Test
+    void getTopRatedBooks_ShouldServeRankingFromIndex_WhenIndexIsReady() {
+        // Given
+        BigDecimal minRating = new BigDecimal("4.0");
+        Book other = Book.builder().id(2L).title("Other Book").author("Someone").build();
+        when(topRatedIndex.top(minRating, 5, 2)).thenReturn(Optional.of(List.of(2L, 1L)));
+        when(topRatedIndex.count(minRating, 5)).thenReturn(Optional.of(7L));
+        when(bookRepository.findCardsByIdIn(List.of(2L, 1L))).thenReturn(List.of(card(book), card(other)));
+
+        // When
+        Page<BookDTO> result = bookService.getTopRatedBooks(minRating, 5, PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(7, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        verify(bookRepository, never()).findTopRatedBookCards(any(BigDecimal.class), eq(5), any(Pageable.class));
+    }
+
+    @Test
+    void getTopRatedBooks_ShouldQueryDatabase_WhenSortIsRequested() {
+        // Given
+        BigDecimal minRating = new BigDecimal("4.0");
+        Pageable byTitle = PageRequest.of(0, 20, Sort.by("title"));
+        when(bookRepository.findTopRatedBookCards(minRating, 5, byTitle))
+                .thenReturn(new PageImpl<>(List.of(card(book)), byTitle, 1));
+
+        // When
+        Page<BookDTO> result = bookService.getTopRatedBooks(minRating, 5, byTitle);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verify(topRatedIndex, never()).top(any(BigDecimal.class), eq(5), eq(20));
+    }
+
+    @Test
+    void getTopRatedBooksSlice_ShouldReportNextPage_WhenIndexRanksMoreBooks() {
+        // Given
+        BigDecimal minRating = new BigDecimal("4.0");
+        when(topRatedIndex.top(minRating, 5, 2)).thenReturn(Optional.of(List.of(1L, 2L)));
+        when(bookRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(book)));
+
+        // When
+        SliceDTO<BookDTO> result = bookService.getTopRatedBooksSlice(minRating, 5, PageRequest.of(0, 1), false);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        verify(bookRepository, never()).findSliceOfTopRatedBooks(any(BigDecimal.class), eq(5), any(Pageable.class));
+    }
+
+    @Test
+    void getRatingSummary_ShouldAddUnfoldedShardsToBookCounters() {
+        // Given
+        book.setTotalReviews(3);
+        book.setRatingSum(14L);
+        book.setFourStarCount(1);
+        book.setFiveStarCount(2);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRatingShardService.pending(1L)).thenReturn(RatingDelta.of(1, null));
+
+        // When
+        Optional<BookRatingSummaryDTO> result = bookService.getRatingSummary(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(4, result.get().getTotalReviews());
+        assertEquals(new BigDecimal("3.75"), result.get().getAverageRating());
+        assertEquals(Map.of(1, 1, 2, 0, 3, 0, 4, 1, 5, 2), result.get().getRatingCounts());
+    }
+
+    @Test
+    void getSimilarBooks_ShouldServeNeighboursFromIndex_WhenIndexIsReady() {
+        // Given
+        Book other = Book.builder().id(2L).title("Other Book").author("Someone").build();
+        Book third = Book.builder().id(3L).title("Third Book").author("Someone").build();
+        when(bookSimilarityIndex.similar(1L, 2)).thenReturn(Optional.of(List.of(3L, 2L)));
+        when(bookRepository.findCardsByIdIn(List.of(3L, 2L))).thenReturn(List.of(card(other), card(third)));
+
+        // When
+        Optional<List<BookDTO>> result = bookService.getSimilarBooks(1L, 2);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(List.of(3L, 2L), result.get().stream().map(BookDTO::getId).toList());
+        verify(bookRepository, never()).findById(1L);
+    }
+
+    @Test
+    void getSimilarBooks_ShouldFallBackToSharedGenres_WhenIndexIsNotReady() {
+        // Given
+        Book other = Book.builder().id(2L).title("Other Book").author("Someone").genres(Set.of(Genre.FICTION)).build();
+        when(bookSimilarityIndex.similar(1L, 50)).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findSliceByAnyGenre(eq(GenreSetConverter.bit(Genre.FICTION)), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(card(book), card(other))));
+
+        // When
+        Optional<List<BookDTO>> result = bookService.getSimilarBooks(1L, 500);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(List.of(2L), result.get().stream().map(BookDTO::getId).toList());
+    }
+
+    @Test
+    void getSimilarBooks_ShouldReturnEmpty_WhenBookDoesNotExist() {
+        // Given
+        when(bookSimilarityIndex.similar(99L, 10)).thenReturn(Optional.empty());
+        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertTrue(bookService.getSimilarBooks(99L, 10).isEmpty());
+    }
+
+    @Test
+    void updateBookRating_ShouldRecalculateRating_WhenBookExists() {
+        // Given
+        when(bookRepository.recalculateRating(1L, weightedRating)).thenReturn(1);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
 
         // When
         bookService.updateBookRating(1L);
 
         // Then
-        verify(bookRepository).save(any(Book.class));
+        verify(bookRatingShardService).discardPending(1L);
+        verify(bookRepository).recalculateRating(1L, weightedRating);
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void updateBookRating_ShouldThrowException_WhenBookNotFound() {
+        // Given
+        when(bookRepository.recalculateRating(999L, weightedRating)).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bookService.updateBookRating(999L));
+        verify(eventPublisher, never()).publishEvent(any(BookChangedEvent.class));
+    }
+
+    private static BookCardView card(final Book book) {
+        return new BookCardView(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                book.getCoverImageUrl(), book.getGenres(), book.getPublishedYear(), book.getAverageRating(),
+                book.getTotalReviews(), book.getCreatedAt(), book.getUpdatedAt());
     }
 }
@@ -0,0 +1,45 @@
+package com.bookreview.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for GenreSetConverter.
+ */
+class GenreSetConverterTest {
+
+    private final GenreSetConverter converter = new GenreSetConverter();
+
+    @Test
+    void convert_ShouldRoundTripEveryGenre() {
+        // Given
+        Set<Genre> genres = EnumSet.allOf(Genre.class);
+
+        // When
+        Long mask = converter.convertToDatabaseColumn(genres);
+
+        // Then
+        assertEquals((1L << Genre.values().length) - 1, mask);
+        assertEquals(genres, converter.convertToEntityAttribute(mask));
+    }
+
+    @Test
+    void convert_ShouldUseDeclarationOrderBits() {
+        // When & Then
+        assertEquals(1L, converter.convertToDatabaseColumn(Set.of(Genre.FICTION)));
+        assertEquals(16384L + 4L, converter.convertToDatabaseColumn(Set.of(Genre.CHILDREN, Genre.MYSTERY)));
+        assertEquals(Set.of(Genre.ROMANCE), converter.convertToEntityAttribute(8L));
+    }
+
+    @Test
+    void convert_ShouldTreatMissingValuesAsEmpty() {
+        // When & Then
+        assertEquals(0L, converter.convertToDatabaseColumn(null));
+        assertTrue(converter.convertToEntityAttribute(null).isEmpty());
+    }
+}
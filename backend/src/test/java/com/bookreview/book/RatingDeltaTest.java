@@ -0,0 +1,31 @@
+package com.bookreview.book;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for RatingDelta.
+ */
+class RatingDeltaTest {
+
+    @Test
+    void of_ShouldMoveReviewBetweenStars_WhenRatingChanges() {
+        // When
+        RatingDelta delta = RatingDelta.of(4, 2);
+
+        // Then
+        assertEquals(new RatingDelta(2, 0, 0, -1, 0, 1, 0), delta);
+    }
+
+    @Test
+    void plus_ShouldCancelOut_WhenReviewIsAddedAndRemoved() {
+        // When
+        RatingDelta delta = RatingDelta.of(5, null).plus(RatingDelta.of(null, 5));
+
+        // Then
+        assertTrue(delta.isZero());
+        assertEquals(new RatingDelta(3, 1, 0, 0, 1, 0, 0), RatingDelta.ZERO.plus(RatingDelta.of(3, null)));
+    }
+}
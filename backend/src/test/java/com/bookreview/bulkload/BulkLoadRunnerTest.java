@@ -0,0 +1,162 @@
+package com.bookreview.bulkload;
+
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.BookService;
+import com.bookreview.book.BookTitleView;
+import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.review.ImportedReview;
+import com.bookreview.review.ReviewKey;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.review.ReviewService;
+import com.bookreview.user.UserEmailView;
+import com.bookreview.user.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BulkLoadRunner.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkLoadRunnerTest {
+
+    @Mock
+    private BookService bookService;
+    @Mock
+    private ReviewService reviewService;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ConfigurableApplicationContext context;
+
+    @TempDir
+    private Path dir;
+
+    private BulkLoadRunner bulkLoadRunner;
+
+    @BeforeEach
+    void setUp() {
+        bulkLoadRunner = new BulkLoadRunner(bookService, reviewService, bookRepository, reviewRepository,
+                userRepository, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                context);
+        ReflectionTestUtils.setField(bulkLoadRunner, "threads", 2);
+        ReflectionTestUtils.setField(bulkLoadRunner, "blockSize", 2);
+        ReflectionTestUtils.setField(bulkLoadRunner, "recalculateBatchSize", 10);
+        ReflectionTestUtils.setField(bulkLoadRunner, "progressIntervalMs", 0L);
+    }
+
+    @Test
+    void loadBooks_ShouldWriteValidBooksInBlocks_WhenDumpIsGzipped() throws Exception {
+        // Given
+        when(bookRepository.findAllTitles()).thenReturn(List.of("Existing"));
+        Path dump = dir.resolve("books.ndjson.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dump))) {
+            out.write(String.join("\n",
+                    "{\"title\":\"One\",\"author\":\"A\",\"genres\":[\"FICTION\"]}",
+                    "{\"title\":\"Existing\",\"author\":\"A\",\"genres\":[\"FICTION\"]}",
+                    "",
+                    "{\"title\":\"Two\",\"author\":\"B\",\"genres\":[\"MYSTERY\"]}",
+                    "{\"title\":\"No genres\",\"author\":\"B\"}",
+                    "not json").getBytes(StandardCharsets.UTF_8));
+        }
+
+        // When
+        long failed = bulkLoadRunner.loadBooks(dump);
+
+        // Then
+        assertEquals(0, failed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookCreateDTO>> blocks = ArgumentCaptor.forClass(List.class);
+        verify(bookService, times(2)).createBooks(blocks.capture());
+        assertEquals(List.of("One", "Two"), blocks.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(BookCreateDTO::getTitle)
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void loadReviews_ShouldResolveBooksAndUsersAndSkipRepeatReviews() throws Exception {
+        // Given
+        when(bookRepository.findAllTitleViews()).thenReturn(List.of(new BookTitleView(1L, "Dune")));
+        when(userRepository.findAllEmailViews()).thenReturn(List.of(new UserEmailView(7L, "ada@example.com"),
+                new UserEmailView(8L, "bob@example.com")));
+        when(reviewRepository.findAllKeys()).thenReturn(List.of(new ReviewKey(1L, 8L)));
+        Path dump = write("reviews.ndjson",
+                "{\"bookTitle\":\"Dune\",\"userEmail\":\"ada@example.com\",\"rating\":5,\"text\":\"Great\"}",
+                "{\"bookTitle\":\"Dune\",\"userEmail\":\"ada@example.com\",\"rating\":4,\"text\":\"Again\"}",
+                "{\"bookTitle\":\"Dune\",\"userEmail\":\"bob@example.com\",\"rating\":4,\"text\":\"Old\"}",
+                "{\"bookTitle\":\"Emma\",\"userEmail\":\"ada@example.com\",\"rating\":4,\"text\":\"Unknown\"}",
+                "{\"bookTitle\":\"Dune\",\"userEmail\":\"eve@example.com\",\"rating\":4,\"text\":\"Unknown\"}",
+                "{\"bookTitle\":\"Dune\",\"userEmail\":\"ada@example.com\",\"rating\":9,\"text\":\"Bad\"}");
+
+        // When
+        long failed = bulkLoadRunner.loadReviews(dump);
+
+        // Then
+        assertEquals(0, failed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ImportedReview>> reviews = ArgumentCaptor.forClass(List.class);
+        verify(reviewService).createReviews(reviews.capture());
+        assertEquals(List.of(new ImportedReview(1L, 7L, 5, "Great")), reviews.getValue());
+    }
+
+    @Test
+    void loadBooks_ShouldCountFailedBlocks_WhenWriteFails() throws Exception {
+        // Given
+        when(bookRepository.findAllTitles()).thenReturn(List.of());
+        when(bookService.createBooks(anyList())).thenThrow(new IllegalStateException("database down"));
+        Path dump = write("books.ndjson", "{\"title\":\"One\",\"author\":\"A\",\"genres\":[\"FICTION\"]}");
+
+        // When
+        long failed = bulkLoadRunner.loadBooks(dump);
+
+        // Then
+        assertEquals(1, failed);
+    }
+
+    @Test
+    void recalculateRatings_ShouldCoverEveryBookIdRange() throws Exception {
+        // Given
+        when(bookRepository.findMaxId()).thenReturn(25L);
+
+        // When
+        long failed = bulkLoadRunner.recalculateRatings();
+
+        // Then
+        assertEquals(0, failed);
+        verify(bookService).recalculateRatings(1L, 10L);
+        verify(bookService).recalculateRatings(11L, 20L);
+        verify(bookService).recalculateRatings(21L, 25L);
+    }
+
+    private Path write(final String name, final String... lines) throws IOException {
+        return Files.write(dir.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+}
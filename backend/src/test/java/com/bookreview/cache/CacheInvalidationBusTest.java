@@ -0,0 +1,151 @@
+package com.bookreview.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for CacheInvalidationBus.
+ */
+class CacheInvalidationBusTest {
+
+    private ConcurrentMapCacheManager localCaches;
+    private ConcurrentMapCacheManager remoteCaches;
+    private CacheInvalidationBus localBus;
+    private CacheInvalidationBus remoteBus;
+
+    @BeforeEach
+    void setUp() {
+        localCaches = new ConcurrentMapCacheManager("books", "pages");
+        remoteCaches = new ConcurrentMapCacheManager("books", "pages");
+        localBus = new CacheInvalidationBus(localCaches, new InProcessInvalidationTransport());
+        remoteBus = new CacheInvalidationBus(remoteCaches, new InProcessInvalidationTransport());
+
+        for (ConcurrentMapCacheManager caches : new ConcurrentMapCacheManager[] {localCaches, remoteCaches}) {
+            caches.getCache("books").put(1L, "book 1");
+            caches.getCache("books").put(2L, "book 2");
+            caches.getCache("pages").put("MYSTERY:0", "mystery 0");
+            caches.getCache("pages").put("FANTASY:0", "fantasy 0");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evict_ShouldEvictKeyOnEveryNode_WhenOtherNodePolls() {
+        // When
+        localBus.evict("books", 1L);
+
+        // Then
+        assertNull(cache(localCaches, "books").get(1L));
+        assertNotNull(cache(remoteCaches, "books").get(1L));
+
+        assertEquals(1, remoteBus.poll());
+        assertNull(cache(remoteCaches, "books").get(1L));
+        assertNotNull(cache(remoteCaches, "books").get(2L));
+        assertEquals(0, localBus.poll());
+    }
+
+    @Test
+    void evict_ShouldMatchKeysWithRegisteredMatcher_WhenOneIsRegistered() {
+        // Given
+        localBus.registerMatcher("pages", String.class, (cachedKey, genre) -> cachedKey.startsWith(genre + ":"));
+        remoteBus.registerMatcher("pages", String.class, (cachedKey, genre) -> cachedKey.startsWith(genre + ":"));
+
+        // When
+        localBus.evict("pages", "MYSTERY");
+        remoteBus.poll();
+
+        // Then
+        assertNull(cache(remoteCaches, "pages").get("MYSTERY:0"));
+        assertNotNull(cache(remoteCaches, "pages").get("FANTASY:0"));
+    }
+
+    @Test
+    void clear_ShouldClearRegionOnEveryNode() {
+        // When
+        localBus.clear("pages");
+        remoteBus.poll();
+
+        // Then
+        assertNull(cache(localCaches, "pages").get("FANTASY:0"));
+        assertNull(cache(remoteCaches, "pages").get("FANTASY:0"));
+        assertNotNull(cache(remoteCaches, "books").get(1L));
+    }
+
+    @Test
+    void onApplied_ShouldRunOncePerBatch_AfterInvalidationsOfItsCachesAreApplied() {
+        // Given
+        AtomicInteger localRuns = new AtomicInteger();
+        AtomicInteger remoteRuns = new AtomicInteger();
+        localBus.onApplied(() -> {
+            assertNull(cache(localCaches, "pages").get("FANTASY:0"));
+            localRuns.incrementAndGet();
+        }, "pages");
+        remoteBus.onApplied(remoteRuns::incrementAndGet, "pages");
+
+        // When
+        localBus.evict("books", 1L);
+        TransactionSynchronizationManager.initSynchronization();
+        localBus.evict("pages", "FANTASY:0");
+        localBus.evict("pages", "MYSTERY:0");
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        remoteBus.poll();
+
+        // Then
+        assertEquals(1, localRuns.get());
+        assertEquals(1, remoteRuns.get());
+    }
+
+    @Test
+    void evict_ShouldWaitForCommit_WhenTransactionIsActive() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        localBus.evict("books", 1L);
+
+        // Then
+        assertNotNull(cache(localCaches, "books").get(1L));
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        assertNull(cache(localCaches, "books").get(1L));
+        assertEquals(1, remoteBus.poll());
+    }
+
+    @Test
+    void evict_ShouldDropInvalidations_WhenTransactionRollsBack() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        localBus.evict("books", 1L);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertNotNull(cache(localCaches, "books").get(1L));
+        assertEquals(0, remoteBus.poll());
+    }
+
+    private static Cache cache(final ConcurrentMapCacheManager caches, final String name) {
+        return caches.getCache(name);
+    }
+}
@@ -0,0 +1,157 @@
+package com.bookreview.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for HttpCaching.
+ */
+class HttpCachingTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+
+    private MockHttpServletRequest request;
+    private HttpCaching httpCaching;
+    private ContentVersion version;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/books/1");
+        httpCaching = new HttpCaching(request);
+        ReflectionTestUtils.setField(httpCaching, "maxAgeSeconds", 0L);
+        ReflectionTestUtils.setField(httpCaching, "sharedMaxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(httpCaching, "unpurgedSharedMaxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(httpCaching, "purgeUrl", "https://cdn.example.com/purge");
+        ReflectionTestUtils.setField(httpCaching, "surrogateKeyHeader", "Surrogate-Key");
+        version = new ContentVersion(3, UPDATED_AT);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void respond_ShouldReturnNotModifiedWithoutLoading_WhenETagMatches() {
+        // Given
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + version.etag());
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(version, this::load, "books");
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(0, loads.get());
+        assertEquals(version.etag(), response.getHeaders().getETag());
+        assertEquals("max-age=0, public, s-maxage=300", response.getHeaders().getCacheControl());
+        assertEquals("books", response.getHeaders().getFirst("Surrogate-Key"));
+    }
+
+    @Test
+    void respond_ShouldLoadAndStampValidators_WhenETagIsStale() {
+        // Given
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, new ContentVersion(2, UPDATED_AT).etag());
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(version, this::load, "book-1", "books");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("body", response.getBody());
+        assertEquals(1, loads.get());
+        assertEquals("\"3-" + epochMicros() + "\"", version.etag());
+        assertEquals(version.etag(), response.getHeaders().getETag());
+        assertEquals(version.lastModifiedInstant().toEpochMilli() / 1000 * 1000,
+                response.getHeaders().getLastModified());
+        assertEquals("book-1 books", response.getHeaders().getFirst("Surrogate-Key"));
+    }
+
+    @Test
+    void respond_ShouldReturnNotModified_WhenNotModifiedSince() {
+        // Given
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(UPDATED_AT.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)));
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(version, this::load);
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void respond_ShouldStampServedVersion_WhenBodyIsOlderThanCurrentVersion() {
+        // Given
+        ContentVersion cached = new ContentVersion(3, UPDATED_AT.minusMinutes(1));
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(version, this::load, body -> cached);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cached.etag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void respond_ShouldSendNoValidators_WhenVersionIsUnknown() {
+        // Given
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(null, this::load, "books");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, loads.get());
+        assertNull(response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals("books", response.getHeaders().getFirst("Surrogate-Key"));
+    }
+
+    @Test
+    void respond_ShouldLimitSharedMaxAge_WhenNoPurgeUrlIsConfigured() {
+        // Given
+        ReflectionTestUtils.setField(httpCaching, "sharedMaxAgeSeconds", 86400L);
+        ReflectionTestUtils.setField(httpCaching, "purgeUrl", "");
+
+        // When
+        ResponseEntity<String> response = httpCaching.respond(version, this::load, "books");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(version.etag(), response.getHeaders().getETag());
+        assertEquals("max-age=0, public, s-maxage=60", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void respond_ShouldPassThroughErrors() {
+        // When
+        ResponseEntity<String> response = httpCaching.respond(new ContentVersion(0, null),
+                () -> ResponseEntity.notFound().build(), "book-1");
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getHeaders().getCacheControl());
+    }
+
+    private ResponseEntity<String> load() {
+        loads.incrementAndGet();
+        return ResponseEntity.ok("body");
+    }
+
+    private static String epochMicros() {
+        return String.valueOf(UPDATED_AT.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() * 1000 + 456);
+    }
+}
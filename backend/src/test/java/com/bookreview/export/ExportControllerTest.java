@@ -0,0 +1,95 @@
+package com.bookreview.export;
+
+import com.bookreview.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for ExportController.
+ */
+@SpringJUnitConfig(ExportControllerTest.SecuredController.class)
+class ExportControllerTest {
+
+    @Autowired
+    private ExportController securedController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(securedController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @WithAnonymousUser
+    void exportBooks_ShouldRequireAuthentication_WhenCallerIsAnonymous() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/export/books")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/export/reviews")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportBooks_ShouldBeForbidden_WhenCallerIsNotAdmin() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/export/books")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/export/reviews")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportBooks_ShouldRejectExportsBeyondLimit_UntilRunningOneFinishes() throws Exception {
+        // Given
+        ExportController controller = new ExportController(mock(ExportService.class));
+        ReflectionTestUtils.setField(controller, "maxConcurrent", 1);
+
+        // When
+        ResponseEntity<StreamingResponseBody> first = controller.exportBooks(null, null);
+        ResponseEntity<StreamingResponseBody> second = controller.exportReviews(null, "gzip");
+        first.getBody().writeTo(new ByteArrayOutputStream());
+        ResponseEntity<StreamingResponseBody> third = controller.exportReviews(null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getStatusCode());
+        assertEquals("60", second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK, third.getStatusCode());
+    }
+
+    /**
+     * The controller behind method security, with the export service mocked out.
+     */
+    @Configuration
+    @EnableMethodSecurity
+    static class SecuredController {
+
+        @Bean
+        ExportController exportController() {
+            ExportController controller = new ExportController(mock(ExportService.class));
+            ReflectionTestUtils.setField(controller, "maxConcurrent", 2);
+            return controller;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bookreview.export;
+
+import com.bookreview.book.BookCardView;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.review.ReviewListView;
+import com.bookreview.review.ReviewRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    private ObjectMapper objectMapper;
+    private ExportService exportService;
+    private ByteArrayOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(bookRepository, reviewRepository, objectMapper);
+        out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    void exportBooks_ShouldWriteOneLinePerBookAndCloseCursor() throws IOException {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamCardsUpdatedSince(UPDATED_AT))
+                .thenReturn(Stream.of(book(1L, "Dune"), book(2L, "Emma")).onClose(() -> closed.set(true)));
+
+        // When
+        long count = exportService.exportBooks(UPDATED_AT, out);
+
+        // Then
+        assertEquals(2, count);
+        assertTrue(closed.get());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("Dune", first.get("title").asText());
+        assertEquals("FICTION", first.get("genres").get(0).asText());
+        assertEquals("2024-01-15T10:30:00", first.get("updatedAt").asText());
+        assertEquals("Emma", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    void exportReviews_ShouldWriteReviewFields() throws IOException {
+        // Given
+        when(reviewRepository.streamListViewsUpdatedSince(null)).thenReturn(Stream.of(
+                new ReviewListView(5L, 1L, "Dune", 7L, "Ada", "Lovelace", 4, "Great", UPDATED_AT, UPDATED_AT)));
+
+        // When
+        long count = exportService.exportReviews(null, out);
+
+        // Then
+        assertEquals(1, count);
+        JsonNode review = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+        assertEquals(5, review.get("id").asLong());
+        assertEquals(1, review.get("bookId").asLong());
+        assertEquals("Lovelace", review.get("userLastName").asText());
+        assertEquals(4, review.get("rating").asInt());
+    }
+
+    @Test
+    void exportBooks_ShouldWriteNothing_WhenNoBooksChanged() throws IOException {
+        // Given
+        when(bookRepository.streamCardsUpdatedSince(UPDATED_AT)).thenReturn(Stream.empty());
+
+        // When
+        long count = exportService.exportBooks(UPDATED_AT, out);
+
+        // Then
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void exportBooks_ShouldCloseCursor_WhenWritingFails() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamCardsUpdatedSince(null))
+                .thenReturn(Stream.of(book(1L, "Dune")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream broken = new ByteArrayOutputStream() {
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                throw new IllegalStateException("client went away");
+            }
+        };
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> exportService.exportBooks(null, broken));
+        assertTrue(closed.get());
+    }
+
+    private static BookCardView book(final Long id, final String title) {
+        return new BookCardView(id, title, "Author", "Description", null, Set.of(Genre.FICTION), 2000,
+                new BigDecimal("4.50"), 2, UPDATED_AT, UPDATED_AT);
+    }
+}
@@ -0,0 +1,206 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.book.BookSearchDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the advanced search Criteria query: statement count and plan per filter combination.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.bookreview.integration.BookCriteriaQueryIntegrationTest$SqlCaptor"
+})
+@ActiveProfiles("test")
+@Tag("integration")
+class BookCriteriaQueryIntegrationTest {
+
+    private static final int BOOK_COUNT = 200;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        IntStream.range(0, BOOK_COUNT).forEach(i -> books.add(Book.builder()
+                .title("Book " + i)
+                .author("Author " + (i % 10))
+                .publishedYear(1900 + i % 120)
+                .averageRating(BigDecimal.valueOf(i % 50, 1))
+                .totalReviews(i % 30)
+                .genres(Set.of(Genre.values()[i % Genre.values().length]))
+                .build()));
+        bookRepository.saveAll(books);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlCaptor.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void findByCriteria_ShouldFilterGenresOnBitmaskWithoutJoins() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .genres(Set.of(Genre.values()[0], Genre.values()[1]))
+                .build();
+
+        // When
+        Page<Book> result = bookRepository.findByCriteria(criteria, PageRequest.of(0, 5));
+
+        // Then
+        long expected = IntStream.range(0, BOOK_COUNT).filter(i -> i % Genre.values().length < 2).count();
+        assertEquals(expected, result.getTotalElements());
+        assertEquals(2, statistics.getQueryExecutionCount());
+        String select = SqlCaptor.STATEMENTS.get(0).toLowerCase();
+        assertFalse(select.contains("join"));
+        assertFalse(select.contains("exists"));
+        assertFalse(select.contains("distinct"));
+        assertTrue(result.getContent().stream().allMatch(book -> book.getGenres().size() == 1));
+    }
+
+    @Test
+    void findByGenre_ShouldLoadGenresWithoutExtraSelects() {
+        // When
+        Page<Book> result = bookRepository.findByGenre(Genre.values()[0], PageRequest.of(0, 5));
+
+        // Then
+        assertEquals(5, result.getContent().size());
+        assertTrue(result.getContent().stream().allMatch(book -> book.getGenres().contains(Genre.values()[0])));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void findByCriteria_ShouldSkipCount_WhenFirstPageIsNotFull() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .publishedYear(1900)
+                .build();
+
+        // When
+        Page<Book> result = bookRepository.findByCriteria(criteria, PageRequest.of(0, 20));
+
+        // Then
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void findByCriteria_ShouldRunCountWithoutOrderBy_WhenPageIsFull() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .minRating(BigDecimal.valueOf(2))
+                .minReviews(10)
+                .build();
+
+        // When
+        Page<Book> result = bookRepository.findByCriteria(criteria, PageRequest.of(0, 5, Sort.by("title")));
+
+        // Then
+        assertEquals(5, result.getContent().size());
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertTrue(SqlCaptor.STATEMENTS.get(0).toLowerCase().contains("order by"));
+        String count = SqlCaptor.STATEMENTS.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.contains("count("))
+                .findFirst()
+                .orElseThrow();
+        assertFalse(count.contains("order by"));
+    }
+
+    @Test
+    void findByCriteria_ShouldUsePublishedYearIndex_ForYearRange() {
+        // Given
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .minPublishedYear(1990)
+                .maxPublishedYear(1995)
+                .build();
+
+        // When
+        Page<Book> result = bookRepository.findByCriteria(criteria, PageRequest.of(0, 50));
+
+        // Then
+        assertEquals(6, result.getTotalElements());
+        String plan = explain(SqlCaptor.STATEMENTS.get(0));
+        assertTrue(plan.toUpperCase().contains("IDX_BOOKS_PUBLISHED_YEAR"), plan);
+    }
+
+    @Test
+    void filterIds_ShouldKeepCandidateOrder() {
+        // Given
+        List<Long> ids = bookRepository.findAll().stream().map(Book::getId).toList();
+        List<Long> candidates = List.of(ids.get(120), ids.get(0), ids.get(100), ids.get(20));
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .minPublishedYear(1900)
+                .maxPublishedYear(1900)
+                .build();
+        statistics.clear();
+
+        // When
+        List<Long> result = bookRepository.filterIds(criteria, candidates);
+
+        // Then
+        assertEquals(List.of(ids.get(120), ids.get(0)), result);
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    private String explain(final String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql.replace("?", "NULL"), String.class);
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class SqlCaptor implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(final String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.BookService;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.book.BookDTO;
+import com.bookreview.dto.book.BookSearchDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for cursor pagination of books.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookKeysetPaginationIntegrationTest {
+
+    private static final int BOOK_COUNT = 45;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @BeforeEach
+    void setUp() {
+        // Ratings repeat, so the ID tie-breaker decides the order within each rating
+        bookRepository.saveAll(IntStream.range(0, BOOK_COUNT).mapToObj(i -> Book.builder()
+                .title("Keyset Book " + i)
+                .author("Author")
+                .genres(Set.of(i % 2 == 0 ? Genre.FICTION : Genre.HISTORY))
+                .averageRating(BigDecimal.valueOf(i % 5))
+                .build()).toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void scrollBooks_ShouldVisitEveryBookOnceInSortOrder() {
+        // Given
+        Sort sort = Sort.by(Sort.Direction.DESC, "averageRating");
+        List<Long> expected = bookRepository.findAll().stream()
+                .sorted(Comparator.comparing(Book::getAverageRating).thenComparing(Book::getId).reversed())
+                .map(Book::getId)
+                .toList();
+
+        // When
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            CursorPageDTO<BookDTO> page = bookService.scrollBooks(new BookSearchDTO(), cursor, sort, 10);
+            page.getContent().forEach(book -> visited.add(book.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        }
+
+        // Then
+        assertEquals(expected, visited);
+        assertEquals((expected.size() + 9) / 10, pages);
+    }
+
+    @Test
+    void scrollBooks_ShouldReturnToPreviousPage() {
+        // Given
+        Sort sort = Sort.by("title");
+        BookSearchDTO criteria = BookSearchDTO.builder().genres(Set.of(Genre.FICTION)).build();
+        CursorPageDTO<BookDTO> first = bookService.scrollBooks(criteria, "", sort, 10);
+        CursorPageDTO<BookDTO> second = bookService.scrollBooks(criteria, first.getNextCursor(), sort, 10);
+
+        // When
+        CursorPageDTO<BookDTO> back = bookService.scrollBooks(criteria, second.getPreviousCursor(), sort, 10);
+
+        // Then
+        assertNull(first.getPreviousCursor());
+        assertEquals(first.getContent(), back.getContent());
+        assertNull(back.getPreviousCursor());
+        assertEquals(second.getContent(), bookService.scrollBooks(criteria, back.getNextCursor(), sort, 10).getContent());
+    }
+
+    @Test
+    void scrollBooks_ShouldNotShiftPages_WhenBooksAreAddedBeforeTheCursor() {
+        // Given
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        CursorPageDTO<BookDTO> first = bookService.scrollBooks(new BookSearchDTO(), "", sort, 10);
+        bookRepository.save(Book.builder().title("Newest").author("Author").genres(Set.of(Genre.FICTION)).build());
+
+        // When
+        CursorPageDTO<BookDTO> second = bookService.scrollBooks(new BookSearchDTO(), first.getNextCursor(), sort, 10);
+
+        // Then
+        assertEquals(10, second.getContent().size());
+        assertEquals(0, second.getContent().stream().filter(book -> first.getContent().contains(book)).count());
+        assertEquals(0, second.getContent().stream().filter(book -> "Newest".equals(book.getTitle())).count());
+    }
+
+    @Test
+    void scrollBooks_ShouldRejectCursorFromAnotherSort() {
+        // Given
+        String cursor = bookService.scrollBooks(new BookSearchDTO(), "", Sort.by("title"), 10).getNextCursor();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.scrollBooks(new BookSearchDTO(), cursor, Sort.by("averageRating"), 10));
+    }
+}
@@ -0,0 +1,146 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookCardView;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares listing a page of books as managed entities against selecting card projections.
+ * Timings and allocations are logged for comparison; only the entity load counts are asserted.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BookListingProjectionBenchmarkIntegrationTest {
+
+    private static final int BOOK_COUNT = 200;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Book> books = new ArrayList<>();
+    private final Pageable pageable = PageRequest.of(0, 50, Sort.by("title"));
+
+    @BeforeEach
+    void setUp() {
+        IntStream.range(0, BOOK_COUNT).forEach(i -> books.add(Book.builder()
+                .title("Projection Book " + i)
+                .author("Author " + i)
+                .description("Description of projection book " + i)
+                .genres(Set.of(Genre.FICTION, Genre.MYSTERY))
+                .publishedYear(1950 + i % 70)
+                .averageRating(BigDecimal.valueOf(i % 5))
+                .totalReviews(i)
+                .build()));
+        bookRepository.saveAll(books);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll(books);
+        books.clear();
+    }
+
+    @Test
+    void findCardsByGenre_ShouldNotLoadEntities() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        statistics.clear();
+        Page<Book> entities = inTransaction(() -> bookRepository.findByGenre(Genre.FICTION, pageable));
+        long entityLoads = statistics.getEntityLoadCount();
+
+        statistics.clear();
+        Page<BookCardView> cards = inTransaction(() -> bookRepository.findCardsByGenre(Genre.FICTION, pageable));
+        long cardLoads = statistics.getEntityLoadCount();
+
+        // Then
+        assertEquals(entities.getTotalElements(), cards.getTotalElements());
+        assertEquals(entities.getContent().stream().map(Book::getId).toList(),
+                cards.getContent().stream().map(BookCardView::id).toList());
+        assertEquals(Set.of(Genre.FICTION, Genre.MYSTERY), cards.getContent().get(0).genres());
+        assertTrue(entityLoads >= pageable.getPageSize());
+        assertEquals(0, cardLoads);
+    }
+
+    @Test
+    void findCardsByGenre_ShouldReportAllocationAndLatencyAgainstEntities() {
+        // When
+        Measurement entities = measure(() -> bookRepository.findByGenre(Genre.FICTION, pageable));
+        Measurement cards = measure(() -> bookRepository.findCardsByGenre(Genre.FICTION, pageable));
+
+        // Then: numbers vary by JVM and machine, so they are reported rather than asserted
+        log.info("Genre page of {} books: entities {} bytes/{} us per call, cards {} bytes/{} us per call",
+                pageable.getPageSize(), entities.bytesPerCall(), entities.microsPerCall(),
+                cards.bytesPerCall(), cards.microsPerCall());
+    }
+
+    private Measurement measure(final Supplier<Page<?>> listing) {
+        IntStream.range(0, WARMUP_ROUNDS).forEach(i -> inTransaction(listing));
+
+        long bytesBefore = allocatedBytes();
+        long started = System.nanoTime();
+        IntStream.range(0, MEASURED_ROUNDS).forEach(i -> inTransaction(listing));
+        long elapsed = System.nanoTime() - started;
+        long allocated = allocatedBytes() - bytesBefore;
+
+        return new Measurement(allocated / MEASURED_ROUNDS, elapsed / MEASURED_ROUNDS / 1_000);
+    }
+
+    private <T> T inTransaction(final Supplier<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> action.get());
+    }
+
+    /**
+     * Bytes allocated by the current thread, or -1 where the JVM does not track it.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private record Measurement(long bytesPerCall, long microsPerCall) {
+    }
+}
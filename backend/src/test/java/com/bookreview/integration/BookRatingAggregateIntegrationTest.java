@@ -0,0 +1,144 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRatingVerifier;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.book.WeightedRating;
+import com.bookreview.review.Review;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.user.User;
+import com.bookreview.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the incrementally maintained book rating aggregates, star histogram and drift repair.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("integration")
+class BookRatingAggregateIntegrationTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private BookRatingVerifier bookRatingVerifier;
+
+    @Autowired
+    private WeightedRating weightedRating;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Book book;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder()
+                .title("Aggregated Book")
+                .author("Author")
+                .genres(Set.of(Genre.FICTION))
+                .build());
+        users.add(userRepository.save(user("first")));
+        users.add(userRepository.save(user("second")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        bookRepository.delete(book);
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void applyReviewRating_ShouldKeepAverageAndHistogramInStepWithReviews() {
+        // When
+        applyReviewRating(5, null);
+        applyReviewRating(2, null);
+        Book afterAdds = bookRepository.findById(book.getId()).orElseThrow();
+        applyReviewRating(3, 2);
+        applyReviewRating(null, 5);
+        Book afterRemoval = bookRepository.findById(book.getId()).orElseThrow();
+
+        // Then
+        assertEquals(7L, afterAdds.getRatingSum());
+        assertEquals(2, afterAdds.getTotalReviews());
+        assertEquals(new BigDecimal("3.50"), afterAdds.getAverageRating());
+        assertEquals(1, afterAdds.getTwoStarCount());
+        assertEquals(1, afterAdds.getFiveStarCount());
+        assertEquals(new BigDecimal("3.5000"), afterAdds.getWeightedScore());
+        assertEquals(3L, afterRemoval.getRatingSum());
+        assertEquals(1, afterRemoval.getTotalReviews());
+        assertEquals(new BigDecimal("3.00"), afterRemoval.getAverageRating());
+        assertEquals(0, afterRemoval.getTwoStarCount());
+        assertEquals(1, afterRemoval.getThreeStarCount());
+        assertEquals(0, afterRemoval.getFiveStarCount());
+        assertEquals(new BigDecimal("3.4545"), afterRemoval.getWeightedScore());
+    }
+
+    @Test
+    void verify_ShouldRepairBooksWhoseAggregatesDrifted() {
+        // Given: reviews written without touching the book's aggregates
+        reviewRepository.save(Review.builder().book(book).user(users.get(0)).rating(4).text("Good").build());
+        reviewRepository.save(Review.builder().book(book).user(users.get(1)).rating(5).text("Great").build());
+        assertTrue(driftedBookIds().contains(book.getId()));
+
+        // When
+        int repaired = bookRatingVerifier.verify();
+
+        // Then
+        Book repairedBook = bookRepository.findById(book.getId()).orElseThrow();
+        assertTrue(repaired >= 1);
+        assertEquals(9L, repairedBook.getRatingSum());
+        assertEquals(2, repairedBook.getTotalReviews());
+        assertEquals(new BigDecimal("4.50"), repairedBook.getAverageRating());
+        assertEquals(1, repairedBook.getFourStarCount());
+        assertEquals(1, repairedBook.getFiveStarCount());
+        assertEquals(new BigDecimal("3.6667"), repairedBook.getWeightedScore());
+        assertFalse(driftedBookIds().contains(book.getId()));
+    }
+
+    private void applyReviewRating(final Integer addedRating, final Integer removedRating) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> bookRepository.applyReviewRating(book.getId(), addedRating, removedRating, weightedRating));
+    }
+
+    private List<Long> driftedBookIds() {
+        return bookRepository.findIdsWithRatingDrift(weightedRating.getPriorMean(), weightedRating.getPriorWeight());
+    }
+
+    private static User user(final String name) {
+        return User.builder()
+                .email(name + "@ratings.test")
+                .password("password")
+                .firstName(name)
+                .lastName("Reader")
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRatingFolder;
+import com.bookreview.book.BookRatingShardRepository;
+import com.bookreview.book.BookRatingShardService;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.book.WeightedRating;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for sharded book rating counters: many concurrent reviews of one book.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=72")
+@ActiveProfiles("test")
+@Tag("integration")
+class BookRatingShardConcurrencyIntegrationTest {
+
+    private static final int WRITERS = 64;
+    private static final int REVIEWS_PER_WRITER = 25;
+    private static final int TOTAL_REVIEWS = WRITERS * REVIEWS_PER_WRITER;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookRatingShardRepository shardRepository;
+
+    @Autowired
+    private BookRatingShardService shardService;
+
+    @Autowired
+    private BookRatingFolder bookRatingFolder;
+
+    @Autowired
+    private WeightedRating weightedRating;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        books.add(bookRepository.save(book("Sharded Launch")));
+        books.add(bookRepository.save(book("Single Row Launch")));
+        shardService.createShards(books.get(0).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRepository.deleteAll(shardRepository.findByBookId(books.get(0).getId()));
+        bookRepository.deleteAll(books);
+        books.clear();
+    }
+
+    @Test
+    void record_ShouldNotLoseUpdates_WithConcurrentWritersAndFolding() throws Exception {
+        // Given
+        Long bookId = books.get(0).getId();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread folder = new Thread(() -> {
+            while (writing.get()) {
+                bookRatingFolder.foldPending();
+                pause();
+            }
+        });
+        folder.start();
+
+        // When
+        long elapsed = runWriters((writer, i) -> shardService.record(bookId, rating(writer, i), null));
+        writing.set(false);
+        folder.join();
+        bookRatingFolder.foldPending();
+
+        // Then: every writer wrote five reviews per star
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertEquals(TOTAL_REVIEWS, book.getTotalReviews());
+        assertEquals(TOTAL_REVIEWS * 3L, book.getRatingSum());
+        assertEquals(TOTAL_REVIEWS / 5, book.getOneStarCount());
+        assertEquals(TOTAL_REVIEWS / 5, book.getFiveStarCount());
+        assertEquals("3.00", book.getAverageRating().toPlainString());
+        assertTrue(shardService.pending(bookId).isZero());
+        assertTrue(shardRepository.findBookIdsWithPendingChanges(PageRequest.of(0, 10)).isEmpty());
+        log.info("Sharded counters: {} reviews from {} writers in {} ms ({} writes/s)",
+                TOTAL_REVIEWS, WRITERS, TimeUnit.NANOSECONDS.toMillis(elapsed), perSecond(elapsed));
+    }
+
+    @Test
+    void applyReviewRating_ShouldNotLoseUpdates_WhenAllWritersShareTheBookRow() throws Exception {
+        // Given
+        Long bookId = books.get(1).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        long elapsed = runWriters((writer, i) -> transaction.executeWithoutResult(
+                status -> bookRepository.applyReviewRating(bookId, rating(writer, i), null, weightedRating)));
+
+        // Then
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertEquals(TOTAL_REVIEWS, book.getTotalReviews());
+        assertEquals(TOTAL_REVIEWS * 3L, book.getRatingSum());
+        log.info("Single book row: {} reviews from {} writers in {} ms ({} writes/s)",
+                TOTAL_REVIEWS, WRITERS, TimeUnit.NANOSECONDS.toMillis(elapsed), perSecond(elapsed));
+    }
+
+    /**
+     * Run every writer at once and wait for all of them, failing on the first error.
+     *
+     * @return elapsed nanoseconds
+     */
+    private long runWriters(final BiConsumer<Integer, Integer> write) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int w = writer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REVIEWS_PER_WRITER; i++) {
+                        write.accept(w, i);
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int rating(final int writer, final int i) {
+        return 1 + (writer + i) % 5;
+    }
+
+    private static long perSecond(final long elapsedNanos) {
+        return TOTAL_REVIEWS * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Book book(final String title) {
+        return Book.builder().title(title).author("Author").genres(Set.of(Genre.FICTION)).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bookreview.integration;
+
+import com.bookreview.Application;
+import com.bookreview.book.BookService;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.book.BookCreateDTO;
+import com.bookreview.dto.book.BookDTO;
+import com.bookreview.dto.book.BookUpdateDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for cross-node cache invalidation: two application contexts share a database and
+ * cache book details locally, and an edit on one node must reach the other's cache.
+ */
+@Slf4j
+@Tag("integration")
+class CacheInvalidationBusIntegrationTest {
+
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final long MAX_CONVERGENCE_MS = 5000;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        // The first node owns the schema and drops it on close
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).close();
+        }
+        nodes.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"database", "in-process"})
+    void updateBook_ShouldEvictCachedDetailsOnOtherNodes_WithinBoundedDelay(final String transport)
+            throws InterruptedException {
+        // Given
+        String url = "jdbc:h2:mem:invalidation-" + transport + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        BookService writer = startNode(url, transport, true).getBean(BookService.class);
+        BookService reader = startNode(url, transport, false).getBean(BookService.class);
+
+        BookDTO book = writer.createBook(BookCreateDTO.builder()
+                .title("Cached Title")
+                .author("Author")
+                .genres(Set.of(Genre.MYSTERY))
+                .publishedYear(2020)
+                .build());
+        assertEquals("Cached Title", reader.getBookById(book.getId()).orElseThrow().getTitle());
+
+        // When
+        writer.updateBook(book.getId(), BookUpdateDTO.builder().title("Edited Title").build());
+        long start = System.currentTimeMillis();
+        String title = reader.getBookById(book.getId()).orElseThrow().getTitle();
+        while (!"Edited Title".equals(title) && System.currentTimeMillis() - start < MAX_CONVERGENCE_MS) {
+            Thread.sleep(POLL_INTERVAL_MS / 4);
+            title = reader.getBookById(book.getId()).orElseThrow().getTitle();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        log.info("Cache invalidation over {} transport converged in {} ms", transport, elapsed);
+        assertEquals("Edited Title", title);
+        assertTrue(elapsed < MAX_CONVERGENCE_MS);
+    }
+
+    private ConfigurableApplicationContext startNode(final String url, final String transport,
+                                                     final boolean ownsSchema) {
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + url,
+                        "spring.jpa.hibernate.ddl-auto=" + (ownsSchema ? "create-drop" : "none"),
+                        "spring.flyway.enabled=" + ownsSchema,
+                        "app.cache.invalidation.transport=" + transport,
+                        "app.cache.invalidation.poll-interval-ms=" + POLL_INTERVAL_MS)
+                .run();
+        nodes.add(node);
+        return node;
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookreview.integration;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.CursorPageDTO;
+import com.bookreview.dto.review.ReviewDTO;
+import com.bookreview.review.Review;
+import com.bookreview.review.ReviewRepository;
+import com.bookreview.review.ReviewService;
+import com.bookreview.user.User;
+import com.bookreview.user.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the number of statements a page of reviews costs.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.bookreview.integration.ReviewListingQueryCountIntegrationTest$SqlRecorder"
+})
+@ActiveProfiles("test")
+@Tag("integration")
+class ReviewListingQueryCountIntegrationTest {
+
+    private static final int REVIEW_COUNT = 25;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    private Book reviewedBook;
+    private User reviewer;
+    private final List<Book> books = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // One book reviewed by many users, and one user reviewing many books
+        reviewedBook = bookRepository.save(book("Reviewed Book"));
+        reviewer = userRepository.save(user("reviewer"));
+        books.add(reviewedBook);
+        users.add(reviewer);
+
+        List<Review> reviews = new ArrayList<>();
+        IntStream.range(0, REVIEW_COUNT).forEach(i -> {
+            User other = userRepository.save(user("user" + i));
+            Book otherBook = bookRepository.save(book("Book " + i));
+            users.add(other);
+            books.add(otherBook);
+            reviews.add(review(reviewedBook, other, i));
+            reviews.add(review(otherBook, reviewer, i));
+        });
+        reviewRepository.saveAll(reviews);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        bookRepository.deleteAll(books);
+        userRepository.deleteAll(users);
+        books.clear();
+        users.clear();
+    }
+
+    @Test
+    void getReviewsByBookId_ShouldLoadBooksAndUsersWithThePage() {
+        // When
+        List<String> statements = new ArrayList<>();
+        Page<ReviewDTO> page = SqlRecorder.record(statements,
+                () -> reviewService.getReviewsByBookId(reviewedBook.getId(), PageRequest.of(0, 20)));
+
+        // Then: existence check, page and count
+        assertEquals(20, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(review -> "Reviewed Book".equals(review.getBookTitle())));
+        assertTrue(page.getContent().stream().allMatch(review -> review.getUserFirstName() != null));
+        assertEquals(3, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void getReviewsByUserId_ShouldLoadBooksAndUsersWithThePage() {
+        // When
+        List<String> statements = new ArrayList<>();
+        Page<ReviewDTO> page = SqlRecorder.record(statements,
+                () -> reviewService.getReviewsByUserId(reviewer.getId(), PageRequest.of(0, 20)));
+
+        // Then: existence check, page and count
+        assertEquals(20, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(review -> review.getBookTitle().startsWith("Book ")));
+        assertEquals(3, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void scrollReviewsByBookId_ShouldLoadBooksAndUsersWithThePage() {
+        // When
+        List<String> statements = new ArrayList<>();
+        CursorPageDTO<ReviewDTO> page = SqlRecorder.record(statements,
+                () -> reviewService.scrollReviewsByBookId(reviewedBook.getId(), "",
+                        Sort.by(Sort.Direction.DESC, "createdAt"), 20));
+
+        // Then: existence check and page
+        assertEquals(20, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(review -> review.getUserLastName() != null));
+        assertEquals(2, statements.size(), String.join("\n", statements));
+    }
+
+    private static Book book(final String title) {
+        return Book.builder().title(title).author("Author").genres(Set.of(Genre.FICTION)).build();
+    }
+
+    private static User user(final String name) {
+        return User.builder()
+                .email(name + "@listing.test")
+                .password("password")
+                .firstName(name)
+                .lastName("Reader")
+                .build();
+    }
+
+    private static Review review(final Book book, final User user, final int i) {
+        return Review.builder().book(book).user(user).rating(1 + i % 5).text("Review " + i).build();
+    }
+
+    /**
+     * Records the SQL prepared on the calling thread while an action runs, ignoring background work.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static <T> T record(final List<String> statements, final Supplier<T> action) {
+            STATEMENTS.set(statements);
+            try {
+                return action.get();
+            } finally {
+                STATEMENTS.remove();
+            }
+        }
+
+        @Override
+        public String inspect(final String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
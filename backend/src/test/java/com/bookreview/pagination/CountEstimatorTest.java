@@ -0,0 +1,87 @@
+package com.bookreview.pagination;
+
+import com.bookreview.dto.SliceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for CountEstimator.
+ */
+class CountEstimatorTest {
+
+    private CountEstimator countEstimator;
+    private AtomicLong counts;
+
+    @BeforeEach
+    void setUp() {
+        countEstimator = new CountEstimator();
+        ReflectionTestUtils.setField(countEstimator, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(countEstimator, "idleMs", 60_000L);
+        ReflectionTestUtils.setField(countEstimator, "maxEntries", 2);
+        counts = new AtomicLong();
+    }
+
+    @Test
+    void estimate_ShouldServeCachedCount_AfterBackgroundRefresh() {
+        // When
+        Long first = countEstimator.estimate("books", () -> counts.incrementAndGet() * 100);
+        countEstimator.refresh();
+        countEstimator.refresh();
+        Long second = countEstimator.estimate("books", () -> counts.incrementAndGet() * 100);
+
+        // Then
+        assertNull(first);
+        assertEquals(100L, second);
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    void refresh_ShouldForgetIdleEstimates() {
+        // Given
+        ReflectionTestUtils.setField(countEstimator, "idleMs", -1L);
+        countEstimator.estimate("books", counts::incrementAndGet);
+
+        // When
+        countEstimator.refresh();
+
+        // Then
+        assertEquals(0, countEstimator.size());
+        assertEquals(0, counts.get());
+    }
+
+    @Test
+    void estimate_ShouldNotTrackMoreThanMaxEntries() {
+        // When
+        countEstimator.estimate("a", counts::incrementAndGet);
+        countEstimator.estimate("b", counts::incrementAndGet);
+        countEstimator.estimate("c", counts::incrementAndGet);
+
+        // Then
+        assertEquals(2, countEstimator.size());
+    }
+
+    @Test
+    void toSlice_ShouldUseExactTotal_OnLastPage() {
+        // Given
+        SliceImpl<String> last = new SliceImpl<>(List.of("x", "y"), PageRequest.of(2, 10), false);
+        SliceImpl<String> middle = new SliceImpl<>(List.of("x"), PageRequest.of(0, 1), true);
+
+        // When
+        SliceDTO<String> lastSlice = countEstimator.toSlice(last, true, "books", counts::incrementAndGet);
+        SliceDTO<String> middleSlice = countEstimator.toSlice(middle, false, "books", counts::incrementAndGet);
+
+        // Then
+        assertEquals(22L, lastSlice.getEstimatedTotal());
+        assertNull(middleSlice.getEstimatedTotal());
+        assertEquals(0, countEstimator.size());
+    }
+}
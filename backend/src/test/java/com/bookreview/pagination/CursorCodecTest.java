@@ -0,0 +1,116 @@
+package com.bookreview.pagination;
+
+import com.bookreview.dto.CursorPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for CursorCodec.
+ */
+class CursorCodecTest {
+
+    private static final Sort SORT = KeysetQueries.keysetSort(Sort.by(Sort.Direction.DESC, "createdAt"), Set.of("createdAt"));
+
+    private CursorCodec cursorCodec;
+
+    @BeforeEach
+    void setUp() {
+        cursorCodec = new CursorCodec(new ObjectMapper());
+        ReflectionTestUtils.setField(cursorCodec, "secret", "testCursorSecret");
+    }
+
+    @Test
+    void decode_ShouldRestoreKeysWithTheirTypes() {
+        // Given
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", LocalDateTime.of(2024, 1, 15, 10, 30, 5));
+        keys.put("averageRating", new BigDecimal("4.25"));
+        keys.put("title", "Dune");
+        keys.put("totalReviews", 7);
+        keys.put("id", 42L);
+
+        // When
+        String cursor = cursorCodec.encode(ScrollPosition.backward(keys), SORT);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, SORT);
+
+        // Then
+        assertTrue(position.scrollsBackward());
+        assertEquals(keys, position.getKeys());
+    }
+
+    @Test
+    void decode_ShouldStartAtFirstPage_WhenCursorIsBlank() {
+        // When & Then
+        assertTrue(cursorCodec.decode("", SORT).isInitial());
+        assertTrue(cursorCodec.decode(null, SORT).isInitial());
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedCursor() {
+        // Given
+        String cursor = cursorCodec.encode(ScrollPosition.forward(Map.of("id", 42L)), SORT);
+        String forged = cursorCodec.encode(ScrollPosition.forward(Map.of("id", 1L)), SORT);
+        String tampered = forged.substring(0, forged.indexOf('.')) + cursor.substring(cursor.indexOf('.'));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode(tampered, SORT));
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode("not-a-cursor", SORT));
+    }
+
+    @Test
+    void decode_ShouldRejectCursorFromAnotherSort() {
+        // Given
+        String cursor = cursorCodec.encode(ScrollPosition.forward(Map.of("id", 42L)), SORT);
+        Sort other = KeysetQueries.keysetSort(Sort.by("title"), Set.of("title"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode(cursor, other));
+    }
+
+    @Test
+    void toPage_ShouldLinkAdjacentPages() {
+        // Given
+        Window<Long> window = Window.from(List.of(5L, 4L), index -> ScrollPosition.forward(Map.of("id", 5L - index)), true);
+
+        // When
+        CursorPageDTO<String> first = cursorCodec.toPage(window, ScrollPosition.keyset(), SORT, String::valueOf);
+        CursorPageDTO<String> middle = cursorCodec.toPage(window,
+                ScrollPosition.forward(Map.of("id", 6L)), SORT, String::valueOf);
+
+        // Then
+        assertEquals(List.of("5", "4"), first.getContent());
+        assertNull(first.getPreviousCursor());
+        assertEquals(Map.of("id", 4L), cursorCodec.decode(first.getNextCursor(), SORT).getKeys());
+        assertNotNull(middle.getPreviousCursor());
+        KeysetScrollPosition previous = cursorCodec.decode(middle.getPreviousCursor(), SORT);
+        assertTrue(previous.scrollsBackward());
+        assertEquals(Map.of("id", 5L), previous.getKeys());
+    }
+
+    @Test
+    void keysetSort_ShouldRejectUnindexedProperties() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetQueries.keysetSort(Sort.by("description"), Set.of("createdAt")));
+        assertEquals(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), SORT);
+    }
+}
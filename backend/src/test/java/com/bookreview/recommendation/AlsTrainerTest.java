@@ -0,0 +1,108 @@
+package com.bookreview.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlsTrainerTest {
+
+    @Test
+    void train_ShouldFitRatings_WhenTheyHaveLowRank() {
+        // Given
+        RatingMatrix ratings = lowRankRatings(new Random(1), 300, 100, 30);
+
+        // When
+        MatrixFactorizationModel model = new AlsTrainer(4, 10, 0.05f, 2, 7).train(ratings);
+
+        // Then
+        assertEquals(ratings.userCount(), model.userCount());
+        assertEquals(ratings.bookCount(), model.bookCount());
+        assertTrue(model.rmse(ratings) < 0.5 * meanRmse(ratings));
+    }
+
+    @Test
+    void train_ShouldNotDependOnParallelism() {
+        // Given
+        RatingMatrix ratings = lowRankRatings(new Random(2), 2000, 300, 20);
+
+        // When
+        MatrixFactorizationModel sequential = new AlsTrainer(8, 3, 0.1f, 1, 7).train(ratings);
+        MatrixFactorizationModel parallel = new AlsTrainer(8, 3, 0.1f, 4, 7).train(ratings);
+
+        // Then
+        for (long userId = 1; userId <= 2000; userId += 97) {
+            for (long bookId = 1; bookId <= 300; bookId += 31) {
+                assertEquals(sequential.predict(userId, bookId), parallel.predict(userId, bookId));
+            }
+        }
+    }
+
+    @Test
+    void build_ShouldKeepLastRating_WhenUserRatesBookTwice() {
+        // When
+        RatingMatrix ratings = RatingMatrix.builder()
+                .add(1L, 10L, 2f)
+                .add(2L, 10L, 4f)
+                .add(1L, 10L, 5f)
+                .build();
+
+        // Then
+        assertEquals(2, ratings.ratingCount());
+        assertEquals(4.5f, ratings.mean());
+    }
+
+    @Test
+    void choleskySolve_ShouldSolveSymmetricPositiveDefiniteSystem() {
+        // Given: 4x + 2y = 10, 2x + 3y = 11
+        double[] a = {4, 0, 2, 3};
+        double[] b = {10, 11};
+
+        // When
+        AlsTrainer.choleskySolve(a, b, 2);
+
+        // Then
+        assertArrayEquals(new double[]{1, 3}, b, 1e-9);
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenRankIsNotPositive() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new AlsTrainer(0, 10, 0.1f, 1, 7));
+    }
+
+    private static RatingMatrix lowRankRatings(final Random random, final int users, final int books,
+                                               final int perUser) {
+        float[][] userTastes = new float[users][2];
+        float[][] bookTraits = new float[books][2];
+        for (float[] taste : userTastes) {
+            taste[0] = (float) random.nextGaussian();
+            taste[1] = (float) random.nextGaussian();
+        }
+        for (float[] traits : bookTraits) {
+            traits[0] = (float) random.nextGaussian();
+            traits[1] = (float) random.nextGaussian();
+        }
+        RatingMatrix.Builder ratings = RatingMatrix.builder();
+        for (int user = 0; user < users; user++) {
+            for (int i = 0; i < perUser; i++) {
+                int book = random.nextInt(books);
+                float affinity = userTastes[user][0] * bookTraits[book][0] + userTastes[user][1] * bookTraits[book][1];
+                ratings.add(user + 1, book + 1, Math.max(1f, Math.min(5f, 3f + affinity)));
+            }
+        }
+        return ratings.build();
+    }
+
+    private static double meanRmse(final RatingMatrix ratings) {
+        double squares = 0;
+        for (float rating : ratings.userRatings()) {
+            squares += (rating - ratings.mean()) * (rating - ratings.mean());
+        }
+        return Math.sqrt(squares / ratings.ratingCount());
+    }
+}
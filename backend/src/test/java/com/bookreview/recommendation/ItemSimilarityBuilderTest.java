@@ -0,0 +1,109 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.recommendation.ItemSimilarityModel.ScoredBook;
+import com.bookreview.recommendation.UserTastes.TasteBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSimilarityBuilderTest {
+
+    private UserTastes tastes;
+
+    @BeforeEach
+    void setUp() {
+        // Three readers like books 10 and 20, one likes 20 and 30, one likes 10 and 30; 1 star is no like
+        tastes = new UserTastes();
+        tastes.put(1L, new TasteBuilder().favorite(10L).rated(20L, 5).build());
+        tastes.put(2L, new TasteBuilder().rated(10L, 5).rated(20L, 4).build());
+        tastes.put(3L, new TasteBuilder().rated(10L, 4).rated(20L, 5).rated(40L, 1).build());
+        tastes.put(4L, new TasteBuilder().rated(20L, 5).rated(30L, 5).build());
+        tastes.put(5L, new TasteBuilder().rated(10L, 5).rated(30L, 3).build());
+    }
+
+    @Test
+    void build_ShouldKeepMostSimilarBooksFirst() {
+        // When
+        ItemSimilarityModel model = new ItemSimilarityBuilder(2, 1, 2).build(tastes.all());
+
+        // Then
+        assertArrayEquals(new long[]{20L, 30L}, model.neighborIds(10L));
+        assertArrayEquals(new long[]{10L, 30L}, model.neighborIds(20L));
+        assertArrayEquals(new long[0], model.neighborIds(40L));
+        float[] similarities = model.neighborSimilarities(10L);
+        assertTrue(similarities[0] > similarities[1]);
+    }
+
+    @Test
+    void build_ShouldDropNeighbours_WhenTooFewReadersLikeBoth() {
+        // When
+        ItemSimilarityModel model = new ItemSimilarityBuilder(5, 2, 2).build(tastes.all());
+
+        // Then
+        assertArrayEquals(new long[]{20L}, model.neighborIds(10L));
+        assertArrayEquals(new long[0], model.neighborIds(30L));
+    }
+
+    @Test
+    void update_ShouldMatchFullBuild_WhenBooksAreLiked() {
+        // Given
+        ItemSimilarityBuilder builder = new ItemSimilarityBuilder(2, 1, 2);
+        ItemSimilarityModel previous = builder.build(tastes.all());
+        tastes.put(6L, new TasteBuilder().favorite(30L).favorite(50L).build());
+
+        // When
+        ItemSimilarityModel updated = builder.update(previous, tastes.all(), List.of(30L, 50L));
+
+        // Then
+        ItemSimilarityModel rebuilt = builder.build(tastes.all());
+        for (long bookId : new long[]{10L, 20L, 30L, 50L}) {
+            assertArrayEquals(rebuilt.neighborIds(bookId), updated.neighborIds(bookId));
+            assertArrayEquals(rebuilt.neighborSimilarities(bookId), updated.neighborSimilarities(bookId));
+        }
+    }
+
+    @Test
+    void build_ShouldMatchSingleWorker_WhenParallel() {
+        // Given
+        Random random = new Random(1);
+        UserTastes many = new UserTastes();
+        for (long user = 0; user < 500; user++) {
+            TasteBuilder taste = new TasteBuilder();
+            for (int i = 0; i < 10; i++) {
+                taste.rated(random.nextInt(300), 1 + random.nextInt(5));
+            }
+            many.put(user, taste.build());
+        }
+
+        // When
+        ItemSimilarityModel sequential = new ItemSimilarityBuilder(20, 2, 1).build(many.all());
+        ItemSimilarityModel parallel = new ItemSimilarityBuilder(20, 2, 4).build(many.all());
+
+        // Then
+        assertEquals(sequential.neighborCount(), parallel.neighborCount());
+        for (long bookId = 0; bookId < 300; bookId++) {
+            assertArrayEquals(sequential.neighborIds(bookId), parallel.neighborIds(bookId));
+        }
+    }
+
+    @Test
+    void recommend_ShouldMergeNeighbourLists_WhenExcludingLikedBooks() {
+        // Given
+        ItemSimilarityModel model = new ItemSimilarityBuilder(2, 1, 2).build(tastes.all());
+
+        // When
+        ScoredBook[] result = model.recommend(new long[]{10L, 30L}, new float[]{1f, 1f},
+                bookId -> bookId == 10L || bookId == 30L, 5);
+
+        // Then
+        assertEquals(1, result.length);
+        assertEquals(20L, result[0].bookId());
+        assertTrue(result[0].score() > 0 && result[0].score() <= 1);
+    }
+}
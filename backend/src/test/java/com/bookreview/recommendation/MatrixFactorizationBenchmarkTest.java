@@ -0,0 +1,145 @@
+package com.bookreview.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Trains the matrix factorization model on a synthetic million-review dataset and serves it.
+ * Training time, serve latency and snapshot size are logged for comparison; only the accuracy against
+ * predicting the mean rating and the snapshot round trip are asserted. Correctness is covered by
+ * {@link AlsTrainerTest} and {@link MatrixFactorizationModelTest}; this runs with {@code ./gradlew benchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class MatrixFactorizationBenchmarkTest {
+
+    private static final int USERS = 20_000;
+    private static final int BOOKS = 10_000;
+    private static final int REVIEWS_PER_USER = 50;
+    private static final int HELD_OUT_PER_USER = 5;
+    private static final int TRUE_RANK = 4;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 10_000;
+
+    private static RatingMatrix training;
+    private static RatingMatrix heldOut;
+    private static float[] heldOutValues;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeAll
+    static void generateRatings() {
+        // Ratings follow hidden user tastes and book traits, rounded to whole stars with some noise
+        Random random = new Random(42);
+        float[] tastes = gaussians(random, USERS * TRUE_RANK);
+        float[] traits = gaussians(random, BOOKS * TRUE_RANK);
+        RatingMatrix.Builder trainingRatings = RatingMatrix.builder();
+        RatingMatrix.Builder heldOutRatings = RatingMatrix.builder();
+        heldOutValues = new float[USERS * HELD_OUT_PER_USER];
+        for (int user = 0; user < USERS; user++) {
+            for (int i = 0; i < REVIEWS_PER_USER; i++) {
+                int book = random.nextInt(BOOKS);
+                float affinity = 0;
+                for (int k = 0; k < TRUE_RANK; k++) {
+                    affinity += tastes[user * TRUE_RANK + k] * traits[book * TRUE_RANK + k];
+                }
+                float noise = 0.3f * (float) random.nextGaussian();
+                float rating = Math.max(1, Math.min(5, Math.round(3.5f + affinity + noise)));
+                if (i < HELD_OUT_PER_USER) {
+                    heldOutRatings.add(user + 1, book + 1, rating);
+                    heldOutValues[user * HELD_OUT_PER_USER + i] = rating;
+                } else {
+                    trainingRatings.add(user + 1, book + 1, rating);
+                }
+            }
+        }
+        long started = System.nanoTime();
+        training = trainingRatings.build();
+        heldOut = heldOutRatings.build();
+        log.info("Rating matrix of {} ratings built in {} ms", training.ratingCount() + heldOut.ratingCount(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void train_ShouldBeatMeanRating_AndReportTrainingTime() {
+        // When
+        int cores = Runtime.getRuntime().availableProcessors();
+        long started = System.nanoTime();
+        new AlsTrainer(16, 10, 0.1f, 1, 7).train(training);
+        long sequentialMillis = (System.nanoTime() - started) / 1_000_000;
+        started = System.nanoTime();
+        MatrixFactorizationModel model = new AlsTrainer(16, 10, 0.1f, cores, 7).train(training);
+        long parallelMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Then: timings vary by machine, so they are reported rather than asserted
+        double modelRmse = model.rmse(heldOut);
+        double meanRmse = meanRmse(training.mean());
+        log.info("ALS rank 16 x 10 iterations on {} ratings: {} ms on 1 worker, {} ms on {} workers; "
+                        + "held-out RMSE {} against {} for the mean rating", training.ratingCount(),
+                sequentialMillis, parallelMillis, cores, modelRmse, meanRmse);
+        assertTrue(modelRmse < meanRmse);
+    }
+
+    @Test
+    void recommend_ShouldReportServeLatency() throws IOException {
+        // Given
+        MatrixFactorizationModel model = new AlsTrainer(16, 5, 0.1f,
+                Runtime.getRuntime().availableProcessors(), 7).train(training);
+
+        // When
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            model.recommend(1 + i % USERS, bookId -> false, 10);
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long started = System.nanoTime();
+            model.recommend(1 + (i * 7919L) % USERS, bookId -> bookId % 10 == 0, 10);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        Path snapshot = dir.resolve("recommendation-model.bin");
+        long started = System.nanoTime();
+        model.write(snapshot);
+        long writeMillis = (System.nanoTime() - started) / 1_000_000;
+        started = System.nanoTime();
+        MatrixFactorizationModel read = MatrixFactorizationModel.read(snapshot);
+        long readMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Then
+        log.info("Top 10 of {} books: median {} us, p99 {} us per call; snapshot of {} bytes written in {} ms, "
+                        + "read in {} ms", BOOKS, nanos[MEASURED_ROUNDS / 2] / 1_000,
+                nanos[MEASURED_ROUNDS * 99 / 100] / 1_000, Files.size(snapshot), writeMillis, readMillis);
+        assertEquals(model.predict(1, 1), read.predict(1, 1));
+    }
+
+    private static float[] gaussians(final Random random, final int count) {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 0.5f * (float) random.nextGaussian();
+        }
+        return values;
+    }
+
+    private static double meanRmse(final float mean) {
+        // Counts the few held-out books that no training rating covers, which the model's RMSE skips
+        double squares = 0;
+        for (float rating : heldOutValues) {
+            squares += (rating - mean) * (rating - mean);
+        }
+        return Math.sqrt(squares / heldOutValues.length);
+    }
+}
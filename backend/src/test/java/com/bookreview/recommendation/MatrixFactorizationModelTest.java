@@ -0,0 +1,85 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.recommendation.MatrixFactorizationModel.Prediction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatrixFactorizationModelTest {
+
+    @TempDir
+    private Path dir;
+
+    // User 1 leans to the first factor, user 2 to the second; books 10, 20, 30 range from one to the other
+    private final MatrixFactorizationModel model = new MatrixFactorizationModel(2, 3f, 1000L,
+            new long[]{1L, 2L}, new long[]{10L, 20L, 30L},
+            new float[]{1f, 0f, 0f, 1f},
+            new float[]{1.5f, -1f, 0.5f, 0.5f, -1f, 1.5f});
+
+    @Test
+    void predict_ShouldAddDotProductToMean() {
+        // When & Then
+        assertEquals(4.5f, model.predict(1L, 10L));
+        assertEquals(4.5f, model.predict(2L, 30L));
+        assertTrue(Float.isNaN(model.predict(3L, 10L)));
+    }
+
+    @Test
+    void recommend_ShouldRankByPredictedRating_WhenExcludingBooks() {
+        // When
+        Prediction[] all = model.recommend(1L, bookId -> false, 5);
+        Prediction[] excluded = model.recommend(1L, bookId -> bookId == 10L, 1);
+
+        // Then
+        assertEquals(3, all.length);
+        assertEquals(10L, all[0].bookId());
+        assertEquals(20L, all[1].bookId());
+        assertEquals(30L, all[2].bookId());
+        assertEquals(1, excluded.length);
+        assertEquals(20L, excluded[0].bookId());
+        assertEquals(0, model.recommend(3L, bookId -> false, 5).length);
+    }
+
+    @Test
+    void read_ShouldReturnSameModel_WhenSnapshotWasWritten() throws IOException {
+        // Given
+        Path snapshot = dir.resolve("models/model.bin");
+
+        // When
+        model.write(snapshot);
+        MatrixFactorizationModel read = MatrixFactorizationModel.read(snapshot);
+
+        // Then
+        assertEquals(model.rank(), read.rank());
+        assertEquals(model.trainedAt(), read.trainedAt());
+        for (long userId : new long[]{1L, 2L}) {
+            for (long bookId : new long[]{10L, 20L, 30L}) {
+                assertEquals(model.predict(userId, bookId), read.predict(userId, bookId));
+            }
+        }
+        try (var files = Files.list(snapshot.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void read_ShouldThrowException_WhenSnapshotHasAnotherVersion() throws IOException {
+        // Given
+        Path snapshot = dir.resolve("model.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshot))) {
+            out.writeInt(MatrixFactorizationModel.MAGIC);
+            out.writeInt(MatrixFactorizationModel.FORMAT_VERSION + 1);
+        }
+
+        // When & Then
+        assertThrows(IOException.class, () -> MatrixFactorizationModel.read(snapshot));
+    }
+}
@@ -1,10 +1,13 @@
 package com.bookreview.recommendation;
 
 import com.bookreview.book.Book;
+import com.bookreview.book.BookCardView;
 import com.bookreview.book.BookRepository;
 import com.bookreview.book.Genre;
 import com.bookreview.dto.recommendation.RecommendationDTO;
 import com.bookreview.dto.recommendation.RecommendationRequestDTO;
+import com.bookreview.recommendation.ItemSimilarityModel.ScoredBook;
+import com.bookreview.recommendation.MatrixFactorizationModel.Prediction;
 import com.bookreview.review.Review;
 import com.bookreview.review.ReviewRepository;
 import com.bookreview.service.OpenAIRecommendationService;
@@ -15,6 +18,7 @@ import com.bookreview.util.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -23,6 +27,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongPredicate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -37,8 +43,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +64,12 @@ class RecommendationServiceTest {
     private ReviewRepository reviewRepository;
     @Mock
     private OpenAIRecommendationService openAIService;
+    @Mock
+    private RecommendationRefreshRepository refreshRepository;
+    @Mock
+    private ItemSimilarityIndex similarityIndex;
+    @Mock
+    private MatrixFactorizationRecommender matrixFactorization;
 
     @InjectMocks
     private RecommendationService recommendationService;
@@ -123,15 +139,14 @@ class RecommendationServiceTest {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-            when(reviewRepository.findByUserId(eq(1L), any(Pageable.class)))
-                    .thenReturn(new PageImpl<>(List.of(review)));
+            when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of(review.getBook().getId()));
             
-            Page<Book> topRatedBooks = new PageImpl<>(List.of(book2));
-            when(bookRepository.findTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
+            Page<BookCardView> topRatedBooks = new PageImpl<>(List.of(card(book2)));
+            when(bookRepository.findSliceOfTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
                     .thenReturn(topRatedBooks);
             
-            Page<Book> genreBooks = new PageImpl<>(List.of(book1));
-            when(bookRepository.findByGenre(any(Genre.class), any(Pageable.class)))
+            Page<BookCardView> genreBooks = new PageImpl<>(List.of(card(book1)));
+            when(bookRepository.findCardsByGenre(any(Genre.class), any(Pageable.class)))
                     .thenReturn(genreBooks);
 
             // When
@@ -171,11 +186,10 @@ class RecommendationServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(reviewRepository.findByUserId(eq(1L), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of());
         
-        Page<Book> topRatedBooks = new PageImpl<>(List.of(book1, book2));
-        when(bookRepository.findTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
+        Page<BookCardView> topRatedBooks = new PageImpl<>(List.of(card(book1), card(book2)));
+        when(bookRepository.findSliceOfTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
                 .thenReturn(topRatedBooks);
 
         // When
@@ -201,11 +215,10 @@ class RecommendationServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(reviewRepository.findByUserId(eq(1L), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of());
         
-        Page<Book> genreBooks = new PageImpl<>(List.of(book1));
-        when(bookRepository.findByGenre(any(Genre.class), any(Pageable.class)))
+        Page<BookCardView> genreBooks = new PageImpl<>(List.of(card(book1)));
+        when(bookRepository.findCardsByGenre(any(Genre.class), any(Pageable.class)))
                 .thenReturn(genreBooks);
 
         // When
@@ -218,6 +231,65 @@ class RecommendationServiceTest {
         assertTrue(result.get(0).getReason().contains("interest in"));
     }
 
+    @Test
+    void getRecommendationsForUser_ShouldReturnFavoritesSimilarityRecommendations_WhenIndexIsReady() {
+        // Given
+        RecommendationRequestDTO requestDTO = RecommendationRequestDTO.builder()
+                .limit(5)
+                .includeTopRated(false)
+                .includeGenreBased(false)
+                .includeAIPowered(false)
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of(book1.getId()));
+        when(similarityIndex.recommend(eq(1L), any(LongPredicate.class), eq(5)))
+                .thenReturn(Optional.of(List.of(new ScoredBook(book2.getId(), 0.75f))));
+        when(bookRepository.findCardsByIdIn(List.of(book2.getId()))).thenReturn(List.of(card(book2)));
+
+        // When
+        List<RecommendationDTO> result = recommendationService.getRecommendationsForUser(1L, requestDTO);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(book2.getId(), result.get(0).getBook().getId());
+        assertEquals(RecommendationStrategy.FAVORITES_SIMILARITY, result.get(0).getStrategy());
+        assertEquals(0.75, result.get(0).getScore(), 1e-6);
+
+        ArgumentCaptor<LongPredicate> excludeCaptor = ArgumentCaptor.forClass(LongPredicate.class);
+        verify(similarityIndex).recommend(eq(1L), excludeCaptor.capture(), eq(5));
+        assertTrue(excludeCaptor.getValue().test(book1.getId()));
+        assertFalse(excludeCaptor.getValue().test(book2.getId()));
+    }
+
+    @Test
+    void getRecommendationsForUser_ShouldReturnMatrixFactorizationRecommendations_WhenModelIsLoaded() {
+        // Given
+        RecommendationRequestDTO requestDTO = RecommendationRequestDTO.builder()
+                .limit(5)
+                .includeTopRated(false)
+                .includeGenreBased(false)
+                .includeFavoritesSimilarity(false)
+                .includeAIPowered(false)
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of(book1.getId()));
+        when(matrixFactorization.recommend(eq(1L), any(LongPredicate.class), eq(5)))
+                .thenReturn(Optional.of(List.of(new Prediction(book2.getId(), 5.4f))));
+        when(bookRepository.findCardsByIdIn(List.of(book2.getId()))).thenReturn(List.of(card(book2)));
+
+        // When
+        List<RecommendationDTO> result = recommendationService.getRecommendationsForUser(1L, requestDTO);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(book2.getId(), result.get(0).getBook().getId());
+        assertEquals(RecommendationStrategy.MATRIX_FACTORIZATION, result.get(0).getStrategy());
+        assertEquals(1.0, result.get(0).getScore(), 1e-6);
+        verify(similarityIndex, never()).recommend(anyLong(), any(LongPredicate.class), anyInt());
+    }
+
     @Test
     void getRecommendationsForUser_ShouldReturnAIRecommendations_WhenEnabledAndRequested() {
         // Given
@@ -267,11 +339,11 @@ class RecommendationServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(reviewRepository.findByUserId(eq(1L), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(review))); // User has reviewed book1
+        when(reviewRepository.findBookIdsByUserId(1L))
+                .thenReturn(List.of(review.getBook().getId())); // User has reviewed book1
         
-        Page<Book> topRatedBooks = new PageImpl<>(List.of(book1, book2)); // Both books returned
-        when(bookRepository.findTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
+        Page<BookCardView> topRatedBooks = new PageImpl<>(List.of(card(book1), card(book2))); // Both books returned
+        when(bookRepository.findSliceOfTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
                 .thenReturn(topRatedBooks);
 
         // When
@@ -283,4 +355,118 @@ class RecommendationServiceTest {
         assertTrue(result.stream().noneMatch(r -> r.getBook().getId().equals(1L)));
         assertTrue(result.stream().anyMatch(r -> r.getBook().getId().equals(2L)));
     }
+
+    @Test
+    void getRecommendationsForCurrentUser_ShouldServeMaterializedRecommendations_WhenParametersAreDefault() {
+        // Given
+        ReflectionTestUtils.setField(recommendationService, "materializeEnabled", true);
+        RecommendationRequestDTO requestDTO = RecommendationRequestDTO.builder().limit(5).build();
+        Recommendation stored = Recommendation.builder()
+                .id(7L)
+                .user(user)
+                .book(book2)
+                .strategy(RecommendationStrategy.TOP_RATED)
+                .confidence(new BigDecimal("0.8000"))
+                .reasoning("Highly rated")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            when(recommendationRepository.findValidWithBookByUserId(eq(1L), any(LocalDateTime.class)))
+                    .thenReturn(List.of(stored));
+
+            // When
+            List<RecommendationDTO> result = recommendationService.getRecommendationsForCurrentUser(requestDTO);
+
+            // Then
+            assertEquals(1, result.size());
+            assertEquals(7L, result.get(0).getId());
+            assertEquals(2L, result.get(0).getBook().getId());
+            assertEquals(0.8, result.get(0).getScore());
+            assertEquals("Highly rated", result.get(0).getReason());
+            verify(userRepository, never()).findById(any());
+        }
+    }
+
+    @Test
+    void getRecommendationsForCurrentUser_ShouldComputeLive_WhenParametersAreNotDefault() {
+        // Given
+        ReflectionTestUtils.setField(recommendationService, "materializeEnabled", true);
+        RecommendationRequestDTO requestDTO = RecommendationRequestDTO.builder()
+                .includeGenreBased(false)
+                .build();
+
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of());
+            when(bookRepository.findSliceOfTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(card(book2))));
+
+            // When
+            List<RecommendationDTO> result = recommendationService.getRecommendationsForCurrentUser(requestDTO);
+
+            // Then
+            assertEquals(1, result.size());
+            verify(recommendationRepository, never()).findValidWithBookByUserId(any(), any());
+        }
+    }
+
+    @Test
+    void getMaterializedRecommendations_ShouldComputeAndStore_WhenMissing() {
+        // Given
+        ReflectionTestUtils.setField(recommendationService, "ttlSeconds", 3600L);
+        when(recommendationRepository.findValidWithBookByUserId(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(refreshRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(reviewRepository.findBookIdsByUserId(1L)).thenReturn(List.of());
+        when(bookRepository.findSliceOfTopRatedBooks(any(BigDecimal.class), any(Integer.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(card(book2))));
+        when(bookRepository.findCardsByGenre(any(Genre.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(bookRepository.getReferenceById(2L)).thenReturn(book2);
+
+        // When
+        List<RecommendationDTO> result = recommendationService.getMaterializedRecommendations(1L);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getBook().getId());
+        verify(recommendationRepository).deleteByUserIdIn(List.of(1L));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Recommendation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(recommendationRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(book2, saved.getValue().get(0).getBook());
+        assertEquals(RecommendationStrategy.TOP_RATED, saved.getValue().get(0).getStrategy());
+        assertTrue(saved.getValue().get(0).getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(59)));
+        verify(refreshRepository).markRefreshed(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getMaterializedRecommendations_ShouldReturnEmpty_WhenRefreshFoundNothingToRecommend() {
+        // Given
+        ReflectionTestUtils.setField(recommendationService, "ttlSeconds", 3600L);
+        when(recommendationRepository.findValidWithBookByUserId(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(refreshRepository.findById(1L)).thenReturn(Optional.of(new RecommendationRefresh(1L,
+                LocalDateTime.now().minusHours(2), LocalDateTime.now().minusMinutes(1))));
+
+        // When
+        List<RecommendationDTO> result = recommendationService.getMaterializedRecommendations(1L);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(userRepository, never()).findById(any());
+    }
+
+    private static BookCardView card(final Book book) {
+        return new BookCardView(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                book.getCoverImageUrl(), book.getGenres(), book.getPublishedYear(), book.getAverageRating(),
+                book.getTotalReviews(), book.getCreatedAt(), book.getUpdatedAt());
+    }
 }
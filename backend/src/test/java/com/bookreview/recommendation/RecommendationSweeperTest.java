@@ -0,0 +1,90 @@
+package com.bookreview.recommendation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RecommendationSweeper.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecommendationSweeperTest {
+
+    @Mock
+    private RecommendationRepository recommendationRepository;
+
+    private MeterRegistry meterRegistry;
+    private RecommendationSweeper recommendationSweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recommendationSweeper = new RecommendationSweeper(recommendationRepository, meterRegistry);
+        ReflectionTestUtils.setField(recommendationSweeper, "enabled", true);
+        ReflectionTestUtils.setField(recommendationSweeper, "batchSize", 5000L);
+        ReflectionTestUtils.setField(recommendationSweeper, "pauseMs", 0L);
+        ReflectionTestUtils.setField(recommendationSweeper, "maxAgeDays", 30L);
+    }
+
+    @Test
+    void sweep_ShouldDeleteInIdRangeBatches() {
+        // Given
+        when(recommendationRepository.findSweepRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new SweepRange(1L, 12000L, 9000L));
+        when(recommendationRepository.deleteSweepableBetween(eq(1L), eq(5000L), any(), any())).thenReturn(4000);
+        when(recommendationRepository.deleteSweepableBetween(eq(5001L), eq(10000L), any(), any())).thenReturn(3000);
+        when(recommendationRepository.deleteSweepableBetween(eq(10001L), eq(12000L), any(), any())).thenReturn(1500);
+
+        // When
+        long deleted = recommendationSweeper.sweep();
+
+        // Then
+        assertEquals(8500, deleted);
+        assertEquals(8500.0, meterRegistry.get("recommendations.sweeper.deleted").counter().count());
+        // Counted rows that were not deleted, e.g. replaced by a refresh meanwhile, stay until the next sweep
+        assertEquals(500.0, meterRegistry.get("recommendations.sweeper.backlog").gauge().value());
+    }
+
+    @Test
+    void sweep_ShouldDeleteNothing_WhenNothingHasExpired() {
+        // Given
+        when(recommendationRepository.findSweepRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new SweepRange(null, null, 0L));
+
+        // When
+        long deleted = recommendationSweeper.sweep();
+
+        // Then
+        assertEquals(0, deleted);
+        verify(recommendationRepository, never()).deleteSweepableBetween(anyLong(), anyLong(), any(), any());
+        assertEquals(0.0, meterRegistry.get("recommendations.sweeper.backlog").gauge().value());
+    }
+
+    @Test
+    void sweep_ShouldDoNothing_WhenDisabled() {
+        // Given
+        ReflectionTestUtils.setField(recommendationSweeper, "enabled", false);
+
+        // When
+        long deleted = recommendationSweeper.sweep();
+
+        // Then
+        assertEquals(0, deleted);
+        verify(recommendationRepository, never()).findSweepRange(any(), any());
+    }
+}
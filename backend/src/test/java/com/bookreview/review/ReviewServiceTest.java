@@ -1,10 +1,13 @@
 package com.bookreview.review;
 
 import com.bookreview.book.Book;
+import com.bookreview.book.BookRatingShardService;
 import com.bookreview.book.BookRepository;
+import com.bookreview.cache.HttpCachePurger;
 import com.bookreview.dto.review.ReviewCreateDTO;
 import com.bookreview.dto.review.ReviewDTO;
 import com.bookreview.dto.review.ReviewUpdateDTO;
+import com.bookreview.recommendation.TasteChangedEvent;
 import com.bookreview.user.User;
 import com.bookreview.user.UserRepository;
 import com.bookreview.user.UserRole;
@@ -16,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +50,12 @@ class ReviewServiceTest {
     private BookRepository bookRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookRatingShardService bookRatingShardService;
+    @Mock
+    private HttpCachePurger httpCachePurger;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ReviewService reviewService;
@@ -96,7 +107,6 @@ class ReviewServiceTest {
             when(userRepository.findById(1L)).thenReturn(Optional.of(user));
             when(reviewRepository.existsByBookIdAndUserId(1L, 1L)).thenReturn(false);
             when(reviewRepository.save(any(Review.class))).thenReturn(review);
-            when(bookRepository.save(any(Book.class))).thenReturn(book);
 
             // When
             ReviewDTO result = reviewService.createReview(createDTO);
@@ -109,7 +119,9 @@ class ReviewServiceTest {
             assertEquals(5, result.getRating());
             assertEquals("Great book!", result.getText());
             verify(reviewRepository).save(any(Review.class));
-            verify(bookRepository).save(any(Book.class));
+            verify(bookRatingShardService).record(1L, 5, null);
+            verify(bookRepository, never()).save(any(Book.class));
+            verify(eventPublisher).publishEvent(new TasteChangedEvent(1L));
         }
     }
 
@@ -164,8 +176,6 @@ class ReviewServiceTest {
 
             when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
             when(reviewRepository.save(any(Review.class))).thenReturn(review);
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-            when(bookRepository.save(any(Book.class))).thenReturn(book);
 
             // When
             ReviewDTO result = reviewService.updateReview(1L, updateDTO);
@@ -173,7 +183,7 @@ class ReviewServiceTest {
             // Then
             assertNotNull(result);
             verify(reviewRepository).save(any(Review.class));
-            verify(bookRepository).save(any(Book.class)); // Rating changed, so book rating should be updated
+            verify(bookRatingShardService).record(1L, 4, 5); // Review moved from 5 to 4 stars
         }
     }
 
@@ -203,15 +213,13 @@ class ReviewServiceTest {
             mockedSecurityUtils.when(SecurityUtils::isAdmin).thenReturn(false);
 
             when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
-            when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-            when(bookRepository.save(any(Book.class))).thenReturn(book);
 
             // When
             reviewService.deleteReview(1L);
 
             // Then
             verify(reviewRepository).deleteById(1L);
-            verify(bookRepository).save(any(Book.class)); // Book rating should be updated
+            verify(bookRatingShardService).record(1L, null, 5); // Rating removed from the book's aggregates
         }
     }
 
@@ -219,10 +227,13 @@ class ReviewServiceTest {
     void getReviewsByBookId_ShouldReturnReviews_WhenBookExists() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Review> reviewPage = new PageImpl<>(List.of(review), pageable, 1);
+        ReviewListView view = new ReviewListView(review.getId(), book.getId(), book.getTitle(), user.getId(),
+                user.getFirstName(), user.getLastName(), review.getRating(), review.getText(),
+                review.getCreatedAt(), review.getUpdatedAt());
+        Page<ReviewListView> reviewPage = new PageImpl<>(List.of(view), pageable, 1);
 
         when(bookRepository.existsById(1L)).thenReturn(true);
-        when(reviewRepository.findByBookId(eq(1L), any(Pageable.class))).thenReturn(reviewPage);
+        when(reviewRepository.findListViewsByBookId(eq(1L), any(Pageable.class))).thenReturn(reviewPage);
 
         // When
         Page<ReviewDTO> result = reviewService.getReviewsByBookId(1L, pageable);
@@ -0,0 +1,156 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.dto.book.BookFacetsDTO;
+import com.bookreview.dto.book.BookSearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BookFacetIndex.
+ */
+class BookFacetIndexTest {
+
+    private BookRepository bookRepository;
+    private BookFacetIndex bookFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookFacetIndex = new BookFacetIndex(bookRepository);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                book(1L, Set.of(Genre.MYSTERY), 1994, "4.50", 12),
+                book(2L, Set.of(Genre.MYSTERY, Genre.FANTASY), 1998, "3.20", 4),
+                book(3L, Set.of(Genre.FANTASY), 2005, "4.00", 30),
+                book(4L, Set.of(Genre.HISTORY), null, "0.00", 0)));
+    }
+
+    @Test
+    void facets_ShouldBeUnavailable_BeforeRebuild() {
+        // When & Then
+        assertFalse(bookFacetIndex.isReady());
+        assertTrue(bookFacetIndex.facets(new BookSearchDTO(), null).isEmpty());
+        assertTrue(bookFacetIndex.filter(new BookSearchDTO(), null).isEmpty());
+    }
+
+    @Test
+    void facets_ShouldCountAllBooks_WhenNoFilters() {
+        // Given
+        bookFacetIndex.rebuild();
+
+        // When
+        BookFacetsDTO facets = bookFacetIndex.facets(new BookSearchDTO(), null).orElseThrow();
+
+        // Then
+        assertEquals(4, facets.getTotal());
+        assertEquals(Map.of(Genre.MYSTERY, 2L, Genre.FANTASY, 2L, Genre.HISTORY, 1L), facets.getGenres());
+        assertEquals(Map.of(1990, 2L, 2000, 1L), facets.getDecades());
+        assertEquals(2L, facets.getRatings().get(4));
+        assertEquals(3L, facets.getRatings().get(3));
+    }
+
+    @Test
+    void facets_ShouldCountEachFacetWithoutItsOwnFilter() {
+        // Given
+        bookFacetIndex.rebuild();
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .genres(Set.of(Genre.MYSTERY))
+                .minRating(new BigDecimal("4"))
+                .build();
+
+        // When
+        BookFacetsDTO facets = bookFacetIndex.facets(criteria, null).orElseThrow();
+
+        // Then
+        assertEquals(1, facets.getTotal());
+        assertEquals(Map.of(Genre.MYSTERY, 1L, Genre.FANTASY, 1L), facets.getGenres());
+        assertEquals(Map.of(1990, 1L), facets.getDecades());
+        assertEquals(1L, facets.getRatings().get(4));
+        assertEquals(2L, facets.getRatings().get(3));
+    }
+
+    @Test
+    void filter_ShouldCombineAllCriteria() {
+        // Given
+        bookFacetIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(1L, 2L), bookFacetIndex.filter(BookSearchDTO.builder()
+                .minPublishedYear(1990).maxPublishedYear(1999).build(), null).orElseThrow());
+        assertEquals(List.of(2L, 3L), bookFacetIndex.filter(BookSearchDTO.builder()
+                .genres(Set.of(Genre.FANTASY)).build(), null).orElseThrow());
+        assertEquals(List.of(1L), bookFacetIndex.filter(BookSearchDTO.builder()
+                .minRating(new BigDecimal("4.5")).build(), null).orElseThrow());
+        assertEquals(List.of(3L), bookFacetIndex.filter(BookSearchDTO.builder()
+                .maxRating(new BigDecimal("4.2")).minReviews(10).build(), null).orElseThrow());
+        assertEquals(List.of(), bookFacetIndex.filter(BookSearchDTO.builder()
+                .publishedYear(1994).genres(Set.of(Genre.FANTASY)).build(), null).orElseThrow());
+    }
+
+    @Test
+    void filter_ShouldKeepCandidateOrder() {
+        // Given
+        bookFacetIndex.rebuild();
+        BookSearchDTO criteria = BookSearchDTO.builder()
+                .genres(Set.of(Genre.MYSTERY, Genre.FANTASY))
+                .build();
+
+        // When
+        List<Long> result = bookFacetIndex.filter(criteria, List.of(3L, 4L, 1L)).orElseThrow();
+
+        // Then
+        assertEquals(List.of(3L, 1L), result);
+    }
+
+    @Test
+    void onBookChanged_ShouldKeepIndexInSync() {
+        // Given
+        bookFacetIndex.rebuild();
+
+        // When
+        bookFacetIndex.onBookChanged(BookChangedEvent.updated(book(1L, Set.of(Genre.HISTORY), 1994, "2.00", 13)));
+        bookFacetIndex.onBookChanged(BookChangedEvent.created(book(5L, Set.of(Genre.MYSTERY), 2011, "5.00", 1)));
+        bookFacetIndex.onBookChanged(BookChangedEvent.deleted(3L));
+
+        // Then
+        BookFacetsDTO facets = bookFacetIndex.facets(new BookSearchDTO(), null).orElseThrow();
+        assertEquals(4, bookFacetIndex.size());
+        assertEquals(Map.of(Genre.MYSTERY, 2L, Genre.FANTASY, 1L, Genre.HISTORY, 2L), facets.getGenres());
+        assertEquals(Map.of(1990, 2L, 2010, 1L), facets.getDecades());
+        assertEquals(1L, facets.getRatings().get(5));
+        assertEquals(1L, facets.getRatings().get(4));
+        assertEquals(List.of(1L, 4L), bookFacetIndex.filter(BookSearchDTO.builder()
+                .genres(Set.of(Genre.HISTORY)).build(), null).orElseThrow());
+    }
+
+    private static Book book(final long id, final Set<Genre> genres, final Integer publishedYear,
+                             final String averageRating, final int totalReviews) {
+        return Book.builder()
+                .id(id)
+                .title("Book " + id)
+                .author("Author")
+                .genres(genres)
+                .publishedYear(publishedYear)
+                .averageRating(new BigDecimal(averageRating))
+                .totalReviews(totalReviews)
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.RatingDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BookSearchIndex.
+ */
+class BookSearchIndexTest {
+
+    private static final Set<SearchField> ALL_FIELDS = EnumSet.allOf(SearchField.class);
+
+    private BookRepository bookRepository;
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookSearchIndex = new BookSearchIndex(bookRepository);
+        ReflectionTestUtils.setField(bookSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(bookSearchIndex, "maxResults", 100);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                book(1L, "The Great Gatsby", "F. Scott Fitzgerald", "A story of wealth and love in the Jazz Age"),
+                book(2L, "To Kill a Mockingbird", "Harper Lee", "A story of racial injustice in the South"),
+                book(3L, "Gatsby Revisited", "Jane Critic", "Essays on the great American novel")));
+    }
+
+    @Test
+    void search_ShouldBeUnavailable_BeforeRebuild() {
+        // When & Then
+        assertFalse(bookSearchIndex.isReady());
+        assertTrue(bookSearchIndex.search("gatsby", ALL_FIELDS).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirst() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When
+        Optional<List<Long>> result = bookSearchIndex.search("great ", ALL_FIELDS);
+
+        // Then
+        assertTrue(bookSearchIndex.isReady());
+        assertEquals(List.of(1L, 3L), result.orElseThrow());
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsAndIgnoreCaseAndAccents() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(3L), bookSearchIndex.search("GATSBY \u00e9ssays", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.search("gatsby harper ", ALL_FIELDS).orElseThrow());
+    }
+
+    @Test
+    void search_ShouldMatchLastTermAsPrefix() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(2L), bookSearchIndex.search("mocking", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.search("mocking ", ALL_FIELDS).orElseThrow());
+    }
+
+    @Test
+    void search_ShouldRestrictToRequestedFields() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(2L), bookSearchIndex.search("lee", EnumSet.of(SearchField.AUTHOR)).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.search("lee", EnumSet.of(SearchField.TITLE)).orElseThrow());
+    }
+
+    @Test
+    void fuzzySearch_ShouldMatchMisspelledTerms() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(), bookSearchIndex.search("mockingbrd ", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(2L), bookSearchIndex.fuzzySearch("mockingbrd ", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(2L), bookSearchIndex.fuzzySearch("harpr", EnumSet.of(SearchField.AUTHOR)).orElseThrow());
+    }
+
+    @Test
+    void fuzzySearch_ShouldRankExactMatchesFirst() {
+        // Given
+        bookSearchIndex.rebuild();
+        bookSearchIndex.onBookChanged(BookChangedEvent.created(book(4L, "Gatsbi", "Someone Else", null)));
+
+        // When
+        List<Long> result = bookSearchIndex.fuzzySearch("gatsbi ", EnumSet.of(SearchField.TITLE)).orElseThrow();
+
+        // Then
+        assertEquals(List.of(4L, 1L, 3L), result);
+    }
+
+    @Test
+    void didYouMean_ShouldReplaceUnknownWordsOnly() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(Optional.of("The Great gatsby"),
+                bookSearchIndex.didYouMean("The Great Gatsbi", EnumSet.of(SearchField.TITLE)));
+        assertEquals(Optional.of("harper Lee"),
+                bookSearchIndex.didYouMean("Harpr Lee", EnumSet.of(SearchField.AUTHOR)));
+        assertTrue(bookSearchIndex.didYouMean("Great Gatsby", EnumSet.of(SearchField.TITLE)).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldKeepIndexInSync() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When
+        bookSearchIndex.onBookChanged(BookChangedEvent.created(book(4L, "Dune", "Frank Herbert", null)));
+        bookSearchIndex.onBookChanged(BookChangedEvent.updated(book(2L, "Go Set a Watchman", "Harper Lee", null)));
+        bookSearchIndex.onBookChanged(BookChangedEvent.deleted(3L));
+
+        // Then
+        assertEquals(3, bookSearchIndex.size());
+        assertEquals(List.of(4L), bookSearchIndex.search("dune ", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.search("mockingbird ", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(2L), bookSearchIndex.search("watchman ", ALL_FIELDS).orElseThrow());
+        assertEquals(List.of(1L), bookSearchIndex.search("gatsby ", ALL_FIELDS).orElseThrow());
+    }
+
+    @Test
+    void onBookChanged_ShouldLeaveIndexUntouched_WhenOnlyRatingChanged() {
+        // Given
+        bookSearchIndex.rebuild();
+        Book rated = book(1L, "Renamed Elsewhere", "F. Scott Fitzgerald", null);
+
+        // When
+        bookSearchIndex.onBookChanged(BookChangedEvent.rated(rated, RatingDelta.of(5, null)));
+
+        // Then
+        assertEquals(3, bookSearchIndex.size());
+        assertEquals(List.of(1L), bookSearchIndex.search("great ", EnumSet.of(SearchField.TITLE)).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.search("renamed ", ALL_FIELDS).orElseThrow());
+    }
+
+    @Test
+    void search_ShouldFallBack_WhenQueryHasOnlyStopWords() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertTrue(bookSearchIndex.search("the a", ALL_FIELDS).isEmpty());
+    }
+
+    @Test
+    void rebuild_ShouldPageThroughAllBooks() {
+        // Given
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return LongStream.rangeClosed(after + 1, Math.min(after + page.getPageSize(), 1200))
+                    .mapToObj(id -> book(id, "Book " + id, "Author", null))
+                    .toList();
+        });
+
+        // When
+        bookSearchIndex.rebuild();
+
+        // Then
+        assertEquals(1200, bookSearchIndex.size());
+        assertEquals(100, bookSearchIndex.search("author", ALL_FIELDS).orElseThrow().size());
+    }
+
+    @Test
+    void searchFields_ShouldRequireEachQueryInItsOwnFields() {
+        // Given
+        bookSearchIndex.rebuild();
+
+        // When & Then
+        assertEquals(List.of(1L), bookSearchIndex.searchFields(List.of(
+                new FieldQuery("great", EnumSet.of(SearchField.TITLE)),
+                new FieldQuery("fitzgerald", EnumSet.of(SearchField.AUTHOR))), false).orElseThrow());
+        assertEquals(List.of(), bookSearchIndex.searchFields(List.of(
+                new FieldQuery("great", EnumSet.of(SearchField.TITLE)),
+                new FieldQuery("critic", EnumSet.of(SearchField.TITLE))), false).orElseThrow());
+        assertEquals(List.of(1L), bookSearchIndex.searchFields(List.of(
+                new FieldQuery("gret", EnumSet.of(SearchField.TITLE)),
+                new FieldQuery("fitzgerald", EnumSet.of(SearchField.AUTHOR))), true).orElseThrow());
+    }
+
+    @Test
+    void searchFields_ShouldFindBooksMatchingAllQueries_WhenOneQueryAloneExceedsResultLimit() {
+        // Given
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return LongStream.rangeClosed(after + 1, Math.min(after + page.getPageSize(), 1200))
+                    .mapToObj(id -> book(id, "Book " + id, id == 1150 ? "Rare Author" : "Author", null))
+                    .toList();
+        });
+        bookSearchIndex.rebuild();
+
+        // When
+        Optional<List<Long>> result = bookSearchIndex.searchFields(List.of(
+                new FieldQuery("book", EnumSet.of(SearchField.TITLE)),
+                new FieldQuery("rare", EnumSet.of(SearchField.AUTHOR))), false);
+
+        // Then
+        assertEquals(100, bookSearchIndex.search("book", EnumSet.of(SearchField.TITLE)).orElseThrow().size());
+        assertEquals(List.of(1150L), result.orElseThrow());
+    }
+
+    private static Book book(final long id, final String title, final String author, final String description) {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .description(description)
+                .build();
+    }
+}
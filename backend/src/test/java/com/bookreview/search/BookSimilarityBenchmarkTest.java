@@ -0,0 +1,188 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the book similarity index over a synthetic catalog of topical books and compares its answers with
+ * exact search. Build time, lookup and insert latency are logged for comparison; only recall is asserted.
+ * Tagged {@code benchmark}, so it runs with {@code ./gradlew benchmark} rather than with the unit tests.
+ */
+@Slf4j
+@Tag("benchmark")
+class BookSimilarityBenchmarkTest {
+
+    private static final int BOOKS = 50_000;
+    private static final int TOPICS = 500;
+    private static final int WORDS_PER_TOPIC = 40;
+    private static final int SHARED_WORDS = 2_000;
+    private static final int K = 10;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 2_000;
+    private static final int INSERTS = 1_000;
+
+    private static List<Book> books;
+    private static BookSimilarityIndex index;
+    private static long buildMillis;
+
+    @BeforeAll
+    static void buildIndex() {
+        // Each book draws most words from its topic, the rest from a vocabulary shared by all topics
+        Random random = new Random(42);
+        String[][] topicWords = new String[TOPICS][WORDS_PER_TOPIC];
+        for (String[] words : topicWords) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] = word(random);
+            }
+        }
+        String[] sharedWords = new String[SHARED_WORDS];
+        for (int i = 0; i < sharedWords.length; i++) {
+            sharedWords[i] = word(random);
+        }
+        books = new ArrayList<>(BOOKS + INSERTS);
+        for (int id = 1; id <= BOOKS + INSERTS; id++) {
+            books.add(book(random, id, topicWords, sharedWords));
+        }
+
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+            int from = (int) (long) call.getArgument(0, Long.class);
+            int size = call.getArgument(1, Pageable.class).getPageSize();
+            return books.subList(Math.min(from, BOOKS), Math.min(from + size, BOOKS));
+        });
+        index = new BookSimilarityIndex(bookRepository, Runnable::run);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "m", 16);
+        ReflectionTestUtils.setField(index, "efConstruction", 100);
+        ReflectionTestUtils.setField(index, "efSearch", 64);
+
+        long started = System.nanoTime();
+        index.rebuild();
+        buildMillis = (System.nanoTime() - started) / 1_000_000;
+    }
+
+    @Test
+    void similar_ShouldRecallExactNeighbours_AndReportLatency() {
+        // When
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            index.similar(1L + (i * 31L) % BOOKS, K);
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long found = 0;
+        long expected = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bookId = 1L + (i * 7919L) % BOOKS;
+            long started = System.nanoTime();
+            List<Long> approximate = index.similar(bookId, K).orElseThrow();
+            nanos[i] = System.nanoTime() - started;
+            Set<Long> exact = new HashSet<>(index.similarExact(bookId, K).orElseThrow());
+            expected += exact.size();
+            found += approximate.stream().filter(exact::contains).count();
+        }
+        Arrays.sort(nanos);
+
+        // Then: timings vary by machine, so they are reported rather than asserted
+        double recall = (double) found / expected;
+        log.info("Similarity index of {} books built in {} ms; top {}: median {} us, p99 {} us per lookup, "
+                        + "recall {} against exact search", BOOKS, buildMillis, K,
+                nanos[MEASURED_ROUNDS / 2] / 1_000, nanos[MEASURED_ROUNDS * 99 / 100] / 1_000,
+                String.format("%.3f", recall));
+        assertTrue(recall >= 0.9, "recall " + recall);
+    }
+
+    @Test
+    void onBookChanged_ShouldLinkInsertedBooksAsWellAsBuiltOnes_AndReportLatency() {
+        // When
+        long started = System.nanoTime();
+        for (Book book : books.subList(BOOKS, BOOKS + INSERTS)) {
+            index.onBookChanged(BookChangedEvent.created(book));
+        }
+        long insertNanos = (System.nanoTime() - started) / INSERTS;
+
+        // Then
+        long found = 0;
+        long expected = 0;
+        for (Book book : books.subList(BOOKS, BOOKS + INSERTS)) {
+            Set<Long> exact = new HashSet<>(index.similarExact(book.getId(), K).orElseThrow());
+            expected += exact.size();
+            found += index.similar(book.getId(), K).orElseThrow().stream().filter(exact::contains).count();
+        }
+        double recall = (double) found / expected;
+        log.info("Inserted {} books in {} us each; recall {} for them against exact search", INSERTS,
+                insertNanos / 1_000, String.format("%.3f", recall));
+        assertEquals(BOOKS + INSERTS, index.size());
+        assertTrue(recall >= 0.9, "recall " + recall);
+    }
+
+    private static Book book(final Random random, final long id, final String[][] topicWords,
+                             final String[] sharedWords) {
+        int topic = random.nextInt(TOPICS);
+        int[] stars = new int[5];
+        int reviews = random.nextInt(200);
+        double quality = random.nextDouble();
+        long ratingSum = 0;
+        for (int i = 0; i < reviews; i++) {
+            int rating = Math.max(1, Math.min(5, (int) Math.round(1 + 4 * quality + random.nextGaussian())));
+            stars[rating - 1]++;
+            ratingSum += rating;
+        }
+        return Book.builder()
+                .id(id)
+                .title(words(random, topicWords[topic], sharedWords, 3))
+                .author(topicWords[topic][random.nextInt(3)] + " " + word(random))
+                .description(words(random, topicWords[topic], sharedWords, 30))
+                .genres(Set.of(Genre.values()[topic % Genre.values().length]))
+                .totalReviews(reviews)
+                .averageRating(reviews == 0 ? BigDecimal.ZERO
+                        : BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(reviews), 2, RoundingMode.HALF_UP))
+                .oneStarCount(stars[0])
+                .twoStarCount(stars[1])
+                .threeStarCount(stars[2])
+                .fourStarCount(stars[3])
+                .fiveStarCount(stars[4])
+                .build();
+    }
+
+    private static String words(final Random random, final String[] topicWords, final String[] sharedWords,
+                                final int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(random.nextInt(3) == 0
+                    ? sharedWords[random.nextInt(sharedWords.length)]
+                    : topicWords[random.nextInt(topicWords.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String word(final Random random) {
+        char[] letters = new char[5 + random.nextInt(5)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,174 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.Genre;
+import com.bookreview.book.RatingDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BookSimilarityIndex.
+ */
+class BookSimilarityIndexTest {
+
+    private BookRepository bookRepository;
+    private BookSimilarityIndex similarityIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        similarityIndex = new BookSimilarityIndex(bookRepository, Runnable::run);
+        ReflectionTestUtils.setField(similarityIndex, "enabled", true);
+        ReflectionTestUtils.setField(similarityIndex, "m", 16);
+        ReflectionTestUtils.setField(similarityIndex, "efConstruction", 100);
+        ReflectionTestUtils.setField(similarityIndex, "efSearch", 64);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                book(1L, "The Dragon Throne", "Ann Leckie", "A dragon rider fights for the throne", Genre.FANTASY),
+                book(2L, "Dragon Rider", "Ann Leckie", "A young rider bonds with a dragon", Genre.FANTASY),
+                book(3L, "Pasta Every Day", "Marcella Hazan", "Simple pasta recipes for the home kitchen",
+                        Genre.COOKING),
+                book(4L, "The Kitchen Garden", "Marcella Hazan", "Growing vegetables for the kitchen",
+                        Genre.COOKING),
+                book(5L, "Throne of Ashes", "Robin Hobb", "War for the dragon throne", Genre.FANTASY)));
+    }
+
+    @Test
+    void similar_ShouldBeUnavailable_BeforeRebuild() {
+        // When & Then
+        assertFalse(similarityIndex.isReady());
+        assertTrue(similarityIndex.similar(1L, 3).isEmpty());
+    }
+
+    @Test
+    void similar_ShouldRankBooksSharingTermsAndGenresFirst_AndSkipTheBookItself() {
+        // Given
+        similarityIndex.rebuild();
+
+        // When
+        List<Long> similar = similarityIndex.similar(1L, 2).orElseThrow();
+
+        // Then
+        assertEquals(Set.of(2L, 5L), Set.copyOf(similar));
+        assertEquals(List.of(4L), similarityIndex.similar(3L, 1).orElseThrow());
+    }
+
+    @Test
+    void similar_ShouldBeEmpty_WhenBookIsNotIndexed() {
+        // Given
+        similarityIndex.rebuild();
+
+        // When & Then
+        assertTrue(similarityIndex.similar(42L, 3).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldAddAndRemoveBooks_ButLeaveRatingChangesToRebuild() {
+        // Given
+        similarityIndex.rebuild();
+        Book rated = book(7L, "Soup", "Someone", "Soup recipes", Genre.COOKING);
+
+        // When
+        similarityIndex.onBookChanged(BookChangedEvent.created(
+                book(6L, "Dragon Throne Reborn", "Ann Leckie", "The dragon throne again", Genre.FANTASY)));
+        similarityIndex.onBookChanged(BookChangedEvent.deleted(2L));
+        similarityIndex.onBookChanged(BookChangedEvent.rated(rated, RatingDelta.of(5, null)));
+
+        // Then
+        assertEquals(5, similarityIndex.size());
+        List<Long> similar = similarityIndex.similar(1L, 4).orElseThrow();
+        assertEquals(6L, similar.get(0));
+        assertFalse(similar.contains(2L));
+        assertTrue(similarityIndex.similar(7L, 3).isEmpty());
+    }
+
+    @Test
+    void similar_ShouldRecallMostExactNeighbours_OnSyntheticCatalog() {
+        // Given: books whose titles and descriptions are drawn from one of a few topics
+        Random random = new Random(42);
+        List<Book> catalog = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            int topic = random.nextInt(15);
+            catalog.add(book(id, topicWords(random, topic, 3), "Author " + topic, topicWords(random, topic, 20),
+                    Genre.values()[topic % Genre.values().length]));
+        }
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(catalog);
+        similarityIndex.rebuild();
+
+        // When
+        long found = 0;
+        long expected = 0;
+        for (Book book : catalog) {
+            Set<Long> exact = Set.copyOf(similarityIndex.similarExact(book.getId(), 10).orElseThrow());
+            expected += exact.size();
+            found += similarityIndex.similar(book.getId(), 10).orElseThrow().stream().filter(exact::contains).count();
+        }
+
+        // Then
+        double recall = (double) found / expected;
+        assertTrue(recall >= 0.9, "recall " + recall);
+    }
+
+    @Test
+    void refresh_ShouldRebuildOnExecutor_AndSkipWhileRebuildIsQueued() {
+        // Given
+        List<Runnable> queued = new ArrayList<>();
+        BookSimilarityIndex queuedIndex = new BookSimilarityIndex(bookRepository, queued::add);
+        ReflectionTestUtils.setField(queuedIndex, "enabled", true);
+        ReflectionTestUtils.setField(queuedIndex, "m", 16);
+        ReflectionTestUtils.setField(queuedIndex, "efConstruction", 100);
+        queuedIndex.rebuild();
+
+        // When
+        queuedIndex.refresh();
+        queuedIndex.refresh();
+
+        // Then
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        verify(bookRepository, times(2)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    }
+
+    private static String topicWords(final Random random, final int topic, final int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int word = random.nextInt(4) == 0 ? random.nextInt(200) : topic * 10 + random.nextInt(10);
+            text.append("word").append(word).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static Book book(final long id, final String title, final String author, final String description,
+                             final Genre genre) {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .description(description)
+                .genres(Set.of(genre))
+                .averageRating(new BigDecimal("4.00"))
+                .totalReviews(10)
+                .fourStarCount(10)
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import com.bookreview.book.BookSuggestionView;
+import com.bookreview.book.RatingDelta;
+import com.bookreview.cache.ContentVersion;
+import com.bookreview.dto.book.BookSuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BookSuggestIndex.
+ */
+class BookSuggestIndexTest {
+
+    private BookRepository bookRepository;
+    private BookSuggestIndex bookSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookSuggestIndex = new BookSuggestIndex(bookRepository);
+
+        when(bookRepository.findSuggestionViews(anyLong(), any(Pageable.class))).thenReturn(List.of(
+                view(1L, "The Lord of the Rings", "J.R.R. Tolkien", "4.8", 120),
+                view(2L, "The Hobbit", "J.R.R. Tolkien", "4.6", 300),
+                view(3L, "Lord Jim", "Joseph Conrad", "3.9", 12),
+                view(4L, "The Rings of Saturn", "W. G. Sebald", "4.1", 8)));
+    }
+
+    @Test
+    void suggest_ShouldReturnNothing_BeforeFirstBuild() {
+        // When & Then
+        assertTrue(bookSuggestIndex.suggest("lord", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldMatchTitlePrefixes_MostPopularFirst() {
+        // Given
+        bookSuggestIndex.refresh();
+
+        // When
+        List<BookSuggestionDTO> result = bookSuggestIndex.suggest("Lor", 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), ids(result));
+        assertEquals("The Lord of the Rings", result.get(0).getTitle());
+        assertEquals("J.R.R. Tolkien", result.get(0).getAuthor());
+    }
+
+    @Test
+    void suggest_ShouldMatchAuthorsAndLaterTitleWords() {
+        // Given
+        bookSuggestIndex.refresh();
+
+        // When & Then
+        assertEquals(List.of(2L, 1L), ids(bookSuggestIndex.suggest("j.r.r. tol", 10)));
+        assertEquals(List.of(1L, 4L), ids(bookSuggestIndex.suggest("rings", 10)));
+        assertEquals(List.of(2L), ids(bookSuggestIndex.suggest("THE HOB", 10)));
+        assertEquals(List.of(), ids(bookSuggestIndex.suggest("of the", 10)));
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        // Given
+        bookSuggestIndex.refresh();
+
+        // When & Then
+        assertEquals(List.of(2L), ids(bookSuggestIndex.suggest("the", 1)));
+        assertEquals(3, bookSuggestIndex.suggest("the", 100).size());
+    }
+
+    @Test
+    void refresh_ShouldRebuildOnlyAfterBooksChanged() {
+        // Given
+        bookSuggestIndex.refresh();
+
+        // When
+        bookSuggestIndex.refresh();
+        bookSuggestIndex.onBookChanged(BookChangedEvent.deleted(3L));
+        bookSuggestIndex.onBookChanged(BookChangedEvent.deleted(4L));
+        bookSuggestIndex.refresh();
+
+        // Then
+        verify(bookRepository, times(2)).findSuggestionViews(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void refresh_ShouldLeaveRatingChangesToPopularityExpiry() {
+        // Given
+        bookSuggestIndex.refresh();
+        Book rated = Book.builder().id(3L).title("Lord Jim").author("Joseph Conrad").build();
+
+        // When
+        bookSuggestIndex.onBookChanged(BookChangedEvent.rated(rated, RatingDelta.of(5, null)));
+        bookSuggestIndex.refresh();
+        bookSuggestIndex.expirePopularity();
+        bookSuggestIndex.refresh();
+
+        // Then
+        verify(bookRepository, times(2)).findSuggestionViews(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void version_ShouldChangeWithEachRebuild_AndNotBefore() {
+        // Given
+        assertNull(bookSuggestIndex.version());
+        bookSuggestIndex.refresh();
+        ContentVersion first = bookSuggestIndex.version();
+
+        // When
+        bookSuggestIndex.refresh();
+        ContentVersion unchanged = bookSuggestIndex.version();
+        bookSuggestIndex.onBookChanged(BookChangedEvent.deleted(4L));
+        bookSuggestIndex.refresh();
+
+        // Then
+        assertEquals(first, unchanged);
+        assertNotEquals(first.etag(), bookSuggestIndex.version().etag());
+    }
+
+    private static List<Long> ids(final List<BookSuggestionDTO> suggestions) {
+        return suggestions.stream().map(BookSuggestionDTO::getId).toList();
+    }
+
+    private static BookSuggestionView view(final Long id, final String title, final String author,
+                                           final String averageRating, final Integer totalReviews) {
+        return new BookSuggestionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthor() {
+                return author;
+            }
+
+            @Override
+            public BigDecimal getAverageRating() {
+                return new BigDecimal(averageRating);
+            }
+
+            @Override
+            public Integer getTotalReviews() {
+                return totalReviews;
+            }
+        };
+    }
+}
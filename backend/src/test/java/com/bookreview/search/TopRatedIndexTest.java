@@ -0,0 +1,114 @@
+package com.bookreview.search;
+
+import com.bookreview.book.Book;
+import com.bookreview.book.BookChangedEvent;
+import com.bookreview.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TopRatedIndex.
+ */
+class TopRatedIndexTest {
+
+    private static final BigDecimal ANY_RATING = BigDecimal.ZERO;
+
+    private BookRepository bookRepository;
+    private TopRatedIndex topRatedIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        topRatedIndex = new TopRatedIndex(bookRepository);
+        ReflectionTestUtils.setField(topRatedIndex, "topN", 100);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                book(1L, "4.2500", "5.00", 2),
+                book(2L, "4.6000", "4.70", 120),
+                book(3L, "3.5000", "0.00", 0),
+                book(4L, "4.2500", "4.30", 40)));
+    }
+
+    @Test
+    void top_ShouldBeUnavailable_BeforeRebuild() {
+        // When & Then
+        assertFalse(topRatedIndex.isReady());
+        assertTrue(topRatedIndex.top(ANY_RATING, 0, 10).isEmpty());
+        assertTrue(topRatedIndex.count(ANY_RATING, 0).isEmpty());
+    }
+
+    @Test
+    void top_ShouldRankByWeightedScoreThenNewestId() {
+        // Given
+        topRatedIndex.rebuild();
+
+        // When
+        List<Long> ranked = topRatedIndex.top(ANY_RATING, 0, 10).orElseThrow();
+
+        // Then
+        assertEquals(List.of(2L, 4L, 1L, 3L), ranked);
+    }
+
+    @Test
+    void top_ShouldSkipBooksBelowMinimumRatingOrReviews() {
+        // Given
+        topRatedIndex.rebuild();
+
+        // When
+        List<Long> ranked = topRatedIndex.top(new BigDecimal("4.5"), 1, 10).orElseThrow();
+
+        // Then
+        assertEquals(List.of(2L, 1L), ranked);
+        assertEquals(2L, topRatedIndex.count(new BigDecimal("4.5"), 1).orElseThrow());
+        assertEquals(List.of(2L, 4L), topRatedIndex.top(ANY_RATING, 10, 10).orElseThrow());
+    }
+
+    @Test
+    void top_ShouldBeUnavailable_WhenLimitReachesPastTopN() {
+        // Given
+        topRatedIndex.rebuild();
+
+        // When & Then
+        assertTrue(topRatedIndex.top(ANY_RATING, 0, 101).isEmpty());
+        assertEquals(4L, topRatedIndex.count(ANY_RATING, 0).orElseThrow());
+    }
+
+    @Test
+    void onBookChanged_ShouldMoveBookWithoutRequerying() {
+        // Given
+        topRatedIndex.rebuild();
+
+        // When
+        topRatedIndex.onBookChanged(BookChangedEvent.updated(book(3L, "4.8000", "4.90", 300)));
+        topRatedIndex.onBookChanged(BookChangedEvent.deleted(2L));
+
+        // Then
+        assertEquals(List.of(3L, 4L, 1L), topRatedIndex.top(ANY_RATING, 0, 10).orElseThrow());
+        assertEquals(3, topRatedIndex.size());
+    }
+
+    private static Book book(final long id, final String weightedScore, final String averageRating,
+                             final int totalReviews) {
+        return Book.builder()
+                .id(id)
+                .title("Book " + id)
+                .author("Author")
+                .weightedScore(new BigDecimal(weightedScore))
+                .averageRating(new BigDecimal(averageRating))
+                .totalReviews(totalReviews)
+                .build();
+    }
+}
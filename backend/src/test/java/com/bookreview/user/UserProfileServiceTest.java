@@ -3,6 +3,7 @@ package com.bookreview.user;
 import com.bookreview.book.Book;
 import com.bookreview.book.BookRepository;
 import com.bookreview.book.Genre;
+import com.bookreview.cache.HttpCachePurger;
 import com.bookreview.dto.user.FavoriteBookDTO;
 import com.bookreview.dto.user.UserProfileDTO;
 import com.bookreview.dto.user.UserUpdateProfileDTO;
@@ -16,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -49,6 +51,10 @@ class UserProfileServiceTest {
     private BookRepository bookRepository;
     @Mock
     private ReviewRepository reviewRepository;
+    @Mock
+    private HttpCachePurger httpCachePurger;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -244,13 +250,15 @@ class UserProfileServiceTest {
     void getCurrentUserFavoriteBooks_ShouldReturnFavorites_WhenUserAuthenticated() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
+        FavoriteBookView view = new FavoriteBookView(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getDescription(), book.getCoverImageUrl(), book.getGenres(), book.getPublishedYear(),
+                book.getAverageRating(), book.getTotalReviews(), book.getCreatedAt(), true);
+        Page<FavoriteBookView> bookPage = new PageImpl<>(List.of(view), pageable, 1);
 
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
 
-            when(userRepository.findFavoriteBooksByUserId(eq(1L), any(Pageable.class))).thenReturn(bookPage);
-            when(reviewRepository.existsByBookIdAndUserId(1L, 1L)).thenReturn(true);
+            when(userRepository.findFavoriteBookViewsByUserId(eq(1L), any(Pageable.class))).thenReturn(bookPage);
 
             // When
             Page<FavoriteBookDTO> result = userService.getCurrentUserFavoriteBooks(pageable);
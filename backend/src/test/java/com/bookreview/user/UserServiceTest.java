@@ -3,12 +3,14 @@ package com.bookreview.user;
 import com.bookreview.book.Book;
 import com.bookreview.book.BookRepository;
 import com.bookreview.book.Genre;
+import com.bookreview.cache.HttpCachePurger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -35,6 +37,12 @@ class UserServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private HttpCachePurger httpCachePurger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
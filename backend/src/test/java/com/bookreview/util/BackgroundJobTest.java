@@ -0,0 +1,38 @@
+package com.bookreview.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for BackgroundJob.
+ */
+class BackgroundJobTest {
+
+    @Test
+    void submit_ShouldSkipWork_WhileEarlierRunHasNotFinished() {
+        // Given
+        BackgroundJob job = new BackgroundJob();
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        boolean first = job.submit(queued::add, runs::incrementAndGet);
+        boolean second = job.submit(queued::add, runs::incrementAndGet);
+        queued.get(0).run();
+        boolean third = job.submit(Runnable::run, runs::incrementAndGet);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(third);
+        assertEquals(1, queued.size());
+        assertEquals(2, runs.get());
+    }
+}
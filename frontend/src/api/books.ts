@@ -1,5 +1,5 @@
 import { apiClient } from './client'
-import { Book, BookSearchParams, PaginatedResponse } from '@/types/book'
+import { Book, BookRatingSummary, BookSearchParams, PaginatedResponse } from '@/types/book'
 
 export const booksApi = {
   // Get paginated books with optional filters
@@ -25,6 +25,12 @@ export const booksApi = {
     return response.data
   },
 
+  // Get review counts per star rating, kept up to date by the backend
+  getRatingSummary: async (id: string): Promise<BookRatingSummary> => {
+    const response = await apiClient.get(`/books/${id}/rating-summary`)
+    return response.data
+  },
+
   // Search books by title or author using the search parameter
   searchBooks: async (query: string, params?: BookSearchParams): Promise<PaginatedResponse<Book>> => {
     const searchParams = {
@@ -1,5 +1,6 @@
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { reviewsApi } from '@/api/reviews'
+import { booksApi } from '@/api/books'
 import { Review, CreateReviewRequest, UpdateReviewRequest, ReviewStats } from '@/types/review'
 import { PaginationParams } from '@/types/book'
 
@@ -57,31 +58,17 @@ export const useCurrentUserBookReview = (bookId: string) => {
 export const useBookReviewStats = (bookId: string) => {
   return useQuery({
     queryKey: ['reviews', 'stats', bookId],
-    queryFn: () => reviewsApi.getReviewsByBook(bookId, { size: 1000 }), // Get all reviews to calculate stats
+    queryFn: () => booksApi.getRatingSummary(bookId), // Counters kept on the book, no review paging
     staleTime: 0, // Always fetch fresh data
     gcTime: 0, // Don't cache
     refetchOnMount: true,
     refetchOnWindowFocus: true,
     enabled: !!bookId,
-    select: (data) => {
-      // Calculate stats from reviews data
-      const reviews = data.content || []
-      const totalReviews = reviews.length
-      const averageRating = totalReviews > 0 
-        ? reviews.reduce((sum, review) => sum + review.rating, 0) / totalReviews 
-        : 0
-      
-      const ratingDistribution: Record<number, number> = { 1: 0, 2: 0, 3: 0, 4: 0, 5: 0 }
-      reviews.forEach(review => {
-        ratingDistribution[review.rating] = (ratingDistribution[review.rating] || 0) + 1
-      })
-      
-      return {
-        totalReviews,
-        averageRating,
-        ratingDistribution
-      } as ReviewStats
-    }
+    select: (data) => ({
+      totalReviews: data.totalReviews,
+      averageRating: data.averageRating,
+      ratingDistribution: { 1: 0, 2: 0, 3: 0, 4: 0, 5: 0, ...data.ratingCounts }
+    } as ReviewStats)
   })
 }
 
@@ -12,6 +12,13 @@ export interface Book {
   updatedAt: string
 }
 
+export interface BookRatingSummary {
+  bookId: string
+  averageRating: number
+  totalReviews: number
+  ratingCounts: Record<number, number>
+}
+
 export interface BookFilters {
   genres?: string[]
   author?: string